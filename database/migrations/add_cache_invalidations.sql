@@ -0,0 +1,15 @@
+-- Cambios de productos/usuarios (para invalidar las cachés locales) y ventas (para las vistas
+-- de reportes en memoria) de todas las instancias.
+-- Con ddl-auto=update Hibernate la crea sola; este script es para entornos sin update.
+-- Cada instancia lee las filas nuevas por id y las más antiguas se borran periódicamente.
+
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NULL,
+    entity_key VARCHAR(100) NULL,
+    node_id VARCHAR(64) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_cache_invalidations_created_at (created_at)
+);
@@ -0,0 +1,12 @@
+-- Secuencia de cambios del catálogo para la sincronización incremental (GET /products/changes).
+-- Con ddl-auto=update Hibernate la crea sola; este script es para entornos sin update.
+-- Los cambios con más de app.catalog-changes.retention-days se borran periódicamente.
+
+CREATE TABLE IF NOT EXISTS catalog_changes (
+    seq BIGINT NOT NULL AUTO_INCREMENT,
+    product_id BIGINT NOT NULL,
+    change_type VARCHAR(20) NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (seq),
+    INDEX idx_catalog_changes_changed_at (changed_at)
+);
@@ -0,0 +1,5 @@
+-- Índice para la paginación por cursor del catálogo (GET /products/catalog?sort=price)
+-- Permite continuar desde (price, id) de la última fila sin recorrer la tabla.
+-- El orden por id ya usa la clave primaria.
+
+CREATE INDEX idx_products_price_id ON products (price, id);
@@ -0,0 +1,3 @@
+-- Índice para exportar/reportar ventas por rango de fechas (GET /export/sales?from=&to=)
+
+CREATE INDEX idx_sales_created_at ON sales (created_at, id);
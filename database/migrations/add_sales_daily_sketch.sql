@@ -0,0 +1,10 @@
+-- Distribución del total de venta por día (percentiles p50/p90/p99 en reportes).
+-- Con ddl-auto=update Hibernate la crea sola; este script es para entornos sin update.
+-- Al iniciar, si está vacía y hay ventas se llena desde la tabla sales.
+
+CREATE TABLE IF NOT EXISTS sales_daily_sketch (
+    sale_date DATE NOT NULL,
+    sale_count BIGINT NOT NULL,
+    sketch BLOB NOT NULL,
+    PRIMARY KEY (sale_date)
+);
@@ -0,0 +1,11 @@
+-- Totales de venta pendientes de sumar al sketch de su día (sales_daily_sketch).
+-- Con ddl-auto=update Hibernate la crea sola; este script es para entornos sin update.
+-- Cada compra inserta una fila; un proceso periódico las pasa al sketch y las borra.
+
+CREATE TABLE IF NOT EXISTS sales_daily_sketch_pending (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    sale_date DATE NOT NULL,
+    total DOUBLE NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_sales_daily_sketch_pending_date (sale_date)
+);
@@ -0,0 +1,28 @@
+-- Agregados de ventas por día/hora para los reportes (SalesRollupService).
+-- Con ddl-auto=update Hibernate las crea solo; este script es para entornos sin update.
+-- Al iniciar, si sales_daily_rollup está vacía se llena desde las ventas existentes.
+
+CREATE TABLE IF NOT EXISTS sales_daily_rollup (
+    sale_date DATE NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    sale_count BIGINT NOT NULL,
+    revenue DOUBLE NOT NULL,
+    PRIMARY KEY (sale_date, status)
+);
+
+CREATE TABLE IF NOT EXISTS sales_hourly_rollup (
+    sale_hour DATETIME NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    sale_count BIGINT NOT NULL,
+    revenue DOUBLE NOT NULL,
+    PRIMARY KEY (sale_hour, status)
+);
+
+CREATE TABLE IF NOT EXISTS product_daily_rollup (
+    sale_date DATE NOT NULL,
+    product_id BIGINT NOT NULL,
+    product_name VARCHAR(255),
+    quantity BIGINT NOT NULL,
+    revenue DOUBLE NOT NULL,
+    PRIMARY KEY (sale_date, product_id)
+);
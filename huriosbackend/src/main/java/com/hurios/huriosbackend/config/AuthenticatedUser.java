@@ -0,0 +1,32 @@
+package com.hurios.huriosbackend.config;
+
+import java.security.Principal;
+
+/*
+ * AuthenticatedUser: principal que JwtAuthFilter coloca en el SecurityContext.
+ * - se arma solo con los claims del token (uid, role, sub=email), sin consultar la BD.
+ * - getName() devuelve el email, así authentication.getName() sigue funcionando igual.
+ * - id y role pueden ser null en tokens emitidos antes de agregar esos claims.
+ */
+public class AuthenticatedUser implements Principal {
+
+    private final Long id;
+    private final String email;
+    private final String role;
+
+    public AuthenticatedUser(Long id, String email, String role) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+    }
+
+    @Override
+    public String getName() { return email; }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+
+    @Override
+    public String toString() { return email; }
+}
@@ -7,15 +7,20 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.lang.NonNull;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 
 /*
  * JwtAuthFilter: filtro que intercepta requests, lee el header Authorization,
- * valida el JWT con JwtUtil y, si es válido, coloca una Authentication simple
+ * valida el JWT con JwtUtil y, si es válido, coloca una Authentication
  * en el SecurityContext para que Spring conozca la identidad del request.
+ * El principal es un AuthenticatedUser (id, email, rol) armado con los claims
+ * del token, y la autoridad es ROLE_<rol> (p.ej. ROLE_ADMINISTRADOR).
  *
  * Nota: este filtro NO hace control de permisos (roles) aquí; eso se puede
  * añadir si lo necesitas.
@@ -36,12 +41,15 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7); // quitar "Bearer "
             try {
-                // validar y obtener subject (p.ej. userId o email)
-                String subject = jwtUtil.validateAndGetSubject(token);
+                // validar y armar el usuario con los claims (email, uid, role)
+                AuthenticatedUser user = jwtUtil.validateAndGetUser(token);
 
-                // Crear Authentication simple (principal = subject)
+                // Authentication con principal tipado y autoridad ROLE_<rol>
+                List<GrantedAuthority> authorities = user.getRole() != null
+                        ? List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
+                        : Collections.emptyList();
                 UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(subject, null, Collections.emptyList());
+                        new UsernamePasswordAuthenticationToken(user, null, authorities);
 
                 // Colocar en el contexto
                 SecurityContextHolder.getContext().setAuthentication(auth);
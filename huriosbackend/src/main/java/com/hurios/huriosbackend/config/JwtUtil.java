@@ -1,18 +1,35 @@
 package com.hurios.huriosbackend.config;
 
 // Librerías de jjwt para generar y validar JWT
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /*
  * JwtUtil: utilitario para generar y validar tokens JWT.
  * - usa HS256 y una clave derivada de la propiedad jwt.secret.
  * - expira tokens según jwt.expiration.minutes.
+ * - además del subject (email) lleva los claims "uid" y "role" para que el
+ *   filtro arme el principal sin consultar la BD.
+ * - la clave y el parser se construyen una sola vez al iniciar.
+ * - los tokens ya verificados se guardan en un caché acotado (clave = SHA-256
+ *   del token) hasta su "exp", así las peticiones repetidas de la misma sesión
+ *   no vuelven a calcular el HMAC ni a parsear el JSON.
+ *   Métricas: cache.gets{cache="jwt.verified",result=hit|miss} en /actuator/prometheus.
  */
 @Component
 public class JwtUtil {
@@ -25,31 +42,127 @@ public class JwtUtil {
     @Value("${jwt.expiration.minutes}")
     private long jwtExpirationMinutes;
 
-    // Construye la Key para firmar/verificar los JWT
-    private Key getSigningKey() {
+    // máximo de tokens verificados que se recuerdan
+    @Value("${jwt.cache.max-entries:10000}")
+    private long cacheMaxEntries;
+
+    private final MeterRegistry meterRegistry;
+
+    // Construidos una sola vez en init()
+    private Key signingKey;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    // Nombres de los claims propios
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+
+    // MessageDigest no es thread-safe: uno por hilo
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
         // Keys.hmacShaKeyFor requiere un byte[] suficientemente largo
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey) // clave de verificación
+                .build();
+
+        // Ningún token vive más que jwt.expiration.minutes; además se revisa
+        // el "exp" propio de cada token al leerlo del caché
+        this.verifiedTokens = CacheBuilder.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(Math.max(1, jwtExpirationMinutes), TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            GuavaCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+        }
     }
 
     // Genera un token cuyo subject será el identificador (user id o email)
     public String generateToken(String subject) {
+        return generateToken(subject, null, null);
+    }
+
+    // Genera un token con subject = email y los claims uid/role del usuario
+    public String generateToken(String subject, Long userId, String role) {
         Date now = new Date();
         Date exp = new Date(now.getTime() + jwtExpirationMinutes * 60 * 1000);
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (userId != null) {
+            builder.claim(CLAIM_USER_ID, userId);
+        }
+        if (role != null) {
+            builder.claim(CLAIM_ROLE, role);
+        }
+        return builder
                 .setSubject(subject)                        // sub: user id o email
                 .setIssuedAt(now)                           // iat
                 .setExpiration(exp)                         // exp
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256) // firmar con HS256
+                .signWith(signingKey, SignatureAlgorithm.HS256) // firmar con HS256
                 .compact();
     }
 
     // Valida un token y devuelve el subject (lanza JwtException si inválido)
     public String validateAndGetSubject(String token) throws JwtException {
-        Jws<Claims> parsed = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey()) // clave de verificación
-                .build()
-                .parseClaimsJws(token);         // valida firma y expiración
-        return parsed.getBody().getSubject();
+        return validateAndGetUser(token).getEmail();
+    }
+
+    // Valida un token y devuelve el usuario armado con sus claims (lanza JwtException si inválido)
+    public AuthenticatedUser validateAndGetUser(String token) throws JwtException {
+        if (token == null || token.isEmpty()) {
+            throw new MalformedJwtException("Token vacío");
+        }
+        String cacheKey = hash(token);
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            if (System.currentTimeMillis() < cached.expiresAtMillis) {
+                return cached.user;
+            }
+            // Expiró desde que se verificó: se descarta y el parser lanza ExpiredJwtException
+            verifiedTokens.invalidate(cacheKey);
+        }
+
+        Jws<Claims> parsed = parser.parseClaimsJws(token); // valida firma y expiración
+        Claims claims = parsed.getBody();
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        AuthenticatedUser user = new AuthenticatedUser(
+                userId != null ? userId.longValue() : null,
+                claims.getSubject(),
+                claims.get(CLAIM_ROLE, String.class));
+        verifiedTokens.put(cacheKey, new VerifiedToken(user, expiresAt));
+        return user;
     }
-}
 
+    // SHA-256 del token: evita guardar el token completo como clave del caché
+    private static String hash(String token) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        byte[] bytes = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Resultado de una verificación exitosa
+    private static final class VerifiedToken {
+        private final AuthenticatedUser user;
+        private final long expiresAtMillis;
+
+        private VerifiedToken(AuthenticatedUser user, long expiresAtMillis) {
+            this.user = user;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
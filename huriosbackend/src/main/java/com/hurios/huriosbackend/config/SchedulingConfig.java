@@ -0,0 +1,13 @@
+package com.hurios.huriosbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * SchedulingConfig - Habilita las tareas programadas (@Scheduled),
+ * p. ej. la limpieza de archivos de exportación vencidos.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
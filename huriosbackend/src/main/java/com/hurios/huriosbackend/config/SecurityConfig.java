@@ -1,6 +1,7 @@
 package com.hurios.huriosbackend.config; // ajusta el package si tu estructura es diferente
 
 // Importaciones de Spring
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -39,12 +40,13 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable()) // deshabilitar CSRF para APIs (en producción revisa esto)
             .cors(cors -> cors.configure(http)) // habilitar CORS
             .authorizeHttpRequests(auth -> auth
+                // reanudación de respuestas asíncronas (/reports, /export): la petición original
+                // ya pasó la autorización y el JWT no se vuelve a leer en ese despacho
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // rutas públicas (auth)
                 .requestMatchers("/auth/**").permitAll()
                 // rutas públicas (products - para que usuarios puedan ver productos sin login)
                 .requestMatchers("/products/**").permitAll()
-                // rutas públicas (export - para exportar reportes)
-                .requestMatchers("/export/**").permitAll()
                 // rutas públicas (uploads - para servir imágenes)
                 .requestMatchers("/uploads/**").permitAll()
                 // rutas públicas (api/images - para subir imágenes)
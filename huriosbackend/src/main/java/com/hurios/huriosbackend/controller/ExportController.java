@@ -1,17 +1,31 @@
 package com.hurios.huriosbackend.controller;
 
 import com.hurios.huriosbackend.service.ExcelExportService;
+import com.hurios.huriosbackend.service.ExportJobService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * ExportController - Endpoints para exportar reportes en Excel
+ * (solo administradores: los archivos traen datos reales de clientes y ventas)
  */
 @RestController
 @RequestMapping("/export")
@@ -19,80 +33,180 @@ import java.time.format.DateTimeFormatter;
 public class ExportController {
 
     private final ExcelExportService excelExportService;
+    private final ExportJobService exportJobService;
+    private final long streamTimeoutMs;
 
-    public ExportController(ExcelExportService excelExportService) {
+    public ExportController(ExcelExportService excelExportService,
+                            ExportJobService exportJobService,
+                            @Value("${app.export.stream-timeout-ms:600000}") long streamTimeoutMs) {
         this.excelExportService = excelExportService;
+        this.exportJobService = exportJobService;
+        this.streamTimeoutMs = streamTimeoutMs;
     }
 
     /**
      * GET /export/clients - Exportar clientes a Excel
+     * El archivo se escribe directo en la respuesta (sin armarlo completo en memoria)
      */
     @GetMapping("/clients")
-    public ResponseEntity<byte[]> exportClients() {
-        try {
-            byte[] excelData = excelExportService.exportClients();
-            
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = "Clientes_" + timestamp + ".xlsx";
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(excelData);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+    public WebAsyncTask<Void> exportClients(Authentication authentication, HttpServletResponse response) {
+        requireAdmin(authentication);
+        return streamAttachment(response, "Clientes", excelExportService::writeClients);
     }
 
     /**
      * GET /export/products - Exportar productos a Excel
+     * El archivo se escribe directo en la respuesta (sin armarlo completo en memoria)
      */
     @GetMapping("/products")
-    public ResponseEntity<byte[]> exportProducts() {
-        try {
-            byte[] excelData = excelExportService.exportProducts();
-            
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = "Productos_" + timestamp + ".xlsx";
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(excelData);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+    public WebAsyncTask<Void> exportProducts(Authentication authentication, HttpServletResponse response) {
+        requireAdmin(authentication);
+        return streamAttachment(response, "Productos", excelExportService::writeProducts);
     }
 
     /**
-     * GET /export/sales - Exportar ventas a Excel
+     * GET /export/sales?from=yyyy-MM-dd&to=yyyy-MM-dd - Exportar ventas a Excel
+     * Ambas fechas son opcionales e inclusivas; sin fechas se exportan todas las ventas.
      */
     @GetMapping("/sales")
-    public ResponseEntity<byte[]> exportSales() {
+    public WebAsyncTask<Void> exportSales(
+            Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) {
+        requireAdmin(authentication);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "La fecha inicial no puede ser posterior a la final");
+        }
+
+        LocalDateTime start = from != null ? from.atStartOfDay() : null;
+        LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : null;
+        return streamAttachment(response, "Ventas", out -> excelExportService.writeSales(start, end, out));
+    }
+
+    // ==================== EXPORTACIÓN POR TRABAJOS (asíncrona) ====================
+
+    /**
+     * POST /export/jobs?type=clients|products|sales&from=yyyy-MM-dd&to=yyyy-MM-dd
+     * Encola la exportación y responde 202 con el id del trabajo.
+     * Si el mismo administrador ya tiene una exportación idéntica en curso, devuelve ese trabajo.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitJob(
+            Authentication authentication,
+            @RequestParam String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        requireAdmin(authentication);
+        ExportJobService.ExportType exportType;
+        try {
+            exportType = ExportJobService.ExportType.valueOf(type.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(
+                Map.of("error", "Tipo de exportación no soportado: " + type)
+            );
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(
+                Map.of("error", "La fecha inicial no puede ser posterior a la final")
+            );
+        }
+
         try {
-            byte[] excelData = excelExportService.exportSales();
-            
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = "Ventas_" + timestamp + ".xlsx";
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(excelData);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
+            ExportJobService.ExportJob job = exportJobService.submit(
+                    authentication.getName(),
+                    exportType,
+                    from != null ? from.atStartOfDay() : null,
+                    to != null ? to.plusDays(1).atStartOfDay() : null);
+            return ResponseEntity.accepted().body(job.toStatus());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                Map.of("error", e.getMessage())
+            );
         }
     }
+
+    /**
+     * GET /export/jobs/{id} - Estado y progreso del trabajo (solo para quien lo pidió)
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getJob(Authentication authentication, @PathVariable String id) {
+        requireAdmin(authentication);
+        return exportJobService.getJob(id, authentication.getName())
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(job.toStatus()))
+                .orElseGet(() -> ResponseEntity.status(404).body(
+                    Map.of("error", "Exportación no encontrada")
+                ));
+    }
+
+    /**
+     * GET /export/jobs/{id}/download - Descargar el archivo generado
+     * Soporta el header Range para reanudar descargas (lo resuelve Spring al devolver un Resource).
+     * Solo quien pidió la exportación puede descargarla.
+     */
+    @GetMapping("/jobs/{id}/download")
+    public ResponseEntity<?> downloadJob(Authentication authentication, @PathVariable String id) {
+        requireAdmin(authentication);
+        Optional<ExportJobService.ExportJob> maybe = exportJobService.getJob(id, authentication.getName());
+        if (maybe.isEmpty()) {
+            return ResponseEntity.status(404).body(
+                Map.of("error", "Exportación no encontrada")
+            );
+        }
+
+        ExportJobService.ExportJob job = maybe.get();
+        if (job.getStatus() != ExportJobService.JobStatus.DONE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job.toStatus());
+        }
+
+        Resource file = new FileSystemResource(job.getFile());
+        if (!file.exists()) {
+            return ResponseEntity.status(HttpStatus.GONE).body(
+                Map.of("error", "El archivo de la exportación ya no está disponible")
+            );
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", job.getFilename());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(file);
+    }
+
+    private static void requireAdmin(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                "Solo los administradores pueden exportar reportes");
+        }
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMINISTRADOR".equals(authority.getAuthority()));
+    }
+
+    // Escribe el archivo en un hilo aparte con el timeout propio de las exportaciones
+    private WebAsyncTask<Void> streamAttachment(HttpServletResponse response, String prefix, StreamingResponseBody body) {
+        attachmentHeaders(prefix).forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        return new WebAsyncTask<>(streamTimeoutMs, () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
+    // Headers de descarga con nombre "<prefijo>_yyyyMMdd_HHmmss.xlsx"
+    private HttpHeaders attachmentHeaders(String prefix) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String filename = prefix + "_" + timestamp + ".xlsx";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", filename);
+        headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+        return headers;
+    }
 }
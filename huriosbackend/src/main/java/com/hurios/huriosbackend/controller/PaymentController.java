@@ -1,13 +1,20 @@
 package com.hurios.huriosbackend.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.hash.Hashing;
+import com.hurios.huriosbackend.config.AuthenticatedUser;
 import com.hurios.huriosbackend.dto.PaymentDtos;
 import com.hurios.huriosbackend.entity.Sale;
+import com.hurios.huriosbackend.service.IdempotencyService;
 import com.hurios.huriosbackend.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.List;
@@ -24,13 +31,23 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Procesar un pago
      * POST /payments/process
+     * Header opcional "Idempotency-Key": los reintentos con la misma clave
+     * devuelven la respuesta original sin crear otra venta; la misma clave con
+     * otro cuerpo responde 422.
      */
     @PostMapping("/process")
     public ResponseEntity<?> processPayment(
             @RequestBody PaymentDtos.ProcessPaymentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             Authentication authentication
     ) {
         try {
@@ -41,9 +58,17 @@ public class PaymentController {
             }
 
             String userEmail = authentication.getName();
-            PaymentDtos.ProcessPaymentResponse response = paymentService.processPayment(request, userEmail);
+            Long userId = userId(authentication);
+            PaymentDtos.ProcessPaymentResponse response = idempotencyKey == null
+                    ? paymentService.processPayment(request, userId, userEmail)
+                    : idempotencyService.execute(userEmail, idempotencyKey, requestHash(request),
+                            () -> paymentService.processPayment(request, userId, userEmail));
 
             return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(error);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -69,7 +94,7 @@ public class PaymentController {
             }
 
             String userEmail = authentication.getName();
-            List<Sale> sales = paymentService.getUserSales(userEmail);
+            List<Sale> sales = paymentService.getUserSales(userId(authentication), userEmail);
 
             return ResponseEntity.ok(sales);
         } catch (Exception e) {
@@ -132,4 +157,25 @@ public class PaymentController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    /**
+     * Id del usuario tomado del token (claim "uid"), o null en tokens antiguos
+     */
+    private Long userId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    /**
+     * Hash SHA-256 del cuerpo (mapas con claves ordenadas, para que el orden de
+     * paymentDetails no cambie el resultado)
+     */
+    private String requestHash(PaymentDtos.ProcessPaymentRequest request) throws JsonProcessingException {
+        byte[] body = objectMapper.writer()
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .writeValueAsBytes(request);
+        return Hashing.sha256().hashBytes(body).toString();
+    }
 }
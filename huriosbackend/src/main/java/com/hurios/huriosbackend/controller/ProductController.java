@@ -4,9 +4,25 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.hurios.huriosbackend.entity.Product;
 import com.hurios.huriosbackend.repository.ProductRepository;
+import com.hurios.huriosbackend.service.CacheService;
+import com.hurios.huriosbackend.service.CatalogChangeService;
+import com.hurios.huriosbackend.service.CatalogResponseCache;
+import com.hurios.huriosbackend.service.ProductChangedEvent;
+import com.hurios.huriosbackend.service.ProductFacetIndex;
+import com.hurios.huriosbackend.service.ProductSearchIndex;
+import com.hurios.huriosbackend.service.ProductService;
 import com.hurios.huriosbackend.service.ValidationService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -14,6 +30,9 @@ import java.util.Optional;
  * ProductController - controlador sencillo y seguro para productos.
  * - Devolvemos ResponseEntity<Object> para poder enviar Product o Map de error.
  * - @CrossOrigin permite peticiones desde el frontend en dev (ajusta el origen).
+ * - Las modificaciones son @Transactional: ProductChangedEvent se publica dentro de la
+ *   transacción, así los registros de cache_invalidations y catalog_changes se confirman
+ *   junto con el cambio.
  */
 @RestController
 @RequestMapping("/products")
@@ -23,27 +42,103 @@ public class ProductController {
     // Declaramos dependencias
     private final ProductRepository productRepository;
     private final ValidationService validationService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductService productService;
+    private final CacheService cacheService;
+    private final CatalogResponseCache catalogResponseCache;
+    private final CatalogChangeService catalogChangeService;
+    private final ProductFacetIndex productFacetIndex;
 
     // Inyección por constructor
-    public ProductController(ProductRepository productRepository, ValidationService validationService) {
+    public ProductController(ProductRepository productRepository,
+                             ValidationService validationService,
+                             ProductSearchIndex productSearchIndex,
+                             ApplicationEventPublisher eventPublisher,
+                             ProductService productService,
+                             CacheService cacheService,
+                             CatalogResponseCache catalogResponseCache,
+                             CatalogChangeService catalogChangeService,
+                             ProductFacetIndex productFacetIndex) {
         this.productRepository = productRepository;
         this.validationService = validationService;
+        this.productSearchIndex = productSearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.productService = productService;
+        this.cacheService = cacheService;
+        this.catalogResponseCache = catalogResponseCache;
+        this.catalogChangeService = catalogChangeService;
+        this.productFacetIndex = productFacetIndex;
     }
 
-    // GET /products -> lista de todos los productos
+    // GET /products -> lista de todos los productos (JSON ya serializado, con ETag)
     @GetMapping
-    public ResponseEntity<?> all() {
-        return ResponseEntity.ok(productRepository.findAll());
+    public ResponseEntity<?> all(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return cachedJson(catalogResponseCache.catalog(), ifNoneMatch, acceptEncoding);
     }
 
-    // GET /products/{id} -> detalle del producto por id
+    // GET /products/catalog?cursor=&size=&sort=id|price -> catálogo paginado por cursor
+    // Devuelve { items, nextCursor, hasMore } con productos sin descripción
+    @GetMapping("/catalog")
+    public ResponseEntity<?> catalog(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort) {
+        try {
+            return ResponseEntity.ok(productService.getCatalogPage(cursor, size, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(
+                Map.of("error", e.getMessage())
+            );
+        }
+    }
+
+    // GET /products/changes?since=N&limit= -> productos cambiados y eliminados desde la secuencia N
+    // Devuelve { changed, deleted, nextSince, hasMore, reset }
+    @GetMapping("/changes")
+    public ResponseEntity<?> changes(
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(catalogChangeService.getChangesSince(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(
+                Map.of("error", e.getMessage())
+            );
+        }
+    }
+
+    // GET /products/browse?category=&priceRange=&inStock=&offset=&limit= -> navegación por facetas
+    // category y priceRange aceptan varios valores; devuelve { total, offset, items, facets }
+    @GetMapping("/browse")
+    public ResponseEntity<?> browse(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> priceRange,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productFacetIndex.browse(category, priceRange, inStock, offset, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(
+                Map.of("error", e.getMessage())
+            );
+        }
+    }
+
+    // GET /products/{id} -> detalle del producto por id (JSON ya serializado, con ETag)
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getProducto(@PathVariable Long id) {
-        Optional<Product> maybe = productRepository.findById(id);
+    public ResponseEntity<?> getProducto(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Optional<CatalogResponseCache.Entry> maybe = catalogResponseCache.product(id);
 
         if (maybe.isPresent()) {
-            // devolvemos 200 OK con el producto
-            return ResponseEntity.ok(maybe.get());
+            // devolvemos 200 OK con el producto (o 304 si el cliente ya lo tiene)
+            return cachedJson(maybe.get(), ifNoneMatch, acceptEncoding);
         }
 
         // si no existe, devolvemos 404 con un objeto JSON explicativo
@@ -59,27 +154,25 @@ public class ProductController {
             return ResponseEntity.ok(productRepository.findAll());
         }
         
-        // Buscar productos cuyo nombre contenga la query (case insensitive)
+        // Buscar en el índice en memoria y traer solo los productos encontrados (cache / PK)
+        List<Long> ids = productSearchIndex.search(q);
+        if (ids.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
         return ResponseEntity.ok(
-            productRepository.findAll().stream()
-                .filter(p -> p.getName().toLowerCase().contains(q.toLowerCase()))
+            cacheService.findProducts(ids).stream()
+                .sorted(Comparator.comparing(Product::getId))
                 .toList()
         );
     }
 
     // PUT /products/{id}/add-stock -> agregar stock a un producto existente
     @PutMapping("/{id}/add-stock")
+    @Transactional
     public ResponseEntity<?> addStock(
             @PathVariable Long id,
             @RequestBody Map<String, Integer> body) {
         
-        Optional<Product> maybe = productRepository.findById(id);
-        if (maybe.isEmpty()) {
-            return ResponseEntity.status(404).body(
-                Map.of("error", "Producto no encontrado")
-            );
-        }
-
         Integer quantity = body.get("quantity");
         if (quantity == null || quantity <= 0) {
             return ResponseEntity.badRequest().body(
@@ -87,11 +180,15 @@ public class ProductController {
             );
         }
 
-        Product product = maybe.get();
-        int currentStock = product.getStock() != null ? product.getStock() : 0;
-        product.setStock(currentStock + quantity);
-        productRepository.save(product);
+        // Suma atómica en la BD: leer, sumar y guardar pisaría una compra concurrente
+        if (productRepository.incrementStock(id, quantity) == 0) {
+            return ResponseEntity.status(404).body(
+                Map.of("error", "Producto no encontrado")
+            );
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(id));
 
+        Product product = productRepository.findById(id).orElseThrow();
         return ResponseEntity.ok(Map.of(
             "message", "Stock actualizado correctamente",
             "newStock", product.getStock()
@@ -100,6 +197,7 @@ public class ProductController {
 
     // PUT /products/{id} -> actualizar un producto (nombre, descripción, imagen)
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> updateProduct(@PathVariable Long id, @RequestBody Map<String, Object> body) {
         Optional<Product> maybe = productRepository.findById(id);
         if (maybe.isEmpty()) {
@@ -110,30 +208,24 @@ public class ProductController {
 
         try {
             Product product = maybe.get();
-            
-            // Actualizar nombre si se proporciona
+
+            // Validar todo antes de modificar: la entidad está en la transacción y
+            // cualquier cambio se guardaría aunque se responda con error
             String name = (String) body.get("name");
-            if (name != null && !name.trim().isEmpty()) {
+            boolean hasName = name != null && !name.trim().isEmpty();
+            if (hasName) {
                 try {
                     validationService.validateProductName(name);
-                    product.setName(name.trim());
                 } catch (IllegalArgumentException e) {
                     return ResponseEntity.badRequest().body(
                         Map.of("error", e.getMessage())
                     );
                 }
             }
-            
-            // Actualizar descripción si se proporciona
-            String description = (String) body.get("description");
-            if (description != null) {
-                product.setDescription(description.trim().isEmpty() ? null : description.trim());
-            }
-            
-            // Actualizar precio si se proporciona
+
             Object priceObj = body.get("price");
+            Double price = null;
             if (priceObj != null) {
-                Double price;
                 if (priceObj instanceof Number) {
                     price = ((Number) priceObj).doubleValue();
                 } else {
@@ -150,6 +242,21 @@ public class ProductController {
                         Map.of("error", "El precio debe ser mayor a 0")
                     );
                 }
+            }
+
+            // Actualizar nombre si se proporciona
+            if (hasName) {
+                product.setName(name.trim());
+            }
+            
+            // Actualizar descripción si se proporciona
+            String description = (String) body.get("description");
+            if (description != null) {
+                product.setDescription(description.trim().isEmpty() ? null : description.trim());
+            }
+            
+            // Actualizar precio si se proporciona
+            if (price != null) {
                 product.setPrice(price);
             }
             
@@ -167,9 +274,11 @@ public class ProductController {
             
             // Guardar cambios
             Product updatedProduct = productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangedEvent.saved(updatedProduct));
             
             return ResponseEntity.ok(updatedProduct);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.status(500).body(
                 Map.of("error", "Error al actualizar el producto: " + e.getMessage())
             );
@@ -178,6 +287,7 @@ public class ProductController {
 
     // DELETE /products/{id} -> eliminar un producto
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
         Optional<Product> maybe = productRepository.findById(id);
         if (maybe.isEmpty()) {
@@ -188,11 +298,13 @@ public class ProductController {
 
         try {
             productRepository.deleteById(id);
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
             return ResponseEntity.ok(Map.of(
                 "message", "Producto eliminado correctamente",
                 "id", id
             ));
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.status(500).body(
                 Map.of("error", "Error al eliminar el producto: " + e.getMessage())
             );
@@ -201,6 +313,7 @@ public class ProductController {
 
     // POST /products -> crear un nuevo producto
     @PostMapping
+    @Transactional
     public ResponseEntity<?> createProduct(@RequestBody Map<String, Object> body) {
         try {
             // Validar campos requeridos usando Guava
@@ -273,12 +386,37 @@ public class ProductController {
 
             // Guardar producto
             Product savedProduct = productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangedEvent.saved(savedProduct));
 
             return ResponseEntity.ok(savedProduct);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.status(500).body(
                 Map.of("error", "Error al crear el producto: " + e.getMessage())
             );
         }
     }
+
+    // Responder con los bytes guardados: 304 si el ETag coincide, gzip si el cliente lo acepta
+    private static ResponseEntity<?> cachedJson(CatalogResponseCache.Entry entry,
+                                                String ifNoneMatch,
+                                                String acceptEncoding) {
+        boolean gzip = entry.hasGzip() && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? entry.getGzipEtag() : entry.getEtag();
+        if (entry.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.getGzip());
+        }
+        return response.body(entry.getJson());
+    }
 }
@@ -0,0 +1,251 @@
+package com.hurios.huriosbackend.controller;
+
+import com.hurios.huriosbackend.service.AsyncReportService;
+import com.hurios.huriosbackend.service.ReportService;
+import com.hurios.huriosbackend.service.TopSellerTracker;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * ReportController - Endpoints de reportes y estadísticas (requieren autenticación)
+ *
+ * Los reportes completos son solo para administradores y se calculan en el pool
+ * de reportes (AsyncReportService): la petición se libera mientras tanto y los
+ * resultados quedan en caché hasta la próxima venta o cambio del catálogo.
+ * Las fechas son inclusivas y con formato yyyy-MM-dd.
+ */
+@RestController
+@RequestMapping("/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    private final ReportService reportService;
+    private final TopSellerTracker topSellerTracker;
+    private final AsyncReportService asyncReportService;
+
+    public ReportController(ReportService reportService,
+                            TopSellerTracker topSellerTracker,
+                            AsyncReportService asyncReportService) {
+        this.reportService = reportService;
+        this.topSellerTracker = topSellerTracker;
+        this.asyncReportService = asyncReportService;
+    }
+
+    // ==================== VENTAS ====================
+
+    /**
+     * GET /reports/sales?from=yyyy-MM-dd&to=yyyy-MM-dd - Reporte de ventas de un rango
+     */
+    @GetMapping("/sales")
+    public CompletableFuture<ResponseEntity<?>> getSalesReport(
+            Authentication authentication,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return adminReport(authentication, "SALES",
+                () -> reportService.getSalesReport(startOf(from), endOf(to)), from, to);
+    }
+
+    /**
+     * GET /reports/sales/today - Ventas del día actual
+     */
+    @GetMapping("/sales/today")
+    public CompletableFuture<ResponseEntity<?>> getTodaySalesReport(Authentication authentication) {
+        return adminReport(authentication, "SALES_TODAY",
+                reportService::getTodaySalesReport, LocalDate.now());
+    }
+
+    /**
+     * GET /reports/sales/month - Ventas del mes actual
+     */
+    @GetMapping("/sales/month")
+    public CompletableFuture<ResponseEntity<?>> getMonthSalesReport(Authentication authentication) {
+        return adminReport(authentication, "SALES_MONTH",
+                reportService::getCurrentMonthSalesReport, LocalDate.now());
+    }
+
+    /**
+     * GET /reports/sales/year - Ventas del año actual
+     */
+    @GetMapping("/sales/year")
+    public CompletableFuture<ResponseEntity<?>> getYearSalesReport(Authentication authentication) {
+        return adminReport(authentication, "SALES_YEAR",
+                reportService::getCurrentYearSalesReport, LocalDate.now());
+    }
+
+    /**
+     * GET /reports/compare?from1=&to1=&from2=&to2= - Comparar dos períodos
+     */
+    @GetMapping("/compare")
+    public CompletableFuture<ResponseEntity<?>> comparePeriods(
+            Authentication authentication,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from1,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to1,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from2,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to2) {
+        return adminReport(authentication, "COMPARE",
+                () -> reportService.comparePeriods(startOf(from1), endOf(to1), startOf(from2), endOf(to2)),
+                from1, to1, from2, to2);
+    }
+
+    /**
+     * GET /reports/breakdown?by=status|payment_method|district&from=&to=
+     * Ventas e ingresos del rango agrupados por la dimensión elegida
+     */
+    @GetMapping("/breakdown")
+    public CompletableFuture<ResponseEntity<?>> getSalesBreakdown(
+            Authentication authentication,
+            @RequestParam(defaultValue = "status") String by,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return adminReport(authentication, "BREAKDOWN",
+                () -> reportService.getSalesBreakdown(by, startOf(from), endOf(to)), by, from, to);
+    }
+
+    // ==================== INVENTARIO, CLIENTES Y DASHBOARD ====================
+
+    /**
+     * GET /reports/inventory - Resumen de inventario
+     */
+    @GetMapping("/inventory")
+    public CompletableFuture<ResponseEntity<?>> getInventoryReport(Authentication authentication) {
+        return adminReport(authentication, "INVENTORY", reportService::getInventoryReport);
+    }
+
+    /**
+     * GET /reports/customers - Resumen de clientes
+     */
+    @GetMapping("/customers")
+    public CompletableFuture<ResponseEntity<?>> getCustomerReport(Authentication authentication) {
+        return adminReport(authentication, "CUSTOMERS", reportService::getCustomerReport, LocalDate.now());
+    }
+
+    /**
+     * GET /reports/top-customers?limit=10 - Clientes con mayor gasto
+     */
+    @GetMapping("/top-customers")
+    public CompletableFuture<ResponseEntity<?>> getTopCustomers(
+            Authentication authentication,
+            @RequestParam(defaultValue = "10") int limit) {
+        return adminReport(authentication, "TOP_CUSTOMERS", () -> reportService.getTopCustomers(limit), limit);
+    }
+
+    /**
+     * GET /reports/dashboard - Métricas generales del negocio
+     */
+    @GetMapping("/dashboard")
+    public CompletableFuture<ResponseEntity<?>> getDashboard(Authentication authentication) {
+        return adminReport(authentication, "DASHBOARD", reportService::getBusinessDashboard);
+    }
+
+    // ==================== MÁS VENDIDOS ====================
+
+    /**
+     * GET /reports/top-products?limit=10 - Productos más vendidos de todo el historial (exacto)
+     */
+    @GetMapping("/top-products")
+    public CompletableFuture<ResponseEntity<?>> getTopProducts(
+            Authentication authentication,
+            @RequestParam(defaultValue = "10") int limit) {
+        return adminReport(authentication, "TOP_PRODUCTS", () -> reportService.getTopSellingProducts(limit), limit);
+    }
+
+    /**
+     * GET /reports/top-products/live?window=hour|today|last_7_days&limit=10
+     * Ranking en tiempo real desde memoria (aproximado, ver maxError de cada fila)
+     */
+    @GetMapping("/top-products/live")
+    public ResponseEntity<?> getLiveTopProducts(
+            Authentication authentication,
+            @RequestParam(defaultValue = "today") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Solo los administradores pueden ver reportes"));
+        }
+        TopSellerTracker.Window selected;
+        try {
+            selected = TopSellerTracker.Window.valueOf(window.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(
+                Map.of("error", "Ventana no soportada: " + window + " (hour, today, last_7_days)")
+            );
+        }
+
+        try {
+            return ResponseEntity.ok(Map.of(
+                "window", selected,
+                "items", topSellerTracker.getTopProducts(selected, limit)
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * Ejecutar un reporte solo para administradores
+     */
+    private CompletableFuture<ResponseEntity<?>> adminReport(Authentication authentication, String type,
+                                                           Supplier<?> report, Object... params) {
+        if (!isAdmin(authentication)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Solo los administradores pueden ver reportes")));
+        }
+        return respond(asyncReportService.run(type, report, params));
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMINISTRADOR".equals(authority.getAuthority()));
+    }
+
+    /**
+     * Convertir el resultado (o el error) del reporte en respuesta HTTP
+     */
+    private static CompletableFuture<ResponseEntity<?>> respond(CompletableFuture<?> report) {
+        return report.handle((result, error) -> {
+            if (error == null) {
+                return ResponseEntity.ok(result);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof IllegalArgumentException) {
+                return ResponseEntity.badRequest().body(Map.of("error", cause.getMessage()));
+            }
+            if (cause instanceof IllegalStateException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", cause.getMessage()));
+            }
+            if (cause instanceof RejectedExecutionException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(Map.of("error", "Hay demasiados reportes en proceso, intenta de nuevo en unos segundos"));
+            }
+            if (cause instanceof TimeoutException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(Map.of("error", "El reporte tardó demasiado, intenta de nuevo en unos segundos"));
+            }
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error al generar el reporte: " + cause.getMessage()));
+        });
+    }
+
+    private static LocalDateTime startOf(LocalDate date) {
+        return date.atStartOfDay();
+    }
+
+    private static LocalDateTime endOf(LocalDate date) {
+        return date.atTime(23, 59, 59);
+    }
+}
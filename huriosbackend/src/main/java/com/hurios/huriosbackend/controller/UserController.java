@@ -1,9 +1,17 @@
 package com.hurios.huriosbackend.controller;
 
-import com.hurios.huriosbackend.config.JwtUtil;
+import com.hurios.huriosbackend.config.AuthenticatedUser;
 import com.hurios.huriosbackend.entity.User;
 import com.hurios.huriosbackend.repository.UserRepository;
+import com.hurios.huriosbackend.service.CacheService;
+import com.hurios.huriosbackend.service.UserChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -27,11 +35,18 @@ import java.util.UUID;
 public class UserController {
 
     private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
-
-    public UserController(UserRepository userRepository, JwtUtil jwtUtil) {
+    private final CacheService cacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserController(UserRepository userRepository,
+                          CacheService cacheService,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
-        this.jwtUtil = jwtUtil;
+        this.cacheService = cacheService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -39,12 +54,9 @@ public class UserController {
      * Obtiene el perfil del usuario autenticado
      */
     @GetMapping("/profile")
-    public ResponseEntity<?> getProfile(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getProfile(Authentication authentication) {
         try {
-            String token = extractToken(authHeader);
-            String email = jwtUtil.validateAndGetSubject(token);
-            
-            Optional<User> userOpt = userRepository.findByEmail(email);
+            Optional<User> userOpt = cachedCurrentUser(authentication);
             if (userOpt.isEmpty()) {
                 return ResponseEntity.status(404).body(Map.of("error", "Usuario no encontrado"));
             }
@@ -70,14 +82,12 @@ public class UserController {
      * Actualiza el perfil del usuario autenticado
      */
     @PutMapping("/profile")
+    @Transactional
     public ResponseEntity<?> updateProfile(
-            @RequestHeader("Authorization") String authHeader,
+            Authentication authentication,
             @RequestBody Map<String, String> updates) {
         try {
-            String token = extractToken(authHeader);
-            String email = jwtUtil.validateAndGetSubject(token);
-            
-            Optional<User> userOpt = userRepository.findByEmail(email);
+            Optional<User> userOpt = currentUser(authentication);
             if (userOpt.isEmpty()) {
                 return ResponseEntity.status(404).body(Map.of("error", "Usuario no encontrado"));
             }
@@ -99,27 +109,28 @@ public class UserController {
             }
 
             userRepository.save(user);
+            eventPublisher.publishEvent(UserChangedEvent.of(user));
 
             return ResponseEntity.ok(Map.of("message", "Perfil actualizado correctamente"));
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.status(401).body(Map.of("error", "Token inválido"));
         }
     }
 
     /**
      * POST /user/profile-image
-     * Sube la imagen de perfil del usuario autenticado
+     * Sube la imagen de perfil del usuario autenticado.
+     * El archivo se copia fuera de la transacción; si la actualización del usuario
+     * falla, se borra.
      */
     @PostMapping("/profile-image")
     public ResponseEntity<?> uploadProfileImage(
-            @RequestHeader("Authorization") String authHeader,
+            Authentication authentication,
             @RequestParam("file") MultipartFile file) {
         try {
-            // Validar token
-            String token = extractToken(authHeader);
-            String email = jwtUtil.validateAndGetSubject(token);
-            
-            Optional<User> userOpt = userRepository.findByEmail(email);
+            // Usuario autenticado (el token ya lo validó JwtAuthFilter)
+            Optional<User> userOpt = currentUser(authentication);
             if (userOpt.isEmpty()) {
                 return ResponseEntity.status(404).body(Map.of("error", "Usuario no encontrado"));
             }
@@ -165,11 +176,22 @@ public class UserController {
             Path destinationPath = Paths.get(uploadDir + uniqueFilename);
             Files.copy(file.getInputStream(), destinationPath, StandardCopyOption.REPLACE_EXISTING);
 
-            // Actualizar usuario con la URL de la imagen
+            // Actualizar usuario con la URL de la imagen (el evento se publica dentro de
+            // la transacción para que cache_invalidations se confirme con el cambio)
             String imageUrl = "/uploads/profiles/" + uniqueFilename;
-            User user = userOpt.get();
-            user.setProfileImage(imageUrl);
-            userRepository.save(user);
+            Long userId = userOpt.get().getId();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    User user = userRepository.findById(userId)
+                            .orElseThrow(() -> new IllegalStateException("Usuario no encontrado"));
+                    user.setProfileImage(imageUrl);
+                    userRepository.save(user);
+                    eventPublisher.publishEvent(UserChangedEvent.of(user));
+                });
+            } catch (RuntimeException e) {
+                Files.deleteIfExists(destinationPath);
+                throw e;
+            }
 
             return ResponseEntity.ok(Map.of(
                 "imageUrl", imageUrl,
@@ -190,12 +212,30 @@ public class UserController {
     }
 
     /**
-     * Extrae el token JWT del header Authorization
+     * Obtiene el usuario autenticado. El token ya fue validado por JwtAuthFilter;
+     * con el claim uid se busca por clave primaria, y solo los tokens antiguos
+     * (sin uid) caen a la búsqueda por email.
      */
-    private String extractToken(String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            return authHeader.substring(7);
+    private Optional<User> currentUser(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new IllegalArgumentException("Token inválido");
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.getId() != null) {
+            return userRepository.findById(user.getId());
+        }
+        return userRepository.findByEmail(authentication.getName());
+    }
+
+    /**
+     * Igual que currentUser pero desde CacheService: solo para lectura
+     */
+    private Optional<User> cachedCurrentUser(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new IllegalArgumentException("Token inválido");
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.getId() != null) {
+            return cacheService.findUserById(user.getId());
         }
-        throw new IllegalArgumentException("Token inválido");
+        return cacheService.findUserByEmail(authentication.getName());
     }
 }
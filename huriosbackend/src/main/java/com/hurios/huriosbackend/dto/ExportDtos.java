@@ -0,0 +1,56 @@
+package com.hurios.huriosbackend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTOs (proyecciones) para las exportaciones a Excel.
+ * Se leen por páginas directamente desde la BD, sin cargar entidades administradas,
+ * para que la memoria usada no crezca con la cantidad de filas exportadas.
+ */
+public class ExportDtos {
+
+    /**
+     * Fila del reporte de productos
+     */
+    public interface ProductRow {
+        Long getId();
+        String getName();
+        String getDescription();
+        Double getPrice();
+        Integer getStock();
+        LocalDateTime getCreatedAt();
+    }
+
+    /**
+     * Fila del reporte de clientes
+     */
+    public interface ClientRow {
+        Long getId();
+        String getFullName();
+        String getEmail();
+        String getPhone();
+        String getAddress();
+        LocalDateTime getCreatedAt();
+    }
+
+    /**
+     * Cabecera de venta para el reporte de ventas
+     */
+    public interface SaleRow {
+        Long getId();
+        String getFullName();
+        String getStatus();
+        LocalDateTime getCreatedAt();
+    }
+
+    /**
+     * Item de venta para el reporte de ventas
+     */
+    public interface SaleItemRow {
+        Long getSaleId();
+        String getProductName();
+        Integer getQuantity();
+        Double getUnitPrice();
+        Double getSubtotal();
+    }
+}
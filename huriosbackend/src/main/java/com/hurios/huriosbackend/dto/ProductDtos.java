@@ -0,0 +1,125 @@
+package com.hurios.huriosbackend.dto;
+
+import com.hurios.huriosbackend.entity.Product;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTOs para el listado del catálogo de productos y su sincronización incremental
+ */
+public class ProductDtos {
+
+    /**
+     * Proyección liviana de un producto para listados (sin la descripción TEXT).
+     * Spring Data la llena directamente desde la consulta, sin cargar la entidad.
+     */
+    public interface ProductSummary {
+        Long getId();
+        String getName();
+        Double getPrice();
+        Integer getStock();
+        String getImageUrl();
+        String getCategory();
+    }
+
+    /**
+     * Página del catálogo con cursor para pedir la siguiente
+     */
+    public static class CatalogPage {
+        private List<ProductSummary> items;
+        private String nextCursor; // null si no hay más páginas
+        private boolean hasMore;
+
+        public CatalogPage() {}
+
+        public CatalogPage(List<ProductSummary> items, String nextCursor, boolean hasMore) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+        }
+
+        // Getters y setters
+        public List<ProductSummary> getItems() { return items; }
+        public void setItems(List<ProductSummary> items) { this.items = items; }
+
+        public String getNextCursor() { return nextCursor; }
+        public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+        public boolean isHasMore() { return hasMore; }
+        public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    }
+
+    /**
+     * Cambios del catálogo posteriores a una secuencia: productos modificados (estado
+     * actual) e ids eliminados. El cliente guarda nextSince y lo envía en la siguiente
+     * consulta; si reset es true su copia es demasiado vieja y debe recargar GET /products.
+     */
+    public static class CatalogChanges {
+        private List<Product> changed;
+        private List<Long> deleted;
+        private long nextSince;
+        private boolean hasMore;
+        private boolean reset;
+
+        public CatalogChanges() {}
+
+        public CatalogChanges(List<Product> changed, List<Long> deleted, long nextSince,
+                              boolean hasMore, boolean reset) {
+            this.changed = changed;
+            this.deleted = deleted;
+            this.nextSince = nextSince;
+            this.hasMore = hasMore;
+            this.reset = reset;
+        }
+
+        // Getters y setters
+        public List<Product> getChanged() { return changed; }
+        public void setChanged(List<Product> changed) { this.changed = changed; }
+
+        public List<Long> getDeleted() { return deleted; }
+        public void setDeleted(List<Long> deleted) { this.deleted = deleted; }
+
+        public long getNextSince() { return nextSince; }
+        public void setNextSince(long nextSince) { this.nextSince = nextSince; }
+
+        public boolean isHasMore() { return hasMore; }
+        public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+        public boolean isReset() { return reset; }
+        public void setReset(boolean reset) { this.reset = reset; }
+    }
+
+    /**
+     * Resultado de GET /products/browse: total de productos que cumplen los filtros, la
+     * página pedida y el conteo por valor de cada faceta (category, priceRange, inStock)
+     */
+    public static class BrowseResult {
+        private int total;
+        private int offset;
+        private List<Product> items;
+        private Map<String, Map<String, Integer>> facets;
+
+        public BrowseResult() {}
+
+        public BrowseResult(int total, int offset, List<Product> items, Map<String, Map<String, Integer>> facets) {
+            this.total = total;
+            this.offset = offset;
+            this.items = items;
+            this.facets = facets;
+        }
+
+        // Getters y setters
+        public int getTotal() { return total; }
+        public void setTotal(int total) { this.total = total; }
+
+        public int getOffset() { return offset; }
+        public void setOffset(int offset) { this.offset = offset; }
+
+        public List<Product> getItems() { return items; }
+        public void setItems(List<Product> items) { this.items = items; }
+
+        public Map<String, Map<String, Integer>> getFacets() { return facets; }
+        public void setFacets(Map<String, Map<String, Integer>> facets) { this.facets = facets; }
+    }
+}
@@ -0,0 +1,140 @@
+package com.hurios.huriosbackend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTOs (proyecciones) para los reportes de ventas.
+ * Spring Data las llena con consultas agregadas (GROUP BY) sobre las ventas
+ * o sobre las tablas de agregados diarios/horarios.
+ */
+public class ReportDtos {
+
+    /**
+     * Cantidad de ventas e ingresos de un estado
+     */
+    public interface StatusTotals {
+        String getStatus();
+        Long getSaleCount();
+        Double getRevenue();
+    }
+
+    /**
+     * Unidades e ingresos vendidos de un producto
+     */
+    public interface ProductTotals {
+        Long getProductId();
+        String getProductName();
+        Long getQuantity();
+        Double getRevenue();
+    }
+
+    /**
+     * Totales de ventas del dashboard (histórico, hoy y mes actual) en una sola fila
+     */
+    public interface DashboardSalesTotals {
+        Long getTotalCount();
+        Double getTotalRevenue();
+        Long getTodayCount();
+        Double getTodayRevenue();
+        Long getMonthCount();
+        Double getMonthRevenue();
+    }
+
+    /**
+     * Resumen de inventario calculado en una sola lectura de la tabla de productos
+     */
+    public interface StockTotals {
+        Long getTotalProducts();
+        Long getTotalStock();
+        Double getInventoryValue();
+        Long getOutOfStock();
+        Long getLowStock();
+        Long getGoodStock();
+    }
+
+    /**
+     * Pedidos y gasto total de un cliente
+     */
+    public interface CustomerTotals {
+        Long getCustomerId();
+        String getCustomerEmail();
+        Long getTotalOrders();
+        Double getTotalSpent();
+    }
+
+    /**
+     * Compras, gasto y fecha de la última compra de un usuario
+     */
+    public interface PurchaseTotals {
+        Long getTotalOrders();
+        Double getTotalSpent();
+        LocalDateTime getLastPurchaseDate();
+    }
+
+    /**
+     * Conteos generales de usuarios en una sola fila
+     */
+    public interface UserTotals {
+        Long getTotalUsers();
+        Long getVerifiedUsers();
+        Long getNewUsers();
+    }
+
+    /**
+     * Cantidad de usuarios de un rol
+     */
+    public interface RoleCount {
+        String getRole();
+        Long getTotal();
+    }
+
+    /**
+     * Cantidad de ventas e ingresos de un día (todos los estados)
+     */
+    public interface DayTotals {
+        LocalDate getSaleDate();
+        Long getSaleCount();
+        Double getRevenue();
+    }
+
+    /**
+     * Cantidad de ventas e ingresos de una hora (todos los estados)
+     */
+    public interface HourTotals {
+        LocalDateTime getSaleHour();
+        Long getSaleCount();
+        Double getRevenue();
+    }
+
+    /**
+     * Fecha e importe de una venta
+     */
+    public interface SaleAmount {
+        LocalDateTime getCreatedAt();
+        Double getTotal();
+    }
+
+    /**
+     * Columnas de una venta para el almacén columnar de analítica
+     */
+    public interface SaleColumnsRow {
+        Long getId();
+        LocalDateTime getCreatedAt();
+        Long getUserId();
+        Double getTotal();
+        String getStatus();
+        String getPaymentMethod();
+        String getDeliveryDistrict();
+    }
+
+    /**
+     * Columnas de una línea de venta para el almacén columnar de analítica
+     */
+    public interface SaleItemColumnsRow {
+        Long getSaleId();
+        Long getProductId();
+        Integer getQuantity();
+        Double getSubtotal();
+    }
+}
@@ -0,0 +1,75 @@
+package com.hurios.huriosbackend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad CacheInvalidation: registro de un cambio de producto o usuario que las demás
+ * instancias deben borrar de sus cachés locales, o de una venta que deben sumar a sus
+ * vistas de reportes en memoria (ver CacheInvalidationFeed).
+ * Se escribe en la misma transacción que el cambio y se lee en orden de id.
+ */
+@Entity
+@Table(name = "cache_invalidations", indexes = {
+    @Index(name = "idx_cache_invalidations_created_at", columnList = "created_at")
+})
+public class CacheInvalidation {
+
+    public static final String PRODUCT = "PRODUCT";
+    public static final String USER = "USER";
+    public static final String SALE = "SALE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType; // PRODUCT, USER, SALE
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "entity_key", length = 100)
+    private String entityKey; // email en USER
+
+    @Column(name = "node_id", nullable = false, length = 64)
+    private String nodeId; // instancia que hizo el cambio
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public CacheInvalidation() {}
+
+    public CacheInvalidation(String entityType, Long entityId, String entityKey, String nodeId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.entityKey = entityKey;
+        this.nodeId = nodeId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters y setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getEntityType() { return entityType; }
+    public void setEntityType(String entityType) { this.entityType = entityType; }
+
+    public Long getEntityId() { return entityId; }
+    public void setEntityId(Long entityId) { this.entityId = entityId; }
+
+    public String getEntityKey() { return entityKey; }
+    public void setEntityKey(String entityKey) { this.entityKey = entityKey; }
+
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,57 @@
+package com.hurios.huriosbackend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad CatalogChange: un cambio de producto (alta, edición, stock o baja) con su
+ * número de secuencia creciente. Los clientes con una copia local del catálogo piden
+ * los cambios posteriores a la última secuencia que vieron (GET /products/changes).
+ */
+@Entity
+@Table(name = "catalog_changes", indexes = {
+    @Index(name = "idx_catalog_changes_changed_at", columnList = "changed_at")
+})
+public class CatalogChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "change_type", nullable = false, length = 20)
+    private String changeType; // SAVED, STOCK_CHANGED, DELETED
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public CatalogChange() {}
+
+    public CatalogChange(Long productId, String changeType) {
+        this.productId = productId;
+        this.changeType = changeType;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (changedAt == null) {
+            changedAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters y setters
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getChangeType() { return changeType; }
+    public void setChangeType(String changeType) { this.changeType = changeType; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
@@ -2,13 +2,20 @@
 package com.hurios.huriosbackend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 /**
  * Entidad Product: representa un producto en la BD.
+ * El stock solo se modifica con UPDATE atómicos (ProductRepository); @DynamicUpdate
+ * hace que editar otros campos no vuelva a escribir el stock leído antes.
  */
 @Entity
-@Table(name = "products")
+@DynamicUpdate
+@Table(name = "products", indexes = {
+    // Soporta la paginación por cursor del catálogo ordenada por precio
+    @Index(name = "idx_products_price_id", columnList = "price, id")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,75 @@
+package com.hurios.huriosbackend.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Entidad ProductDailyRollup: unidades e ingresos vendidos por producto y día
+ */
+@Entity
+@Table(name = "product_daily_rollup")
+@IdClass(ProductDailyRollup.Key.class)
+public class ProductDailyRollup {
+    @Id
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Id
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Nombre del producto en la última venta registrada (para reportes sin JOIN)
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+
+    // Getters y setters
+    public LocalDate getSaleDate() { return saleDate; }
+    public void setSaleDate(LocalDate saleDate) { this.saleDate = saleDate; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public long getQuantity() { return quantity; }
+    public void setQuantity(long quantity) { this.quantity = quantity; }
+
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+
+    /**
+     * Clave compuesta (día, producto)
+     */
+    public static class Key implements Serializable {
+        private LocalDate saleDate;
+        private Long productId;
+
+        public Key() {}
+
+        public Key(LocalDate saleDate, Long productId) {
+            this.saleDate = saleDate;
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(saleDate, key.saleDate) && Objects.equals(productId, key.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(saleDate, productId);
+        }
+    }
+}
@@ -9,7 +9,10 @@ import java.util.List;
  * Entidad Sale: representa una venta/pedido realizado por un usuario
  */
 @Entity
-@Table(name = "sales")
+@Table(name = "sales", indexes = {
+    // Exportaciones y reportes por rango de fechas
+    @Index(name = "idx_sales_created_at", columnList = "created_at, id")
+})
 public class Sale {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,70 @@
+package com.hurios.huriosbackend.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Entidad SalesDailyRollup: agregado de ventas por día y estado.
+ * Se actualiza al confirmar cada venta (ver SalesRollupService), así los
+ * reportes por rango de fechas suman pocas filas en vez de leer todas las ventas.
+ */
+@Entity
+@Table(name = "sales_daily_rollup")
+@IdClass(SalesDailyRollup.Key.class)
+public class SalesDailyRollup {
+    @Id
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Id
+    @Column(name = "status", nullable = false, length = 50)
+    private String status;
+
+    @Column(name = "sale_count", nullable = false)
+    private long saleCount;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+
+    // Getters y setters
+    public LocalDate getSaleDate() { return saleDate; }
+    public void setSaleDate(LocalDate saleDate) { this.saleDate = saleDate; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getSaleCount() { return saleCount; }
+    public void setSaleCount(long saleCount) { this.saleCount = saleCount; }
+
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+
+    /**
+     * Clave compuesta (día, estado)
+     */
+    public static class Key implements Serializable {
+        private LocalDate saleDate;
+        private String status;
+
+        public Key() {}
+
+        public Key(LocalDate saleDate, String status) {
+            this.saleDate = saleDate;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(saleDate, key.saleDate) && Objects.equals(status, key.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(saleDate, status);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.hurios.huriosbackend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Entidad SalesDailySketch: distribución del total de las ventas de un día
+ * (QuantileSketch serializado, algunos cientos de bytes). Los sketches de varios
+ * días se combinan para estimar percentiles de cualquier rango (ver SalesRollupService).
+ */
+@Entity
+@Table(name = "sales_daily_sketch")
+public class SalesDailySketch {
+    @Id
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(name = "sale_count", nullable = false)
+    private long saleCount;
+
+    @Lob
+    @Column(name = "sketch", nullable = false, columnDefinition = "BLOB")
+    private byte[] sketch;
+
+    public SalesDailySketch() {}
+
+    public SalesDailySketch(LocalDate saleDate, long saleCount, byte[] sketch) {
+        this.saleDate = saleDate;
+        this.saleCount = saleCount;
+        this.sketch = sketch;
+    }
+
+    // Getters y setters
+    public LocalDate getSaleDate() { return saleDate; }
+    public void setSaleDate(LocalDate saleDate) { this.saleDate = saleDate; }
+
+    public long getSaleCount() { return saleCount; }
+    public void setSaleCount(long saleCount) { this.saleCount = saleCount; }
+
+    public byte[] getSketch() { return sketch; }
+    public void setSketch(byte[] sketch) { this.sketch = sketch; }
+}
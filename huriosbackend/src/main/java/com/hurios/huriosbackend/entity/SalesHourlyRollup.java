@@ -0,0 +1,69 @@
+package com.hurios.huriosbackend.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entidad SalesHourlyRollup: agregado de ventas por hora y estado.
+ * Cubre los bordes de los rangos que no empiezan o terminan a medianoche.
+ */
+@Entity
+@Table(name = "sales_hourly_rollup")
+@IdClass(SalesHourlyRollup.Key.class)
+public class SalesHourlyRollup {
+    @Id
+    @Column(name = "sale_hour", nullable = false)
+    private LocalDateTime saleHour; // inicio de la hora (minutos y segundos en 0)
+
+    @Id
+    @Column(name = "status", nullable = false, length = 50)
+    private String status;
+
+    @Column(name = "sale_count", nullable = false)
+    private long saleCount;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+
+    // Getters y setters
+    public LocalDateTime getSaleHour() { return saleHour; }
+    public void setSaleHour(LocalDateTime saleHour) { this.saleHour = saleHour; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getSaleCount() { return saleCount; }
+    public void setSaleCount(long saleCount) { this.saleCount = saleCount; }
+
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+
+    /**
+     * Clave compuesta (hora, estado)
+     */
+    public static class Key implements Serializable {
+        private LocalDateTime saleHour;
+        private String status;
+
+        public Key() {}
+
+        public Key(LocalDateTime saleHour, String status) {
+            this.saleHour = saleHour;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(saleHour, key.saleHour) && Objects.equals(status, key.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(saleHour, status);
+        }
+    }
+}
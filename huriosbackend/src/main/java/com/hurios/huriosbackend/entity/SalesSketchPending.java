@@ -0,0 +1,42 @@
+package com.hurios.huriosbackend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Entidad SalesSketchPending: total de una venta que todavía no se sumó al sketch de su
+ * día. La compra solo inserta esta fila; SalesRollupService las pasa a sales_daily_sketch
+ * en lotes, así el checkout no bloquea ni reescribe el sketch del día.
+ */
+@Entity
+@Table(name = "sales_daily_sketch_pending", indexes = {
+    @Index(name = "idx_sales_daily_sketch_pending_date", columnList = "sale_date")
+})
+public class SalesSketchPending {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(nullable = false)
+    private double total;
+
+    public SalesSketchPending() {}
+
+    public SalesSketchPending(LocalDate saleDate, double total) {
+        this.saleDate = saleDate;
+        this.total = total;
+    }
+
+    // Getters y setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getSaleDate() { return saleDate; }
+    public void setSaleDate(LocalDate saleDate) { this.saleDate = saleDate; }
+
+    public double getTotal() { return total; }
+    public void setTotal(double total) { this.total = total; }
+}
@@ -0,0 +1,31 @@
+package com.hurios.huriosbackend.repository;
+
+import com.hurios.huriosbackend.entity.CatalogChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    // Cambios posteriores a una secuencia, en orden
+    List<CatalogChange> findBySeqGreaterThanOrderBySeqAsc(Long seq, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM CatalogChange c")
+    long findMaxSeq();
+
+    // Secuencia más antigua que se conserva (0 si la tabla está vacía)
+    @Query("SELECT COALESCE(MIN(c.seq), 0) FROM CatalogChange c")
+    long findMinSeq();
+
+    // Borrar lo anterior a "before", conservando siempre la última secuencia
+    @Modifying
+    @Query("DELETE FROM CatalogChange c WHERE c.changedAt < :before AND c.seq < :keepSeq")
+    int deleteOlderThan(@Param("before") LocalDateTime before, @Param("keepSeq") long keepSeq);
+}
@@ -0,0 +1,52 @@
+package com.hurios.huriosbackend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * EntityStreams - Recorrer consultas que devuelven Stream de entidades con memoria constante
+ *
+ * El cursor (fetch size de la consulta) evita traer todas las filas juntas, pero cada
+ * entidad leída queda en el contexto de persistencia hasta el final de la transacción.
+ * forEach() vacía ese contexto cada app.streaming.clear-every entidades, después de
+ * procesarlas: la acción recibe la entidad todavía administrada (puede leer relaciones
+ * lazy) y no debe guardarla para usarla más tarde como administrada. Solo para
+ * lecturas: clear() descarta cambios pendientes del contexto.
+ *
+ * Debe llamarse dentro de una transacción (los streams de Spring Data lo exigen).
+ */
+@Component
+public class EntityStreams {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int clearEvery;
+
+    public EntityStreams(@Value("${app.streaming.clear-every:500}") int clearEvery) {
+        this.clearEvery = Math.max(1, clearEvery);
+    }
+
+    /**
+     * Aplicar la acción a cada elemento y cerrar el stream al terminar
+     */
+    public <T> void forEach(Stream<T> stream, Consumer<? super T> action) {
+        try (stream) {
+            Iterator<T> iterator = stream.iterator();
+            int sinceClear = 0;
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++sinceClear == clearEvery) {
+                    entityManager.clear();
+                    sinceClear = 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.hurios.huriosbackend.repository;
+
+import com.hurios.huriosbackend.dto.ReportDtos.ProductTotals;
+import com.hurios.huriosbackend.entity.ProductDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductDailyRollupRepository extends JpaRepository<ProductDailyRollup, ProductDailyRollup.Key> {
+
+    // Sumar las unidades vendidas de un producto en el día (UPSERT atómico)
+    @Modifying
+    @Query(value = "INSERT INTO product_daily_rollup (sale_date, product_id, product_name, quantity, revenue) " +
+                   "VALUES (:saleDate, :productId, :productName, :quantity, :revenue) " +
+                   "ON DUPLICATE KEY UPDATE quantity = quantity + :quantity, revenue = revenue + :revenue, " +
+                   "product_name = :productName",
+           nativeQuery = true)
+    int upsert(@Param("saleDate") LocalDate saleDate,
+               @Param("productId") Long productId,
+               @Param("productName") String productName,
+               @Param("quantity") long quantity,
+               @Param("revenue") double revenue);
+
+    // Totales por producto de los días [from, to)
+    @Query("SELECT r.productId AS productId, MAX(r.productName) AS productName, " +
+           "SUM(r.quantity) AS quantity, SUM(r.revenue) AS revenue " +
+           "FROM ProductDailyRollup r WHERE r.saleDate >= :from AND r.saleDate < :to GROUP BY r.productId")
+    List<ProductTotals> sumByProduct(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Reconstruir desde los items de venta (backfill)
+    @Modifying
+    @Query(value = "INSERT INTO product_daily_rollup (sale_date, product_id, product_name, quantity, revenue) " +
+                   "SELECT DATE(s.created_at), i.product_id, MAX(p.name), SUM(i.quantity), COALESCE(SUM(i.subtotal), 0) " +
+                   "FROM sale_items i JOIN sales s ON s.id = i.sale_id JOIN products p ON p.id = i.product_id " +
+                   "WHERE s.created_at IS NOT NULL " +
+                   "GROUP BY DATE(s.created_at), i.product_id",
+           nativeQuery = true)
+    int rebuildFromSales();
+}
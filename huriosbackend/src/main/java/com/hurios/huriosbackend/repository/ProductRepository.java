@@ -1,11 +1,80 @@
 // src/main/java/com/hurios/huriosbackend/repository/ProductRepository.java
 package com.hurios.huriosbackend.repository;
 
+import com.hurios.huriosbackend.dto.ExportDtos.ProductRow;
+import com.hurios.huriosbackend.dto.ProductDtos.ProductSummary;
+import com.hurios.huriosbackend.dto.ReportDtos.StockTotals;
 import com.hurios.huriosbackend.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    // aquí puedes añadir consultas personalizadas si las necesitas luego
+
+    // ==================== CATÁLOGO PAGINADO (keyset) ====================
+    // Cada página continúa desde la última fila vista, así el costo no depende
+    // de cuántas páginas se hayan recorrido (a diferencia de OFFSET).
+
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.stock AS stock, " +
+           "p.imageUrl AS imageUrl, p.category AS category " +
+           "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesAfterId(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.stock AS stock, " +
+           "p.imageUrl AS imageUrl, p.category AS category " +
+           "FROM Product p ORDER BY p.price, p.id")
+    List<ProductSummary> findSummariesByPrice(Limit limit);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, p.stock AS stock, " +
+           "p.imageUrl AS imageUrl, p.category AS category " +
+           "FROM Product p WHERE p.price > :price OR (p.price = :price AND p.id > :afterId) " +
+           "ORDER BY p.price, p.id")
+    List<ProductSummary> findSummariesByPriceAfter(@Param("price") Double price,
+                                                   @Param("afterId") Long afterId,
+                                                   Limit limit);
+
+    // ==================== EXPORTACIÓN (keyset) ====================
+
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.price AS price, " +
+           "p.stock AS stock, p.createdAt AS createdAt " +
+           "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductRow> findExportRowsAfterId(@Param("afterId") Long afterId, Limit limit);
+
+    // ==================== STOCK ====================
+
+    /**
+     * Resumen de inventario (cantidades por nivel de stock y valor total)
+     * calculado por la BD en una sola lectura, sin cargar los productos.
+     * Bajo stock = entre 1 y 9 unidades.
+     */
+    @Query("SELECT COUNT(p) AS totalProducts, COALESCE(SUM(p.stock), 0L) AS totalStock, " +
+           "COALESCE(SUM(p.stock * p.price), 0.0) AS inventoryValue, " +
+           "SUM(CASE WHEN p.stock IS NULL OR p.stock = 0 THEN 1L ELSE 0L END) AS outOfStock, " +
+           "SUM(CASE WHEN p.stock > 0 AND p.stock < 10 THEN 1L ELSE 0L END) AS lowStock, " +
+           "SUM(CASE WHEN p.stock >= 10 THEN 1L ELSE 0L END) AS goodStock " +
+           "FROM Product p")
+    StockTotals summarizeStock();
+
+    /**
+     * Descuenta stock solo si alcanza, en una sola sentencia atómica.
+     * Devuelve 1 si se descontó y 0 si el stock era insuficiente (o el producto no existe).
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :id AND p.stock >= :quantity")
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Suma stock en una sola sentencia atómica (no pisa descuentos concurrentes).
+     * Devuelve 1 si se sumó y 0 si el producto no existe. Limpia el contexto de
+     * persistencia para que una lectura posterior vea el stock nuevo.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = COALESCE(p.stock, 0) + :quantity WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -1,9 +1,51 @@
 package com.hurios.huriosbackend.repository;
 
+import com.hurios.huriosbackend.dto.ExportDtos.SaleItemRow;
+import com.hurios.huriosbackend.dto.ReportDtos.ProductTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.SaleItemColumnsRow;
 import com.hurios.huriosbackend.entity.SaleItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
+
+    // Items de un lote de ventas en una sola consulta (con el nombre del producto)
+    @Query("SELECT i.sale.id AS saleId, p.name AS productName, i.quantity AS quantity, " +
+           "i.unitPrice AS unitPrice, i.subtotal AS subtotal " +
+           "FROM SaleItem i JOIN i.product p WHERE i.sale.id IN :saleIds ORDER BY i.sale.id, i.id")
+    List<SaleItemRow> findExportRowsBySaleIds(@Param("saleIds") Collection<Long> saleIds);
+
+    // Todas las líneas en orden de venta, con cursor (carga del almacén columnar)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i.sale.id AS saleId, i.product.id AS productId, i.quantity AS quantity, i.subtotal AS subtotal " +
+           "FROM SaleItem i ORDER BY i.sale.id, i.id")
+    Stream<SaleItemColumnsRow> streamColumnRows();
+
+    // Unidades e ingresos por producto de las ventas de [from, to) (bordes de los reportes)
+    @Query("SELECT p.id AS productId, p.name AS productName, SUM(i.quantity) AS quantity, " +
+           "COALESCE(SUM(i.subtotal), 0.0) AS revenue " +
+           "FROM SaleItem i JOIN i.product p JOIN i.sale s " +
+           "WHERE s.createdAt >= :from AND s.createdAt < :to GROUP BY p.id, p.name")
+    List<ProductTotals> sumByProductBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Productos más vendidos (por unidades) agregados en la BD; solo viajan las filas pedidas
+    @Query("SELECT p.id AS productId, p.name AS productName, SUM(i.quantity) AS quantity, " +
+           "COALESCE(SUM(i.subtotal), 0.0) AS revenue " +
+           "FROM SaleItem i JOIN i.product p GROUP BY p.id, p.name ORDER BY SUM(i.quantity) DESC, p.id")
+    List<ProductTotals> findTopSellingProducts(Limit limit);
 }
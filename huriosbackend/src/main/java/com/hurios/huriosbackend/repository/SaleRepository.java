@@ -1,13 +1,109 @@
 package com.hurios.huriosbackend.repository;
 
+import com.hurios.huriosbackend.dto.ExportDtos.SaleRow;
+import com.hurios.huriosbackend.dto.ReportDtos.CustomerTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.PurchaseTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.SaleAmount;
+import com.hurios.huriosbackend.dto.ReportDtos.SaleColumnsRow;
+import com.hurios.huriosbackend.dto.ReportDtos.StatusTotals;
 import com.hurios.huriosbackend.entity.Sale;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long> {
     List<Sale> findByUserId(Long userId);
     List<Sale> findByStatus(String status);
+    long countByUserId(Long userId);
+
+    /**
+     * Ventas de un rango [from, to) como stream con cursor (fetch size), para
+     * exportar sin cargar la tabla completa. Debe consumirse dentro de una
+     * transacción y cerrarse (try-with-resources).
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.id AS id, s.fullName AS fullName, s.status AS status, s.createdAt AS createdAt " +
+           "FROM Sale s WHERE s.createdAt >= :from AND s.createdAt < :to ORDER BY s.createdAt, s.id")
+    Stream<SaleRow> streamExportRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT COUNT(s) FROM Sale s WHERE s.createdAt >= :from AND s.createdAt < :to")
+    long countByCreatedAtRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Totales por estado de las ventas de [from, to). Los reportes solo la usan para
+     * los bordes de un rango que no coinciden con horas completas de los agregados.
+     */
+    @Query("SELECT COALESCE(s.status, 'DESCONOCIDO') AS status, COUNT(s) AS saleCount, " +
+           "COALESCE(SUM(s.total), 0.0) AS revenue " +
+           "FROM Sale s WHERE s.createdAt >= :from AND s.createdAt < :to GROUP BY COALESCE(s.status, 'DESCONOCIDO')")
+    List<StatusTotals> sumByStatusBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Fecha e importe de las ventas desde "from", como stream con cursor.
+     * Lo usa el índice en memoria de ventas por minuto al reconstruirse.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.createdAt AS createdAt, s.total AS total FROM Sale s WHERE s.createdAt >= :from")
+    Stream<SaleAmount> streamAmountsSince(@Param("from") LocalDateTime from);
+
+    // Fecha e importe de todas las ventas en orden de fecha (reconstrucción de los sketches diarios)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.createdAt AS createdAt, s.total AS total FROM Sale s " +
+           "WHERE s.createdAt IS NOT NULL AND s.total IS NOT NULL ORDER BY s.createdAt")
+    Stream<SaleAmount> streamAllAmounts();
+
+    // Importes de las ventas de [from, to) (bordes de rango para los percentiles)
+    @Query("SELECT s.total FROM Sale s WHERE s.createdAt >= :from AND s.createdAt < :to AND s.total IS NOT NULL")
+    List<Double> findTotalsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Todas las ventas en orden de id, con cursor (carga del almacén columnar)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.id AS id, s.createdAt AS createdAt, s.user.id AS userId, s.total AS total, " +
+           "s.status AS status, s.paymentMethod AS paymentMethod, s.deliveryDistrict AS deliveryDistrict " +
+           "FROM Sale s ORDER BY s.id")
+    Stream<SaleColumnsRow> streamColumnRows();
+
+    // Clientes con mayor gasto total, agregados en la BD
+    @Query("SELECT u.id AS customerId, u.email AS customerEmail, COUNT(s) AS totalOrders, SUM(s.total) AS totalSpent " +
+           "FROM Sale s JOIN s.user u WHERE s.total IS NOT NULL " +
+           "GROUP BY u.id, u.email ORDER BY SUM(s.total) DESC, u.id")
+    List<CustomerTotals> findTopCustomers(Limit limit);
+
+    // Compras con total, gasto y última compra de un usuario
+    @Query("SELECT SUM(CASE WHEN s.total IS NOT NULL THEN 1L ELSE 0L END) AS totalOrders, " +
+           "COALESCE(SUM(s.total), 0.0) AS totalSpent, MAX(s.createdAt) AS lastPurchaseDate " +
+           "FROM Sale s WHERE s.user.id = :userId")
+    PurchaseTotals summarizeByUser(@Param("userId") Long userId);
+
+    // Cantidad de usuarios distintos con al menos una compra
+    @Query("SELECT COUNT(DISTINCT s.user.id) FROM Sale s")
+    long countDistinctBuyers();
+
+    // Ventas con sus líneas y productos, para armar SaleConfirmedEvent fuera de una sesión
+    @Query("SELECT DISTINCT s FROM Sale s LEFT JOIN FETCH s.items i LEFT JOIN FETCH i.product " +
+           "WHERE s.id IN :ids ORDER BY s.id")
+    List<Sale> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 }
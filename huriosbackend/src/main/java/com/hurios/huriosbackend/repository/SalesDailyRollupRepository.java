@@ -0,0 +1,60 @@
+package com.hurios.huriosbackend.repository;
+
+import com.hurios.huriosbackend.dto.ReportDtos.DashboardSalesTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.DayTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.StatusTotals;
+import com.hurios.huriosbackend.entity.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, SalesDailyRollup.Key> {
+
+    /**
+     * Sumar una venta al agregado del día (crea la fila si no existe).
+     * El UPSERT es atómico, así dos compras simultáneas no pierden incrementos.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_rollup (sale_date, status, sale_count, revenue) " +
+                   "VALUES (:saleDate, :status, :saleCount, :revenue) " +
+                   "ON DUPLICATE KEY UPDATE sale_count = sale_count + :saleCount, revenue = revenue + :revenue",
+           nativeQuery = true)
+    int upsert(@Param("saleDate") LocalDate saleDate,
+               @Param("status") String status,
+               @Param("saleCount") long saleCount,
+               @Param("revenue") double revenue);
+
+    // Totales por estado de los días [from, to)
+    @Query("SELECT r.status AS status, SUM(r.saleCount) AS saleCount, SUM(r.revenue) AS revenue " +
+           "FROM SalesDailyRollup r WHERE r.saleDate >= :from AND r.saleDate < :to GROUP BY r.status")
+    List<StatusTotals> sumByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Totales de cada día (sumando estados), en orden de fecha
+    @Query("SELECT r.saleDate AS saleDate, SUM(r.saleCount) AS saleCount, SUM(r.revenue) AS revenue " +
+           "FROM SalesDailyRollup r GROUP BY r.saleDate ORDER BY r.saleDate")
+    List<DayTotals> sumByDay();
+
+    // Totales histórico / del día / del mes en una sola pasada sobre el agregado
+    @Query("SELECT COALESCE(SUM(r.saleCount), 0L) AS totalCount, COALESCE(SUM(r.revenue), 0.0) AS totalRevenue, " +
+           "COALESCE(SUM(CASE WHEN r.saleDate = :today THEN r.saleCount ELSE 0L END), 0L) AS todayCount, " +
+           "COALESCE(SUM(CASE WHEN r.saleDate = :today THEN r.revenue ELSE 0.0 END), 0.0) AS todayRevenue, " +
+           "COALESCE(SUM(CASE WHEN r.saleDate >= :monthStart THEN r.saleCount ELSE 0L END), 0L) AS monthCount, " +
+           "COALESCE(SUM(CASE WHEN r.saleDate >= :monthStart THEN r.revenue ELSE 0.0 END), 0.0) AS monthRevenue " +
+           "FROM SalesDailyRollup r")
+    DashboardSalesTotals sumForDashboard(@Param("today") LocalDate today, @Param("monthStart") LocalDate monthStart);
+
+    // Reconstruir desde la tabla de ventas (backfill)
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_rollup (sale_date, status, sale_count, revenue) " +
+                   "SELECT DATE(s.created_at), COALESCE(s.status, 'DESCONOCIDO'), COUNT(*), COALESCE(SUM(s.total), 0) " +
+                   "FROM sales s WHERE s.created_at IS NOT NULL " +
+                   "GROUP BY DATE(s.created_at), COALESCE(s.status, 'DESCONOCIDO')",
+           nativeQuery = true)
+    int rebuildFromSales();
+}
@@ -0,0 +1,36 @@
+package com.hurios.huriosbackend.repository;
+
+import com.hurios.huriosbackend.entity.SalesDailySketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SalesDailySketchRepository extends JpaRepository<SalesDailySketch, LocalDate> {
+
+    /**
+     * Crear la fila vacía del día si no existe (no falla si otra compra la creó antes)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_sketch (sale_date, sale_count, sketch) " +
+                   "VALUES (:saleDate, 0, :sketch) ON DUPLICATE KEY UPDATE sale_date = sale_date",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("saleDate") LocalDate saleDate, @Param("sketch") byte[] sketch);
+
+    // Leer el sketch del día bloqueando la fila hasta el fin de la transacción
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SalesDailySketch s WHERE s.saleDate = :saleDate")
+    Optional<SalesDailySketch> findForUpdate(@Param("saleDate") LocalDate saleDate);
+
+    // Sketches de los días [from, to)
+    @Query("SELECT s FROM SalesDailySketch s WHERE s.saleDate >= :from AND s.saleDate < :to")
+    List<SalesDailySketch> findBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,48 @@
+package com.hurios.huriosbackend.repository;
+
+import com.hurios.huriosbackend.dto.ReportDtos.HourTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.StatusTotals;
+import com.hurios.huriosbackend.entity.SalesHourlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesHourlyRollupRepository extends JpaRepository<SalesHourlyRollup, SalesHourlyRollup.Key> {
+
+    // Sumar una venta al agregado de la hora (UPSERT atómico)
+    @Modifying
+    @Query(value = "INSERT INTO sales_hourly_rollup (sale_hour, status, sale_count, revenue) " +
+                   "VALUES (:saleHour, :status, :saleCount, :revenue) " +
+                   "ON DUPLICATE KEY UPDATE sale_count = sale_count + :saleCount, revenue = revenue + :revenue",
+           nativeQuery = true)
+    int upsert(@Param("saleHour") LocalDateTime saleHour,
+               @Param("status") String status,
+               @Param("saleCount") long saleCount,
+               @Param("revenue") double revenue);
+
+    // Totales por estado de las horas [from, to)
+    @Query("SELECT r.status AS status, SUM(r.saleCount) AS saleCount, SUM(r.revenue) AS revenue " +
+           "FROM SalesHourlyRollup r WHERE r.saleHour >= :from AND r.saleHour < :to GROUP BY r.status")
+    List<StatusTotals> sumByStatus(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Totales de cada hora desde "from" (sumando estados), en orden de hora
+    @Query("SELECT r.saleHour AS saleHour, SUM(r.saleCount) AS saleCount, SUM(r.revenue) AS revenue " +
+           "FROM SalesHourlyRollup r WHERE r.saleHour >= :from GROUP BY r.saleHour ORDER BY r.saleHour")
+    List<HourTotals> sumByHourSince(@Param("from") LocalDateTime from);
+
+    // Reconstruir desde la tabla de ventas (backfill)
+    @Modifying
+    @Query(value = "INSERT INTO sales_hourly_rollup (sale_hour, status, sale_count, revenue) " +
+                   "SELECT DATE_FORMAT(s.created_at, '%Y-%m-%d %H:00:00'), COALESCE(s.status, 'DESCONOCIDO'), " +
+                   "COUNT(*), COALESCE(SUM(s.total), 0) " +
+                   "FROM sales s WHERE s.created_at IS NOT NULL " +
+                   "GROUP BY DATE_FORMAT(s.created_at, '%Y-%m-%d %H:00:00'), COALESCE(s.status, 'DESCONOCIDO')",
+           nativeQuery = true)
+    int rebuildFromSales();
+}
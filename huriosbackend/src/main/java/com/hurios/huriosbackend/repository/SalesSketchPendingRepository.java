@@ -0,0 +1,26 @@
+package com.hurios.huriosbackend.repository;
+
+import com.hurios.huriosbackend.entity.SalesSketchPending;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesSketchPendingRepository extends JpaRepository<SalesSketchPending, Long> {
+
+    /**
+     * Próximo lote a compactar, bloqueado hasta el fin de la transacción. SKIP LOCKED
+     * hace que dos instancias compactando a la vez tomen filas distintas.
+     */
+    @Query(value = "SELECT * FROM sales_daily_sketch_pending ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<SalesSketchPending> lockBatch(@Param("limit") int limit);
+
+    // Totales todavía sin compactar de los días [from, to)
+    @Query("SELECT p.total FROM SalesSketchPending p WHERE p.saleDate >= :from AND p.saleDate < :to")
+    List<Double> findTotalsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -1,8 +1,21 @@
 package com.hurios.huriosbackend.repository;
 
+import com.hurios.huriosbackend.dto.ExportDtos.ClientRow;
+import com.hurios.huriosbackend.dto.ReportDtos.RoleCount;
+import com.hurios.huriosbackend.dto.ReportDtos.UserTotals;
 import com.hurios.huriosbackend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /*
  UserRepository: JPA repo para consultas a tabla users
@@ -10,4 +23,42 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    long countByRole(String role);
+    List<User> findByRole(String role);
+    List<User> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+    List<User> findByCreatedAtAfterOrderByCreatedAtDesc(LocalDateTime cutoff);
+    long countByCreatedAtGreaterThanEqual(LocalDateTime since);
+
+    /**
+     * Todos los usuarios como stream con cursor (fetch size) y sin seguimiento de
+     * cambios. Debe consumirse dentro de una transacción con EntityStreams, que
+     * vacía el contexto de persistencia cada tantos usuarios.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAll();
+
+    // Usuarios sin ninguna compra
+    @Query("SELECT u FROM User u WHERE NOT EXISTS (SELECT s.id FROM Sale s WHERE s.user = u)")
+    List<User> findWithoutPurchases();
+
+    // Exportación de clientes por páginas (keyset sobre id)
+    @Query("SELECT u.id AS id, u.fullName AS fullName, u.email AS email, u.phone AS phone, " +
+           "u.address AS address, u.createdAt AS createdAt " +
+           "FROM User u WHERE u.role = 'CLIENTE' AND u.id > :afterId ORDER BY u.id")
+    List<ClientRow> findClientExportRowsAfterId(@Param("afterId") Long afterId, Limit limit);
+
+    // Estadísticas: totales, verificados y nuevos desde una fecha en una sola consulta
+    @Query("SELECT COUNT(u) AS totalUsers, " +
+           "SUM(CASE WHEN u.isVerified = true THEN 1L ELSE 0L END) AS verifiedUsers, " +
+           "SUM(CASE WHEN u.createdAt > :since THEN 1L ELSE 0L END) AS newUsers " +
+           "FROM User u")
+    UserTotals summarizeUsers(@Param("since") LocalDateTime since);
+
+    // Cantidad de usuarios por rol
+    @Query("SELECT COALESCE(u.role, 'SIN_ROL') AS role, COUNT(u) AS total FROM User u GROUP BY COALESCE(u.role, 'SIN_ROL')")
+    List<RoleCount> countGroupedByRole();
 }
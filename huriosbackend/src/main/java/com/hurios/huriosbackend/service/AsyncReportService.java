@@ -0,0 +1,119 @@
+package com.hurios.huriosbackend.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * AsyncReportService - Ejecución de reportes fuera del hilo de la petición, con caché
+ *
+ * - Cada reporte corre en un pool acotado ("report-worker"); con la cola llena se
+ *   rechaza (RejectedExecutionException) en lugar de acumular trabajo.
+ * - El resultado se guarda por tipo de reporte y parámetros durante
+ *   app.reports.cache-ttl-seconds. Se guarda el futuro, así pedidos idénticos
+ *   mientras el reporte se calcula esperan el mismo cálculo.
+ * - Una venta confirmada o un cambio del catálogo vacían la caché.
+ * - Un reporte que falla no queda en caché.
+ */
+@Service
+public class AsyncReportService {
+
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, CompletableFuture<Object>> results;
+    private final long timeoutSeconds;
+
+    public AsyncReportService(@Value("${app.reports.threads:2}") int threads,
+                              @Value("${app.reports.queue-capacity:20}") int queueCapacity,
+                              @Value("${app.reports.cache-ttl-seconds:300}") long cacheTtlSeconds,
+                              @Value("${app.reports.cache-max-entries:200}") long cacheMaxEntries,
+                              @Value("${app.reports.timeout-seconds:30}") long timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+        this.results = CacheBuilder.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(cacheTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Obtener un reporte: desde caché si ya se calculó (o se está calculando)
+     * con los mismos parámetros, o encolándolo en el pool de reportes.
+     * El futuro devuelto vence a los app.reports.timeout-seconds (TimeoutException).
+     *
+     * @param type   tipo de reporte (parte de la clave de caché)
+     * @param report cálculo del reporte
+     * @param params parámetros del reporte (parte de la clave de caché)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> run(String type, Supplier<T> report, Object... params) {
+        String key = type + "|" + Arrays.stream(params).map(String::valueOf).collect(Collectors.joining("|"));
+
+        CompletableFuture<Object> future;
+        try {
+            future = results.asMap().computeIfAbsent(key,
+                    k -> CompletableFuture.supplyAsync(report::get, executor));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        // Etapa propia de este pedido (con su vencimiento, así un cliente que se cansa
+        // no afecta al resto); completa después de sacar de caché un resultado fallido
+        CompletableFuture<Object> request = future.whenComplete((result, error) -> {
+            if (error != null) {
+                results.asMap().remove(key, future);
+            }
+        });
+        return (CompletableFuture<T>) request.orTimeout(timeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Vaciar la caché cuando se confirma una venta
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleConfirmed(SaleConfirmedEvent event) {
+        invalidateAll();
+    }
+
+    /**
+     * Vaciar la caché cuando cambia el catálogo o el stock
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        results.invalidateAll();
+    }
+
+    long cachedEntries() {
+        return results.size();
+    }
+}
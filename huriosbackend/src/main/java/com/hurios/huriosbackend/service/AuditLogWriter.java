@@ -0,0 +1,355 @@
+package com.hurios.huriosbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hurios.huriosbackend.entity.AuditLog;
+import com.hurios.huriosbackend.util.MpmcRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * AuditLogWriter - Escritura asíncrona y por lotes de la tabla audit_logs
+ *
+ * - Los hilos de las peticiones solo encolan el registro en un ring buffer sin locks.
+ * - Un único hilo escritor lo vacía e inserta con batch JDBC cuando junta
+ *   app.audit.batch-size registros o pasa app.audit.flush-interval-ms; sin trabajo
+ *   queda bloqueado en la cola hasta que llega un registro o vence el lote.
+ * - Si la cola se llena se aplica app.audit.overflow-policy:
+ *   BLOCK (espera hasta block-timeout-ms y luego descarta), DROP (descarta) o
+ *   SPILL (guarda en disco como JSON por línea y se reinserta cuando hay espacio;
+ *   si la reinserción falla a mitad, el archivo se reescribe sin los lotes ya insertados).
+ * - Métricas: hurios.audit.queue.depth, hurios.audit.events.written/dropped/spilled.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    public enum OverflowPolicy { BLOCK, DROP, SPILL }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (action, entity, entity_id, user_id, user_email, ip_address, " +
+            "user_agent, details, status, error_message, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SPILL_FILE = "audit-spill.jsonl";
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long SPILL_REPLAY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MpmcRingBuffer<AuditLog> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final Path spillDir;
+    private final Object spillLock = new Object();
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.audit.buffer-capacity:8192}") int bufferCapacity,
+                          @Value("${app.audit.batch-size:200}") int batchSize,
+                          @Value("${app.audit.flush-interval-ms:500}") long flushIntervalMs,
+                          @Value("${app.audit.overflow-policy:SPILL}") OverflowPolicy overflowPolicy,
+                          @Value("${app.audit.block-timeout-ms:100}") long blockTimeoutMs,
+                          @Value("${app.audit.spill-dir:audit-spill}") String spillDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.buffer = new MpmcRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.spillDir = Paths.get(spillDir).toAbsolutePath();
+
+        Gauge.builder("hurios.audit.queue.depth", buffer, MpmcRingBuffer::size)
+                .description("Registros de auditoría en cola esperando ser escritos")
+                .tag("application", "huriosbackend")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("hurios.audit.events.written")
+                .description("Registros de auditoría insertados en la BD")
+                .tag("application", "huriosbackend")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("hurios.audit.events.dropped")
+                .description("Registros de auditoría descartados por cola llena o error")
+                .tag("application", "huriosbackend")
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("hurios.audit.events.spilled")
+                .description("Registros de auditoría guardados en disco por cola llena")
+                .tag("application", "huriosbackend")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Detener el escritor insertando lo que quede en cola
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            // la espera en la cola dura como mucho flush-interval-ms
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Encolar un registro (no bloquea salvo con la política BLOCK y la cola llena)
+     */
+    public void submit(AuditLog log) {
+        if (log.getCreatedAt() == null) {
+            // con JDBC no corre @PrePersist: la fecha se fija al encolar
+            log.setCreatedAt(LocalDateTime.now());
+        }
+        if (buffer.offer(log)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    if (buffer.offer(log)) {
+                        return;
+                    }
+                }
+                droppedCounter.increment();
+            }
+            case DROP -> droppedCounter.increment();
+            case SPILL -> spill(List.of(log));
+        }
+    }
+
+    /**
+     * Registros en cola
+     */
+    public int queueDepth() {
+        return buffer.size();
+    }
+
+    // ==================== HILO ESCRITOR ====================
+
+    private void runLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        long batchStartedAt = 0;
+        long lastReplayAt = System.nanoTime();
+
+        while (running || !buffer.isEmpty() || !batch.isEmpty()) {
+            // Esperar en la cola hasta que venza el lote; sin lote, como mucho flush-interval-ms
+            // (así stop() y la reinserción desde disco no esperan de más)
+            long deadline = batch.isEmpty()
+                    ? System.nanoTime() + flushIntervalNanos
+                    : batchStartedAt + flushIntervalNanos;
+            AuditLog first = running ? take(deadline - System.nanoTime()) : buffer.poll();
+            if (first != null) {
+                if (batch.isEmpty()) {
+                    batchStartedAt = System.nanoTime();
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - batch.size());
+            }
+
+            long now = System.nanoTime();
+            boolean full = batch.size() >= batchSize;
+            boolean due = !batch.isEmpty() && now - batchStartedAt >= flushIntervalNanos;
+            if (full || due || (!running && !batch.isEmpty())) {
+                flush(batch);
+                batch.clear();
+                continue;
+            }
+
+            // Reinsertar lo guardado en disco cuando la cola está tranquila
+            if (batch.isEmpty() && now - lastReplayAt >= SPILL_REPLAY_INTERVAL_NANOS) {
+                lastReplayAt = now;
+                replaySpilled();
+            }
+        }
+    }
+
+    private AuditLog take(long timeoutNanos) {
+        try {
+            return buffer.poll(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false; // se vacía lo que quede y el hilo termina
+            return null;
+        }
+    }
+
+    /**
+     * Insertar el lote con batch JDBC. Si falla, el lote va a disco (SPILL) o se descarta.
+     */
+    void flush(List<AuditLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            insertBatch(batch);
+        } catch (Exception e) {
+            logger.error("Error insertando lote de auditoría ({}): {}", batch.size(), e.getMessage());
+            if (overflowPolicy == OverflowPolicy.SPILL) {
+                spill(batch);
+            } else {
+                droppedCounter.increment(batch.size());
+            }
+        }
+    }
+
+    private void insertBatch(List<AuditLog> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, log) -> {
+            ps.setString(1, log.getAction());
+            ps.setString(2, log.getEntity());
+            ps.setObject(3, log.getEntityId(), Types.BIGINT);
+            ps.setObject(4, log.getUserId(), Types.BIGINT);
+            ps.setString(5, log.getUserEmail());
+            ps.setString(6, log.getIpAddress());
+            ps.setString(7, log.getUserAgent());
+            ps.setString(8, log.getDetails());
+            ps.setString(9, log.getStatus());
+            ps.setString(10, log.getErrorMessage());
+            ps.setTimestamp(11, Timestamp.valueOf(log.getCreatedAt()));
+        });
+        writtenCounter.increment(batch.size());
+    }
+
+    // ==================== DESBORDE A DISCO ====================
+
+    private void spill(List<AuditLog> logs) {
+        synchronized (spillLock) {
+            try {
+                Files.createDirectories(spillDir);
+                try (BufferedWriter writer = Files.newBufferedWriter(spillDir.resolve(SPILL_FILE),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (AuditLog log : logs) {
+                        writer.write(objectMapper.writeValueAsString(log));
+                        writer.newLine();
+                    }
+                }
+                spilledCounter.increment(logs.size());
+            } catch (IOException e) {
+                logger.error("No se pudo guardar auditoría en disco: {}", e.getMessage());
+                droppedCounter.increment(logs.size());
+            }
+        }
+    }
+
+    /**
+     * Reinsertar los registros guardados en disco. El archivo actual se renombra
+     * primero para que los nuevos desbordes vayan a un archivo nuevo.
+     */
+    void replaySpilled() {
+        if (!Files.isDirectory(spillDir)) {
+            return;
+        }
+        synchronized (spillLock) {
+            Path current = spillDir.resolve(SPILL_FILE);
+            if (Files.exists(current)) {
+                try {
+                    Files.move(current, spillDir.resolve(SPILL_FILE + "." + System.currentTimeMillis() + ".replay"));
+                } catch (IOException e) {
+                    logger.warn("No se pudo preparar la reinserción de auditoría: {}", e.getMessage());
+                    return;
+                }
+            }
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDir, "*.replay")) {
+            for (Path file : files) {
+                replayFile(file);
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo leer la auditoría en disco: {}", e.getMessage());
+        }
+    }
+
+    private void replayFile(Path file) throws IOException {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        long insertedLines = 0; // líneas del archivo cuyos lotes ya se insertaron
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(objectMapper.readValue(line, AuditLog.class));
+                if (batch.size() == batchSize) {
+                    insertBatch(batch);
+                    batch.clear();
+                    insertedLines = lineNumber;
+                }
+            }
+            if (!batch.isEmpty()) {
+                insertBatch(batch);
+            }
+        } catch (Exception e) {
+            // Se reintenta en la próxima pasada, solo con las líneas que faltan
+            logger.warn("Error reinsertando auditoría desde {} (línea {}): {}",
+                    file.getFileName(), lineNumber, e.getMessage());
+            if (insertedLines > 0) {
+                dropInsertedLines(file, insertedLines);
+            }
+            return;
+        }
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Reescribir el archivo sin sus primeras "lines" líneas (reemplazo atómico)
+     */
+    private void dropInsertedLines(Path file, long lines) throws IOException {
+        Path remaining = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Stream<String> rest = Files.lines(file, StandardCharsets.UTF_8).skip(lines);
+             BufferedWriter writer = Files.newBufferedWriter(remaining, StandardCharsets.UTF_8)) {
+            for (Iterator<String> it = rest.iterator(); it.hasNext(); ) {
+                writer.write(it.next());
+                writer.newLine();
+            }
+        }
+        Files.move(remaining, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -5,9 +5,7 @@ import com.hurios.huriosbackend.entity.AuditLog;
 import com.hurios.huriosbackend.repository.AuditLogRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -23,11 +21,13 @@ public class AuditService {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+    
     /**
-     * Registra una acción de auditoría de forma asíncrona
+     * Registra una acción de auditoría de forma asíncrona:
+     * solo encola el registro, AuditLogWriter lo inserta por lotes
      */
-    @Async
-    @Transactional
     public void logAction(String action, String entity, Long entityId, Long userId, String userEmail, 
                          String ipAddress, String userAgent, Map<String, Object> details) {
         try {
@@ -39,7 +39,7 @@ public class AuditService {
                 log.setDetails(objectMapper.writeValueAsString(details));
             }
             
-            auditLogRepository.save(log);
+            auditLogWriter.submit(log);
         } catch (Exception e) {
             // Log error pero no interrumpir el flujo principal
             System.err.println("Error logging audit action: " + e.getMessage());
@@ -49,7 +49,6 @@ public class AuditService {
     /**
      * Registra una acción exitosa
      */
-    @Async
     public void logSuccess(String action, String entity, Long entityId, Long userId, String userEmail, 
                           HttpServletRequest request) {
         Map<String, Object> details = new HashMap<>();
@@ -60,8 +59,6 @@ public class AuditService {
     /**
      * Registra una acción fallida
      */
-    @Async
-    @Transactional
     public void logFailure(String action, String entity, Long entityId, Long userId, String userEmail,
                           HttpServletRequest request, String errorMessage) {
         try {
@@ -71,7 +68,7 @@ public class AuditService {
             log.setStatus("FAILURE");
             log.setErrorMessage(errorMessage);
             
-            auditLogRepository.save(log);
+            auditLogWriter.submit(log);
         } catch (Exception e) {
             System.err.println("Error logging audit failure: " + e.getMessage());
         }
@@ -1,5 +1,6 @@
 package com.hurios.huriosbackend.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -27,6 +28,7 @@ public class AuthService {
     private final EmailService emailService;
     private final JwtUtil jwtUtil;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.frontend.url}")
     private String frontendUrl;
@@ -36,13 +38,15 @@ public class AuthService {
                        PasswordResetRepository resetRepo,
                        EmailService emailService,
                        JwtUtil jwtUtil,
-                       BCryptPasswordEncoder passwordEncoder) {
+                       BCryptPasswordEncoder passwordEncoder,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepo = userRepo;
         this.codeRepo = codeRepo;
         this.resetRepo = resetRepo;
         this.emailService = emailService;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     // Registro: crea usuario, guarda hash de password y envía código de verificación
@@ -98,9 +102,9 @@ public class AuthService {
             return Map.of("ok", false, "message", "not_verified");
         }
 
-        // Generar JWT con subject = email del usuario
+        // Generar JWT con subject = email del usuario, más su id y rol como claims
         String subject = user.getEmail();
-        String token = jwtUtil.generateToken(subject);
+        String token = jwtUtil.generateToken(subject, user.getId(), user.getRole());
 
         // devolver token, mensaje OK y rol
         return Map.of("ok", true, "message", "Login exitoso", "token", token, "role", user.getRole());
@@ -136,6 +140,7 @@ public class AuthService {
 
         user.setVerified(true);
         userRepo.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
 
         // eliminar códigos antiguos
         codeRepo.deleteByUser(user);
@@ -182,6 +187,7 @@ public class AuthService {
         // actualizar contraseña (hashear)
         user.setPasswordHash(passwordEncoder.encode(newPassword));
         userRepo.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
 
         // marcar token como usado
         PasswordReset pr = rec.get();
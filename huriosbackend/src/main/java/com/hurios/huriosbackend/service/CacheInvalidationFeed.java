@@ -0,0 +1,211 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.entity.CacheInvalidation;
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.entity.Sale;
+import com.hurios.huriosbackend.repository.CacheInvalidationRepository;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import com.hurios.huriosbackend.repository.SaleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * CacheInvalidationFeed - Coherencia de las cachés locales entre instancias
+ *
+ * - Cada ProductChangedEvent / UserChangedEvent local se registra en la tabla
+ *   cache_invalidations dentro de la misma transacción del cambio (BEFORE_COMMIT),
+ *   con el id de esta instancia.
+ * - Cada poll-interval-ms se leen las filas nuevas (id mayor a la última vista) de
+ *   otras instancias y se vuelven a publicar como eventos remotos: CacheService borra
+ *   sus entradas y el índice de búsqueda, el dashboard, etc. se actualizan igual que
+ *   con un cambio local. Los productos se releen de la BD para publicar SAVED o DELETED.
+ * - Cada SaleConfirmedEvent local también se registra (tipo SALE): las demás instancias
+ *   releen la venta y la publican como remota, así SalesColumnStore, SalesTimeIndex,
+ *   TopSellerTracker y las cachés de reportes ven las ventas de todas las instancias.
+ *   Los agregados en tablas (SalesRollupService) ignoran las ventas remotas.
+ * - Los ids AUTO_INCREMENT se asignan al insertar pero se confirman en cualquier orden:
+ *   un id saltado se vuelve a buscar durante gap-timeout-ms por si su transacción
+ *   seguía abierta (pasado ese tiempo se asume un rollback).
+ * - Las filas con más de retention-minutes se borran periódicamente.
+ *
+ * Con una sola instancia puede desactivarse (app.cache.invalidation.enabled=false).
+ */
+@Service
+public class CacheInvalidationFeed {
+
+    private static final int MAX_PENDING_GAPS = 10_000;
+
+    private final CacheInvalidationRepository repository;
+    private final ProductRepository productRepository;
+    private final SaleRepository saleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String nodeId;
+    private final int batchSize;
+    private final long gapTimeoutMs;
+    private final long retentionMinutes;
+
+    // Último id leído (-1 hasta la primera lectura) e ids saltados: id -> detectado en (ms)
+    private long lastSeenId = -1;
+    private final Map<Long, Long> pendingGaps = new LinkedHashMap<>();
+
+    public CacheInvalidationFeed(CacheInvalidationRepository repository,
+                                 ProductRepository productRepository,
+                                 SaleRepository saleRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${app.cache.invalidation.enabled:true}") boolean enabled,
+                                 @Value("${app.cache.invalidation.node-id:}") String nodeId,
+                                 @Value("${app.cache.invalidation.batch-size:500}") int batchSize,
+                                 @Value("${app.cache.invalidation.gap-timeout-ms:30000}") long gapTimeoutMs,
+                                 @Value("${app.cache.invalidation.retention-minutes:60}") long retentionMinutes) {
+        this.repository = repository;
+        this.productRepository = productRepository;
+        this.saleRepository = saleRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.batchSize = batchSize;
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // ==================== ESCRITURA ====================
+
+    /**
+     * Registrar el cambio de producto junto con la transacción que lo hizo
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (enabled && !event.isRemote() && event.getProductId() != null) {
+            repository.save(new CacheInvalidation(CacheInvalidation.PRODUCT, event.getProductId(), null, nodeId));
+        }
+    }
+
+    /**
+     * Registrar el cambio de usuario (id y email) junto con la transacción que lo hizo
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (enabled && !event.isRemote()) {
+            repository.save(new CacheInvalidation(CacheInvalidation.USER, event.getUserId(), event.getEmail(), nodeId));
+        }
+    }
+
+    /**
+     * Registrar la venta junto con la transacción que la hizo
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSaleConfirmed(SaleConfirmedEvent event) {
+        if (enabled && !event.isRemote() && event.getSaleId() != null) {
+            repository.save(new CacheInvalidation(CacheInvalidation.SALE, event.getSaleId(), null, nodeId));
+        }
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * Leer los cambios nuevos de otras instancias y aplicarlos localmente
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+        if (lastSeenId < 0) {
+            // Al arrancar las cachés están vacías: basta con seguir desde el último cambio
+            lastSeenId = repository.findMaxId();
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<CacheInvalidation> rows = new ArrayList<>();
+
+        if (!pendingGaps.isEmpty()) {
+            for (CacheInvalidation row : repository.findByIdInOrderByIdAsc(pendingGaps.keySet())) {
+                pendingGaps.remove(row.getId());
+                rows.add(row);
+            }
+            pendingGaps.values().removeIf(detectedAt -> now - detectedAt > gapTimeoutMs);
+        }
+
+        for (CacheInvalidation row : repository.findByIdGreaterThanOrderByIdAsc(lastSeenId, Limit.of(batchSize))) {
+            long id = row.getId();
+            for (long missing = lastSeenId + 1; missing < id && pendingGaps.size() < MAX_PENDING_GAPS; missing++) {
+                pendingGaps.put(missing, now);
+            }
+            lastSeenId = id;
+            rows.add(row);
+        }
+
+        apply(rows);
+    }
+
+    private void apply(List<CacheInvalidation> rows) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        List<UserChangedEvent> users = new ArrayList<>();
+        Set<String> seenUsers = new HashSet<>();
+        Set<Long> saleIds = new LinkedHashSet<>();
+        for (CacheInvalidation row : rows) {
+            if (nodeId.equals(row.getNodeId())) {
+                continue; // cambio propio: ya se aplicó al confirmarse
+            }
+            if (CacheInvalidation.PRODUCT.equals(row.getEntityType())) {
+                productIds.add(row.getEntityId());
+            } else if (CacheInvalidation.USER.equals(row.getEntityType())
+                    && seenUsers.add(row.getEntityId() + "|" + row.getEntityKey())) {
+                users.add(new UserChangedEvent(row.getEntityId(), row.getEntityKey()).asRemote());
+            } else if (CacheInvalidation.SALE.equals(row.getEntityType())) {
+                saleIds.add(row.getEntityId());
+            }
+        }
+
+        if (!productIds.isEmpty()) {
+            Set<Long> deleted = new LinkedHashSet<>(productIds);
+            for (Product product : productRepository.findAllById(productIds)) {
+                deleted.remove(product.getId());
+                eventPublisher.publishEvent(ProductChangedEvent.saved(product).asRemote());
+            }
+            deleted.forEach(id -> eventPublisher.publishEvent(ProductChangedEvent.deleted(id).asRemote()));
+        }
+        users.forEach(eventPublisher::publishEvent);
+
+        if (!saleIds.isEmpty()) {
+            for (Sale sale : saleRepository.findWithItemsByIdIn(saleIds)) {
+                eventPublisher.publishEvent(SaleConfirmedEvent.of(sale).asRemote());
+            }
+        }
+    }
+
+    // ==================== LIMPIEZA ====================
+
+    /**
+     * Borrar los cambios que ya leyeron todas las instancias
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.cleanup-interval-ms:600000}")
+    @Transactional
+    public void cleanup() {
+        if (enabled) {
+            repository.deleteOlderThan(LocalDateTime.now().minusMinutes(retentionMinutes));
+        }
+    }
+}
@@ -2,91 +2,254 @@ package com.hurios.huriosbackend.service;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.hurios.huriosbackend.entity.Product;
 import com.hurios.huriosbackend.entity.User;
 import com.hurios.huriosbackend.repository.ProductRepository;
 import com.hurios.huriosbackend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
- * CacheService - Servicio de caché usando Google Guava
- * Mejora el rendimiento al cachear datos frecuentemente consultados
+ * CacheService - Caché de lectura de productos y usuarios (Google Guava)
+ *
+ * - Las lecturas de detalle (GET /products/{id}, búsqueda, checkout, perfil) pasan por
+ *   aquí: si el dato no está se lee de la BD y queda guardado.
+ * - Toda modificación publica ProductChangedEvent o UserChangedEvent; al confirmarse la
+ *   transacción se borra la entrada (antes que cualquier otro listener, que podría
+ *   volver a leerla).
+ * - Los objetos guardados están desacoplados de la sesión y se comparten entre hilos:
+ *   solo deben leerse. Para modificar, cargar la entidad desde el repositorio.
+ * - Las demás instancias reciben los cambios vía CacheInvalidationFeed, con unos
+ *   segundos de demora; el TTL corto acota cuánto dura un dato viejo si un cambio se
+ *   hizo fuera de una transacción o sin publicar el evento.
+ * - Guava no cancela una carga en curso al invalidar: si un producto se invalida mientras
+ *   se lee, la lectura vuelve a borrarlo al terminar (marcas por franja de id).
+ * - Las estadísticas de cada caché se publican en Micrometer (cache.gets, cache.size...).
  */
 @Service
 public class CacheService {
 
+    private static final int INVALIDATION_STRIPES = 64;
+
     private final LoadingCache<Long, Product> productCache;
+    private final LoadingCache<Long, User> userByIdCache;
     private final LoadingCache<String, User> userByEmailCache;
+    // Contador de invalidaciones por franja de id de producto
+    private final AtomicLongArray productInvalidations = new AtomicLongArray(INVALIDATION_STRIPES);
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
 
-    public CacheService(ProductRepository productRepository, UserRepository userRepository) {
+    public CacheService(ProductRepository productRepository,
+                        UserRepository userRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.cache.product-max-entries:1000}") long productMaxEntries,
+                        @Value("${app.cache.product-ttl-minutes:10}") long productTtlMinutes,
+                        @Value("${app.cache.user-max-entries:1000}") long userMaxEntries,
+                        @Value("${app.cache.user-ttl-minutes:15}") long userTtlMinutes) {
         this.productRepository = productRepository;
         this.userRepository = userRepository;
 
-        // Cache de productos - expira después de 10 minutos
+        // Cache de productos por id
         this.productCache = CacheBuilder.newBuilder()
-                .maximumSize(100)  // Máximo 100 productos en cache
-                .expireAfterWrite(10, TimeUnit.MINUTES)  // Expira después de 10 minutos
+                .maximumSize(productMaxEntries)
+                .expireAfterWrite(productTtlMinutes, TimeUnit.MINUTES)
                 .recordStats()  // Registrar estadísticas
                 .build(new CacheLoader<Long, Product>() {
                     @Override
-                    public Product load(Long id) throws Exception {
-                        return productRepository.findById(id)
-                                .orElseThrow(() -> new Exception("Producto no encontrado: " + id));
+                    public Product load(Long id) throws NotFoundException {
+                        return productRepository.findById(id).orElseThrow(NotFoundException::new);
+                    }
+
+                    // Los ids inexistentes no vienen en el mapa: getAll lanza InvalidCacheLoadException
+                    @Override
+                    public Map<Long, Product> loadAll(Iterable<? extends Long> ids) {
+                        Set<Long> keys = new LinkedHashSet<>();
+                        ids.forEach(keys::add);
+                        Map<Long, Product> products = new HashMap<>();
+                        for (Product product : productRepository.findAllById(keys)) {
+                            products.put(product.getId(), product);
+                        }
+                        return products;
                     }
                 });
 
-        // Cache de usuarios por email - expira después de 15 minutos
+        // Cache de usuarios por id (tokens con claim uid) y por email (tokens antiguos)
+        this.userByIdCache = CacheBuilder.newBuilder()
+                .maximumSize(userMaxEntries)
+                .expireAfterWrite(userTtlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build(new CacheLoader<Long, User>() {
+                    @Override
+                    public User load(Long id) throws NotFoundException {
+                        return userRepository.findById(id).orElseThrow(NotFoundException::new);
+                    }
+                });
         this.userByEmailCache = CacheBuilder.newBuilder()
-                .maximumSize(50)  // Máximo 50 usuarios en cache
-                .expireAfterWrite(15, TimeUnit.MINUTES)
+                .maximumSize(userMaxEntries)
+                .expireAfterWrite(userTtlMinutes, TimeUnit.MINUTES)
                 .recordStats()
                 .build(new CacheLoader<String, User>() {
                     @Override
-                    public User load(String email) throws Exception {
-                        return userRepository.findByEmail(email)
-                                .orElseThrow(() -> new Exception("Usuario no encontrado: " + email));
+                    public User load(String email) throws NotFoundException {
+                        return userRepository.findByEmail(email).orElseThrow(NotFoundException::new);
                     }
                 });
+
+        if (meterRegistry != null) {
+            GuavaCacheMetrics.monitor(meterRegistry, productCache, "products");
+            GuavaCacheMetrics.monitor(meterRegistry, userByIdCache, "users.by-id");
+            GuavaCacheMetrics.monitor(meterRegistry, userByEmailCache, "users.by-email");
+        }
     }
 
+    // ==================== LECTURA ====================
+
     /**
      * Obtener producto desde cache (o cargar si no existe)
      */
-    public Product getProduct(Long id) throws ExecutionException {
-        return productCache.get(id);
+    public Optional<Product> findProduct(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        long seen = productInvalidations.get(stripe(id));
+        Optional<Product> product = lookup(productCache, id);
+        discardIfInvalidated(id, seen);
+        return product;
+    }
+
+    /**
+     * Obtener varios productos; los que falten se leen en una sola consulta.
+     * Los ids inexistentes no aparecen en el resultado.
+     */
+    public List<Product> findProducts(Collection<Long> ids) {
+        Set<Long> keys = new LinkedHashSet<>(ids);
+        long[] seen = new long[INVALIDATION_STRIPES];
+        for (int i = 0; i < seen.length; i++) {
+            seen[i] = productInvalidations.get(i);
+        }
+        Map<Long, Product> products;
+        try {
+            products = productCache.getAll(keys);
+        } catch (InvalidCacheLoadException e) {
+            // Faltó algún id: los encontrados ya quedaron guardados por el loader
+            products = productCache.getAllPresent(keys);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new IllegalStateException("Error al cargar productos " + keys + " en cache", e.getCause());
+        }
+        for (Long id : keys) {
+            discardIfInvalidated(id, seen[stripe(id)]);
+        }
+        return new ArrayList<>(products.values());
+    }
+
+    /**
+     * Obtener usuario por id desde cache
+     */
+    public Optional<User> findUserById(Long id) {
+        return id == null ? Optional.empty() : lookup(userByIdCache, id);
     }
 
     /**
      * Obtener usuario por email desde cache
      */
-    public User getUserByEmail(String email) throws ExecutionException {
-        return userByEmailCache.get(email);
+    public Optional<User> findUserByEmail(String email) {
+        return email == null ? Optional.empty() : lookup(userByEmailCache, email);
+    }
+
+    // Si el producto se invalidó durante la lectura, lo cargado puede ser anterior al cambio
+    private void discardIfInvalidated(Long id, long seen) {
+        if (productInvalidations.get(stripe(id)) != seen) {
+            productCache.invalidate(id);
+        }
+    }
+
+    private static int stripe(Long id) {
+        return Math.floorMod(id.hashCode(), INVALIDATION_STRIPES);
+    }
+
+    // Los inexistentes no se guardan: un registro nuevo con ese email se ve enseguida
+    private static <K, V> Optional<V> lookup(LoadingCache<K, V> cache, K key) {
+        try {
+            return Optional.of(cache.get(key));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof NotFoundException) {
+                return Optional.empty();
+            }
+            throw new IllegalStateException("Error al cargar " + key + " en cache", e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw new IllegalStateException("Error al cargar " + key + " en cache", e.getCause());
+        }
+    }
+
+    // ==================== INVALIDACIÓN ====================
+
+    /**
+     * Borrar el producto cuando el cambio ya está confirmado en la BD
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateProduct(event.getProductId());
+    }
+
+    /**
+     * Borrar el usuario (por id y por email) cuando el cambio ya está confirmado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUserId() != null) {
+            userByIdCache.invalidate(event.getUserId());
+        }
+        invalidateUser(event.getEmail());
     }
 
     /**
      * Invalidar producto del cache (después de actualización)
      */
     public void invalidateProduct(Long id) {
-        productCache.invalidate(id);
+        if (id != null) {
+            productInvalidations.incrementAndGet(stripe(id));
+            productCache.invalidate(id);
+        }
     }
 
     /**
      * Invalidar usuario del cache
      */
     public void invalidateUser(String email) {
-        userByEmailCache.invalidate(email);
+        if (email != null) {
+            userByEmailCache.invalidate(email);
+        }
     }
 
     /**
      * Limpiar todo el cache de productos
      */
     public void clearProductCache() {
+        for (int i = 0; i < INVALIDATION_STRIPES; i++) {
+            productInvalidations.incrementAndGet(i);
+        }
         productCache.invalidateAll();
     }
 
@@ -94,9 +257,12 @@ public class CacheService {
      * Limpiar todo el cache de usuarios
      */
     public void clearUserCache() {
+        userByIdCache.invalidateAll();
         userByEmailCache.invalidateAll();
     }
 
+    // ==================== ESTADÍSTICAS ====================
+
     /**
      * Obtener estadísticas del cache de productos
      */
@@ -108,7 +274,7 @@ public class CacheService {
      * Obtener estadísticas del cache de usuarios
      */
     public String getUserCacheStats() {
-        return "User Cache Stats: " + userByEmailCache.stats().toString();
+        return "User Cache Stats: by id " + userByIdCache.stats() + ", by email " + userByEmailCache.stats();
     }
 
     /**
@@ -116,8 +282,16 @@ public class CacheService {
      */
     public void warmUpProductCache() {
         // Cargar los primeros 20 productos en cache
-        productRepository.findAll().stream()
+        findProducts(productRepository.findAll().stream()
                 .limit(20)
-                .forEach(product -> productCache.put(product.getId(), product));
+                .map(Product::getId)
+                .toList());
+    }
+
+    // Marca de "no existe" para el loader (sin stack trace: es un caso normal)
+    private static final class NotFoundException extends Exception {
+        NotFoundException() {
+            super(null, null, false, false);
+        }
     }
 }
@@ -0,0 +1,146 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.dto.ProductDtos.CatalogChanges;
+import com.hurios.huriosbackend.entity.CatalogChange;
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.repository.CatalogChangeRepository;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CatalogChangeService - Secuencia de cambios del catálogo (sincronización incremental)
+ *
+ * - Cada ProductChangedEvent local agrega una fila a catalog_changes en la misma
+ *   transacción del cambio; los eventos remotos ya los registró la instancia de origen.
+ *   Quien modifica productos debe publicar el evento dentro de una transacción
+ *   (ProductService, ProductController, PaymentService): sin ella la fila se escribe
+ *   aparte, después del cambio, y se avisa en el log.
+ * - getChangesSince(N) devuelve el estado actual de los productos que cambiaron después
+ *   de N y los ids de los eliminados, más la secuencia a pedir la próxima vez.
+ * - Las secuencias AUTO_INCREMENT pueden confirmarse fuera de orden: si falta una
+ *   secuencia y la fila siguiente es de hace menos de settle-ms, nextSince no pasa del
+ *   hueco (esos cambios se vuelven a enviar; aplicarlos dos veces no cambia nada).
+ * - Los cambios con más de retention-days se borran; un cliente más atrasado recibe
+ *   reset = true y debe recargar el catálogo completo.
+ */
+@Service
+public class CatalogChangeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogChangeService.class);
+
+    private static final int DEFAULT_LIMIT = 500;
+    private static final int MAX_LIMIT = 2000;
+
+    private final CatalogChangeRepository changeRepository;
+    private final ProductRepository productRepository;
+    private final long settleMs;
+    private final long retentionDays;
+
+    public CatalogChangeService(CatalogChangeRepository changeRepository,
+                                ProductRepository productRepository,
+                                @Value("${app.catalog-changes.settle-ms:5000}") long settleMs,
+                                @Value("${app.catalog-changes.retention-days:30}") long retentionDays) {
+        this.changeRepository = changeRepository;
+        this.productRepository = productRepository;
+        this.settleMs = settleMs;
+        this.retentionDays = retentionDays;
+    }
+
+    // ==================== REGISTRO ====================
+
+    /**
+     * Registrar el cambio junto con la transacción que lo hizo
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!event.isRemote() && event.getProductId() != null) {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                logger.warn("Cambio del producto {} publicado fuera de una transacción", event.getProductId());
+            }
+            changeRepository.save(new CatalogChange(event.getProductId(), event.getType().name()));
+        }
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Cambios posteriores a la secuencia "since" (como mucho "limit" filas de la secuencia)
+     */
+    @Transactional(readOnly = true)
+    public CatalogChanges getChangesSince(Long since, Integer limit) {
+        long from = since != null ? since : 0L;
+        int maxRows = limit != null ? limit : DEFAULT_LIMIT;
+        if (from < 0) {
+            throw new IllegalArgumentException("La secuencia no puede ser negativa");
+        }
+        if (maxRows < 1 || maxRows > MAX_LIMIT) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_LIMIT);
+        }
+
+        // Historial ya borrado o secuencia de otra base: la copia del cliente no sirve
+        long minSeq = changeRepository.findMinSeq();
+        long maxSeq = changeRepository.findMaxSeq();
+        if ((minSeq > 0 && minSeq > from + 1) || from > maxSeq) {
+            return new CatalogChanges(List.of(), List.of(), maxSeq, false, true);
+        }
+
+        List<CatalogChange> rows = changeRepository.findBySeqGreaterThanOrderBySeqAsc(from, Limit.of(maxRows + 1));
+        boolean hasMore = rows.size() > maxRows;
+        if (hasMore) {
+            rows = rows.subList(0, maxRows);
+        }
+
+        long nextSince = from;
+        boolean contiguous = true;
+        LocalDateTime settledBefore = LocalDateTime.now().minusNanos(settleMs * 1_000_000);
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (CatalogChange row : rows) {
+            if (contiguous && row.getSeq() != nextSince + 1 && row.getChangedAt().isAfter(settledBefore)) {
+                contiguous = false; // una secuencia anterior puede seguir sin confirmar
+            }
+            if (contiguous) {
+                nextSince = row.getSeq();
+            }
+            productIds.add(row.getProductId());
+        }
+
+        List<Product> changed = new ArrayList<>();
+        Set<Long> deleted = new LinkedHashSet<>(productIds);
+        if (!productIds.isEmpty()) {
+            for (Product product : productRepository.findAllById(productIds)) {
+                deleted.remove(product.getId());
+                changed.add(product);
+            }
+            changed.sort(Comparator.comparing(Product::getId));
+        }
+        return new CatalogChanges(changed, new ArrayList<>(deleted), nextSince, hasMore && contiguous, false);
+    }
+
+    // ==================== LIMPIEZA ====================
+
+    /**
+     * Borrar los cambios más viejos que la retención (la última fila queda como
+     * referencia de la secuencia actual)
+     */
+    @Scheduled(fixedDelayString = "${app.catalog-changes.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void cleanup() {
+        changeRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays), changeRepository.findMaxSeq());
+    }
+}
@@ -0,0 +1,194 @@
+package com.hurios.huriosbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CatalogResponseCache - Respuestas JSON del catálogo ya serializadas
+ *
+ * - GET /products y GET /products/{id} guardan aquí los bytes JSON (y su versión gzip
+ *   cuando pesa más de gzip-min-bytes) con un ETag fuerte calculado del contenido: el
+ *   mismo catálogo da el mismo ETag en todas las instancias.
+ * - Cada ProductChangedEvent (local o remoto) sube la versión del catálogo y borra el
+ *   producto; la lista se vuelve a serializar en la siguiente petición, no antes.
+ * - Con la entrada vigente, un If-None-Match que coincide se responde 304 sin tocar la
+ *   BD ni Jackson.
+ */
+@Service
+public class CatalogResponseCache {
+
+    private final ProductRepository productRepository;
+    private final CacheService cacheService;
+    private final ObjectMapper objectMapper;
+    private final int gzipMinBytes;
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private volatile Entry catalogEntry;
+    private final Cache<Long, Entry> productEntries;
+
+    public CatalogResponseCache(ProductRepository productRepository,
+                                CacheService cacheService,
+                                ObjectMapper objectMapper,
+                                @Value("${app.catalog-cache.max-products:2000}") long maxProducts,
+                                @Value("${app.catalog-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.productRepository = productRepository;
+        this.cacheService = cacheService;
+        this.objectMapper = objectMapper;
+        this.gzipMinBytes = gzipMinBytes;
+        this.productEntries = CacheBuilder.newBuilder()
+                .maximumSize(maxProducts)
+                .build();
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * Lista completa de productos (la de GET /products) en la versión actual del catálogo
+     */
+    public Entry catalog() {
+        Entry current = catalogEntry;
+        long version = catalogVersion.get();
+        if (current != null && current.version == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = catalogEntry;
+            version = catalogVersion.get();
+            if (current == null || current.version != version) {
+                // La versión se toma antes de leer: un cambio durante la lectura la deja vieja
+                current = build(version, productRepository.findAll());
+                catalogEntry = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Detalle de un producto; vacío si no existe (no se guarda)
+     */
+    public Optional<Entry> product(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Entry cached = productEntries.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long version = catalogVersion.get();
+        Optional<Product> product = cacheService.findProduct(id);
+        if (product.isEmpty()) {
+            return Optional.empty();
+        }
+        Entry entry = build(version, product.get());
+        // Si el producto cambió mientras se serializaba, no guardar la copia vieja
+        if (catalogVersion.get() == version) {
+            productEntries.put(id, entry);
+        }
+        return Optional.of(entry);
+    }
+
+    // ==================== INVALIDACIÓN ====================
+
+    /**
+     * Nueva versión del catálogo cuando se confirma un cambio de producto
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void onProductChanged(ProductChangedEvent event) {
+        catalogVersion.incrementAndGet();
+        if (event.getProductId() != null) {
+            productEntries.invalidate(event.getProductId());
+        }
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    // ==================== SERIALIZACIÓN ====================
+
+    private Entry build(long version, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo", e);
+        }
+        String hash = Hashing.sha256().hashBytes(json).toString().substring(0, 32);
+        byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+        return new Entry(version, json, gzip, "\"" + hash + "\"", "\"" + hash + "-gz\"");
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Respuesta serializada: JSON, gzip opcional y el ETag de cada representación
+     * (distintos, porque los bytes enviados son distintos)
+     */
+    public static final class Entry {
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        private final String gzipEtag;
+
+        Entry(long version, byte[] json, byte[] gzip, String etag, String gzipEtag) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+            this.gzipEtag = gzipEtag;
+        }
+
+        public byte[] getJson() { return json; }
+        public byte[] getGzip() { return gzip; }
+        public boolean hasGzip() { return gzip != null; }
+        public String getEtag() { return etag; }
+        public String getGzipEtag() { return gzipEtag; }
+
+        /**
+         * ¿El cliente ya tiene esta versión? Acepta listas, "*" y ETags débiles (W/),
+         * como pide la comparación débil de If-None-Match
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.dto.ReportDtos.DashboardSalesTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.StockTotals;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import com.hurios.huriosbackend.repository.SalesDailyRollupRepository;
+import com.hurios.huriosbackend.repository.UserRepository;
+import com.hurios.huriosbackend.service.ReportService.BusinessDashboard;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * DashboardService - Cálculo y caché del dashboard del negocio
+ *
+ * - Cada fuente se lee una sola vez y en paralelo en un pool propio:
+ *   ventas (una fila agregada con histórico, hoy y mes), inventario (una fila
+ *   agregada) y cantidad de usuarios.
+ * - El resultado se sirve desde memoria (stale-while-revalidate): pasado
+ *   app.dashboard.refresh-interval-ms se devuelve el valor anterior y se recalcula
+ *   en segundo plano; solo si supera app.dashboard.max-stale-ms (o no hay valor)
+ *   la petición espera el cálculo. Varias peticiones comparten el mismo cálculo.
+ * - Una venta o un cambio del catálogo marca el valor como viejo.
+ * - BusinessDashboard es inmutable, así que la instancia en memoria se comparte sin copiarla.
+ */
+@Service
+public class DashboardService {
+
+    private final SalesDailyRollupRepository dailyRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+
+    private final long refreshIntervalMillis;
+    private final long maxStaleMillis;
+    private final long timeoutSeconds;
+    private final ThreadPoolExecutor executor;
+
+    private volatile Snapshot snapshot;
+    private volatile long invalidatedAt;
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+
+    public DashboardService(SalesDailyRollupRepository dailyRepository,
+                            ProductRepository productRepository,
+                            UserRepository userRepository,
+                            @Value("${app.dashboard.threads:3}") int threads,
+                            @Value("${app.dashboard.refresh-interval-ms:30000}") long refreshIntervalMillis,
+                            @Value("${app.dashboard.max-stale-ms:300000}") long maxStaleMillis,
+                            @Value("${app.dashboard.timeout-seconds:30}") long timeoutSeconds) {
+        this.dailyRepository = dailyRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.maxStaleMillis = Math.max(maxStaleMillis, refreshIntervalMillis);
+        this.timeoutSeconds = timeoutSeconds;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 10),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Si el pool está saturado la consulta corre en el hilo que la pidió
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Obtener el dashboard (desde memoria si es posible)
+     */
+    public BusinessDashboard getDashboard() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            long age = System.currentTimeMillis() - current.startedAt;
+            boolean fresh = age < refreshIntervalMillis && current.startedAt >= invalidatedAt;
+            if (fresh) {
+                return current.dashboard;
+            }
+            if (age < maxStaleMillis) {
+                refresh(); // revalidar en segundo plano
+                return current.dashboard;
+            }
+        }
+        return await(refresh()).dashboard;
+    }
+
+    /**
+     * Marcar el valor como viejo cuando se confirma una venta
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleConfirmed(SaleConfirmedEvent event) {
+        invalidatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Marcar el valor como viejo cuando cambia el catálogo o el stock
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Iniciar un recálculo, o sumarse al que ya está en curso
+     */
+    CompletableFuture<Snapshot> refresh() {
+        while (true) {
+            CompletableFuture<Snapshot> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<Snapshot> created = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, created)) {
+                compute().whenComplete((result, error) -> {
+                    if (error == null) {
+                        snapshot = result;
+                    }
+                    inFlight.compareAndSet(created, null);
+                    if (error != null) {
+                        created.completeExceptionally(error);
+                    } else {
+                        created.complete(result);
+                    }
+                });
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Leer las tres fuentes en paralelo y armar el dashboard
+     */
+    private CompletableFuture<Snapshot> compute() {
+        long startedAt = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+
+        CompletableFuture<DashboardSalesTotals> sales = CompletableFuture.supplyAsync(
+                () -> dailyRepository.sumForDashboard(today, today.withDayOfMonth(1)), executor);
+        CompletableFuture<StockTotals> stock = CompletableFuture.supplyAsync(
+                productRepository::summarizeStock, executor);
+        CompletableFuture<Long> users = CompletableFuture.supplyAsync(
+                userRepository::count, executor);
+
+        return CompletableFuture.allOf(sales, stock, users)
+                .thenApply(ignored -> new Snapshot(
+                        build(sales.join(), stock.join(), users.join()), startedAt));
+    }
+
+    private static BusinessDashboard build(DashboardSalesTotals sales, StockTotals stock, long users) {
+        return new BusinessDashboard(
+                // Ventas
+                (int) value(sales.getTotalCount()), value(sales.getTotalRevenue()),
+                (int) value(sales.getTodayCount()), value(sales.getTodayRevenue()),
+                (int) value(sales.getMonthCount()), value(sales.getMonthRevenue()),
+                // Productos e inventario
+                (int) value(stock.getTotalProducts()), (int) value(stock.getOutOfStock()),
+                (int) value(stock.getLowStock()),
+                // Clientes
+                (int) users);
+    }
+
+    private static long value(Long number) {
+        return number != null ? number : 0L;
+    }
+
+    private static double value(Double number) {
+        return number != null ? number : 0.0;
+    }
+
+    private Snapshot await(CompletableFuture<Snapshot> future) {
+        try {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Cálculo del dashboard interrumpido");
+        } catch (TimeoutException e) {
+            throw new RuntimeException("El dashboard tardó demasiado en calcularse");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error al calcular el dashboard: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Dashboard calculado y el momento en que empezó el cálculo
+     */
+    static final class Snapshot {
+        private final BusinessDashboard dashboard;
+        private final long startedAt;
+
+        Snapshot(BusinessDashboard dashboard, long startedAt) {
+            this.dashboard = dashboard;
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -1,106 +1,169 @@
 package com.hurios.huriosbackend.service;
 
-import com.hurios.huriosbackend.entity.Product;
-import com.hurios.huriosbackend.entity.User;
+import com.hurios.huriosbackend.dto.ExportDtos.ClientRow;
+import com.hurios.huriosbackend.dto.ExportDtos.ProductRow;
+import com.hurios.huriosbackend.dto.ExportDtos.SaleItemRow;
+import com.hurios.huriosbackend.dto.ExportDtos.SaleRow;
 import com.hurios.huriosbackend.repository.ProductRepository;
+import com.hurios.huriosbackend.repository.SaleItemRepository;
+import com.hurios.huriosbackend.repository.SaleRepository;
 import com.hurios.huriosbackend.repository.UserRepository;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.apache.poi.xssf.usermodel.XSSFDrawing;
-import org.apache.poi.xssf.usermodel.XSSFClientAnchor;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.util.IOUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 /**
  * ExcelExportService - Servicio para exportar datos a Excel usando Apache POI
+ *
+ * Clientes, productos y ventas se exportan en modo streaming (SXSSF): las filas se leen
+ * de la BD por páginas (o con cursor) y solo una ventana de filas queda en memoria; el resto
+ * se va volcando a un archivo temporal comprimido hasta escribir el resultado.
  */
 @Service
 public class ExcelExportService {
 
+    // Filas que SXSSF mantiene en memoria antes de volcarlas a disco
+    private static final int ROW_WINDOW = 200;
+    // Filas leídas de la BD por consulta
+    private static final int EXPORT_PAGE_SIZE = 1000;
+    // Ancho máximo de columna (en caracteres)
+    private static final int MAX_COLUMN_CHARS = 80;
+
+    // Ventas por lote al cargar sus items
+    private static final int SALE_CHUNK_SIZE = 500;
+    // Límite inferior cuando no se indica fecha de inicio
+    public static final LocalDateTime SALES_MIN_DATE = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final LongConsumer NO_PROGRESS = rows -> { };
+
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final SaleRepository saleRepository;
+    private final SaleItemRepository saleItemRepository;
 
-    public ExcelExportService(UserRepository userRepository, ProductRepository productRepository) {
+    public ExcelExportService(UserRepository userRepository, ProductRepository productRepository,
+                              SaleRepository saleRepository, SaleItemRepository saleItemRepository) {
         this.userRepository = userRepository;
         this.productRepository = productRepository;
+        this.saleRepository = saleRepository;
+        this.saleItemRepository = saleItemRepository;
     }
 
     /**
-     * Exportar clientes a Excel
+     * Exportar clientes a Excel (en memoria; para archivos grandes usar writeClients)
      */
     public byte[] exportClients() throws IOException {
-        // Obtener solo usuarios con rol CLIENTE
-        List<User> clients = userRepository.findAll().stream()
-                .filter(user -> "CLIENTE".equals(user.getRole()))
-                .toList();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeClients(outputStream);
+        return outputStream.toByteArray();
+    }
 
-        try (Workbook workbook = new XSSFWorkbook()) {
+    /**
+     * Escribir el Excel de clientes directamente en el stream.
+     * Lee los clientes por páginas y solo mantiene ROW_WINDOW filas en memoria.
+     */
+    public void writeClients(OutputStream out) throws IOException {
+        writeClients(out, NO_PROGRESS);
+    }
+
+    /**
+     * Igual que {@link #writeClients(OutputStream)}, informando las filas escritas tras cada página
+     */
+    public void writeClients(OutputStream out, LongConsumer progress) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("Clientes");
 
             // Agregar logo
-            addLogo((XSSFWorkbook) workbook, sheet);
+            addLogo(workbook, sheet);
 
             // Estilo para el header
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle dataStyle = createDataStyle(workbook);
 
             // Crear header (empezar en fila 4 para dejar espacio al logo)
-            Row headerRow = sheet.createRow(4);
             String[] columns = {"ID", "Nombre Completo", "Email", "Teléfono", "Dirección", "Fecha de Registro"};
-            
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
+            int[] widths = createHeader(sheet, columns, headerStyle);
 
-            // Llenar datos (empezar en fila 5)
+            // Llenar datos (empezar en fila 5) página por página
             int rowNum = 5;
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-            
-            for (User client : clients) {
-                Row row = sheet.createRow(rowNum++);
-                
-                createCell(row, 0, client.getId() != null ? client.getId().toString() : "", dataStyle);
-                createCell(row, 1, client.getFullName() != null ? client.getFullName() : "", dataStyle);
-                createCell(row, 2, client.getEmail() != null ? client.getEmail() : "", dataStyle);
-                createCell(row, 3, client.getPhone() != null ? client.getPhone() : "", dataStyle);
-                createCell(row, 4, client.getAddress() != null ? client.getAddress() : "", dataStyle);
-                createCell(row, 5, client.getCreatedAt() != null ? client.getCreatedAt().format(formatter) : "", dataStyle);
-            }
+            long afterId = 0L;
+            List<ClientRow> page;
+            do {
+                page = userRepository.findClientExportRowsAfterId(afterId, Limit.of(EXPORT_PAGE_SIZE));
+                for (ClientRow client : page) {
+                    Row row = sheet.createRow(rowNum++);
+
+                    createCell(row, 0, client.getId() != null ? client.getId().toString() : "", dataStyle, widths);
+                    createCell(row, 1, client.getFullName() != null ? client.getFullName() : "", dataStyle, widths);
+                    createCell(row, 2, client.getEmail() != null ? client.getEmail() : "", dataStyle, widths);
+                    createCell(row, 3, client.getPhone() != null ? client.getPhone() : "", dataStyle, widths);
+                    createCell(row, 4, client.getAddress() != null ? client.getAddress() : "", dataStyle, widths);
+                    createCell(row, 5, client.getCreatedAt() != null ? client.getCreatedAt().format(formatter) : "", dataStyle, widths);
+                    afterId = client.getId();
+                }
+                progress.accept(rowNum - 5L);
+            } while (page.size() == EXPORT_PAGE_SIZE);
 
-            // Auto-ajustar columnas
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+            // Ancho de columnas estimado (sin autoSizeColumn, que recorre todas las filas)
+            applyColumnWidths(sheet, widths);
 
-            // Convertir a bytes
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+            workbook.write(out);
+        } finally {
+            // Borrar los archivos temporales del workbook
+            workbook.dispose();
+            workbook.close();
         }
     }
 
     /**
-     * Exportar productos a Excel
+     * Exportar productos a Excel (en memoria; para archivos grandes usar writeProducts)
      */
     public byte[] exportProducts() throws IOException {
-        List<Product> products = productRepository.findAll();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeProducts(outputStream);
+        return outputStream.toByteArray();
+    }
 
-        try (Workbook workbook = new XSSFWorkbook()) {
+    /**
+     * Escribir el Excel de productos directamente en el stream.
+     * Lee los productos por páginas y solo mantiene ROW_WINDOW filas en memoria.
+     */
+    public void writeProducts(OutputStream out) throws IOException {
+        writeProducts(out, NO_PROGRESS);
+    }
+
+    /**
+     * Igual que {@link #writeProducts(OutputStream)}, informando las filas escritas tras cada página
+     */
+    public void writeProducts(OutputStream out, LongConsumer progress) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("Productos");
 
             // Agregar logo
-            addLogo((XSSFWorkbook) workbook, sheet);
+            addLogo(workbook, sheet);
 
             // Estilo para el header
             CellStyle headerStyle = createHeaderStyle(workbook);
@@ -108,90 +171,162 @@ public class ExcelExportService {
             CellStyle currencyStyle = createCurrencyStyle(workbook);
 
             // Crear header (empezar en fila 4 para dejar espacio al logo)
-            Row headerRow = sheet.createRow(4);
             String[] columns = {"ID", "Nombre", "Descripción", "Precio (S/)", "Stock", "Fecha de Creación"};
-            
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
+            int[] widths = createHeader(sheet, columns, headerStyle);
 
-            // Llenar datos (empezar en fila 5)
+            // Llenar datos (empezar en fila 5) página por página
             int rowNum = 5;
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-            
-            for (Product product : products) {
-                Row row = sheet.createRow(rowNum++);
-                
-                createCell(row, 0, product.getId() != null ? product.getId().toString() : "", dataStyle);
-                createCell(row, 1, product.getName() != null ? product.getName() : "", dataStyle);
-                createCell(row, 2, product.getDescription() != null ? product.getDescription() : "", dataStyle);
-                
-                // Precio con formato de moneda
-                Cell priceCell = row.createCell(3);
-                if (product.getPrice() != null) {
-                    priceCell.setCellValue(product.getPrice());
-                    priceCell.setCellStyle(currencyStyle);
-                } else {
-                    priceCell.setCellValue("");
-                    priceCell.setCellStyle(dataStyle);
+            long afterId = 0L;
+            List<ProductRow> page;
+            do {
+                page = productRepository.findExportRowsAfterId(afterId, Limit.of(EXPORT_PAGE_SIZE));
+                for (ProductRow product : page) {
+                    Row row = sheet.createRow(rowNum++);
+
+                    createCell(row, 0, product.getId() != null ? product.getId().toString() : "", dataStyle, widths);
+                    createCell(row, 1, product.getName() != null ? product.getName() : "", dataStyle, widths);
+                    createCell(row, 2, product.getDescription() != null ? product.getDescription() : "", dataStyle, widths);
+
+                    // Precio con formato de moneda
+                    createCurrencyCell(row, 3, product.getPrice(), currencyStyle, dataStyle, widths);
+
+                    createCell(row, 4, product.getStock() != null ? product.getStock().toString() : "0", dataStyle, widths);
+                    createCell(row, 5, product.getCreatedAt() != null ? product.getCreatedAt().format(formatter) : "", dataStyle, widths);
+                    afterId = product.getId();
                 }
-                
-                createCell(row, 4, product.getStock() != null ? product.getStock().toString() : "0", dataStyle);
-                createCell(row, 5, product.getCreatedAt() != null ? product.getCreatedAt().format(formatter) : "", dataStyle);
-            }
+                progress.accept(rowNum - 5L);
+            } while (page.size() == EXPORT_PAGE_SIZE);
 
-            // Auto-ajustar columnas
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+            // Ancho de columnas estimado (sin autoSizeColumn, que recorre todas las filas)
+            applyColumnWidths(sheet, widths);
 
-            // Convertir a bytes
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+            workbook.write(out);
+        } finally {
+            // Borrar los archivos temporales del workbook
+            workbook.dispose();
+            workbook.close();
         }
     }
 
     /**
-     * Exportar ventas a Excel (placeholder - necesita implementación de entidad Sale)
+     * Exportar todas las ventas a Excel (en memoria; para archivos grandes usar writeSales)
      */
+    @Transactional(readOnly = true)
     public byte[] exportSales() throws IOException {
-        try (Workbook workbook = new XSSFWorkbook()) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeSales(null, null, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Escribir el Excel de ventas del rango [from, to) directamente en el stream.
+     * Las ventas se recorren con un cursor de BD (Stream con fetch size) y sus items
+     * se cargan por lotes de SALE_CHUNK_SIZE ventas con una sola consulta por lote.
+     * Todo se lee como proyecciones, así que el contexto de persistencia no crece.
+     *
+     * @param from inicio del rango (null = sin límite inferior)
+     * @param to   fin del rango, exclusivo (null = ahora)
+     */
+    @Transactional(readOnly = true)
+    public void writeSales(LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        writeSales(from, to, out, NO_PROGRESS);
+    }
+
+    /**
+     * Igual que {@link #writeSales(LocalDateTime, LocalDateTime, OutputStream)}, informando
+     * las ventas procesadas tras cada lote
+     */
+    @Transactional(readOnly = true)
+    public void writeSales(LocalDateTime from, LocalDateTime to, OutputStream out,
+                           LongConsumer progress) throws IOException {
+        LocalDateTime start = from != null ? from : SALES_MIN_DATE;
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<SaleRow> sales = saleRepository.streamExportRows(start, end)) {
             Sheet sheet = workbook.createSheet("Ventas");
 
             // Agregar logo
-            addLogo((XSSFWorkbook) workbook, sheet);
+            addLogo(workbook, sheet);
 
             // Estilo para el header
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle dataStyle = createDataStyle(workbook);
+            CellStyle currencyStyle = createCurrencyStyle(workbook);
 
             // Crear header (empezar en fila 4 para dejar espacio al logo)
-            Row headerRow = sheet.createRow(4);
-            String[] columns = {"ID", "Cliente", "Producto", "Cantidad", "Precio Total", "Fecha"};
-            
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
+            String[] columns = {"ID", "Cliente", "Producto", "Cantidad", "Precio Unitario", "Precio Total", "Estado", "Fecha"};
+            int[] widths = createHeader(sheet, columns, headerStyle);
+
+            // Llenar datos (empezar en fila 5): una fila por item vendido
+            int rowNum = 5;
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+            Iterator<SaleRow> iterator = sales.iterator();
+            List<SaleRow> chunk = new ArrayList<>(SALE_CHUNK_SIZE);
+            long salesWritten = 0;
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() < SALE_CHUNK_SIZE && iterator.hasNext()) {
+                    continue;
+                }
 
-            // TODO: Cuando implementes la entidad Sale, agregar los datos aquí
-            // Por ahora, solo creamos el archivo vacío con headers
-            Row dataRow = sheet.createRow(5);
-            createCell(dataRow, 0, "Sin ventas registradas", dataStyle);
+                // Items de todo el lote en una sola consulta
+                Map<Long, List<SaleItemRow>> itemsBySale = new HashMap<>();
+                List<Long> saleIds = chunk.stream().map(SaleRow::getId).toList();
+                for (SaleItemRow item : saleItemRepository.findExportRowsBySaleIds(saleIds)) {
+                    itemsBySale.computeIfAbsent(item.getSaleId(), id -> new ArrayList<>()).add(item);
+                }
 
-            // Auto-ajustar columnas
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
+                for (SaleRow sale : chunk) {
+                    String saleId = sale.getId().toString();
+                    String client = sale.getFullName() != null ? sale.getFullName() : "";
+                    String status = sale.getStatus() != null ? sale.getStatus() : "";
+                    String date = sale.getCreatedAt() != null ? sale.getCreatedAt().format(formatter) : "";
+
+                    List<SaleItemRow> items = itemsBySale.getOrDefault(sale.getId(), List.of());
+                    if (items.isEmpty()) {
+                        // Venta sin items: igual se lista para no perderla del reporte
+                        Row row = sheet.createRow(rowNum++);
+                        createCell(row, 0, saleId, dataStyle, widths);
+                        createCell(row, 1, client, dataStyle, widths);
+                        createCell(row, 6, status, dataStyle, widths);
+                        createCell(row, 7, date, dataStyle, widths);
+                        continue;
+                    }
+
+                    for (SaleItemRow item : items) {
+                        Row row = sheet.createRow(rowNum++);
+                        createCell(row, 0, saleId, dataStyle, widths);
+                        createCell(row, 1, client, dataStyle, widths);
+                        createCell(row, 2, item.getProductName() != null ? item.getProductName() : "", dataStyle, widths);
+                        createCell(row, 3, item.getQuantity() != null ? item.getQuantity().toString() : "0", dataStyle, widths);
+                        createCurrencyCell(row, 4, item.getUnitPrice(), currencyStyle, dataStyle, widths);
+                        createCurrencyCell(row, 5, item.getSubtotal(), currencyStyle, dataStyle, widths);
+                        createCell(row, 6, status, dataStyle, widths);
+                        createCell(row, 7, date, dataStyle, widths);
+                    }
+                }
+                salesWritten += chunk.size();
+                progress.accept(salesWritten);
+                chunk.clear();
             }
 
-            // Convertir a bytes
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+            if (rowNum == 5) {
+                Row dataRow = sheet.createRow(5);
+                createCell(dataRow, 0, "Sin ventas registradas", dataStyle);
+            }
+
+            // Ancho de columnas estimado (sin autoSizeColumn, que recorre todas las filas)
+            applyColumnWidths(sheet, widths);
+
+            workbook.write(out);
+        } finally {
+            // Borrar los archivos temporales del workbook
+            workbook.dispose();
+            workbook.close();
         }
     }
 
@@ -238,10 +373,57 @@ public class ExcelExportService {
         cell.setCellStyle(style);
     }
 
+    private void createCell(Row row, int column, String value, CellStyle style, int[] widths) {
+        createCell(row, column, value, style);
+        trackWidth(widths, column, value);
+    }
+
+    private void createCurrencyCell(Row row, int column, Double value, CellStyle currencyStyle,
+                                    CellStyle emptyStyle, int[] widths) {
+        Cell cell = row.createCell(column);
+        if (value != null) {
+            cell.setCellValue(value);
+            cell.setCellStyle(currencyStyle);
+            trackWidth(widths, column, String.format("S/ %,.2f", value));
+        } else {
+            cell.setCellValue("");
+            cell.setCellStyle(emptyStyle);
+        }
+    }
+
+    // Métodos auxiliares para el ancho de columnas (estimado por cantidad de caracteres)
+
+    private int[] createHeader(Sheet sheet, String[] columns, CellStyle headerStyle) {
+        Row headerRow = sheet.createRow(4);
+        int[] widths = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(columns[i]);
+            cell.setCellStyle(headerStyle);
+            // el header va en negrita y tamaño 12: un poco más ancho
+            widths[i] = columns[i].length() + 2;
+        }
+        return widths;
+    }
+
+    private void trackWidth(int[] widths, int column, String value) {
+        if (value != null && value.length() > widths[column]) {
+            widths[column] = value.length();
+        }
+    }
+
+    private void applyColumnWidths(Sheet sheet, int[] widths) {
+        for (int i = 0; i < widths.length; i++) {
+            // Excel mide el ancho en 1/256 de carácter; se deja margen y un tope razonable
+            int chars = Math.min(widths[i] + 2, MAX_COLUMN_CHARS);
+            sheet.setColumnWidth(i, chars * 256);
+        }
+    }
+
     /**
      * Agregar logo de Hurios Rally al Excel
      */
-    private void addLogo(XSSFWorkbook workbook, Sheet sheet) {
+    private void addLogo(Workbook workbook, Sheet sheet) {
         try {
             // Intentar cargar el logo desde el proyecto frontend
             File logoFile = new File("../huriosfrontend/public/assets/imgs/logo.webp");
@@ -258,8 +440,8 @@ public class ExcelExportService {
                 is.close();
                 
                 // Crear el dibujo
-                XSSFDrawing drawing = (XSSFDrawing) sheet.createDrawingPatriarch();
-                XSSFClientAnchor anchor = new XSSFClientAnchor();
+                Drawing<?> drawing = sheet.createDrawingPatriarch();
+                ClientAnchor anchor = workbook.getCreationHelper().createClientAnchor();
                 
                 // Posicionar el logo en las primeras filas (A1:B3)
                 anchor.setCol1(0);
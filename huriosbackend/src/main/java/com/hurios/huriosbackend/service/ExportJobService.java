@@ -0,0 +1,327 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.repository.ProductRepository;
+import com.hurios.huriosbackend.repository.SaleRepository;
+import com.hurios.huriosbackend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ExportJobService - Exportaciones a Excel como trabajos en segundo plano
+ *
+ * - submit() devuelve un trabajo y un pool acotado de workers genera el archivo en disco.
+ * - Cada trabajo pertenece a quien lo pidió: solo ese usuario ve su estado y lo descarga.
+ * - Pedidos idénticos del mismo usuario mientras el trabajo sigue en cola o en proceso
+ *   reciben el mismo trabajo.
+ * - El progreso se informa como filas escritas sobre el total estimado al iniciar.
+ * - Los archivos terminados se borran al vencer (app.export.ttl-minutes).
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    public enum ExportType { CLIENTS, PRODUCTS, SALES }
+
+    public enum JobStatus { QUEUED, RUNNING, DONE, FAILED }
+
+    private final ExcelExportService excelExportService;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final SaleRepository saleRepository;
+
+    private final Path exportDir;
+    private final long ttlMinutes;
+    private final ThreadPoolExecutor executor;
+
+    // jobId -> trabajo
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    // clave del pedido (dueño + tipo + rango) -> trabajo en cola o en proceso
+    private final Map<String, ExportJob> activeJobs = new ConcurrentHashMap<>();
+
+    public ExportJobService(ExcelExportService excelExportService,
+                            UserRepository userRepository,
+                            ProductRepository productRepository,
+                            SaleRepository saleRepository,
+                            @Value("${app.export.dir:exports}") String exportDir,
+                            @Value("${app.export.workers:2}") int workers,
+                            @Value("${app.export.queue-capacity:20}") int queueCapacity,
+                            @Value("${app.export.ttl-minutes:30}") long ttlMinutes) {
+        this.excelExportService = excelExportService;
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.saleRepository = saleRepository;
+        this.exportDir = Paths.get(exportDir).toAbsolutePath();
+        this.ttlMinutes = ttlMinutes;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Crear la carpeta de exportaciones y borrar archivos de ejecuciones anteriores
+     * (los trabajos viven en memoria, así que esos archivos ya no son descargables)
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(exportDir);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(exportDir, "*.{xlsx,part}")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Encolar una exportación. Si el mismo usuario ya tiene una idéntica en cola o en
+     * proceso se devuelve esa.
+     *
+     * @param owner usuario que pide la exportación (email)
+     * @param from inicio del rango (solo ventas, null = sin límite)
+     * @param to   fin del rango exclusivo (solo ventas, null = al encolar)
+     */
+    public ExportJob submit(String owner, ExportType type, LocalDateTime from, LocalDateTime to) {
+        String key = owner + "|" + type + "|" + (from != null ? from : "") + "|" + (to != null ? to : "");
+
+        ExportJob created = new ExportJob(UUID.randomUUID().toString(), owner, type, key, from, to);
+        ExportJob existing = activeJobs.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        jobs.put(created.getId(), created);
+        try {
+            executor.execute(() -> run(created));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(created.getId());
+            activeJobs.remove(key, created);
+            throw new RuntimeException("Hay demasiadas exportaciones en curso, intenta más tarde");
+        }
+        return created;
+    }
+
+    /**
+     * Obtener un trabajo por id; vacío si no existe o es de otro usuario
+     */
+    public Optional<ExportJob> getJob(String jobId, String owner) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .filter(job -> job.getOwner().equals(owner));
+    }
+
+    /**
+     * Borrar trabajos terminados (y sus archivos) que superaron el tiempo de vida
+     */
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval-ms:60000}")
+    public void cleanupExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(ttlMinutes);
+        jobs.values().removeIf(job -> {
+            if (job.getFinishedAt() == null || job.getFinishedAt().isAfter(limit)) {
+                return false;
+            }
+            deleteQuietly(job.getFile());
+            return true;
+        });
+    }
+
+    // ==================== EJECUCIÓN ====================
+
+    private void run(ExportJob job) {
+        Path partial = exportDir.resolve(job.getId() + ".part");
+        Path target = exportDir.resolve(job.getId() + ".xlsx");
+        try {
+            job.markRunning(estimateTotal(job));
+
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                switch (job.getType()) {
+                    case CLIENTS -> excelExportService.writeClients(out, job::setProcessed);
+                    case PRODUCTS -> excelExportService.writeProducts(out, job::setProcessed);
+                    case SALES -> excelExportService.writeSales(job.getFrom(), job.getTo(), out, job::setProcessed);
+                }
+            }
+            // Mover al nombre final solo cuando el archivo está completo
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.markDone(target);
+        } catch (Exception e) {
+            deleteQuietly(partial);
+            job.markFailed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            activeJobs.remove(job.getKey(), job);
+        }
+    }
+
+    private long estimateTotal(ExportJob job) {
+        return switch (job.getType()) {
+            case CLIENTS -> userRepository.countByRole("CLIENTE");
+            case PRODUCTS -> productRepository.count();
+            case SALES -> saleRepository.countByCreatedAtRange(
+                    job.getFrom() != null ? job.getFrom() : ExcelExportService.SALES_MIN_DATE,
+                    job.getTo());
+        };
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("No se pudo borrar el archivo de exportación {}: {}", file, e.getMessage());
+        }
+    }
+
+    // ==================== TRABAJO ====================
+
+    /**
+     * Estado de un trabajo de exportación
+     */
+    public static class ExportJob {
+        private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+        private final String id;
+        private final String owner;
+        private final ExportType type;
+        private final String key;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile long total;
+        private volatile long processed;
+        private volatile Path file;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        ExportJob(String id, String owner, ExportType type, String key, LocalDateTime from, LocalDateTime to) {
+            this.id = id;
+            this.owner = owner;
+            this.type = type;
+            this.key = key;
+            this.from = from;
+            // Fijar el fin del rango al encolar para que el resultado no dependa de la espera
+            this.to = type == ExportType.SALES && to == null ? createdAt : to;
+        }
+
+        void markRunning(long total) {
+            this.total = total;
+            this.status = JobStatus.RUNNING;
+        }
+
+        void setProcessed(long processed) {
+            this.processed = processed;
+        }
+
+        void markDone(Path file) {
+            this.file = file;
+            this.processed = Math.max(processed, total);
+            this.finishedAt = LocalDateTime.now();
+            this.status = JobStatus.DONE;
+        }
+
+        void markFailed(String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = JobStatus.FAILED;
+        }
+
+        /**
+         * Porcentaje de avance (0-100)
+         */
+        public int getProgress() {
+            if (status == JobStatus.DONE) {
+                return 100;
+            }
+            if (total <= 0) {
+                return 0;
+            }
+            return (int) Math.min(99, processed * 100 / total);
+        }
+
+        /**
+         * Nombre sugerido para la descarga, p. ej. "Ventas_20250101_120000.xlsx"
+         */
+        public String getFilename() {
+            String prefix = switch (type) {
+                case CLIENTS -> "Clientes";
+                case PRODUCTS -> "Productos";
+                case SALES -> "Ventas";
+            };
+            return prefix + "_" + createdAt.format(FILE_TIMESTAMP) + ".xlsx";
+        }
+
+        /**
+         * Estado para responder al cliente
+         */
+        public Map<String, Object> toStatus() {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("jobId", id);
+            body.put("type", type);
+            body.put("status", status);
+            body.put("progress", getProgress());
+            body.put("processed", processed);
+            body.put("total", total);
+            body.put("createdAt", createdAt);
+            body.put("finishedAt", finishedAt);
+            if (error != null) {
+                body.put("error", error);
+            }
+            if (status == JobStatus.DONE) {
+                body.put("downloadUrl", "/export/jobs/" + id + "/download");
+            }
+            return body;
+        }
+
+        // Getters
+        public String getId() { return id; }
+        public String getOwner() { return owner; }
+        public ExportType getType() { return type; }
+        public String getKey() { return key; }
+        public LocalDateTime getFrom() { return from; }
+        public LocalDateTime getTo() { return to; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public JobStatus getStatus() { return status; }
+        public long getTotal() { return total; }
+        public long getProcessed() { return processed; }
+        public Path getFile() { return file; }
+        public String getError() { return error; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+    }
+}
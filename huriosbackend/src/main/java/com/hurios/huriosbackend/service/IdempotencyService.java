@@ -0,0 +1,132 @@
+package com.hurios.huriosbackend.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyService - Evita procesar dos veces la misma operación cuando el
+ * cliente reintenta con el mismo header {@code Idempotency-Key}.
+ *
+ * - Guarda el resultado de cada clave en un caché Guava acotado y con expiración.
+ * - Si llega un duplicado mientras la primera petición sigue en curso, espera
+ *   ese mismo resultado en vez de volver a ejecutar la operación.
+ * - Si la operación falla, la clave se libera para que un reintento pueda
+ *   volver a intentarlo (y los que esperaban reciben el mismo error).
+ * - Junto a la clave se guarda el hash del cuerpo de la petición: la misma clave
+ *   con otro cuerpo responde 422 en vez de devolver el resultado de otra operación.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final ConcurrentMap<String, Entry> results;
+    private final long waitSeconds;
+
+    public IdempotencyService(
+            @Value("${app.idempotency.max-entries:10000}") long maxEntries,
+            @Value("${app.idempotency.ttl-minutes:60}") long ttlMinutes,
+            @Value("${app.idempotency.wait-seconds:30}") long waitSeconds) {
+        Cache<String, Entry> cache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .build();
+        this.results = cache.asMap();
+        this.waitSeconds = waitSeconds;
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por (scope, clave), sin comparar el cuerpo.
+     */
+    public <T> T execute(String scope, String key, Supplier<T> action) {
+        return execute(scope, key, "", action);
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por (scope, clave).
+     *
+     * @param scope       dueño de la clave (p. ej. email del usuario), para que dos
+     *                    usuarios no compartan resultados aunque usen la misma clave
+     * @param key         valor del header Idempotency-Key
+     * @param requestHash hash del cuerpo de la petición; un reintento debe traer el mismo
+     * @param action      operación a ejecutar si la clave es nueva
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, String requestHash, Supplier<T> action) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key inválida (1 a " + MAX_KEY_LENGTH + " caracteres)");
+        }
+        String cacheKey = scope + "\u0000" + key.trim();
+
+        Entry mine = new Entry(requestHash != null ? requestHash : "", new CompletableFuture<>());
+        Entry existing = results.putIfAbsent(cacheKey, mine);
+        if (existing != null) {
+            if (!existing.requestHash.equals(mine.requestHash)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "La Idempotency-Key ya se usó con otra solicitud");
+            }
+            return (T) await(existing.result);
+        }
+
+        try {
+            T result = action.get();
+            mine.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            // Liberar la clave: el reintento debe poder ejecutarse de nuevo
+            results.remove(cacheKey, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Cantidad de claves guardadas (en curso o terminadas)
+     */
+    public long size() {
+        return results.size();
+    }
+
+    private Object await(CompletableFuture<Object> inFlight) {
+        try {
+            return inFlight.get(waitSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "La solicitud con esta Idempotency-Key aún se está procesando");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "La solicitud con esta Idempotency-Key aún se está procesando");
+        }
+    }
+
+    /**
+     * Resultado (en curso o terminado) de una clave y el hash de la petición que la usó
+     */
+    private static final class Entry {
+        private final String requestHash;
+        private final CompletableFuture<Object> result;
+
+        Entry(String requestHash, CompletableFuture<Object> result) {
+            this.requestHash = requestHash;
+            this.result = result;
+        }
+    }
+}
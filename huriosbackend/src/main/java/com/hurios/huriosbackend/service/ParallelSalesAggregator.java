@@ -0,0 +1,228 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.util.LongStatsMap;
+import com.hurios.huriosbackend.util.StringDictionary;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ParallelSalesAggregator - Agregaciones de reportes en paralelo sobre SalesColumnStore
+ *
+ * - Las filas de la vista columnar se parten en bloques (mínimo app.reports.parallel.chunk-rows,
+ *   unos 4 por hilo) y se recorren en un ForkJoinPool propio (app.reports.parallel.threads),
+ *   sin usar el pool común de la JVM.
+ * - Cada bloque llena su propio acumulador (arreglos por código o LongStatsMap por
+ *   producto/cliente) y los resultados se combinan de a pares al volver.
+ * - Con menos filas que un bloque, o con un solo hilo, todo corre en el hilo que llama.
+ */
+@Service
+public class ParallelSalesAggregator {
+
+    private final SalesColumnStore salesColumnStore;
+    private final ForkJoinPool pool;
+    private final int chunkRows;
+
+    public ParallelSalesAggregator(SalesColumnStore salesColumnStore,
+                                   @Value("${app.reports.parallel.threads:0}") int threads,
+                                   @Value("${app.reports.parallel.chunk-rows:32768}") int chunkRows) {
+        this.salesColumnStore = salesColumnStore;
+        this.chunkRows = Math.max(1, chunkRows);
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("report-fj-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * True cuando la copia columnar terminó de cargarse
+     */
+    public boolean isReady() {
+        return salesColumnStore.isReady();
+    }
+
+    /**
+     * Ventas e ingresos de [from, to) agrupados por estado, método de pago o distrito,
+     * de mayor a menor ingreso
+     */
+    public List<SalesColumnStore.Group> breakdown(SalesColumnStore.Dimension dimension,
+                                                 LocalDateTime from, LocalDateTime toExclusive) {
+        SalesColumnStore.Columns view = salesColumnStore.columns();
+        StringDictionary dictionary = salesColumnStore.dictionary(dimension);
+        int groups = dictionary.size(); // el diccionario se publica antes que las filas
+        int[] codes = view.codes(dimension);
+        long fromSecond = epochSecond(from);
+        long toSecond = epochSecond(toExclusive);
+
+        long[] totals = aggregate(view.saleCount, new ChunkAggregator<long[]>() {
+            // [0, groups) cantidades y [groups, 2 * groups) centavos
+            public long[] newAccumulator() {
+                return new long[groups * 2];
+            }
+
+            public void accumulate(long[] acc, int fromRow, int toRow) {
+                long[] timestamps = view.timestamps;
+                long[] cents = view.totalCents;
+                for (int row = fromRow; row < toRow; row++) {
+                    long timestamp = timestamps[row];
+                    if (timestamp >= fromSecond && timestamp < toSecond) {
+                        int code = codes[row];
+                        acc[code]++;
+                        if (cents[row] != SalesColumnStore.NO_TOTAL) {
+                            acc[groups + code] += cents[row];
+                        }
+                    }
+                }
+            }
+
+            public long[] merge(long[] left, long[] right) {
+                for (int i = 0; i < left.length; i++) {
+                    left[i] += right[i];
+                }
+                return left;
+            }
+        });
+
+        List<SalesColumnStore.Group> result = new ArrayList<>();
+        for (int code = 0; code < groups; code++) {
+            if (totals[code] > 0) {
+                result.add(new SalesColumnStore.Group(dictionary.valueOf(code), totals[code], totals[groups + code] / 100.0));
+            }
+        }
+        result.sort(Comparator.comparingDouble(SalesColumnStore.Group::getRevenue).reversed()
+                .thenComparing(SalesColumnStore.Group::getValue));
+        return result;
+    }
+
+    /**
+     * Unidades (count) e ingresos en centavos (sum) por producto de todo el historial;
+     * devuelve los k productos con más unidades
+     */
+    public List<LongStatsMap.Entry> topProducts(int k) {
+        SalesColumnStore.Columns view = salesColumnStore.columns();
+        LongStatsMap totals = aggregate(view.saleCount, new ChunkAggregator<LongStatsMap>() {
+            public LongStatsMap newAccumulator() {
+                return new LongStatsMap(256);
+            }
+
+            public void accumulate(LongStatsMap acc, int fromRow, int toRow) {
+                int[] products = view.itemProducts;
+                int[] quantities = view.itemQuantities;
+                long[] cents = view.itemCents;
+                for (int item = view.itemStart[fromRow], end = view.itemStart[toRow]; item < end; item++) {
+                    if (products[item] >= 0) {
+                        acc.add(products[item], quantities[item], cents[item]);
+                    }
+                }
+            }
+
+            public LongStatsMap merge(LongStatsMap left, LongStatsMap right) {
+                return left.size() >= right.size() ? left.merge(right) : right.merge(left);
+            }
+        });
+        return totals.top(k, false);
+    }
+
+    /**
+     * Pedidos (count) y gasto en centavos (sum) por cliente de todo el historial;
+     * devuelve los k clientes con mayor gasto. Como la consulta SQL, ignora las ventas
+     * sin total.
+     */
+    public List<LongStatsMap.Entry> topCustomers(int k) {
+        SalesColumnStore.Columns view = salesColumnStore.columns();
+        LongStatsMap totals = aggregate(view.saleCount, new ChunkAggregator<LongStatsMap>() {
+            public LongStatsMap newAccumulator() {
+                return new LongStatsMap(1024);
+            }
+
+            public void accumulate(LongStatsMap acc, int fromRow, int toRow) {
+                int[] users = view.userIds;
+                long[] cents = view.totalCents;
+                for (int row = fromRow; row < toRow; row++) {
+                    if (users[row] >= 0 && cents[row] != SalesColumnStore.NO_TOTAL) {
+                        acc.add(users[row], 1, cents[row]);
+                    }
+                }
+            }
+
+            public LongStatsMap merge(LongStatsMap left, LongStatsMap right) {
+                return left.size() >= right.size() ? left.merge(right) : right.merge(left);
+            }
+        });
+        return totals.top(k, true);
+    }
+
+    // ==================== FORK-JOIN ====================
+
+    /**
+     * Acumulador de un bloque de filas [fromRow, toRow) y cómo combinar dos
+     */
+    interface ChunkAggregator<A> {
+        A newAccumulator();
+        void accumulate(A acc, int fromRow, int toRow);
+        A merge(A left, A right);
+    }
+
+    <A> A aggregate(int rows, ChunkAggregator<A> aggregator) {
+        if (rows <= chunkRows || pool.getParallelism() == 1) {
+            A acc = aggregator.newAccumulator();
+            aggregator.accumulate(acc, 0, rows);
+            return acc;
+        }
+        // Unos 4 bloques por hilo: más bloques solo agregan combinaciones de mapas grandes
+        int threshold = Math.max(chunkRows, rows / (pool.getParallelism() * 4));
+        return pool.invoke(new ChunkTask<>(aggregator, 0, rows, threshold));
+    }
+
+    private static final class ChunkTask<A> extends RecursiveTask<A> {
+        private final ChunkAggregator<A> aggregator;
+        private final int fromRow;
+        private final int toRow;
+        private final int chunkRows;
+
+        ChunkTask(ChunkAggregator<A> aggregator, int fromRow, int toRow, int chunkRows) {
+            this.aggregator = aggregator;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.chunkRows = chunkRows;
+        }
+
+        @Override
+        protected A compute() {
+            if (toRow - fromRow <= chunkRows) {
+                A acc = aggregator.newAccumulator();
+                aggregator.accumulate(acc, fromRow, toRow);
+                return acc;
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            ChunkTask<A> left = new ChunkTask<>(aggregator, fromRow, middle, chunkRows);
+            ChunkTask<A> right = new ChunkTask<>(aggregator, middle, toRow, chunkRows);
+            left.fork();
+            A rightResult = right.compute();
+            return aggregator.merge(left.join(), rightResult);
+        }
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -5,11 +5,15 @@ import com.hurios.huriosbackend.dto.PaymentDtos;
 import com.hurios.huriosbackend.entity.*;
 import com.hurios.huriosbackend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Servicio para procesar pagos y crear ventas
@@ -29,32 +33,82 @@ public class PaymentService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CacheService cacheService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Procesa un pago, crea la venta, descuenta el stock y guarda los items
+     * Procesa un pago, crea la venta, descuenta el stock y guarda los items.
+     * Si algún producto no tiene stock suficiente se revierte todo.
      */
     @Transactional
     public PaymentDtos.ProcessPaymentResponse processPayment(
             PaymentDtos.ProcessPaymentRequest request,
             String userEmail
     ) {
-        // 1. Buscar el usuario
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        return processPayment(request, null, userEmail);
+    }
 
-        // 2. Validar stock disponible para todos los productos
+    /**
+     * Igual que {@link #processPayment(PaymentDtos.ProcessPaymentRequest, String)}, pero
+     * si se conoce el id del usuario (claim "uid" del token) no se consulta la tabla users:
+     * la venta se asocia con una referencia por clave primaria.
+     */
+    @Transactional
+    public PaymentDtos.ProcessPaymentResponse processPayment(
+            PaymentDtos.ProcessPaymentRequest request,
+            Long userId,
+            String userEmail
+    ) {
+        // 1. Usuario: referencia por id (sin SELECT) o búsqueda por email (cache) en tokens antiguos
+        User user = userId != null
+                ? userRepository.getReferenceById(userId)
+                : cacheService.findUserByEmail(userEmail)
+                        .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        // 2. Agrupar cantidades por producto (ordenado por id para bloquear filas siempre
+        //    en el mismo orden) y cargar todos los productos en una sola consulta. Se leen
+        //    de la BD y no del cache: un stock cacheado viejo rechazaría compras válidas.
+        Map<Long, Integer> quantities = new TreeMap<>();
         for (PaymentDtos.OrderItem item : request.getItems()) {
-            Product product = productRepository.findById(item.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Producto no encontrado: " + item.getProductId()));
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new RuntimeException("Cantidad inválida para el producto: " + item.getProductId());
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(quantities.keySet())) {
+            products.put(product.getId(), product);
+        }
 
-            if (product.getStock() == null || product.getStock() < item.getQuantity()) {
+        // Validación rápida con los datos leídos (evita escribir si ya se sabe que falta stock)
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                throw new RuntimeException("Producto no encontrado: " + entry.getKey());
+            }
+            if (product.getStock() == null || product.getStock() < entry.getValue()) {
                 throw new RuntimeException("Stock insuficiente para el producto: " + product.getName());
             }
         }
 
-        // 3. Crear la venta (Sale)
+        // 3. Descontar stock con un UPDATE condicional por producto. Si otra compra
+        //    se llevó las unidades entre la lectura y aquí, el UPDATE no afecta filas
+        //    y la excepción revierte toda la transacción (incluidos descuentos previos).
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (productRepository.decrementStockIfAvailable(entry.getKey(), entry.getValue()) == 0) {
+                throw new RuntimeException("Stock insuficiente para el producto: "
+                        + products.get(entry.getKey()).getName());
+            }
+        }
+
+        // 4. Crear la venta (Sale)
         Sale sale = new Sale();
         sale.setUser(user);
 
@@ -91,35 +145,29 @@ public class PaymentService {
         sale.setCreatedAt(LocalDateTime.now());
         sale.setUpdatedAt(LocalDateTime.now());
 
-        // Guardar la venta primero
-        sale = saleRepository.save(sale);
-
-        // 4. Crear los items y descontar stock
+        // 5. Crear los items (el stock ya fue descontado arriba)
         for (PaymentDtos.OrderItem orderItem : request.getItems()) {
-            Product product = productRepository.findById(orderItem.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
-
-            // Crear SaleItem
             SaleItem saleItem = new SaleItem();
-            saleItem.setSale(sale);
-            saleItem.setProduct(product);
+            saleItem.setProduct(products.get(orderItem.getProductId()));
             saleItem.setQuantity(orderItem.getQuantity());
             saleItem.setUnitPrice(orderItem.getPrice());
             saleItem.setSubtotal(orderItem.getQuantity() * orderItem.getPrice());
 
             // Agregar a la venta
             sale.addItem(saleItem);
-
-            // Descontar stock
-            int newStock = product.getStock() - orderItem.getQuantity();
-            product.setStock(newStock);
-            productRepository.save(product);
         }
 
-        // Guardar los items (ya están asociados via cascade)
+        // Guardar la venta con sus items (cascade) en un solo save
         sale = saleRepository.save(sale);
 
-        // 5. Retornar respuesta exitosa
+        // Avisar a los componentes en memoria que cambió el stock
+        for (Long productId : quantities.keySet()) {
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productId));
+        }
+        // Agregados de reportes (se actualizan dentro de esta misma transacción)
+        eventPublisher.publishEvent(SaleConfirmedEvent.of(sale));
+
+        // 6. Retornar respuesta exitosa
         return new PaymentDtos.ProcessPaymentResponse(
                 true,
                 "Pago procesado exitosamente",
@@ -131,7 +179,17 @@ public class PaymentService {
      * Obtener ventas de un usuario
      */
     public List<Sale> getUserSales(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        return getUserSales(null, userEmail);
+    }
+
+    /**
+     * Obtener ventas de un usuario; con el id del token se evita buscarlo por email
+     */
+    public List<Sale> getUserSales(Long userId, String userEmail) {
+        if (userId != null) {
+            return saleRepository.findByUserId(userId);
+        }
+        User user = cacheService.findUserByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
         return saleRepository.findByUserId(user.getId());
     }
@@ -0,0 +1,54 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.entity.Product;
+
+/**
+ * ProductChangedEvent - Evento publicado cada vez que un producto cambia
+ * (creación/actualización, cambio de stock o eliminación).
+ *
+ * Los componentes que mantienen estructuras en memoria sobre el catálogo
+ * (índice de búsqueda, cachés, etc.) lo escuchan con
+ * {@code @TransactionalEventListener(fallbackExecution = true)} para
+ * actualizarse solo cuando el cambio ya fue confirmado en la BD.
+ *
+ * Los cambios hechos en otra instancia llegan por CacheInvalidationFeed como
+ * eventos "remotos" (isRemote()), que no se vuelven a propagar.
+ */
+public class ProductChangedEvent {
+
+    public enum Type { SAVED, STOCK_CHANGED, DELETED }
+
+    private final Type type;
+    private final Long productId;
+    private final Product product; // solo presente en SAVED
+    private final boolean remote;
+
+    private ProductChangedEvent(Type type, Long productId, Product product, boolean remote) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+        this.remote = remote;
+    }
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(Type.SAVED, product.getId(), product, false);
+    }
+
+    public static ProductChangedEvent stockChanged(Long productId) {
+        return new ProductChangedEvent(Type.STOCK_CHANGED, productId, null, false);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null, false);
+    }
+
+    // Mismo cambio, marcado como ocurrido en otra instancia
+    public ProductChangedEvent asRemote() {
+        return new ProductChangedEvent(type, productId, product, true);
+    }
+
+    public Type getType() { return type; }
+    public Long getProductId() { return productId; }
+    public Product getProduct() { return product; }
+    public boolean isRemote() { return remote; }
+}
@@ -0,0 +1,307 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.dto.ProductDtos.BrowseResult;
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import com.hurios.huriosbackend.util.CompressedBitmap;
+import com.hurios.huriosbackend.util.ProductUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * ProductFacetIndex - Índice de facetas del catálogo con bitmaps comprimidos
+ *
+ * - Cada producto tiene un ordinal (en orden de id al construir) y por cada valor de
+ *   faceta se guarda el CompressedBitmap de los ordinales que lo tienen: categoría
+ *   (ProductUtils.resolveCategory), rango de precio (PRICE_RANGES) y con/sin stock.
+ * - browse() intersecta los filtros elegidos y cuenta cada valor de faceta con los
+ *   filtros de las demás facetas (el conteo de una faceta no se limita a sí mismo, así
+ *   se ve cuántos habría al cambiar de valor). Solo la página pedida se lee de CacheService.
+ * - Se construye al arrancar y se actualiza con {@link ProductChangedEvent}. Las
+ *   consultas leen una instantánea inmutable; cada cambio copia solo los bitmaps que toca.
+ */
+@Service
+public class ProductFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String PRICE_RANGE = "priceRange";
+    public static final String IN_STOCK = "inStock";
+
+    private static final int DEFAULT_LIMIT = 24;
+    private static final int MAX_LIMIT = 100;
+
+    private final ProductRepository productRepository;
+    private final CacheService cacheService;
+
+    private volatile Snapshot snapshot = Snapshot.empty();
+    // id de producto -> ordinal (los ordinales de productos eliminados no se reutilizan)
+    private final Map<Long, Integer> ordinals = new HashMap<>(); // protegido por "this"
+
+    public ProductFacetIndex(ProductRepository productRepository, CacheService cacheService) {
+        this.productRepository = productRepository;
+        this.cacheService = cacheService;
+    }
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    /**
+     * Construir el índice completo al iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<Product> products = new ArrayList<>(productRepository.findAll());
+        products.removeIf(product -> product.getId() == null);
+        products.sort(Comparator.comparing(Product::getId));
+
+        ordinals.clear();
+        long[] ids = new long[Math.max(256, products.size() * 2)];
+        Map<String, Map<String, CompressedBitmap>> facets = Snapshot.emptyFacets();
+        CompressedBitmap all = new CompressedBitmap();
+        for (int ordinal = 0; ordinal < products.size(); ordinal++) {
+            Product product = products.get(ordinal);
+            int position = ordinal;
+            ids[ordinal] = product.getId();
+            ordinals.put(product.getId(), ordinal);
+            all.add(ordinal);
+            facetValues(product).forEach((facet, value) ->
+                    facets.get(facet).computeIfAbsent(value, v -> new CompressedBitmap()).add(position));
+        }
+        snapshot = new Snapshot(ids, products.size(), all, facets);
+    }
+
+    /**
+     * Mantener el índice sincronizado con los cambios confirmados del catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.getType()) {
+            case SAVED -> index(event.getProduct());
+            // Solo cambia el stock: la lectura pasa por la caché, ya invalidada
+            case STOCK_CHANGED -> cacheService.findProduct(event.getProductId())
+                    .ifPresentOrElse(this::index, () -> remove(event.getProductId()));
+            case DELETED -> remove(event.getProductId());
+        }
+    }
+
+    /**
+     * Indexar (o reindexar) un producto
+     */
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        Snapshot current = snapshot;
+        long[] ids = current.ids;
+        int size = current.size;
+        Integer ordinal = ordinals.get(product.getId());
+        if (ordinal == null) {
+            ordinal = size++;
+            if (ordinal == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            // La posición nueva no la referencia ningún bitmap publicado: se puede escribir
+            ids[ordinal] = product.getId();
+            ordinals.put(product.getId(), ordinal);
+        }
+
+        Map<String, String> values = facetValues(product);
+        Map<String, Map<String, CompressedBitmap>> facets = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, CompressedBitmap>> facet : current.facets.entrySet()) {
+            facets.put(facet.getKey(), move(facet.getValue(), ordinal, values.get(facet.getKey())));
+        }
+        snapshot = new Snapshot(ids, size, withOrdinal(current.all, ordinal, true), facets);
+    }
+
+    /**
+     * Quitar un producto de todas las facetas
+     */
+    public synchronized void remove(Long productId) {
+        Integer ordinal = productId == null ? null : ordinals.get(productId);
+        Snapshot current = snapshot;
+        if (ordinal == null || !current.all.contains(ordinal)) {
+            return;
+        }
+        Map<String, Map<String, CompressedBitmap>> facets = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, CompressedBitmap>> facet : current.facets.entrySet()) {
+            facets.put(facet.getKey(), move(facet.getValue(), ordinal, null));
+        }
+        snapshot = new Snapshot(current.ids, current.size, withOrdinal(current.all, ordinal, false), facets);
+    }
+
+    // Dejar el ordinal solo en el bitmap de "target" (o en ninguno), copiando los que cambian
+    private static Map<String, CompressedBitmap> move(Map<String, CompressedBitmap> bitmaps, int ordinal, String target) {
+        Map<String, CompressedBitmap> result = new HashMap<>();
+        bitmaps.forEach((value, bitmap) -> {
+            CompressedBitmap updated = withOrdinal(bitmap, ordinal, value.equals(target));
+            if (!updated.isEmpty()) {
+                result.put(value, updated);
+            }
+        });
+        if (target != null && !result.containsKey(target)) {
+            result.put(target, CompressedBitmap.of(ordinal));
+        }
+        return result;
+    }
+
+    private static CompressedBitmap withOrdinal(CompressedBitmap bitmap, int ordinal, boolean present) {
+        if (bitmap.contains(ordinal) == present) {
+            return bitmap;
+        }
+        CompressedBitmap copy = bitmap.copy();
+        if (present) {
+            copy.add(ordinal);
+        } else {
+            copy.remove(ordinal);
+        }
+        return copy;
+    }
+
+    private static Map<String, String> facetValues(Product product) {
+        Map<String, String> values = new HashMap<>();
+        values.put(CATEGORY, ProductUtils.resolveCategory(product));
+        String priceRange = ProductUtils.resolvePriceRange(product.getPrice());
+        if (priceRange != null) {
+            values.put(PRICE_RANGE, priceRange);
+        }
+        values.put(IN_STOCK, String.valueOf(product.getStock() != null && product.getStock() > 0));
+        return values;
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Productos que cumplen todos los filtros (dentro de una faceta, cualquiera de los
+     * valores elegidos) y conteo por valor de cada faceta
+     */
+    public BrowseResult browse(Collection<String> categories,
+                               Collection<String> priceRanges,
+                               Boolean inStock,
+                               Integer offset,
+                               Integer limit) {
+        int pageOffset = offset != null ? offset : 0;
+        int pageSize = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageOffset < 0) {
+            throw new IllegalArgumentException("El desplazamiento no puede ser negativo");
+        }
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_LIMIT);
+        }
+        if (priceRanges != null) {
+            for (String range : priceRanges) {
+                if (!ProductUtils.PRICE_RANGES.containsKey(range)) {
+                    throw new IllegalArgumentException("Rango de precio no válido: " + range);
+                }
+            }
+        }
+
+        Snapshot current = snapshot;
+        Map<String, Collection<String>> selected = new HashMap<>();
+        selected.put(CATEGORY, categories);
+        selected.put(PRICE_RANGE, priceRanges);
+        selected.put(IN_STOCK, inStock != null ? List.of(inStock.toString()) : null);
+
+        // Un filtro por faceta: la unión de sus valores elegidos (null = sin filtro)
+        Map<String, CompressedBitmap> filters = new HashMap<>();
+        selected.forEach((facet, values) -> {
+            if (values != null && !values.isEmpty()) {
+                CompressedBitmap union = new CompressedBitmap();
+                for (String value : values) {
+                    CompressedBitmap bitmap = current.facets.get(facet).get(value);
+                    if (bitmap != null) {
+                        union = union.or(bitmap);
+                    }
+                }
+                filters.put(facet, union);
+            }
+        });
+
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, CompressedBitmap>> facet : current.facets.entrySet()) {
+            CompressedBitmap base = intersect(filters, facet.getKey());
+            Map<String, Integer> facetCounts = new LinkedHashMap<>();
+            for (String value : orderedValues(facet.getKey(), facet.getValue())) {
+                CompressedBitmap bitmap = facet.getValue().get(value);
+                int count = bitmap == null ? 0 : base == null ? bitmap.cardinality() : base.andCardinality(bitmap);
+                facetCounts.put(value, count);
+            }
+            counts.put(facet.getKey(), facetCounts);
+        }
+
+        CompressedBitmap matches = filters.isEmpty() ? current.all : intersect(filters, null);
+        List<Long> pageIds = new ArrayList<>();
+        for (int ordinal : matches.page(pageOffset, pageSize)) {
+            pageIds.add(current.ids[ordinal]);
+        }
+        List<Product> items = pageIds.isEmpty() ? List.of() : cacheService.findProducts(pageIds).stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .toList();
+        return new BrowseResult(matches.cardinality(), pageOffset, items, counts);
+    }
+
+    // Categorías en orden alfabético; rangos de precio y stock siempre completos y en su orden
+    private static Collection<String> orderedValues(String facet, Map<String, CompressedBitmap> bitmaps) {
+        return switch (facet) {
+            case PRICE_RANGE -> ProductUtils.PRICE_RANGES.keySet();
+            case IN_STOCK -> List.of("true", "false");
+            default -> new TreeSet<>(bitmaps.keySet());
+        };
+    }
+
+    // Intersección de los filtros salvo el de "except"; null si no queda ninguno (todos los
+    // productos). Los bitmaps de facetas ya son subconjuntos del de todos los productos.
+    private static CompressedBitmap intersect(Map<String, CompressedBitmap> filters, String except) {
+        CompressedBitmap result = null;
+        for (Map.Entry<String, CompressedBitmap> filter : filters.entrySet()) {
+            if (!filter.getKey().equals(except)) {
+                result = result == null ? filter.getValue() : result.and(filter.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cantidad de productos indexados
+     */
+    public int size() {
+        return snapshot.all.cardinality();
+    }
+
+    // Estado publicado: no se modifica, cada cambio publica uno nuevo
+    private static final class Snapshot {
+        final long[] ids; // ordinal -> id de producto
+        final int size;
+        final CompressedBitmap all;
+        final Map<String, Map<String, CompressedBitmap>> facets;
+
+        Snapshot(long[] ids, int size, CompressedBitmap all, Map<String, Map<String, CompressedBitmap>> facets) {
+            this.ids = ids;
+            this.size = size;
+            this.all = all;
+            this.facets = facets;
+        }
+
+        static Snapshot empty() {
+            return new Snapshot(new long[256], 0, new CompressedBitmap(), emptyFacets());
+        }
+
+        static Map<String, Map<String, CompressedBitmap>> emptyFacets() {
+            Map<String, Map<String, CompressedBitmap>> facets = new LinkedHashMap<>();
+            facets.put(CATEGORY, new HashMap<>());
+            facets.put(PRICE_RANGE, new HashMap<>());
+            facets.put(IN_STOCK, new HashMap<>());
+            return facets;
+        }
+    }
+}
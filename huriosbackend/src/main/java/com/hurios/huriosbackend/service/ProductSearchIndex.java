@@ -0,0 +1,475 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * ProductSearchIndex - Índice invertido en memoria para buscar productos por nombre
+ *
+ * - Los nombres se normalizan (minúsculas, sin tildes, solo letras y números).
+ * - Cada palabra se indexa por trigramas, con relleno al inicio para que las
+ *   consultas de 1-2 caracteres funcionen como prefijo de palabra.
+ * - Las listas de postings son arreglos ordenados de ordinales (int[]), así una
+ *   consulta solo intersecta arreglos pequeños y no toca la BD.
+ * - Se construye al arrancar y se actualiza con {@link ProductChangedEvent}; cada
+ *   cambio publica un Snapshot nuevo, así una búsqueda nunca ve un índice a medias.
+ * - El Snapshot nuevo comparte casi todo con el anterior: los mapas están partidos en
+ *   shards y los productos en bloques, y un cambio copia solo los shards, bloques y
+ *   postings que toca (no todo el catálogo).
+ * - Los ordinales de productos eliminados se recuperan reconstruyendo el índice en
+ *   memoria cuando superan un cuarto del total (y al menos COMPACT_MIN_DEAD).
+ */
+@Service
+public class ProductSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final char PAD = '_';
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+    static final int COMPACT_MIN_DEAD = 1024;
+
+    private final ProductRepository productRepository;
+
+    // Estado completo del índice; se reemplaza con una sola escritura volátil
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Construir el índice completo al iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<Entry> entries = new ArrayList<>();
+        for (Product product : productRepository.findAll()) {
+            if (product.getId() != null) {
+                entries.add(new Entry(product.getId(), normalize(product.getName())));
+            }
+        }
+        snapshot = Snapshot.build(entries);
+    }
+
+    /**
+     * Mantener el índice sincronizado con los cambios confirmados del catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.getType()) {
+            case SAVED -> index(event.getProduct());
+            case DELETED -> remove(event.getProductId());
+            case STOCK_CHANGED -> { } // el nombre no cambia, nada que reindexar
+        }
+    }
+
+    /**
+     * Indexar (o reindexar) un producto
+     */
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        Snapshot current = snapshot;
+        String text = normalize(product.getName());
+        Integer existing = current.ordinals.get(product.getId());
+
+        if (existing != null) {
+            String previous = current.entries.get(existing).text;
+            if (text.equals(previous)) {
+                return;
+            }
+            Set<String> oldGrams = grams(previous);
+            Set<String> newGrams = grams(text);
+            ShardedMap.Editor<String, int[]> postings = current.postings.edit();
+            for (String gram : oldGrams) {
+                if (!newGrams.contains(gram)) {
+                    postings.put(gram, withoutOrdinal(postings.get(gram), existing));
+                }
+            }
+            for (String gram : newGrams) {
+                if (!oldGrams.contains(gram)) {
+                    postings.put(gram, withOrdinal(postings.get(gram), existing));
+                }
+            }
+            snapshot = new Snapshot(current.ordinals, postings.build(),
+                    current.entries.with(existing, new Entry(product.getId(), text)), current.size, current.live);
+            return;
+        }
+
+        int ordinal = current.size;
+        ShardedMap.Editor<Long, Integer> ordinals = current.ordinals.edit();
+        ordinals.put(product.getId(), ordinal);
+        ShardedMap.Editor<String, int[]> postings = current.postings.edit();
+        for (String gram : grams(text)) {
+            postings.put(gram, withOrdinal(postings.get(gram), ordinal));
+        }
+        snapshot = new Snapshot(ordinals.build(), postings.build(),
+                current.entries.with(ordinal, new Entry(product.getId(), text)), ordinal + 1, current.live + 1);
+    }
+
+    /**
+     * Quitar un producto del índice
+     */
+    public synchronized void remove(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        Snapshot current = snapshot;
+        Integer ordinal = current.ordinals.get(productId);
+        if (ordinal == null) {
+            return;
+        }
+        ShardedMap.Editor<Long, Integer> ordinals = current.ordinals.edit();
+        ordinals.put(productId, null);
+        ShardedMap.Editor<String, int[]> postings = current.postings.edit();
+        for (String gram : grams(current.entries.get(ordinal).text)) {
+            postings.put(gram, withoutOrdinal(postings.get(gram), ordinal));
+        }
+        Snapshot next = new Snapshot(ordinals.build(), postings.build(),
+                current.entries.with(ordinal, null), current.size, current.live - 1);
+
+        // Recuperar los ordinales muertos cuando ya son muchos
+        int dead = next.size - next.live;
+        if (dead >= COMPACT_MIN_DEAD && dead > next.size / 4) {
+            next = next.compact();
+        }
+        snapshot = next;
+    }
+
+    /**
+     * Buscar ids de productos cuyo nombre contenga todas las palabras de la consulta.
+     * Palabras de 3+ caracteres se buscan como subcadena; las más cortas como prefijo.
+     */
+    public List<Long> search(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        String[] tokens = normalized.split(" ");
+        Snapshot current = snapshot;
+
+        // Candidatos: intersección de postings de todos los trigramas de la consulta
+        List<int[]> lists = new ArrayList<>();
+        for (String token : tokens) {
+            for (String gram : queryGrams(token)) {
+                int[] list = current.postings.get(gram);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        int[] candidates = lists.get(0);
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists.get(i));
+        }
+
+        // Verificación: los trigramas pueden dar falsos positivos
+        List<Long> result = new ArrayList<>(candidates.length);
+        for (int ordinal : candidates) {
+            Entry entry = current.entries.get(ordinal);
+            if (entry != null && matches(entry.text, tokens)) {
+                result.add(entry.id);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Cantidad de productos indexados
+     */
+    public int size() {
+        return snapshot.live;
+    }
+
+    // ==================== NORMALIZACIÓN Y TRIGRAMAS ====================
+
+    /**
+     * Minúsculas, sin tildes y con un solo espacio entre palabras
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALNUM.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        if (text == null || text.isEmpty()) {
+            return grams;
+        }
+        for (String word : text.split(" ")) {
+            String padded = "" + PAD + PAD + word;
+            for (int i = 0; i + GRAM <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+
+    private static List<String> queryGrams(String token) {
+        if (token.length() < GRAM) {
+            // prefijo de palabra: "fr" -> "_fr", "f" -> "__f"
+            return List.of("_".repeat(GRAM - token.length()) + token);
+        }
+        List<String> grams = new ArrayList<>(token.length() - GRAM + 1);
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static boolean matches(String text, String[] tokens) {
+        for (String token : tokens) {
+            if (token.length() >= GRAM) {
+                if (!text.contains(token)) {
+                    return false;
+                }
+            } else if (!text.startsWith(token) && !text.contains(" " + token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ==================== POSTINGS (arreglos ordenados, copy-on-write) ====================
+
+    // Copia de la lista con el ordinal agregado (null = lista vacía)
+    private static int[] withOrdinal(int[] list, int ordinal) {
+        if (list == null) {
+            return new int[]{ordinal};
+        }
+        int pos = Arrays.binarySearch(list, ordinal);
+        if (pos >= 0) {
+            return list;
+        }
+        int insertAt = -pos - 1;
+        int[] updated = new int[list.length + 1];
+        System.arraycopy(list, 0, updated, 0, insertAt);
+        updated[insertAt] = ordinal;
+        System.arraycopy(list, insertAt, updated, insertAt + 1, list.length - insertAt);
+        return updated;
+    }
+
+    // Copia de la lista sin el ordinal; null si queda vacía
+    private static int[] withoutOrdinal(int[] list, int ordinal) {
+        if (list == null) {
+            return null;
+        }
+        int pos = Arrays.binarySearch(list, ordinal);
+        if (pos < 0) {
+            return list;
+        }
+        if (list.length == 1) {
+            return null;
+        }
+        int[] updated = new int[list.length - 1];
+        System.arraycopy(list, 0, updated, 0, pos);
+        System.arraycopy(list, pos + 1, updated, pos, list.length - pos - 1);
+        return updated;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, k);
+    }
+
+    // ==================== ESTRUCTURAS INMUTABLES ====================
+
+    /**
+     * Producto indexado: id y nombre normalizado
+     */
+    private static final class Entry {
+        final long id;
+        final String text;
+
+        Entry(long id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Índice inmutable: ordinales, postings y productos siempre corresponden entre sí.
+     * Nada de lo publicado se modifica; un cambio crea las partes nuevas que necesita.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(ShardedMap.empty(), ShardedMap.empty(), Chunks.EMPTY, 0, 0);
+
+        final ShardedMap<Long, Integer> ordinals;
+        final ShardedMap<String, int[]> postings;
+        final Chunks entries; // ordinal -> producto (null si se eliminó)
+        final int size;       // próximo ordinal libre
+        final int live;       // productos indexados
+
+        Snapshot(ShardedMap<Long, Integer> ordinals, ShardedMap<String, int[]> postings,
+                 Chunks entries, int size, int live) {
+            this.ordinals = ordinals;
+            this.postings = postings;
+            this.entries = entries;
+            this.size = size;
+            this.live = live;
+        }
+
+        /**
+         * Índice completo con ordinales consecutivos desde 0
+         */
+        static Snapshot build(List<Entry> entries) {
+            Map<String, List<Integer>> builder = new HashMap<>();
+            ShardedMap.Editor<Long, Integer> ordinals = ShardedMap.<Long, Integer>empty().edit();
+            for (int ordinal = 0; ordinal < entries.size(); ordinal++) {
+                Entry entry = entries.get(ordinal);
+                ordinals.put(entry.id, ordinal);
+                for (String gram : grams(entry.text)) {
+                    builder.computeIfAbsent(gram, g -> new ArrayList<>()).add(ordinal);
+                }
+            }
+            ShardedMap.Editor<String, int[]> postings = ShardedMap.<String, int[]>empty().edit();
+            builder.forEach((gram, list) -> postings.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+            return new Snapshot(ordinals.build(), postings.build(),
+                    Chunks.of(entries.toArray(new Entry[0])), entries.size(), entries.size());
+        }
+
+        /**
+         * Mismo contenido sin los ordinales de productos eliminados
+         */
+        Snapshot compact() {
+            List<Entry> alive = new ArrayList<>(live);
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                Entry entry = entries.get(ordinal);
+                if (entry != null) {
+                    alive.add(entry);
+                }
+            }
+            return build(alive);
+        }
+    }
+
+    /**
+     * Mapa inmutable partido en SHARDS mapas: un Editor copia solo los shards que modifica
+     * y comparte el resto con el mapa original
+     */
+    private static final class ShardedMap<K, V> {
+        static final int SHARDS = 256;
+
+        private final Map<K, V>[] shards;
+
+        private ShardedMap(Map<K, V>[] shards) {
+            this.shards = shards;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <K, V> ShardedMap<K, V> empty() {
+            Map<K, V>[] shards = new Map[SHARDS];
+            Arrays.fill(shards, Map.of());
+            return new ShardedMap<>(shards);
+        }
+
+        V get(K key) {
+            return shards[shard(key)].get(key);
+        }
+
+        Editor<K, V> edit() {
+            return new Editor<>(shards.clone());
+        }
+
+        private static int shard(Object key) {
+            int hash = key.hashCode();
+            return (hash ^ (hash >>> 16)) & (SHARDS - 1);
+        }
+
+        static final class Editor<K, V> {
+            private final Map<K, V>[] shards;
+            private final boolean[] copied = new boolean[SHARDS];
+
+            private Editor(Map<K, V>[] shards) {
+                this.shards = shards;
+            }
+
+            V get(K key) {
+                return shards[shard(key)].get(key);
+            }
+
+            // value null = quitar la clave
+            void put(K key, V value) {
+                int shard = shard(key);
+                if (!copied[shard]) {
+                    shards[shard] = new HashMap<>(shards[shard]);
+                    copied[shard] = true;
+                }
+                if (value == null) {
+                    shards[shard].remove(key);
+                } else {
+                    shards[shard].put(key, value);
+                }
+            }
+
+            ShardedMap<K, V> build() {
+                return new ShardedMap<>(shards);
+            }
+        }
+    }
+
+    /**
+     * Arreglo inmutable de productos por ordinal en bloques de CHUNK: with() copia solo
+     * el bloque tocado y el arreglo de bloques
+     */
+    private static final class Chunks {
+        static final int SHIFT = 10;
+        static final int CHUNK = 1 << SHIFT;
+        static final Chunks EMPTY = new Chunks(new Entry[0][]);
+
+        private final Entry[][] chunks;
+
+        private Chunks(Entry[][] chunks) {
+            this.chunks = chunks;
+        }
+
+        static Chunks of(Entry[] entries) {
+            Entry[][] chunks = new Entry[(entries.length + CHUNK - 1) >>> SHIFT][];
+            for (int c = 0; c < chunks.length; c++) {
+                chunks[c] = Arrays.copyOfRange(entries, c << SHIFT, (c + 1) << SHIFT);
+            }
+            return new Chunks(chunks);
+        }
+
+        Entry get(int ordinal) {
+            int c = ordinal >>> SHIFT;
+            return c < chunks.length ? chunks[c][ordinal & (CHUNK - 1)] : null;
+        }
+
+        Chunks with(int ordinal, Entry entry) {
+            int c = ordinal >>> SHIFT;
+            Entry[][] copy = Arrays.copyOf(chunks, Math.max(chunks.length, c + 1));
+            Entry[] chunk = c < chunks.length ? chunks[c].clone() : new Entry[CHUNK];
+            chunk[ordinal & (CHUNK - 1)] = entry;
+            copy[c] = chunk;
+            return new Chunks(copy);
+        }
+    }
+}
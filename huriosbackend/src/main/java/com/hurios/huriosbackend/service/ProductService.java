@@ -1,12 +1,20 @@
 package com.hurios.huriosbackend.service;
 
+import com.hurios.huriosbackend.dto.ProductDtos.CatalogPage;
+import com.hurios.huriosbackend.dto.ProductDtos.ProductSummary;
 import com.hurios.huriosbackend.entity.Product;
 import com.hurios.huriosbackend.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -19,12 +27,24 @@ import java.util.stream.Collectors;
  */
 @Service
 public class ProductService {
+    public static final int DEFAULT_PAGE_SIZE = 24;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final String SORT_ID = "id";
+    private static final String SORT_PRICE = "price";
+
     private final ProductRepository repo;
     private final ValidationService validationService;
+    private final ProductSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository repo, ValidationService validationService) {
+    public ProductService(ProductRepository repo,
+                          ValidationService validationService,
+                          ProductSearchIndex searchIndex,
+                          ApplicationEventPublisher eventPublisher) {
         this.repo = repo;
         this.validationService = validationService;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -43,19 +63,98 @@ public class ProductService {
     }
 
     /**
-     * Buscar productos por nombre (case insensitive)
+     * Buscar productos por nombre (sin distinguir mayúsculas ni tildes)
+     * usando el índice en memoria; solo se cargan de la BD los resultados.
      */
     public List<Product> searchByName(String query) {
         if (query == null || query.trim().isEmpty()) {
             return findAll();
         }
         
-        String lowerQuery = query.toLowerCase().trim();
-        return repo.findAll().stream()
-                .filter(p -> p.getName().toLowerCase().contains(lowerQuery))
+        List<Long> ids = searchIndex.search(query);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return repo.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Product::getId))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obtener una página del catálogo con paginación por cursor (keyset).
+     * Devuelve proyecciones livianas (sin descripción) y nunca carga la tabla completa.
+     *
+     * @param cursor cursor opaco devuelto por la página anterior (null para la primera)
+     * @param size   cantidad de productos por página (1..MAX_PAGE_SIZE)
+     * @param sort   "id" (por defecto) o "price"
+     */
+    @Transactional(readOnly = true)
+    public CatalogPage getCatalogPage(String cursor, Integer size, String sort) {
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        String sortKey = sort == null || sort.isBlank() ? SORT_ID : sort.trim().toLowerCase();
+        if (!SORT_ID.equals(sortKey) && !SORT_PRICE.equals(sortKey)) {
+            throw new IllegalArgumentException("Orden no soportado: " + sort);
+        }
+
+        // Se pide una fila extra para saber si existe una página siguiente
+        Limit limit = Limit.of(pageSize + 1);
+        String[] position = decodeCursor(cursor, sortKey);
+        List<ProductSummary> rows;
+        if (SORT_ID.equals(sortKey)) {
+            long afterId = position != null ? parseCursorPart(position[1], Long::valueOf) : 0L;
+            rows = repo.findSummariesAfterId(afterId, limit);
+        } else if (position == null) {
+            rows = repo.findSummariesByPrice(limit);
+        } else {
+            rows = repo.findSummariesByPriceAfter(
+                    parseCursorPart(position[1], Double::valueOf),
+                    parseCursorPart(position[2], Long::valueOf),
+                    limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(sortKey, items.get(items.size() - 1)) : null;
+        return new CatalogPage(items, nextCursor, hasMore);
+    }
+
+    // El cursor es "orden:valores" en Base64 URL-safe; el cliente solo lo reenvía
+    private static String encodeCursor(String sortKey, ProductSummary last) {
+        String raw = SORT_ID.equals(sortKey)
+                ? sortKey + ":" + last.getId()
+                : sortKey + ":" + last.getPrice() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor, String sortKey) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        String[] parts = raw.split(":");
+        int expected = SORT_ID.equals(sortKey) ? 2 : 3;
+        if (parts.length != expected || !parts[0].equals(sortKey)) {
+            throw new IllegalArgumentException("Cursor inválido para el orden solicitado");
+        }
+        return parts;
+    }
+
+    private static <T> T parseCursorPart(String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
     /**
      * Crear nuevo producto
      */
@@ -86,7 +185,9 @@ public class ProductService {
         
         product.setStock(stock != null ? stock : 0);
         
-        return repo.save(product);
+        Product saved = repo.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
     }
 
     /**
@@ -123,7 +224,9 @@ public class ProductService {
             product.setImageUrl(imageUrl.trim().isEmpty() ? null : imageUrl.trim());
         }
         
-        return repo.save(product);
+        Product saved = repo.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
     }
 
     /**
@@ -134,13 +237,13 @@ public class ProductService {
         validationService.validateId(id);
         validationService.validatePositiveQuantity(quantity, "Cantidad a agregar");
         
-        Product product = repo.findById(id)
+        // Suma atómica en la BD: leer, sumar y guardar pisaría un descuento concurrente
+        if (repo.incrementStock(id, quantity) == 0) {
+            throw new RuntimeException("Producto no encontrado con ID: " + id);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(id));
+        return repo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado con ID: " + id));
-        
-        int currentStock = product.getStock() != null ? product.getStock() : 0;
-        product.setStock(currentStock + quantity);
-        
-        return repo.save(product);
     }
 
     /**
@@ -151,19 +254,20 @@ public class ProductService {
         validationService.validateId(id);
         validationService.validatePositiveQuantity(quantity, "Cantidad a reducir");
         
+        // Descuento atómico: solo se aplica si el stock alcanza
+        boolean reduced = repo.decrementStockIfAvailable(id, quantity) == 1;
+        
         Product product = repo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado con ID: " + id));
         
-        int currentStock = product.getStock() != null ? product.getStock() : 0;
-        
-        if (currentStock < quantity) {
+        if (!reduced) {
+            int currentStock = product.getStock() != null ? product.getStock() : 0;
             throw new RuntimeException("Stock insuficiente. Disponible: " + currentStock 
                     + ", Solicitado: " + quantity);
         }
         
-        product.setStock(currentStock - quantity);
-        
-        return repo.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(id));
+        return product;
     }
 
     /**
@@ -192,6 +296,7 @@ public class ProductService {
         }
         
         repo.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
     /**
@@ -1,11 +1,14 @@
 package com.hurios.huriosbackend.service;
 
-import com.hurios.huriosbackend.entity.Product;
-import com.hurios.huriosbackend.entity.Sale;
-import com.hurios.huriosbackend.entity.User;
+import com.hurios.huriosbackend.dto.ReportDtos.StockTotals;
 import com.hurios.huriosbackend.repository.ProductRepository;
+import com.hurios.huriosbackend.repository.SaleItemRepository;
 import com.hurios.huriosbackend.repository.SaleRepository;
 import com.hurios.huriosbackend.repository.UserRepository;
+import com.hurios.huriosbackend.util.LongStatsMap;
+import com.hurios.huriosbackend.util.QuantileSketch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -27,26 +30,55 @@ import java.util.stream.Collectors;
 public class ReportService {
 
     private final SaleRepository saleRepository;
+    private final SaleItemRepository saleItemRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final ValidationService validationService;
+    private final SalesRollupService salesRollupService;
+    private final DashboardService dashboardService;
+    private final SalesTimeIndex salesTimeIndex;
+    private final ParallelSalesAggregator parallelSalesAggregator;
+    private final boolean parallelAggregation;
 
     public ReportService(SaleRepository saleRepository, 
+                        SaleItemRepository saleItemRepository,
                         ProductRepository productRepository,
                         UserRepository userRepository,
-                        ValidationService validationService) {
+                        ValidationService validationService,
+                        SalesRollupService salesRollupService,
+                        DashboardService dashboardService,
+                        SalesTimeIndex salesTimeIndex,
+                        ParallelSalesAggregator parallelSalesAggregator,
+                        @Value("${app.reports.aggregation:parallel}") String aggregation) {
         this.saleRepository = saleRepository;
+        this.saleItemRepository = saleItemRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
         this.validationService = validationService;
+        this.salesRollupService = salesRollupService;
+        this.dashboardService = dashboardService;
+        this.salesTimeIndex = salesTimeIndex;
+        this.parallelSalesAggregator = parallelSalesAggregator;
+        this.parallelAggregation = "parallel".equalsIgnoreCase(aggregation.trim());
     }
 
     // ==================== REPORTES DE VENTAS ====================
 
     /**
-     * Obtener total de ventas en un rango de fechas
+     * Obtener total de ventas en un rango de fechas.
+     * Se responde con los agregados diarios/horarios (SalesRollupService), sin leer
+     * todas las ventas. La fecha de fin es inclusiva: si no trae fracción de segundo
+     * (p. ej. 23:59:59) incluye todo ese segundo.
      */
     public SalesReport getSalesReport(LocalDateTime startDate, LocalDateTime endDate) {
+        validateRange(startDate, endDate);
+
+        SalesRollupService.SalesTotals totals = salesRollupService.summarize(startDate, endExclusive(endDate));
+
+        return generateSalesReport(totals, startDate, endDate);
+    }
+
+    private static void validateRange(LocalDateTime startDate, LocalDateTime endDate) {
         if (startDate == null || endDate == null) {
             throw new IllegalArgumentException("Las fechas no pueden ser nulas");
         }
@@ -54,14 +86,11 @@ public class ReportService {
         if (startDate.isAfter(endDate)) {
             throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la fecha de fin");
         }
+    }
 
-        List<Sale> sales = saleRepository.findAll().stream()
-                .filter(sale -> sale.getCreatedAt() != null)
-                .filter(sale -> !sale.getCreatedAt().isBefore(startDate) && 
-                               !sale.getCreatedAt().isAfter(endDate))
-                .collect(Collectors.toList());
-
-        return generateSalesReport(sales, startDate, endDate);
+    // Fin inclusivo -> exclusivo: sin fracción de segundo incluye todo ese segundo
+    private static LocalDateTime endExclusive(LocalDateTime endDate) {
+        return endDate.getNano() == 0 ? endDate.plusSeconds(1) : endDate.plusNanos(1);
     }
 
     /**
@@ -96,242 +125,211 @@ public class ReportService {
     }
 
     /**
-     * Generar reporte de ventas a partir de una lista
+     * Generar reporte de ventas a partir de los totales del rango
      */
-    private SalesReport generateSalesReport(List<Sale> sales, LocalDateTime start, LocalDateTime end) {
+    private SalesReport generateSalesReport(SalesRollupService.SalesTotals totals,
+                                            LocalDateTime start, LocalDateTime end) {
         SalesReport report = new SalesReport();
         report.setStartDate(start);
         report.setEndDate(end);
-        report.setTotalSales(sales.size());
+        report.setTotalSales((int) totals.getSaleCount());
 
-        double totalRevenue = sales.stream()
-                .filter(sale -> sale.getTotal() != null)
-                .mapToDouble(Sale::getTotal)
-                .sum();
+        double totalRevenue = totals.getRevenue();
         report.setTotalRevenue(totalRevenue);
 
-        double averageOrderValue = sales.isEmpty() ? 0 : totalRevenue / sales.size();
+        double averageOrderValue = totals.getSaleCount() == 0 ? 0 : totalRevenue / totals.getSaleCount();
         report.setAverageOrderValue(averageOrderValue);
 
-        // Contar ventas por estado
-        Map<String, Long> salesByStatus = sales.stream()
-                .collect(Collectors.groupingBy(
-                    sale -> sale.getStatus() != null ? sale.getStatus() : "DESCONOCIDO",
-                    Collectors.counting()
-                ));
-        report.setSalesByStatus(salesByStatus);
-
-        // Top productos vendidos
-        Map<String, Integer> productSales = new HashMap<>();
-        sales.forEach(sale -> {
-            if (sale.getItems() != null) {
-                sale.getItems().forEach(item -> {
-                    String productName = item.getProduct() != null ? 
-                                        item.getProduct().getName() : "Desconocido";
-                    productSales.merge(productName, item.getQuantity(), Integer::sum);
-                });
-            }
-        });
-        report.setTopProducts(productSales);
+        // Percentiles del valor de pedido, desde los sketches diarios combinados
+        QuantileSketch orderValues = totals.getOrderValues();
+        if (orderValues.count() > 0) {
+            report.setMedianOrderValue(roundCents(orderValues.quantile(0.5)));
+            report.setP90OrderValue(roundCents(orderValues.quantile(0.9)));
+            report.setP99OrderValue(roundCents(orderValues.quantile(0.99)));
+        }
+
+        // Ventas por estado y unidades vendidas por producto
+        report.setSalesByStatus(totals.getSalesByStatus());
+        report.setTopProducts(totals.getProductQuantities());
 
         return report;
     }
 
+    private static double roundCents(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
     // ==================== REPORTES DE PRODUCTOS ====================
 
     /**
      * Obtener reporte de inventario
      */
     public InventoryReport getInventoryReport() {
-        List<Product> products = productRepository.findAll();
+        // Una sola consulta agregada en vez de cargar todos los productos
+        StockTotals totals = productRepository.summarizeStock();
         
         InventoryReport report = new InventoryReport();
-        report.setTotalProducts(products.size());
-
-        int totalStock = products.stream()
-                .filter(p -> p.getStock() != null)
-                .mapToInt(Product::getStock)
-                .sum();
-        report.setTotalStock(totalStock);
-
-        double totalInventoryValue = products.stream()
-                .filter(p -> p.getStock() != null && p.getPrice() != null)
-                .mapToDouble(p -> p.getStock() * p.getPrice())
-                .sum();
-        report.setTotalInventoryValue(totalInventoryValue);
-
-        // Productos sin stock
-        long outOfStockCount = products.stream()
-                .filter(p -> p.getStock() == null || p.getStock() == 0)
-                .count();
-        report.setOutOfStockProducts((int) outOfStockCount);
-
-        // Productos con bajo stock (menos de 10)
-        long lowStockCount = products.stream()
-                .filter(p -> p.getStock() != null && p.getStock() > 0 && p.getStock() < 10)
-                .count();
-        report.setLowStockProducts((int) lowStockCount);
-
-        // Productos con buen stock
-        long goodStockCount = products.stream()
-                .filter(p -> p.getStock() != null && p.getStock() >= 10)
-                .count();
-        report.setGoodStockProducts((int) goodStockCount);
+        report.setTotalProducts(toInt(totals.getTotalProducts()));
+        report.setTotalStock(toInt(totals.getTotalStock()));
+        report.setTotalInventoryValue(totals.getInventoryValue() != null ? totals.getInventoryValue() : 0);
+
+        // Productos sin stock, con bajo stock (menos de 10) y con buen stock
+        report.setOutOfStockProducts(toInt(totals.getOutOfStock()));
+        report.setLowStockProducts(toInt(totals.getLowStock()));
+        report.setGoodStockProducts(toInt(totals.getGoodStock()));
 
         return report;
     }
 
+    private static int toInt(Long value) {
+        return value != null ? value.intValue() : 0;
+    }
+
     /**
-     * Obtener productos más vendidos
+     * Obtener productos más vendidos.
+     * En modo parallel se suma sobre la copia columnar (ParallelSalesAggregator) y solo
+     * se consultan los nombres del ranking; mientras carga, o en modo database, agrupa la BD.
      */
     public List<ProductSalesStats> getTopSellingProducts(int limit) {
         if (limit <= 0) {
             throw new IllegalArgumentException("El límite debe ser mayor a 0");
         }
 
-        List<Sale> sales = saleRepository.findAll();
-        Map<Long, ProductSalesStats> productStats = new HashMap<>();
-
-        sales.forEach(sale -> {
-            if (sale.getItems() != null) {
-                sale.getItems().forEach(item -> {
-                    if (item.getProduct() != null) {
-                        Long productId = item.getProduct().getId();
-                        ProductSalesStats stats = productStats.computeIfAbsent(
-                            productId, 
-                            id -> new ProductSalesStats(
-                                productId,
-                                item.getProduct().getName(),
-                                0,
-                                0.0
-                            )
-                        );
-                        stats.addQuantity(item.getQuantity());
-                        stats.addRevenue(item.getSubtotal() != null ? item.getSubtotal() : 0);
-                    }
-                });
-            }
-        });
-
-        return productStats.values().stream()
-                .sorted((a, b) -> Integer.compare(b.getQuantitySold(), a.getQuantitySold()))
-                .limit(limit)
+        if (useParallelAggregation()) {
+            List<LongStatsMap.Entry> top = parallelSalesAggregator.topProducts(limit);
+            Map<Long, String> names = new HashMap<>();
+            productRepository.findAllById(keysOf(top))
+                    .forEach(product -> names.put(product.getId(), product.getName()));
+            return top.stream()
+                    .map(entry -> new ProductSalesStats(
+                        entry.getKey(),
+                        names.getOrDefault(entry.getKey(), "Producto #" + entry.getKey()),
+                        (int) entry.getCount(),
+                        entry.getSum() / 100.0
+                    ))
+                    .collect(Collectors.toList());
+        }
+
+        // GROUP BY + ORDER BY + LIMIT en la BD: solo llegan las filas del ranking
+        return saleItemRepository.findTopSellingProducts(Limit.of(limit)).stream()
+                .map(row -> new ProductSalesStats(
+                    row.getProductId(),
+                    row.getProductName(),
+                    row.getQuantity() != null ? row.getQuantity().intValue() : 0,
+                    row.getRevenue() != null ? row.getRevenue() : 0.0
+                ))
                 .collect(Collectors.toList());
     }
 
     // ==================== REPORTES DE CLIENTES ====================
 
     /**
-     * Obtener reporte de clientes
+     * Obtener reporte de clientes.
+     * Todo se cuenta en la BD: no se cargan usuarios ni ventas.
      */
     public CustomerReport getCustomerReport() {
-        List<User> users = userRepository.findAll();
-        List<Sale> sales = saleRepository.findAll();
-
         CustomerReport report = new CustomerReport();
-        report.setTotalCustomers(users.size());
+        report.setTotalCustomers((int) userRepository.count());
 
         // Clientes activos (con al menos una compra)
-        Set<Long> activeCustomerIds = sales.stream()
-                .filter(sale -> sale.getUser() != null)
-                .map(sale -> sale.getUser().getId())
-                .collect(Collectors.toSet());
-        report.setActiveCustomers(activeCustomerIds.size());
+        report.setActiveCustomers((int) saleRepository.countDistinctBuyers());
 
         // Nuevos clientes este mes
         LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        long newCustomersThisMonth = users.stream()
-                .filter(user -> user.getCreatedAt() != null)
-                .filter(user -> !user.getCreatedAt().isBefore(startOfMonth))
-                .count();
-        report.setNewCustomersThisMonth((int) newCustomersThisMonth);
+        report.setNewCustomersThisMonth((int) userRepository.countByCreatedAtGreaterThanEqual(startOfMonth));
 
         return report;
     }
 
     /**
-     * Obtener clientes top (por gasto total)
+     * Obtener clientes top (por gasto total), en paralelo sobre la copia columnar o en la BD
      */
     public List<CustomerSpendingStats> getTopCustomers(int limit) {
         if (limit <= 0) {
             throw new IllegalArgumentException("El límite debe ser mayor a 0");
         }
 
-        List<Sale> sales = saleRepository.findAll();
-        Map<Long, CustomerSpendingStats> customerStats = new HashMap<>();
-
-        sales.forEach(sale -> {
-            if (sale.getUser() != null && sale.getTotal() != null) {
-                Long userId = sale.getUser().getId();
-                CustomerSpendingStats stats = customerStats.computeIfAbsent(
-                    userId,
-                    id -> new CustomerSpendingStats(
-                        userId,
-                        sale.getUser().getEmail(),
-                        0,
-                        0.0
-                    )
-                );
-                stats.incrementOrders();
-                stats.addSpending(sale.getTotal());
-            }
-        });
-
-        return customerStats.values().stream()
-                .sorted((a, b) -> Double.compare(b.getTotalSpent(), a.getTotalSpent()))
-                .limit(limit)
+        if (useParallelAggregation()) {
+            List<LongStatsMap.Entry> top = parallelSalesAggregator.topCustomers(limit);
+            Map<Long, String> emails = new HashMap<>();
+            userRepository.findAllById(keysOf(top))
+                    .forEach(user -> emails.put(user.getId(), user.getEmail()));
+            return top.stream()
+                    .map(entry -> new CustomerSpendingStats(
+                        entry.getKey(),
+                        emails.getOrDefault(entry.getKey(), "Cliente #" + entry.getKey()),
+                        (int) entry.getCount(),
+                        entry.getSum() / 100.0
+                    ))
+                    .collect(Collectors.toList());
+        }
+
+        return saleRepository.findTopCustomers(Limit.of(limit)).stream()
+                .map(row -> new CustomerSpendingStats(
+                    row.getCustomerId(),
+                    row.getCustomerEmail(),
+                    row.getTotalOrders() != null ? row.getTotalOrders().intValue() : 0,
+                    row.getTotalSpent() != null ? row.getTotalSpent() : 0.0
+                ))
                 .collect(Collectors.toList());
     }
 
+    // ==================== ANÁLISIS POR DIMENSIÓN ====================
+
+    /**
+     * Ventas e ingresos de un rango agrupados por estado, método de pago o distrito.
+     * Se calcula sobre la copia columnar en memoria (ParallelSalesAggregator).
+     *
+     * @param dimension status, payment_method o district
+     */
+    public List<SalesColumnStore.Group> getSalesBreakdown(String dimension,
+                                                          LocalDateTime startDate, LocalDateTime endDate) {
+        validateRange(startDate, endDate);
+
+        SalesColumnStore.Dimension selected;
+        try {
+            selected = SalesColumnStore.Dimension.valueOf(dimension.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException(
+                "Dimensión no soportada: " + dimension + " (status, payment_method, district)");
+        }
+
+        if (!parallelSalesAggregator.isReady()) {
+            throw new IllegalStateException("Los datos de ventas todavía se están cargando");
+        }
+        return parallelSalesAggregator.breakdown(selected, startDate, endExclusive(endDate));
+    }
+
+    private boolean useParallelAggregation() {
+        return parallelAggregation && parallelSalesAggregator.isReady();
+    }
+
+    private static List<Long> keysOf(List<LongStatsMap.Entry> entries) {
+        return entries.stream().map(LongStatsMap.Entry::getKey).collect(Collectors.toList());
+    }
+
     // ==================== MÉTRICAS DEL NEGOCIO ====================
 
     /**
-     * Obtener dashboard con métricas generales
+     * Obtener dashboard con métricas generales.
+     * Lo calcula DashboardService en una sola lectura por fuente y lo mantiene en memoria.
      */
     public BusinessDashboard getBusinessDashboard() {
-        BusinessDashboard dashboard = new BusinessDashboard();
-
-        // Ventas totales
-        List<Sale> allSales = saleRepository.findAll();
-        dashboard.setTotalSalesCount(allSales.size());
-        
-        double totalRevenue = allSales.stream()
-                .filter(sale -> sale.getTotal() != null)
-                .mapToDouble(Sale::getTotal)
-                .sum();
-        dashboard.setTotalRevenue(totalRevenue);
-
-        // Productos
-        dashboard.setTotalProducts((int) productRepository.count());
-
-        // Clientes
-        dashboard.setTotalCustomers((int) userRepository.count());
-
-        // Ventas de hoy
-        SalesReport todayReport = getTodaySalesReport();
-        dashboard.setTodaySales(todayReport.getTotalSales());
-        dashboard.setTodayRevenue(todayReport.getTotalRevenue());
-
-        // Ventas del mes
-        SalesReport monthReport = getCurrentMonthSalesReport();
-        dashboard.setMonthSales(monthReport.getTotalSales());
-        dashboard.setMonthRevenue(monthReport.getTotalRevenue());
-
-        // Inventario
-        InventoryReport inventoryReport = getInventoryReport();
-        dashboard.setOutOfStockProducts(inventoryReport.getOutOfStockProducts());
-        dashboard.setLowStockProducts(inventoryReport.getLowStockProducts());
-
-        return dashboard;
+        return dashboardService.getDashboard();
     }
 
     /**
-     * Comparar rendimiento entre dos períodos
+     * Comparar rendimiento entre dos períodos.
+     * Los reportes de cada período traen siempre la misma forma reducida: fechas,
+     * cantidad, ingresos y promedio (sin percentiles ni detalle por estado/producto,
+     * que están en getSalesReport). Con el índice en memoria (SalesTimeIndex) cargado
+     * y extremos que caen en bordes de sus buckets (p. ej. días completos) no se
+     * consulta la base; si no, se usan los agregados de getSalesReport.
      */
     public PeriodComparison comparePeriods(LocalDateTime start1, LocalDateTime end1,
                                           LocalDateTime start2, LocalDateTime end2) {
-        SalesReport period1 = getSalesReport(start1, end1);
-        SalesReport period2 = getSalesReport(start2, end2);
+        SalesReport period1 = periodTotals(start1, end1);
+        SalesReport period2 = periodTotals(start2, end2);
 
         PeriodComparison comparison = new PeriodComparison();
         comparison.setPeriod1Report(period1);
@@ -355,6 +353,32 @@ public class ReportService {
         return comparison;
     }
 
+    private SalesReport periodTotals(LocalDateTime startDate, LocalDateTime endDate) {
+        validateRange(startDate, endDate);
+
+        Optional<SalesTimeIndex.Totals> indexed = salesTimeIndex.isReady()
+                ? salesTimeIndex.totalsBetween(startDate, endExclusive(endDate))
+                : Optional.empty();
+        if (indexed.isPresent()) {
+            return reducedReport(startDate, endDate, indexed.get().getSaleCount(), indexed.get().getRevenue());
+        }
+        SalesReport full = getSalesReport(startDate, endDate);
+        return reducedReport(startDate, endDate, full.getTotalSales(), full.getTotalRevenue());
+    }
+
+    private static SalesReport reducedReport(LocalDateTime startDate, LocalDateTime endDate,
+                                             long saleCount, double revenue) {
+        SalesReport report = new SalesReport();
+        report.setStartDate(startDate);
+        report.setEndDate(endDate);
+        report.setTotalSales((int) saleCount);
+        report.setTotalRevenue(revenue);
+        report.setAverageOrderValue(saleCount == 0 ? 0 : revenue / saleCount);
+        report.setSalesByStatus(Map.of());
+        report.setTopProducts(Map.of());
+        return report;
+    }
+
     // ==================== CLASES INTERNAS PARA REPORTES ====================
 
     public static class SalesReport {
@@ -363,6 +387,11 @@ public class ReportService {
         private int totalSales;
         private double totalRevenue;
         private double averageOrderValue;
+        // Percentiles del total por venta (0 sin ventas y en los reportes de comparePeriods)
+        private double medianOrderValue;
+        private double p90OrderValue;
+        private double p99OrderValue;
+        // Vacíos en los reportes de comparePeriods
         private Map<String, Long> salesByStatus;
         private Map<String, Integer> topProducts;
 
@@ -377,6 +406,12 @@ public class ReportService {
         public void setTotalRevenue(double totalRevenue) { this.totalRevenue = totalRevenue; }
         public double getAverageOrderValue() { return averageOrderValue; }
         public void setAverageOrderValue(double averageOrderValue) { this.averageOrderValue = averageOrderValue; }
+        public double getMedianOrderValue() { return medianOrderValue; }
+        public void setMedianOrderValue(double medianOrderValue) { this.medianOrderValue = medianOrderValue; }
+        public double getP90OrderValue() { return p90OrderValue; }
+        public void setP90OrderValue(double p90OrderValue) { this.p90OrderValue = p90OrderValue; }
+        public double getP99OrderValue() { return p99OrderValue; }
+        public void setP99OrderValue(double p99OrderValue) { this.p99OrderValue = p99OrderValue; }
         public Map<String, Long> getSalesByStatus() { return salesByStatus; }
         public void setSalesByStatus(Map<String, Long> salesByStatus) { this.salesByStatus = salesByStatus; }
         public Map<String, Integer> getTopProducts() { return topProducts; }
@@ -476,39 +511,50 @@ public class ReportService {
         public double getTotalSpent() { return totalSpent; }
     }
 
-    public static class BusinessDashboard {
-        private int totalSalesCount;
-        private double totalRevenue;
-        private int totalProducts;
-        private int totalCustomers;
-        private int todaySales;
-        private double todayRevenue;
-        private int monthSales;
-        private double monthRevenue;
-        private int outOfStockProducts;
-        private int lowStockProducts;
+    /**
+     * Dashboard del negocio. Inmutable: DashboardService comparte la misma instancia
+     * entre peticiones mientras el valor en memoria sigue vigente.
+     */
+    public static final class BusinessDashboard {
+        private final int totalSalesCount;
+        private final double totalRevenue;
+        private final int totalProducts;
+        private final int totalCustomers;
+        private final int todaySales;
+        private final double todayRevenue;
+        private final int monthSales;
+        private final double monthRevenue;
+        private final int outOfStockProducts;
+        private final int lowStockProducts;
+
+        public BusinessDashboard(int totalSalesCount, double totalRevenue,
+                                 int todaySales, double todayRevenue,
+                                 int monthSales, double monthRevenue,
+                                 int totalProducts, int outOfStockProducts, int lowStockProducts,
+                                 int totalCustomers) {
+            this.totalSalesCount = totalSalesCount;
+            this.totalRevenue = totalRevenue;
+            this.todaySales = todaySales;
+            this.todayRevenue = todayRevenue;
+            this.monthSales = monthSales;
+            this.monthRevenue = monthRevenue;
+            this.totalProducts = totalProducts;
+            this.outOfStockProducts = outOfStockProducts;
+            this.lowStockProducts = lowStockProducts;
+            this.totalCustomers = totalCustomers;
+        }
 
-        // Getters y setters
+        // Getters
         public int getTotalSalesCount() { return totalSalesCount; }
-        public void setTotalSalesCount(int totalSalesCount) { this.totalSalesCount = totalSalesCount; }
         public double getTotalRevenue() { return totalRevenue; }
-        public void setTotalRevenue(double totalRevenue) { this.totalRevenue = totalRevenue; }
         public int getTotalProducts() { return totalProducts; }
-        public void setTotalProducts(int totalProducts) { this.totalProducts = totalProducts; }
         public int getTotalCustomers() { return totalCustomers; }
-        public void setTotalCustomers(int totalCustomers) { this.totalCustomers = totalCustomers; }
         public int getTodaySales() { return todaySales; }
-        public void setTodaySales(int todaySales) { this.todaySales = todaySales; }
         public double getTodayRevenue() { return todayRevenue; }
-        public void setTodayRevenue(double todayRevenue) { this.todayRevenue = todayRevenue; }
         public int getMonthSales() { return monthSales; }
-        public void setMonthSales(int monthSales) { this.monthSales = monthSales; }
         public double getMonthRevenue() { return monthRevenue; }
-        public void setMonthRevenue(double monthRevenue) { this.monthRevenue = monthRevenue; }
         public int getOutOfStockProducts() { return outOfStockProducts; }
-        public void setOutOfStockProducts(int outOfStockProducts) { this.outOfStockProducts = outOfStockProducts; }
         public int getLowStockProducts() { return lowStockProducts; }
-        public void setLowStockProducts(int lowStockProducts) { this.lowStockProducts = lowStockProducts; }
     }
 
     public static class PeriodComparison {
@@ -0,0 +1,120 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.entity.Sale;
+import com.hurios.huriosbackend.entity.SaleItem;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SaleConfirmedEvent - Evento publicado por PaymentService al registrar una venta.
+ *
+ * Lleva una copia inmutable de los datos que necesitan los agregados de reportes
+ * (fecha, estado, total, método de pago, distrito y líneas con
+ * producto/cantidad/subtotal), así los
+ * listeners no dependen de la sesión de Hibernate ni de relaciones lazy.
+ *
+ * Las ventas de otra instancia llegan por CacheInvalidationFeed como eventos
+ * "remotos" (isRemote()): actualizan las vistas en memoria pero no se vuelven a
+ * escribir en la BD.
+ */
+public class SaleConfirmedEvent {
+
+    private final Long saleId;
+    private final Long userId;
+    private final String status;
+    private final double total;
+    private final LocalDateTime createdAt;
+    private final String paymentMethod;
+    private final String deliveryDistrict;
+    private final List<Line> lines;
+    private final boolean remote;
+
+    public SaleConfirmedEvent(Long saleId, Long userId, String status, double total,
+                              LocalDateTime createdAt, List<Line> lines) {
+        this(saleId, userId, status, total, createdAt, null, null, lines);
+    }
+
+    public SaleConfirmedEvent(Long saleId, Long userId, String status, double total,
+                              LocalDateTime createdAt, String paymentMethod, String deliveryDistrict,
+                              List<Line> lines) {
+        this(saleId, userId, status, total, createdAt, paymentMethod, deliveryDistrict, lines, false);
+    }
+
+    private SaleConfirmedEvent(Long saleId, Long userId, String status, double total,
+                               LocalDateTime createdAt, String paymentMethod, String deliveryDistrict,
+                               List<Line> lines, boolean remote) {
+        this.saleId = saleId;
+        this.userId = userId;
+        this.status = status;
+        this.total = total;
+        this.createdAt = createdAt;
+        this.paymentMethod = paymentMethod;
+        this.deliveryDistrict = deliveryDistrict;
+        this.lines = Collections.unmodifiableList(new ArrayList<>(lines));
+        this.remote = remote;
+    }
+
+    /**
+     * Copiar los datos de una venta ya guardada
+     */
+    public static SaleConfirmedEvent of(Sale sale) {
+        List<Line> lines = new ArrayList<>(sale.getItems().size());
+        for (SaleItem item : sale.getItems()) {
+            lines.add(new Line(
+                    item.getProduct().getId(),
+                    item.getProduct().getName(),
+                    item.getQuantity(),
+                    item.getSubtotal() != null ? item.getSubtotal() : 0));
+        }
+        return new SaleConfirmedEvent(
+                sale.getId(),
+                sale.getUser() != null ? sale.getUser().getId() : null,
+                sale.getStatus(),
+                sale.getTotal() != null ? sale.getTotal() : 0,
+                sale.getCreatedAt(),
+                sale.getPaymentMethod(),
+                sale.getDeliveryDistrict(),
+                lines);
+    }
+
+    // Misma venta, marcada como registrada en otra instancia
+    public SaleConfirmedEvent asRemote() {
+        return new SaleConfirmedEvent(saleId, userId, status, total, createdAt,
+                paymentMethod, deliveryDistrict, lines, true);
+    }
+
+    public Long getSaleId() { return saleId; }
+    public Long getUserId() { return userId; }
+    public String getStatus() { return status; }
+    public double getTotal() { return total; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public String getDeliveryDistrict() { return deliveryDistrict; }
+    public List<Line> getLines() { return lines; }
+    public boolean isRemote() { return remote; }
+
+    /**
+     * Línea de la venta
+     */
+    public static class Line {
+        private final Long productId;
+        private final String productName;
+        private final int quantity;
+        private final double subtotal;
+
+        public Line(Long productId, String productName, int quantity, double subtotal) {
+            this.productId = productId;
+            this.productName = productName;
+            this.quantity = quantity;
+            this.subtotal = subtotal;
+        }
+
+        public Long getProductId() { return productId; }
+        public String getProductName() { return productName; }
+        public int getQuantity() { return quantity; }
+        public double getSubtotal() { return subtotal; }
+    }
+}
@@ -0,0 +1,290 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.dto.ReportDtos.SaleColumnsRow;
+import com.hurios.huriosbackend.dto.ReportDtos.SaleItemColumnsRow;
+import com.hurios.huriosbackend.repository.SaleItemRepository;
+import com.hurios.huriosbackend.repository.SaleRepository;
+import com.hurios.huriosbackend.util.StringDictionary;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * SalesColumnStore - Copia columnar en memoria de ventas y líneas para analítica
+ *
+ * - Cada dato es un arreglo primitivo indexado por fila: fecha (epoch en segundos),
+ *   usuario, total en centavos (NO_TOTAL si la venta no tiene total) y estado / método de pago / distrito codificados con
+ *   un diccionario; las líneas guardan producto, cantidad y subtotal en centavos, y
+ *   itemStart[i] indica dónde empiezan las líneas de la venta i.
+ * - Se carga una vez al iniciar (en orden de id) y cada venta confirmada se agrega
+ *   al final. Un solo hilo escribe (bajo "this"); las consultas leen sin bloqueo una
+ *   vista publicada (Columns) que nunca ve filas a medio escribir.
+ * - Las consultas (ParallelSalesAggregator) son bucles sobre arreglos sin crear objetos por fila.
+ */
+@Service
+public class SalesColumnStore {
+
+    public enum Dimension { STATUS, PAYMENT_METHOD, DISTRICT }
+
+    static final String UNKNOWN = "DESCONOCIDO";
+    // Marca de total null en totalCents (distinto de una venta de 0)
+    static final long NO_TOTAL = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final SaleRepository saleRepository;
+    private final SaleItemRepository saleItemRepository;
+
+    private final StringDictionary statuses = new StringDictionary();
+    private final StringDictionary paymentMethods = new StringDictionary();
+    private final StringDictionary districts = new StringDictionary();
+
+    // Arreglos de escritura (protegidos por "this"); solo se escribe más allá de lo publicado
+    private long[] saleIds;
+    private long[] timestamps;
+    private int[] userIds;
+    private long[] totalCents;
+    private int[] statusCodes;
+    private int[] paymentCodes;
+    private int[] districtCodes;
+    private int[] itemStart;
+    private int[] itemProducts;
+    private int[] itemQuantities;
+    private long[] itemCents;
+    private int saleCount;
+    private int itemCount;
+    private int loadedCount; // ventas cargadas desde la base (ordenadas por id)
+
+    private volatile Columns columns;
+    private volatile boolean ready;
+
+    public SalesColumnStore(SaleRepository saleRepository, SaleItemRepository saleItemRepository) {
+        this.saleRepository = saleRepository;
+        this.saleItemRepository = saleItemRepository;
+        reset();
+    }
+
+    // ==================== CARGA ====================
+
+    /**
+     * Cargar todas las ventas y sus líneas al iniciar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        synchronized (this) {
+            ready = false;
+            reset();
+            try (Stream<SaleColumnsRow> sales = saleRepository.streamColumnRows();
+                 Stream<SaleItemColumnsRow> items = saleItemRepository.streamColumnRows()) {
+                // Ambas consultas vienen ordenadas por id de venta: se recorren en paralelo
+                Iterator<SaleItemColumnsRow> itemIterator = items.iterator();
+                SaleItemColumnsRow item = itemIterator.hasNext() ? itemIterator.next() : null;
+                Iterator<SaleColumnsRow> saleIterator = sales.iterator();
+                while (saleIterator.hasNext()) {
+                    SaleColumnsRow sale = saleIterator.next();
+                    long saleId = sale.getId();
+                    appendSale(saleId, sale.getCreatedAt(), sale.getUserId(), sale.getTotal(),
+                            sale.getStatus(), sale.getPaymentMethod(), sale.getDeliveryDistrict());
+                    while (item != null && item.getSaleId() <= saleId) {
+                        if (item.getSaleId() == saleId) {
+                            appendItem(item.getProductId(), item.getQuantity(), item.getSubtotal());
+                        }
+                        item = itemIterator.hasNext() ? itemIterator.next() : null;
+                    }
+                }
+            }
+            loadedCount = saleCount;
+            publish();
+            ready = true;
+        }
+    }
+
+    /**
+     * Agregar una venta ya confirmada
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleConfirmed(SaleConfirmedEvent event) {
+        if (event.getSaleId() == null) {
+            return;
+        }
+        synchronized (this) {
+            // La carga inicial pudo haberla leído ya de la base
+            if (Arrays.binarySearch(saleIds, 0, loadedCount, event.getSaleId()) >= 0) {
+                return;
+            }
+            appendSale(event.getSaleId(), event.getCreatedAt(), event.getUserId(), event.getTotal(),
+                    event.getStatus(), event.getPaymentMethod(), event.getDeliveryDistrict());
+            for (SaleConfirmedEvent.Line line : event.getLines()) {
+                appendItem(line.getProductId(), line.getQuantity(), line.getSubtotal());
+            }
+            publish();
+        }
+    }
+
+    private void reset() {
+        saleIds = new long[INITIAL_CAPACITY];
+        timestamps = new long[INITIAL_CAPACITY];
+        userIds = new int[INITIAL_CAPACITY];
+        totalCents = new long[INITIAL_CAPACITY];
+        statusCodes = new int[INITIAL_CAPACITY];
+        paymentCodes = new int[INITIAL_CAPACITY];
+        districtCodes = new int[INITIAL_CAPACITY];
+        itemStart = new int[INITIAL_CAPACITY + 1];
+        itemProducts = new int[INITIAL_CAPACITY];
+        itemQuantities = new int[INITIAL_CAPACITY];
+        itemCents = new long[INITIAL_CAPACITY];
+        saleCount = 0;
+        itemCount = 0;
+        loadedCount = 0;
+        publish();
+    }
+
+    private void appendSale(long saleId, LocalDateTime createdAt, Long userId, Double total,
+                            String status, String paymentMethod, String district) {
+        if (saleCount + 1 >= itemStart.length) {
+            int capacity = saleIds.length * 2;
+            saleIds = Arrays.copyOf(saleIds, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            totalCents = Arrays.copyOf(totalCents, capacity);
+            statusCodes = Arrays.copyOf(statusCodes, capacity);
+            paymentCodes = Arrays.copyOf(paymentCodes, capacity);
+            districtCodes = Arrays.copyOf(districtCodes, capacity);
+            itemStart = Arrays.copyOf(itemStart, capacity + 1);
+        }
+        int row = saleCount;
+        saleIds[row] = saleId;
+        timestamps[row] = createdAt != null ? createdAt.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+        userIds[row] = userId != null ? userId.intValue() : -1;
+        totalCents[row] = total != null ? toCents(total) : NO_TOTAL;
+        statusCodes[row] = statuses.encode(status != null ? status : UNKNOWN);
+        paymentCodes[row] = paymentMethods.encode(paymentMethod != null ? paymentMethod : UNKNOWN);
+        districtCodes[row] = districts.encode(district != null ? district : UNKNOWN);
+        itemStart[row] = itemCount;
+        itemStart[row + 1] = itemCount;
+        saleCount++;
+    }
+
+    // Línea de la última venta agregada
+    private void appendItem(Long productId, Integer quantity, Double subtotal) {
+        if (itemCount == itemProducts.length) {
+            int capacity = itemProducts.length * 2;
+            itemProducts = Arrays.copyOf(itemProducts, capacity);
+            itemQuantities = Arrays.copyOf(itemQuantities, capacity);
+            itemCents = Arrays.copyOf(itemCents, capacity);
+        }
+        itemProducts[itemCount] = productId != null ? productId.intValue() : -1;
+        itemQuantities[itemCount] = quantity != null ? quantity : 0;
+        itemCents[itemCount] = toCents(subtotal);
+        itemCount++;
+        itemStart[saleCount] = itemCount;
+    }
+
+    private void publish() {
+        columns = new Columns(saleCount, itemCount, saleIds, timestamps, userIds, totalCents,
+                statusCodes, paymentCodes, districtCodes, itemStart, itemProducts, itemQuantities, itemCents);
+    }
+
+    private static long toCents(Double amount) {
+        return amount != null ? Math.round(amount * 100) : 0L;
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * True cuando la carga inicial terminó
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Vista actual de las columnas (no cambia aunque lleguen ventas nuevas)
+     */
+    Columns columns() {
+        return columns;
+    }
+
+    StringDictionary dictionary(Dimension dimension) {
+        return switch (dimension) {
+            case STATUS -> statuses;
+            case PAYMENT_METHOD -> paymentMethods;
+            case DISTRICT -> districts;
+        };
+    }
+
+    // ==================== VISTA Y RESULTADO ====================
+
+    /**
+     * Columnas publicadas: solo deben leerse las primeras saleCount / itemCount filas.
+     * Las líneas de la venta i son [itemStart[i], itemStart[i + 1]).
+     */
+    static final class Columns {
+        final int saleCount;
+        final int itemCount;
+        final long[] saleIds;
+        final long[] timestamps;
+        final int[] userIds;
+        final long[] totalCents;
+        final int[] statusCodes;
+        final int[] paymentCodes;
+        final int[] districtCodes;
+        final int[] itemStart;
+        final int[] itemProducts;
+        final int[] itemQuantities;
+        final long[] itemCents;
+
+        Columns(int saleCount, int itemCount, long[] saleIds, long[] timestamps, int[] userIds,
+                long[] totalCents, int[] statusCodes, int[] paymentCodes, int[] districtCodes,
+                int[] itemStart, int[] itemProducts, int[] itemQuantities, long[] itemCents) {
+            this.saleCount = saleCount;
+            this.itemCount = itemCount;
+            this.saleIds = saleIds;
+            this.timestamps = timestamps;
+            this.userIds = userIds;
+            this.totalCents = totalCents;
+            this.statusCodes = statusCodes;
+            this.paymentCodes = paymentCodes;
+            this.districtCodes = districtCodes;
+            this.itemStart = itemStart;
+            this.itemProducts = itemProducts;
+            this.itemQuantities = itemQuantities;
+            this.itemCents = itemCents;
+        }
+
+        int[] codes(Dimension dimension) {
+            return switch (dimension) {
+                case STATUS -> statusCodes;
+                case PAYMENT_METHOD -> paymentCodes;
+                case DISTRICT -> districtCodes;
+            };
+        }
+    }
+
+    /**
+     * Ventas e ingresos de un valor de la dimensión
+     */
+    public static class Group {
+        private final String value;
+        private final long saleCount;
+        private final double revenue;
+
+        public Group(String value, long saleCount, double revenue) {
+            this.value = value;
+            this.saleCount = saleCount;
+            this.revenue = revenue;
+        }
+
+        public String getValue() { return value; }
+        public long getSaleCount() { return saleCount; }
+        public double getRevenue() { return revenue; }
+    }
+}
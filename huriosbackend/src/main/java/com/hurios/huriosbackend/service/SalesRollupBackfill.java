@@ -0,0 +1,92 @@
+package com.hurios.huriosbackend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * SalesRollupBackfill - Reconstrucción de los agregados de ventas al iniciar
+ *
+ * - Es un SmartLifecycle de fase 0: corre antes de que arranque el servidor web (que
+ *   inicia al final), así ninguna compra de esta instancia se cruza con el borrado y la
+ *   reconstrucción, y antes de ApplicationReadyEvent, cuando SalesTimeIndex lee los agregados.
+ * - Las instancias que inician a la vez se turnan con un lock con nombre de MySQL
+ *   (GET_LOCK), tomado en una conexión aparte y liberado después del commit: la
+ *   siguiente vuelve a revisar las tablas y ya las encuentra llenas.
+ */
+@Component
+public class SalesRollupBackfill implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupBackfill.class);
+
+    static final String LOCK_NAME = "hurios.sales_rollup_backfill";
+
+    private final SalesRollupService salesRollupService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int lockTimeoutSeconds;
+    private volatile boolean running;
+
+    public SalesRollupBackfill(SalesRollupService salesRollupService,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${app.rollups.backfill-lock-timeout-seconds:600}") int lockTimeoutSeconds) {
+        this.salesRollupService = salesRollupService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.lockTimeoutSeconds = lockTimeoutSeconds;
+    }
+
+    @Override
+    public void start() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!lock(connection, "SELECT GET_LOCK(?, ?)", lockTimeoutSeconds)) {
+                throw new IllegalStateException("Otra instancia sigue reconstruyendo los agregados de ventas");
+            }
+            try {
+                // Transacción propia (proxy de SalesRollupService): confirma antes de soltar el lock
+                salesRollupService.backfillIfEmpty();
+            } finally {
+                if (!lock(connection, "SELECT RELEASE_LOCK(?)", -1)) {
+                    logger.warn("No se pudo liberar el lock {}", LOCK_NAME);
+                }
+            }
+            return null;
+        });
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    // GET_LOCK / RELEASE_LOCK devuelven 1 si se obtuvo o liberó el lock
+    private static boolean lock(Connection connection, String sql, int timeoutSeconds) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, LOCK_NAME);
+            if (timeoutSeconds >= 0) {
+                statement.setInt(2, timeoutSeconds);
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.dto.ReportDtos.ProductTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.SaleAmount;
+import com.hurios.huriosbackend.dto.ReportDtos.StatusTotals;
+import com.hurios.huriosbackend.entity.SalesDailySketch;
+import com.hurios.huriosbackend.entity.SalesSketchPending;
+import com.hurios.huriosbackend.repository.ProductDailyRollupRepository;
+import com.hurios.huriosbackend.repository.SaleItemRepository;
+import com.hurios.huriosbackend.repository.SaleRepository;
+import com.hurios.huriosbackend.repository.SalesDailyRollupRepository;
+import com.hurios.huriosbackend.repository.SalesDailySketchRepository;
+import com.hurios.huriosbackend.repository.SalesHourlyRollupRepository;
+import com.hurios.huriosbackend.repository.SalesSketchPendingRepository;
+import com.hurios.huriosbackend.util.QuantileSketch;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * SalesRollupService - Agregados de ventas por día y por hora
+ *
+ * - Cada venta confirmada suma su cantidad, ingresos, estado y unidades por producto
+ *   a las tablas sales_daily_rollup, sales_hourly_rollup y product_daily_rollup,
+ *   dentro de la misma transacción de la compra (BEFORE_COMMIT): o se guardan
+ *   la venta y sus agregados, o ninguno.
+ * - El total de la venta se agrega además al QuantileSketch del día (sales_daily_sketch),
+ *   de donde salen los percentiles de valor de pedido de cualquier rango. La compra solo
+ *   inserta el total en sales_daily_sketch_pending; compactSketches() los pasa al sketch
+ *   en lotes (así el checkout no bloquea la fila del día ni reescribe el BLOB), y
+ *   summarize() suma los que todavía no se compactaron.
+ * - summarize() responde un rango de fechas con los días completos desde el agregado
+ *   diario, las horas completas de los bordes desde el horario y solo los minutos
+ *   sueltos (y las unidades por producto de los días incompletos) desde las ventas.
+ * - Si las tablas están vacías al iniciar se reconstruyen desde las ventas existentes
+ *   (SalesRollupBackfill).
+ *
+ * Las ventas no cambian de estado después de creadas; si eso se agrega, el cambio
+ * debe restar del estado anterior y sumar al nuevo.
+ */
+@Service
+public class SalesRollupService {
+
+    static final String UNKNOWN_STATUS = "DESCONOCIDO";
+    static final int SKETCH_BATCH_SIZE = 5000;
+
+    private final SalesDailyRollupRepository dailyRepository;
+    private final SalesHourlyRollupRepository hourlyRepository;
+    private final ProductDailyRollupRepository productDailyRepository;
+    private final SaleRepository saleRepository;
+    private final SaleItemRepository saleItemRepository;
+    private final SalesDailySketchRepository sketchRepository;
+    private final SalesSketchPendingRepository pendingRepository;
+
+    public SalesRollupService(SalesDailyRollupRepository dailyRepository,
+                              SalesHourlyRollupRepository hourlyRepository,
+                              ProductDailyRollupRepository productDailyRepository,
+                              SaleRepository saleRepository,
+                              SaleItemRepository saleItemRepository,
+                              SalesDailySketchRepository sketchRepository,
+                              SalesSketchPendingRepository pendingRepository) {
+        this.dailyRepository = dailyRepository;
+        this.hourlyRepository = hourlyRepository;
+        this.productDailyRepository = productDailyRepository;
+        this.saleRepository = saleRepository;
+        this.saleItemRepository = saleItemRepository;
+        this.sketchRepository = sketchRepository;
+        this.pendingRepository = pendingRepository;
+    }
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    /**
+     * Sumar la venta a los agregados antes de confirmar la transacción de la compra
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSaleConfirmed(SaleConfirmedEvent event) {
+        // Una venta remota ya la sumó a las tablas la instancia que la registró
+        if (event.isRemote() || event.getCreatedAt() == null) {
+            return;
+        }
+        LocalDate day = event.getCreatedAt().toLocalDate();
+        LocalDateTime hour = event.getCreatedAt().truncatedTo(ChronoUnit.HOURS);
+        String status = event.getStatus() != null ? event.getStatus() : UNKNOWN_STATUS;
+
+        dailyRepository.upsert(day, status, 1, event.getTotal());
+        hourlyRepository.upsert(hour, status, 1, event.getTotal());
+
+        // Una fila por producto aunque aparezca en varias líneas, en orden de id para
+        // bloquear las filas siempre en el mismo orden entre compras concurrentes
+        Map<Long, SaleConfirmedEvent.Line> byProduct = new TreeMap<>();
+        for (SaleConfirmedEvent.Line line : event.getLines()) {
+            byProduct.merge(line.getProductId(), line, (a, b) -> new SaleConfirmedEvent.Line(
+                    a.getProductId(), a.getProductName(),
+                    a.getQuantity() + b.getQuantity(), a.getSubtotal() + b.getSubtotal()));
+        }
+        for (SaleConfirmedEvent.Line line : byProduct.values()) {
+            productDailyRepository.upsert(day, line.getProductId(), line.getProductName(),
+                    line.getQuantity(), line.getSubtotal());
+        }
+
+        // Solo un INSERT: el sketch del día se actualiza después, en compactSketches()
+        pendingRepository.save(new SalesSketchPending(day, event.getTotal()));
+    }
+
+    /**
+     * Pasar un lote de totales pendientes a los sketches de sus días. El sketch no se
+     * puede sumar con un UPSERT: se bloquea la fila del día, se combina y se vuelve a
+     * guardar, una vez por día del lote y no una vez por compra.
+     */
+    @Scheduled(fixedDelayString = "${app.rollups.sketch-compact-interval-ms:60000}")
+    @Transactional
+    public void compactSketches() {
+        List<SalesSketchPending> batch = pendingRepository.lockBatch(SKETCH_BATCH_SIZE);
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<LocalDate, QuantileSketch> byDay = new TreeMap<>(); // orden fijo de bloqueo
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (SalesSketchPending pending : batch) {
+            byDay.computeIfAbsent(pending.getSaleDate(), day -> new QuantileSketch()).add(pending.getTotal());
+            ids.add(pending.getId());
+        }
+        for (Map.Entry<LocalDate, QuantileSketch> entry : byDay.entrySet()) {
+            LocalDate day = entry.getKey();
+            sketchRepository.insertIfAbsent(day, new QuantileSketch().toBytes());
+            SalesDailySketch row = sketchRepository.findForUpdate(day)
+                    .orElseGet(() -> new SalesDailySketch(day, 0, new QuantileSketch().toBytes()));
+            QuantileSketch sketch = QuantileSketch.fromBytes(row.getSketch());
+            sketch.merge(entry.getValue());
+            row.setSaleCount(row.getSaleCount() + entry.getValue().count());
+            row.setSketch(sketch.toBytes());
+            sketchRepository.save(row);
+        }
+        pendingRepository.deleteAllByIdInBatch(ids);
+    }
+
+    /**
+     * Reconstruir los agregados si todavía no existen (primera ejecución o base
+     * restaurada). Lo llama SalesRollupBackfill al iniciar, antes de que arranque el
+     * servidor web y con el lock entre instancias tomado.
+     */
+    @Transactional
+    public void backfillIfEmpty() {
+        if (dailyRepository.count() == 0 && saleRepository.count() > 0) {
+            rebuild();
+        } else if (sketchRepository.count() == 0 && saleRepository.count() > 0) {
+            // Bases con agregados creados antes de existir los sketches
+            rebuildSketches();
+        }
+    }
+
+    /**
+     * Borrar y recalcular todos los agregados desde las ventas
+     */
+    @Transactional
+    public void rebuild() {
+        dailyRepository.deleteAllInBatch();
+        hourlyRepository.deleteAllInBatch();
+        productDailyRepository.deleteAllInBatch();
+        dailyRepository.rebuildFromSales();
+        hourlyRepository.rebuildFromSales();
+        productDailyRepository.rebuildFromSales();
+        rebuildSketches();
+    }
+
+    /**
+     * Recalcular los sketches diarios recorriendo las ventas en orden de fecha
+     */
+    @Transactional
+    public void rebuildSketches() {
+        sketchRepository.deleteAllInBatch();
+        pendingRepository.deleteAllInBatch(); // ya incluidos al recorrer las ventas
+        List<SalesDailySketch> rows = new ArrayList<>();
+        try (Stream<SaleAmount> amounts = saleRepository.streamAllAmounts()) {
+            LocalDate day = null;
+            QuantileSketch sketch = null;
+            Iterator<SaleAmount> iterator = amounts.iterator();
+            while (iterator.hasNext()) {
+                SaleAmount amount = iterator.next();
+                LocalDate saleDay = amount.getCreatedAt().toLocalDate();
+                if (!saleDay.equals(day)) {
+                    if (sketch != null) {
+                        rows.add(new SalesDailySketch(day, sketch.count(), sketch.toBytes()));
+                    }
+                    day = saleDay;
+                    sketch = new QuantileSketch();
+                }
+                sketch.add(amount.getTotal());
+            }
+            if (sketch != null) {
+                rows.add(new SalesDailySketch(day, sketch.count(), sketch.toBytes()));
+            }
+        }
+        // Se guardan después de cerrar el cursor (la conexión no admite otra consulta mientras lee)
+        sketchRepository.saveAll(rows);
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Totales de las ventas de [from, to)
+     */
+    @Transactional(readOnly = true)
+    public SalesTotals summarize(LocalDateTime from, LocalDateTime to) {
+        SalesTotals totals = new SalesTotals();
+        if (!from.isBefore(to)) {
+            return totals;
+        }
+
+        // Días completos dentro del rango
+        LocalDateTime firstDay = from.truncatedTo(ChronoUnit.DAYS);
+        if (firstDay.isBefore(from)) {
+            firstDay = firstDay.plusDays(1);
+        }
+        LocalDateTime lastDay = to.truncatedTo(ChronoUnit.DAYS);
+
+        if (firstDay.isBefore(lastDay)) {
+            totals.addStatus(dailyRepository.sumByStatus(firstDay.toLocalDate(), lastDay.toLocalDate()));
+            totals.addProducts(productDailyRepository.sumByProduct(firstDay.toLocalDate(), lastDay.toLocalDate()));
+            totals.addSketches(sketchRepository.findBetween(firstDay.toLocalDate(), lastDay.toLocalDate()));
+            totals.addOrderValues(pendingRepository.findTotalsBetween(firstDay.toLocalDate(), lastDay.toLocalDate()));
+            addPartialDay(totals, from, firstDay);
+            addPartialDay(totals, lastDay, to);
+        } else {
+            addPartialDay(totals, from, to);
+        }
+        return totals;
+    }
+
+    /**
+     * Tramo menor a un día: horas completas desde el agregado horario y los minutos
+     * sueltos de los extremos desde las ventas. Las unidades por producto y los importes
+     * para percentiles solo tienen agregado diario, así que para el tramo se leen de los
+     * items y de las ventas (como mucho un día).
+     */
+    private void addPartialDay(SalesTotals totals, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        totals.addProducts(saleItemRepository.sumByProductBetween(from, to));
+        totals.addOrderValues(saleRepository.findTotalsBetween(from, to));
+
+        LocalDateTime firstHour = from.truncatedTo(ChronoUnit.HOURS);
+        if (firstHour.isBefore(from)) {
+            firstHour = firstHour.plusHours(1);
+        }
+        LocalDateTime lastHour = to.truncatedTo(ChronoUnit.HOURS);
+
+        if (firstHour.isBefore(lastHour)) {
+            totals.addStatus(hourlyRepository.sumByStatus(firstHour, lastHour));
+            addRawStatus(totals, from, firstHour);
+            addRawStatus(totals, lastHour, to);
+        } else {
+            addRawStatus(totals, from, to);
+        }
+    }
+
+    private void addRawStatus(SalesTotals totals, LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(to)) {
+            totals.addStatus(saleRepository.sumByStatusBetween(from, to));
+        }
+    }
+
+    // ==================== RESULTADO ====================
+
+    /**
+     * Totales acumulados de un rango
+     */
+    public static class SalesTotals {
+        private long saleCount;
+        private double revenue;
+        private final Map<String, Long> salesByStatus = new HashMap<>();
+        private final Map<String, Integer> productQuantities = new HashMap<>();
+        private final QuantileSketch orderValues = new QuantileSketch();
+
+        void addStatus(List<StatusTotals> rows) {
+            for (StatusTotals row : rows) {
+                long count = row.getSaleCount() != null ? row.getSaleCount() : 0;
+                String status = row.getStatus() != null ? row.getStatus() : UNKNOWN_STATUS;
+                saleCount += count;
+                revenue += row.getRevenue() != null ? row.getRevenue() : 0;
+                salesByStatus.merge(status, count, Long::sum);
+            }
+        }
+
+        void addProducts(List<ProductTotals> rows) {
+            for (ProductTotals row : rows) {
+                String name = row.getProductName() != null ? row.getProductName() : "Desconocido";
+                int quantity = row.getQuantity() != null ? row.getQuantity().intValue() : 0;
+                productQuantities.merge(name, quantity, Integer::sum);
+            }
+        }
+
+        void addSketches(List<SalesDailySketch> rows) {
+            for (SalesDailySketch row : rows) {
+                orderValues.merge(QuantileSketch.fromBytes(row.getSketch()));
+            }
+        }
+
+        void addOrderValues(List<Double> totals) {
+            for (Double total : totals) {
+                orderValues.add(total);
+            }
+        }
+
+        public long getSaleCount() { return saleCount; }
+        public double getRevenue() { return revenue; }
+        public Map<String, Long> getSalesByStatus() { return salesByStatus; }
+        public Map<String, Integer> getProductQuantities() { return productQuantities; }
+        public QuantileSketch getOrderValues() { return orderValues; }
+    }
+}
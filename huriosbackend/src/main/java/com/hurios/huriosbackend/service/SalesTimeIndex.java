@@ -0,0 +1,202 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.dto.ReportDtos.DayTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.HourTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.SaleAmount;
+import com.hurios.huriosbackend.repository.SaleRepository;
+import com.hurios.huriosbackend.repository.SalesDailyRollupRepository;
+import com.hurios.huriosbackend.repository.SalesHourlyRollupRepository;
+import com.hurios.huriosbackend.util.PrefixSumSeries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * SalesTimeIndex - Cantidad de ventas e ingresos por tiempo, en memoria
+ *
+ * - Tres niveles de buckets guardados como sumas acumuladas (PrefixSumSeries):
+ *   minutos de los últimos app.sales-index.minute-days días, horas de los últimos
+ *   app.sales-index.hour-days días y días de todo el historial.
+ * - Los totales de un rango [from, to) son la resta de dos acumulados, así comparar
+ *   períodos o calcular crecimiento no toca la base.
+ * - Cada extremo se resuelve con el nivel más fino que lo cubre: al minuto en los
+ *   días recientes, a la hora y luego al día para fechas más viejas. Si el extremo no
+ *   cae justo en el borde de ese bucket no hay respuesta exacta y totalsBetween
+ *   devuelve vacío (quien consulta usa los agregados de la base).
+ * - Se reconstruye al iniciar desde los agregados (días y horas) y las ventas
+ *   recientes (minutos), y suma cada venta confirmada.
+ */
+@Service
+public class SalesTimeIndex {
+
+    private static final long MINUTE = 60L;
+    private static final long HOUR = 3600L;
+    private static final long DAY = 86400L;
+
+    private final SalesDailyRollupRepository dailyRepository;
+    private final SalesHourlyRollupRepository hourlyRepository;
+    private final SaleRepository saleRepository;
+    private final int minuteDays;
+    private final int hourDays;
+
+    // Protegidos por "this"
+    private final PrefixSumSeries minutes;
+    private final PrefixSumSeries hours;
+    private final PrefixSumSeries days = new PrefixSumSeries(0);
+    private volatile boolean ready;
+
+    public SalesTimeIndex(SalesDailyRollupRepository dailyRepository,
+                          SalesHourlyRollupRepository hourlyRepository,
+                          SaleRepository saleRepository,
+                          @Value("${app.sales-index.minute-days:7}") int minuteDays,
+                          @Value("${app.sales-index.hour-days:90}") int hourDays) {
+        this.dailyRepository = dailyRepository;
+        this.hourlyRepository = hourlyRepository;
+        this.saleRepository = saleRepository;
+        this.minuteDays = minuteDays;
+        this.hourDays = hourDays;
+        this.minutes = new PrefixSumSeries((int) (minuteDays * DAY / MINUTE));
+        this.hours = new PrefixSumSeries((int) (hourDays * DAY / HOUR));
+    }
+
+    // ==================== CARGA ====================
+
+    /**
+     * Reconstruir el índice al iniciar, después de que SalesRollupBackfill
+     * complete los agregados si estaban vacíos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime hourOrigin = today.minusDays(hourDays - 1L).atStartOfDay();
+        LocalDateTime minuteOrigin = today.minusDays(minuteDays - 1L).atStartOfDay();
+
+        synchronized (this) {
+            ready = false;
+            days.clear();
+            for (DayTotals day : dailyRepository.sumByDay()) {
+                days.add(day.getSaleDate().toEpochDay(), value(day.getSaleCount()), value(day.getRevenue()));
+            }
+
+            // Los niveles finos arrancan en el inicio de un día: lo anterior sale del nivel diario
+            long hourOriginDay = hourOrigin.toLocalDate().toEpochDay();
+            hours.reset(bucket(hourOrigin, HOUR),
+                    days.countBefore(hourOriginDay), days.amountBefore(hourOriginDay));
+            for (HourTotals hour : hourlyRepository.sumByHourSince(hourOrigin)) {
+                hours.add(bucket(hour.getSaleHour(), HOUR), value(hour.getSaleCount()), value(hour.getRevenue()));
+            }
+
+            long minuteOriginDay = minuteOrigin.toLocalDate().toEpochDay();
+            minutes.reset(bucket(minuteOrigin, MINUTE),
+                    days.countBefore(minuteOriginDay), days.amountBefore(minuteOriginDay));
+            try (Stream<SaleAmount> sales = saleRepository.streamAmountsSince(minuteOrigin)) {
+                sales.forEach(sale -> minutes.add(bucket(sale.getCreatedAt(), MINUTE), 1, value(sale.getTotal())));
+            }
+            ready = true;
+        }
+    }
+
+    /**
+     * Sumar una venta ya confirmada
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleConfirmed(SaleConfirmedEvent event) {
+        if (event.getCreatedAt() == null) {
+            return;
+        }
+        add(event.getCreatedAt(), event.getTotal());
+    }
+
+    synchronized void add(LocalDateTime createdAt, double total) {
+        minutes.add(bucket(createdAt, MINUTE), 1, total);
+        hours.add(bucket(createdAt, HOUR), 1, total);
+        days.add(bucket(createdAt, DAY), 1, total);
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * True cuando el índice ya se cargó desde la base
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Cantidad de ventas e ingresos de [from, to) exactos; vacío si algún extremo cae
+     * dentro de un bucket (el índice no sabe qué parte de ese bucket queda en el rango)
+     */
+    public synchronized Optional<Totals> totalsBetween(LocalDateTime from, LocalDateTime toExclusive) {
+        Totals before = totalsBefore(from);
+        Totals until = totalsBefore(toExclusive);
+        if (before == null || until == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Totals(until.saleCount - before.saleCount, until.revenue - before.revenue));
+    }
+
+    // Acumulado antes del instante, con el nivel más fino que tiene detalle para él;
+    // null si el instante no es el inicio de un bucket de ese nivel
+    private Totals totalsBefore(LocalDateTime instant) {
+        if (instant.getNano() != 0) {
+            return null;
+        }
+        long epochSecond = instant.toEpochSecond(ZoneOffset.UTC);
+        long minute = Math.floorDiv(epochSecond, MINUTE);
+        if (minutes.covers(minute)) {
+            return aligned(epochSecond, MINUTE) ? new Totals(minutes.countBefore(minute), minutes.amountBefore(minute)) : null;
+        }
+        long hour = Math.floorDiv(epochSecond, HOUR);
+        if (hours.covers(hour)) {
+            return aligned(epochSecond, HOUR) ? new Totals(hours.countBefore(hour), hours.amountBefore(hour)) : null;
+        }
+        long day = Math.floorDiv(epochSecond, DAY);
+        return aligned(epochSecond, DAY) ? new Totals(days.countBefore(day), days.amountBefore(day)) : null;
+    }
+
+    private static boolean aligned(long epochSecond, long seconds) {
+        return Math.floorMod(epochSecond, seconds) == 0;
+    }
+
+    private static long bucket(LocalDateTime time, long seconds) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), seconds);
+    }
+
+    private static long value(Long number) {
+        return number != null ? number : 0L;
+    }
+
+    private static double value(Double number) {
+        return number != null ? number : 0.0;
+    }
+
+    // ==================== RESULTADO ====================
+
+    /**
+     * Cantidad de ventas e ingresos de un rango
+     */
+    public static class Totals {
+        private final long saleCount;
+        private final double revenue;
+
+        public Totals(long saleCount, double revenue) {
+            this.saleCount = saleCount;
+            this.revenue = revenue;
+        }
+
+        public long getSaleCount() { return saleCount; }
+        public double getRevenue() { return revenue; }
+    }
+}
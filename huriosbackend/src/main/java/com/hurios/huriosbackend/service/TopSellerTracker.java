@@ -0,0 +1,289 @@
+package com.hurios.huriosbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hurios.huriosbackend.util.SpaceSavingSketch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * TopSellerTracker - Productos más vendidos en tiempo real, sin consultar el historial
+ *
+ * - Cada venta confirmada suma sus unidades a un resumen Space-Saving de la hora
+ *   en curso (memoria acotada: app.topk.capacity contadores por hora).
+ * - Se guardan 168 horas en un anillo (7 días); las ventanas se arman combinando
+ *   las horas que abarcan: HOUR (hora actual), TODAY (desde medianoche) y
+ *   LAST_7_DAYS (últimas 168 horas).
+ * - Los conteos son aproximados: "quantity" puede sobreestimar hasta "maxError".
+ * - El estado se guarda periódicamente en disco y se recupera al reiniciar.
+ */
+@Service
+public class TopSellerTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopSellerTracker.class);
+
+    public enum Window { HOUR, TODAY, LAST_7_DAYS }
+
+    static final int HOURS = 168;
+
+    private final Path snapshotFile;
+    private final ObjectMapper objectMapper;
+
+    // Anillo de horas: posición = hora (epoch) % HOURS. Protegido por "this".
+    private final long[] bucketHours = new long[HOURS];
+    private final SpaceSavingSketch[] buckets = new SpaceSavingSketch[HOURS];
+    private boolean dirty;
+
+    public TopSellerTracker(ObjectMapper objectMapper,
+                            @Value("${app.topk.capacity:100}") int capacity,
+                            @Value("${app.topk.snapshot-file:data/top-products.json}") String snapshotFile) {
+        this.objectMapper = objectMapper;
+        this.snapshotFile = Paths.get(snapshotFile).toAbsolutePath();
+        for (int i = 0; i < HOURS; i++) {
+            bucketHours[i] = -1;
+            buckets[i] = new SpaceSavingSketch(capacity);
+        }
+    }
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    /**
+     * Sumar las unidades de una venta ya confirmada
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleConfirmed(SaleConfirmedEvent event) {
+        LocalDateTime createdAt = event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.now();
+        long hour = epochHour(createdAt);
+        if (hour <= epochHour(LocalDateTime.now()) - HOURS) {
+            return; // venta más vieja que la ventana de 7 días
+        }
+        synchronized (this) {
+            SpaceSavingSketch bucket = bucketFor(hour);
+            if (bucket == null) {
+                return; // el lugar ya lo ocupa una hora más nueva
+            }
+            for (SaleConfirmedEvent.Line line : event.getLines()) {
+                bucket.add(line.getProductId(), line.getProductName(), line.getQuantity());
+            }
+            dirty = true;
+        }
+    }
+
+    /**
+     * Resumen de la hora indicada (se recicla si guardaba una hora vieja).
+     * Null si la hora ya salió del anillo.
+     */
+    private SpaceSavingSketch bucketFor(long hour) {
+        int slot = (int) Math.floorMod(hour, (long) HOURS);
+        if (bucketHours[slot] == hour) {
+            return buckets[slot];
+        }
+        if (bucketHours[slot] > hour) {
+            return null;
+        }
+        buckets[slot].clear();
+        bucketHours[slot] = hour;
+        return buckets[slot];
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Productos más vendidos de la ventana
+     */
+    public List<TopProduct> getTopProducts(Window window, int limit) {
+        return getTopProducts(window, limit, LocalDateTime.now());
+    }
+
+    List<TopProduct> getTopProducts(Window window, int limit, LocalDateTime now) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El límite debe ser mayor a 0");
+        }
+        long currentHour = epochHour(now);
+        long firstHour = switch (window) {
+            case HOUR -> currentHour;
+            case TODAY -> epochHour(now.toLocalDate().atStartOfDay());
+            case LAST_7_DAYS -> currentHour - HOURS + 1;
+        };
+
+        // Combinar resúmenes: se suman conteos y errores; en las horas donde un
+        // producto no aparece pudo haber vendido hasta el mínimo de esa hora
+        Map<Long, TopProduct> merged = new HashMap<>();
+        Map<Long, Long> presentMin = new HashMap<>();
+        long totalMin = 0;
+        synchronized (this) {
+            for (long hour = firstHour; hour <= currentHour; hour++) {
+                int slot = (int) Math.floorMod(hour, (long) HOURS);
+                if (bucketHours[slot] != hour) {
+                    continue;
+                }
+                SpaceSavingSketch bucket = buckets[slot];
+                long min = bucket.minCount();
+                totalMin += min;
+                for (SpaceSavingSketch.Entry entry : bucket.entries()) {
+                    TopProduct product = merged.computeIfAbsent(entry.getKey(), TopProduct::new);
+                    product.add(entry.getLabel(), entry.getCount(), entry.getError());
+                    presentMin.merge(entry.getKey(), min, Long::sum);
+                }
+            }
+        }
+
+        for (TopProduct product : merged.values()) {
+            product.maxError += totalMin - presentMin.get(product.productId);
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparingLong(TopProduct::getQuantity).reversed()
+                        .thenComparingLong(TopProduct::getProductId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static long epochHour(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600L);
+    }
+
+    // ==================== SNAPSHOT EN DISCO ====================
+
+    /**
+     * Recuperar el último snapshot al iniciar (si existe)
+     */
+    @PostConstruct
+    public void loadSnapshot() {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        try {
+            Snapshot snapshot = objectMapper.readValue(snapshotFile.toFile(), Snapshot.class);
+            long oldest = epochHour(LocalDateTime.now()) - HOURS + 1;
+            synchronized (this) {
+                for (Snapshot.Bucket saved : snapshot.buckets) {
+                    if (saved.hour < oldest) {
+                        continue;
+                    }
+                    SpaceSavingSketch bucket = bucketFor(saved.hour);
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (Snapshot.Counter counter : saved.counters) {
+                        bucket.restore(counter.productId, counter.name, counter.count, counter.error);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo leer el snapshot de más vendidos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Guardar el estado periódicamente (solo si hubo ventas desde el último guardado)
+     */
+    @Scheduled(fixedDelayString = "${app.topk.snapshot-interval-ms:60000}")
+    public void saveSnapshot() {
+        Snapshot snapshot = new Snapshot();
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            for (int slot = 0; slot < HOURS; slot++) {
+                if (bucketHours[slot] < 0 || buckets[slot].size() == 0) {
+                    continue;
+                }
+                Snapshot.Bucket saved = new Snapshot.Bucket();
+                saved.hour = bucketHours[slot];
+                for (SpaceSavingSketch.Entry entry : buckets[slot].entries()) {
+                    Snapshot.Counter counter = new Snapshot.Counter();
+                    counter.productId = entry.getKey();
+                    counter.name = entry.getLabel();
+                    counter.count = entry.getCount();
+                    counter.error = entry.getError();
+                    saved.counters.add(counter);
+                }
+                snapshot.buckets.add(saved);
+            }
+            dirty = false;
+        }
+
+        // Escribir en un archivo temporal y reemplazar, así nunca queda un snapshot a medias
+        try {
+            Files.createDirectories(snapshotFile.getParent());
+            Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            logger.warn("No se pudo guardar el snapshot de más vendidos: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        saveSnapshot();
+    }
+
+    // ==================== RESULTADO ====================
+
+    /**
+     * Producto del ranking en vivo
+     */
+    public static class TopProduct {
+        private final long productId;
+        private String productName;
+        private long quantity;
+        private long maxError; // "quantity" puede sobreestimar hasta este valor
+
+        TopProduct(long productId) {
+            this.productId = productId;
+        }
+
+        void add(String name, long count, long error) {
+            if (name != null) {
+                productName = name;
+            }
+            quantity += count;
+            maxError += error;
+        }
+
+        public long getProductId() { return productId; }
+        public String getProductName() { return productName; }
+        public long getQuantity() { return quantity; }
+        public long getMaxError() { return maxError; }
+    }
+
+    // Formato del archivo de snapshot
+    static class Snapshot {
+        public List<Bucket> buckets = new ArrayList<>();
+
+        static class Bucket {
+            public long hour;
+            public List<Counter> counters = new ArrayList<>();
+        }
+
+        static class Counter {
+            public long productId;
+            public String name;
+            public long count;
+            public long error;
+        }
+    }
+}
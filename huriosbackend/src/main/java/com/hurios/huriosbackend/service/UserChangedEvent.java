@@ -0,0 +1,41 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.entity.User;
+
+/**
+ * UserChangedEvent - Evento publicado cada vez que se modifica o elimina un usuario
+ * (perfil, contraseña, rol, verificación).
+ *
+ * Lleva el id y el email para que CacheService borre ambas entradas; se escucha con
+ * {@code @TransactionalEventListener(fallbackExecution = true)}, igual que
+ * ProductChangedEvent. Los cambios de otra instancia llegan con isRemote() = true.
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final String email;
+    private final boolean remote;
+
+    public UserChangedEvent(Long userId, String email) {
+        this(userId, email, false);
+    }
+
+    private UserChangedEvent(Long userId, String email, boolean remote) {
+        this.userId = userId;
+        this.email = email;
+        this.remote = remote;
+    }
+
+    public static UserChangedEvent of(User user) {
+        return new UserChangedEvent(user.getId(), user.getEmail());
+    }
+
+    // Mismo cambio, marcado como ocurrido en otra instancia
+    public UserChangedEvent asRemote() {
+        return new UserChangedEvent(userId, email, true);
+    }
+
+    public Long getUserId() { return userId; }
+    public String getEmail() { return email; }
+    public boolean isRemote() { return remote; }
+}
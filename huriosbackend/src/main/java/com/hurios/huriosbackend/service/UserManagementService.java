@@ -1,15 +1,19 @@
 package com.hurios.huriosbackend.service;
 
+import com.hurios.huriosbackend.dto.ReportDtos.PurchaseTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.RoleCount;
+import com.hurios.huriosbackend.dto.ReportDtos.UserTotals;
 import com.hurios.huriosbackend.entity.User;
+import com.hurios.huriosbackend.repository.EntityStreams;
 import com.hurios.huriosbackend.repository.UserRepository;
 import com.hurios.huriosbackend.repository.SaleRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * UserManagementService - Servicio completo para gestión de usuarios
@@ -28,15 +32,21 @@ public class UserManagementService {
     private final SaleRepository saleRepository;
     private final ValidationService validationService;
     private final PasswordEncoder passwordEncoder;
+    private final EntityStreams entityStreams;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserManagementService(UserRepository userRepository,
                                 SaleRepository saleRepository,
                                 ValidationService validationService,
-                                PasswordEncoder passwordEncoder) {
+                                PasswordEncoder passwordEncoder,
+                                EntityStreams entityStreams,
+                                ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.saleRepository = saleRepository;
         this.validationService = validationService;
         this.passwordEncoder = passwordEncoder;
+        this.entityStreams = entityStreams;
+        this.eventPublisher = eventPublisher;
     }
 
     // ==================== OPERACIONES CRUD ====================
@@ -123,7 +133,9 @@ public class UserManagementService {
         
         user.setUpdatedAt(LocalDateTime.now());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(saved));
+        return saved;
     }
 
     /**
@@ -147,6 +159,7 @@ public class UserManagementService {
         user.setUpdatedAt(LocalDateTime.now());
         
         userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
     }
 
     /**
@@ -165,6 +178,7 @@ public class UserManagementService {
         user.setUpdatedAt(LocalDateTime.now());
         
         userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
         
         return tempPassword; // Se debe enviar al usuario por email
     }
@@ -180,9 +194,7 @@ public class UserManagementService {
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
         
         // Verificar si tiene compras
-        long purchaseCount = saleRepository.findAll().stream()
-                .filter(sale -> sale.getUser() != null && sale.getUser().getId().equals(id))
-                .count();
+        long purchaseCount = saleRepository.countByUserId(id);
         
         if (purchaseCount > 0) {
             throw new IllegalStateException(
@@ -191,6 +203,7 @@ public class UserManagementService {
         }
         
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
     }
 
     // ==================== GESTIÓN DE ROLES ====================
@@ -209,7 +222,9 @@ public class UserManagementService {
         user.setRole(validRole);
         user.setUpdatedAt(LocalDateTime.now());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(saved));
+        return saved;
     }
 
     /**
@@ -237,22 +252,18 @@ public class UserManagementService {
     public List<User> getUsersByRole(String role) {
         String validRole = validateAndNormalizeRole(role);
         
-        return userRepository.findAll().stream()
-                .filter(user -> validRole.equals(user.getRole()))
-                .collect(Collectors.toList());
+        return userRepository.findByRole(validRole);
     }
 
     /**
      * Contar usuarios por rol
      */
     public Map<String, Long> countUsersByRole() {
-        List<User> allUsers = userRepository.findAll();
-        
-        return allUsers.stream()
-                .collect(Collectors.groupingBy(
-                    user -> user.getRole() != null ? user.getRole() : "SIN_ROL",
-                    Collectors.counting()
-                ));
+        Map<String, Long> byRole = new HashMap<>();
+        for (RoleCount row : userRepository.countGroupedByRole()) {
+            byRole.put(row.getRole(), row.getTotal());
+        }
+        return byRole;
     }
 
     // ==================== VERIFICACIÓN Y ACTIVACIÓN ====================
@@ -271,6 +282,7 @@ public class UserManagementService {
         user.setUpdatedAt(LocalDateTime.now());
         
         userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
     }
 
     /**
@@ -287,6 +299,7 @@ public class UserManagementService {
         user.setUpdatedAt(LocalDateTime.now());
         
         userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
     }
 
     /**
@@ -303,8 +316,10 @@ public class UserManagementService {
     // ==================== BÚSQUEDA Y FILTRADO ====================
 
     /**
-     * Buscar usuarios por término de búsqueda
+     * Buscar usuarios por término de búsqueda.
+     * Se recorre la tabla con un cursor: en memoria solo quedan las coincidencias.
      */
+    @Transactional(readOnly = true)
     public List<User> searchUsers(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllUsers();
@@ -312,13 +327,15 @@ public class UserManagementService {
         
         String lowerSearch = searchTerm.toLowerCase().trim();
         
-        return userRepository.findAll().stream()
-                .filter(user -> 
-                    (user.getEmail() != null && user.getEmail().toLowerCase().contains(lowerSearch)) ||
-                    (user.getFullName() != null && user.getFullName().toLowerCase().contains(lowerSearch)) ||
-                    (user.getPhone() != null && user.getPhone().contains(lowerSearch))
-                )
-                .collect(Collectors.toList());
+        List<User> matches = new ArrayList<>();
+        entityStreams.forEach(userRepository.streamAll(), user -> {
+            if ((user.getEmail() != null && user.getEmail().toLowerCase().contains(lowerSearch)) ||
+                (user.getFullName() != null && user.getFullName().toLowerCase().contains(lowerSearch)) ||
+                (user.getPhone() != null && user.getPhone().contains(lowerSearch))) {
+                matches.add(user);
+            }
+        });
+        return matches;
     }
 
     /**
@@ -333,11 +350,7 @@ public class UserManagementService {
             throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la fecha de fin");
         }
         
-        return userRepository.findAll().stream()
-                .filter(user -> user.getCreatedAt() != null)
-                .filter(user -> !user.getCreatedAt().isBefore(startDate) && 
-                               !user.getCreatedAt().isAfter(endDate))
-                .collect(Collectors.toList());
+        return userRepository.findByCreatedAtBetween(startDate, endDate);
     }
 
     /**
@@ -350,26 +363,14 @@ public class UserManagementService {
         
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
         
-        return userRepository.findAll().stream()
-                .filter(user -> user.getCreatedAt() != null)
-                .filter(user -> user.getCreatedAt().isAfter(cutoffDate))
-                .sorted((u1, u2) -> u2.getCreatedAt().compareTo(u1.getCreatedAt()))
-                .collect(Collectors.toList());
+        return userRepository.findByCreatedAtAfterOrderByCreatedAtDesc(cutoffDate);
     }
 
     /**
      * Obtener usuarios inactivos (sin compras)
      */
     public List<User> getInactiveUsers() {
-        List<Long> activeUserIds = saleRepository.findAll().stream()
-                .filter(sale -> sale.getUser() != null)
-                .map(sale -> sale.getUser().getId())
-                .distinct()
-                .collect(Collectors.toList());
-        
-        return userRepository.findAll().stream()
-                .filter(user -> !activeUserIds.contains(user.getId()))
-                .collect(Collectors.toList());
+        return userRepository.findWithoutPurchases();
     }
 
     // ==================== ESTADÍSTICAS ====================
@@ -378,40 +379,37 @@ public class UserManagementService {
      * Obtener estadísticas generales de usuarios
      */
     public UserStatistics getUserStatistics() {
-        List<User> allUsers = userRepository.findAll();
+        // Conteos calculados por la BD (no se cargan usuarios ni ventas)
+        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0);
+        UserTotals totals = userRepository.summarizeUsers(startOfMonth);
+        int totalUsers = toInt(totals.getTotalUsers());
         
         UserStatistics stats = new UserStatistics();
-        stats.setTotalUsers(allUsers.size());
+        stats.setTotalUsers(totalUsers);
         
         // Usuarios verificados vs no verificados
-        long verifiedCount = allUsers.stream()
-                .filter(User::isVerified)
-                .count();
-        stats.setVerifiedUsers((int) verifiedCount);
-        stats.setUnverifiedUsers(allUsers.size() - (int) verifiedCount);
+        int verifiedCount = toInt(totals.getVerifiedUsers());
+        stats.setVerifiedUsers(verifiedCount);
+        stats.setUnverifiedUsers(totalUsers - verifiedCount);
         
         // Usuarios por rol
         stats.setUsersByRole(countUsersByRole());
         
         // Usuarios nuevos este mes
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0);
-        long newThisMonth = allUsers.stream()
-                .filter(user -> user.getCreatedAt() != null)
-                .filter(user -> user.getCreatedAt().isAfter(startOfMonth))
-                .count();
-        stats.setNewUsersThisMonth((int) newThisMonth);
+        stats.setNewUsersThisMonth(toInt(totals.getNewUsers()));
         
         // Usuarios activos (con compras)
-        Set<Long> activeUserIds = saleRepository.findAll().stream()
-                .filter(sale -> sale.getUser() != null)
-                .map(sale -> sale.getUser().getId())
-                .collect(Collectors.toSet());
-        stats.setActiveUsers(activeUserIds.size());
-        stats.setInactiveUsers(allUsers.size() - activeUserIds.size());
+        int activeUsers = (int) saleRepository.countDistinctBuyers();
+        stats.setActiveUsers(activeUsers);
+        stats.setInactiveUsers(totalUsers - activeUsers);
         
         return stats;
     }
 
+    private static int toInt(Long value) {
+        return value != null ? value.intValue() : 0;
+    }
+
     /**
      * Obtener perfil completo de usuario con estadísticas
      */
@@ -424,27 +422,19 @@ public class UserManagementService {
         UserProfile profile = new UserProfile();
         profile.setUser(user);
         
-        // Estadísticas de compras
-        List<Double> purchases = saleRepository.findAll().stream()
-                .filter(sale -> sale.getUser() != null && sale.getUser().getId().equals(userId))
-                .filter(sale -> sale.getTotal() != null)
-                .map(sale -> sale.getTotal())
-                .collect(Collectors.toList());
-        
-        profile.setTotalPurchases(purchases.size());
+        // Estadísticas de compras (agregadas por la BD)
+        PurchaseTotals purchases = saleRepository.summarizeByUser(userId);
+        int totalPurchases = toInt(purchases.getTotalOrders());
+        profile.setTotalPurchases(totalPurchases);
         
-        double totalSpent = purchases.stream().mapToDouble(Double::doubleValue).sum();
+        double totalSpent = purchases.getTotalSpent() != null ? purchases.getTotalSpent() : 0.0;
         profile.setTotalSpent(totalSpent);
         
-        double averageSpent = purchases.isEmpty() ? 0 : totalSpent / purchases.size();
+        double averageSpent = totalPurchases == 0 ? 0 : totalSpent / totalPurchases;
         profile.setAverageOrderValue(averageSpent);
         
         // Última compra
-        saleRepository.findAll().stream()
-                .filter(sale -> sale.getUser() != null && sale.getUser().getId().equals(userId))
-                .filter(sale -> sale.getCreatedAt() != null)
-                .max((s1, s2) -> s1.getCreatedAt().compareTo(s2.getCreatedAt()))
-                .ifPresent(sale -> profile.setLastPurchaseDate(sale.getCreatedAt()));
+        profile.setLastPurchaseDate(purchases.getLastPurchaseDate());
         
         return profile;
     }
@@ -487,17 +477,18 @@ public class UserManagementService {
     }
 
     /**
-     * Exportar usuarios a formato CSV (String)
+     * Exportar usuarios a formato CSV (String).
+     * Los usuarios se leen con un cursor; en memoria queda solo el texto generado.
      */
+    @Transactional(readOnly = true)
     public String exportUsersToCSV() {
-        List<User> users = userRepository.findAll();
         StringBuilder csv = new StringBuilder();
         
         // Encabezados
         csv.append("ID,Email,Nombre Completo,Rol,Verificado,Fecha de Registro\n");
         
         // Datos
-        users.forEach(user -> {
+        entityStreams.forEach(userRepository.streamAll(), user -> {
             csv.append(user.getId()).append(",")
                .append(user.getEmail() != null ? user.getEmail() : "").append(",")
                .append(user.getFullName() != null ? user.getFullName() : "").append(",")
@@ -0,0 +1,473 @@
+package com.hurios.huriosbackend.util;
+
+import java.util.Arrays;
+
+/**
+ * CompressedBitmap - Conjunto de enteros no negativos comprimido al estilo roaring
+ *
+ * Los valores se reparten en bloques de 65536 según sus 16 bits altos. Cada bloque
+ * guarda sus 16 bits bajos como arreglo ordenado (char[]) mientras tenga hasta 4096
+ * valores, y como mapa de bits de 8 KB (long[1024]) cuando tiene más: un conjunto
+ * disperso ocupa 2 bytes por valor y uno denso 1 bit. and/or/andCardinality trabajan
+ * bloque a bloque eligiendo el algoritmo según el tipo de cada lado.
+ * No es thread-safe: para compartirlo entre hilos, no modificar después de publicarlo
+ * (ver copy()).
+ */
+public class CompressedBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    // Bloques ordenados por clave (16 bits altos); cada uno es char[] o long[]
+    private char[] keys;
+    private Object[] containers;
+    private int[] cardinalities;
+    private int size;
+
+    public CompressedBitmap() {
+        this(4);
+    }
+
+    private CompressedBitmap(int capacity) {
+        keys = new char[capacity];
+        containers = new Object[capacity];
+        cardinalities = new int[capacity];
+    }
+
+    public static CompressedBitmap of(int... values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    // ==================== MODIFICACIÓN ====================
+
+    public void add(int value) {
+        checkValue(value);
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new char[4], 0);
+        }
+        Object container = containers[index];
+        int cardinality = cardinalities[index];
+        if (container instanceof char[] array) {
+            int position = Arrays.binarySearch(array, 0, cardinality, low);
+            if (position >= 0) {
+                return;
+            }
+            if (cardinality < ARRAY_MAX) {
+                position = -position - 1;
+                if (cardinality == array.length) {
+                    array = Arrays.copyOf(array, Math.min(ARRAY_MAX, cardinality * 2));
+                    containers[index] = array;
+                }
+                System.arraycopy(array, position, array, position + 1, cardinality - position);
+                array[position] = low;
+                cardinalities[index] = cardinality + 1;
+                return;
+            }
+            container = toBitmap(array, cardinality);
+            containers[index] = container;
+        }
+        long[] bitmap = (long[]) container;
+        long mask = 1L << low;
+        if ((bitmap[low >>> 6] & mask) == 0) {
+            bitmap[low >>> 6] |= mask;
+            cardinalities[index] = cardinality + 1;
+        }
+    }
+
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+        char low = (char) value;
+        Object container = containers[index];
+        int cardinality = cardinalities[index];
+        if (container instanceof char[] array) {
+            int position = Arrays.binarySearch(array, 0, cardinality, low);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(array, position + 1, array, position, cardinality - position - 1);
+            cardinality--;
+        } else {
+            long[] bitmap = (long[]) container;
+            long mask = 1L << low;
+            if ((bitmap[low >>> 6] & mask) == 0) {
+                return;
+            }
+            bitmap[low >>> 6] &= ~mask;
+            cardinality--;
+            if (cardinality <= ARRAY_MAX) {
+                containers[index] = toArray(bitmap, cardinality);
+            }
+        }
+        if (cardinality == 0) {
+            removeContainer(index);
+        } else {
+            cardinalities[index] = cardinality;
+        }
+    }
+
+    /**
+     * Copia independiente (para modificar sin afectar a quien lee la original)
+     */
+    public CompressedBitmap copy() {
+        CompressedBitmap copy = new CompressedBitmap(Math.max(4, size));
+        for (int i = 0; i < size; i++) {
+            Object container = containers[i];
+            Object cloned = container instanceof char[] array
+                    ? Arrays.copyOf(array, cardinalities[i])
+                    : ((long[]) container).clone();
+            copy.appendContainer(keys[i], cloned, cardinalities[i]);
+        }
+        return copy;
+    }
+
+    // ==================== CONSULTA ====================
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object container = containers[index];
+        if (container instanceof char[] array) {
+            return Arrays.binarySearch(array, 0, cardinalities[index], low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += cardinalities[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Hasta "limit" valores en orden ascendente, saltando los primeros "offset"
+     */
+    public int[] page(int offset, int limit) {
+        int[] result = new int[Math.max(0, Math.min(limit, cardinality() - offset))];
+        int skip = offset;
+        int count = 0;
+        for (int i = 0; i < size && count < result.length; i++) {
+            if (skip >= cardinalities[i]) {
+                skip -= cardinalities[i]; // el bloque entero queda antes de la página
+                continue;
+            }
+            int high = keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof char[] array) {
+                for (int j = skip; j < cardinalities[i] && count < result.length; j++) {
+                    result[count++] = high | array[j];
+                }
+            } else {
+                long[] bitmap = (long[]) container;
+                for (int word = 0; word < BITMAP_WORDS && count < result.length; word++) {
+                    long bits = bitmap[word];
+                    while (bits != 0 && count < result.length) {
+                        if (skip > 0) {
+                            skip--;
+                        } else {
+                            result[count++] = high | (word << 6) | Long.numberOfTrailingZeros(bits);
+                        }
+                        bits &= bits - 1;
+                    }
+                }
+            }
+            skip = 0;
+        }
+        return result;
+    }
+
+    public int[] toArray() {
+        return page(0, Integer.MAX_VALUE);
+    }
+
+    // ==================== OPERACIONES ====================
+
+    /**
+     * Intersección (nuevo bitmap)
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap(Math.max(4, Math.min(size, other.size)));
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendAnd(keys[i], containers[i], cardinalities[i],
+                        other.containers[j], other.cardinalities[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tamaño de la intersección, sin construirla
+     */
+    public int andCardinality(CompressedBitmap other) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                total += andCount(containers[i], cardinalities[i], other.containers[j], other.cardinalities[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Unión (nuevo bitmap)
+     */
+    public CompressedBitmap or(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap(Math.max(4, size + other.size));
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.appendContainer(keys[i], copyOf(containers[i], cardinalities[i]), cardinalities[i]);
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.appendContainer(other.keys[j], copyOf(other.containers[j], other.cardinalities[j]),
+                        other.cardinalities[j]);
+                j++;
+            } else {
+                result.appendOr(keys[i], containers[i], cardinalities[i], other.containers[j], other.cardinalities[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // ==================== BLOQUES ====================
+
+    private void appendAnd(char key, Object a, int cardA, Object b, int cardB) {
+        if (a instanceof char[] arrayA && b instanceof char[] arrayB) {
+            char[] out = new char[Math.min(cardA, cardB)];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardA && j < cardB) {
+                if (arrayA[i] < arrayB[j]) {
+                    i++;
+                } else if (arrayA[i] > arrayB[j]) {
+                    j++;
+                } else {
+                    out[count++] = arrayA[i];
+                    i++;
+                    j++;
+                }
+            }
+            appendIfNotEmpty(key, out, count);
+        } else if (a instanceof char[] || b instanceof char[]) {
+            char[] array = a instanceof char[] arrayA ? arrayA : (char[]) b;
+            int cardinality = a instanceof char[] ? cardA : cardB;
+            long[] bitmap = a instanceof long[] bitmapA ? bitmapA : (long[]) b;
+            char[] out = new char[cardinality];
+            int count = 0;
+            for (int k = 0; k < cardinality; k++) {
+                char low = array[k];
+                if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+                    out[count++] = low;
+                }
+            }
+            appendIfNotEmpty(key, out, count);
+        } else {
+            long[] bitmapA = (long[]) a;
+            long[] bitmapB = (long[]) b;
+            long[] out = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                out[w] = bitmapA[w] & bitmapB[w];
+                count += Long.bitCount(out[w]);
+            }
+            if (count > ARRAY_MAX) {
+                appendContainer(key, out, count);
+            } else {
+                appendIfNotEmpty(key, toArray(out, count), count);
+            }
+        }
+    }
+
+    private static int andCount(Object a, int cardA, Object b, int cardB) {
+        if (a instanceof char[] arrayA && b instanceof char[] arrayB) {
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardA && j < cardB) {
+                if (arrayA[i] < arrayB[j]) {
+                    i++;
+                } else if (arrayA[i] > arrayB[j]) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+        if (a instanceof char[] || b instanceof char[]) {
+            char[] array = a instanceof char[] arrayA ? arrayA : (char[]) b;
+            int cardinality = a instanceof char[] ? cardA : cardB;
+            long[] bitmap = a instanceof long[] bitmapA ? bitmapA : (long[]) b;
+            int count = 0;
+            for (int k = 0; k < cardinality; k++) {
+                char low = array[k];
+                if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        long[] bitmapA = (long[]) a;
+        long[] bitmapB = (long[]) b;
+        int count = 0;
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            count += Long.bitCount(bitmapA[w] & bitmapB[w]);
+        }
+        return count;
+    }
+
+    private void appendOr(char key, Object a, int cardA, Object b, int cardB) {
+        if (a instanceof char[] arrayA && b instanceof char[] arrayB && cardA + cardB <= ARRAY_MAX) {
+            char[] out = new char[cardA + cardB];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardA || j < cardB) {
+                if (j == cardB || (i < cardA && arrayA[i] < arrayB[j])) {
+                    out[count++] = arrayA[i++];
+                } else if (i == cardA || arrayA[i] > arrayB[j]) {
+                    out[count++] = arrayB[j++];
+                } else {
+                    out[count++] = arrayA[i];
+                    i++;
+                    j++;
+                }
+            }
+            appendContainer(key, out, count);
+            return;
+        }
+        long[] out = a instanceof long[] bitmapA ? bitmapA.clone() : toBitmap((char[]) a, cardA);
+        if (b instanceof long[] bitmapB) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                out[w] |= bitmapB[w];
+            }
+        } else {
+            char[] arrayB = (char[]) b;
+            for (int k = 0; k < cardB; k++) {
+                out[arrayB[k] >>> 6] |= 1L << arrayB[k];
+            }
+        }
+        int count = 0;
+        for (long word : out) {
+            count += Long.bitCount(word);
+        }
+        if (count > ARRAY_MAX) {
+            appendContainer(key, out, count);
+        } else {
+            appendContainer(key, toArray(out, count), count);
+        }
+    }
+
+    private void appendIfNotEmpty(char key, Object container, int cardinality) {
+        if (cardinality > 0) {
+            appendContainer(key, container, cardinality);
+        }
+    }
+
+    private void appendContainer(char key, Object container, int cardinality) {
+        insertContainer(size, key, container, cardinality);
+    }
+
+    private void insertContainer(int index, char key, Object container, int cardinality) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        cardinalities[index] = cardinality;
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        System.arraycopy(cardinalities, index + 1, cardinalities, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private static Object copyOf(Object container, int cardinality) {
+        return container instanceof char[] array ? Arrays.copyOf(array, cardinality) : ((long[]) container).clone();
+    }
+
+    private static long[] toBitmap(char[] array, int cardinality) {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for (int k = 0; k < cardinality; k++) {
+            bitmap[array[k] >>> 6] |= 1L << array[k];
+        }
+        return bitmap;
+    }
+
+    private static char[] toArray(long[] bitmap, int cardinality) {
+        char[] array = new char[Math.max(1, cardinality)];
+        int count = 0;
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            long bits = bitmap[w];
+            while (bits != 0) {
+                array[count++] = (char) ((w << 6) | Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return array;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Solo se admiten valores no negativos: " + value);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.hurios.huriosbackend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * LongStatsMap - Mapa de id (long) a dos contadores long (cantidad y suma) sin boxing
+ *
+ * Direccionamiento abierto con sondeo lineal sobre arreglos primitivos. Se usa como
+ * acumulador por bloque en las agregaciones paralelas: cada hilo llena el suyo y
+ * al final se combinan con merge(). No es thread-safe.
+ */
+public class LongStatsMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] counts;
+    private long[] sums;
+    private int size;
+    private int mask;
+
+    public LongStatsMap() {
+        this(16);
+    }
+
+    public LongStatsMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Sumar cantidad y suma a una clave (Long.MIN_VALUE no se admite como clave)
+     */
+    public void add(long key, long count, long sum) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                counts[slot] += count;
+                sums[slot] += sum;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        counts[slot] = count;
+        sums[slot] = sum;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Sumar todas las claves de otro mapa a este
+     */
+    public LongStatsMap merge(LongStatsMap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                add(other.keys[i], other.counts[i], other.sums[i]);
+            }
+        }
+        return this;
+    }
+
+    public long count(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    public long sum(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : sums[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Las k claves con mayor cantidad (o mayor suma), de mayor a menor; en empate, menor id primero
+     */
+    public List<Entry> top(int k, boolean bySum) {
+        Comparator<Entry> order = bySum
+                ? Comparator.comparingLong(Entry::getSum).thenComparingLong(Entry::getCount)
+                : Comparator.comparingLong(Entry::getCount).thenComparingLong(Entry::getSum);
+        order = order.thenComparing(Comparator.comparingLong(Entry::getKey).reversed());
+
+        // Min-heap de tamaño k: el peor del ranking actual queda arriba
+        PriorityQueue<Entry> heap = new PriorityQueue<>(Math.max(1, k), order);
+        for (int i = 0; i < keys.length && k > 0; i++) {
+            if (keys[i] == EMPTY) {
+                continue;
+            }
+            Entry entry = new Entry(keys[i], counts[i], sums[i]);
+            if (heap.size() < k) {
+                heap.add(entry);
+            } else if (order.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Entry> result = new ArrayList<>(heap);
+        result.sort(order.reversed());
+        return result;
+    }
+
+    private int find(long key) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L; // mezcla (Fibonacci) para ids consecutivos
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        counts = new long[capacity];
+        sums = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        long[] oldSums = sums;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                add(oldKeys[i], oldCounts[i], oldSums[i]);
+            }
+        }
+    }
+
+    /**
+     * Clave con sus contadores
+     */
+    public static class Entry {
+        private final long key;
+        private final long count;
+        private final long sum;
+
+        public Entry(long key, long count, long sum) {
+            this.key = key;
+            this.count = count;
+            this.sum = sum;
+        }
+
+        public long getKey() { return key; }
+        public long getCount() { return count; }
+        public long getSum() { return sum; }
+    }
+}
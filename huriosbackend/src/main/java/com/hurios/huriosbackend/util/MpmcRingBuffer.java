@@ -0,0 +1,184 @@
+package com.hurios.huriosbackend.util;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * MpmcRingBuffer - Cola circular acotada y sin locks (varios productores / varios consumidores)
+ *
+ * Implementación del algoritmo de Dmitry Vyukov: cada celda guarda un número de
+ * secuencia que indica si está libre para escribir (seq == pos) o lista para
+ * leer (seq == pos + 1). Productores y consumidores reservan posiciones con CAS
+ * sobre tail/head, sin bloquearse entre sí.
+ *
+ * - offer() nunca bloquea: devuelve false si la cola está llena.
+ * - poll() nunca bloquea: devuelve null si la cola está vacía.
+ * - poll(timeout) espera un elemento; el productor solo toma el lock para
+ *   despertarlo cuando hay algún consumidor esperando.
+ * - La capacidad se redondea a la siguiente potencia de 2.
+ */
+public class MpmcRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong(); // próxima posición a escribir
+    private final AtomicLong head = new AtomicLong(); // próxima posición a leer
+
+    // Espera de consumidores en poll(timeout)
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition notEmpty = waitLock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    public MpmcRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("La capacidad debe ser al menos 2");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.items = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Encolar un elemento; false si no hay espacio
+     */
+    public boolean offer(E item) {
+        if (item == null) {
+            throw new NullPointerException("No se permiten elementos null");
+        }
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long seq = sequences.get(index);
+            long diff = seq - pos;
+            if (diff == 0) {
+                // Celda libre: intentar reservarla
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items.lazySet(index, item);
+                    sequences.set(index, pos + 1); // publicar para los consumidores
+                    if (waiters.get() > 0) {
+                        signalNotEmpty();
+                    }
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // La celda todavía tiene un elemento de la vuelta anterior: cola llena
+                return false;
+            } else {
+                // Otro productor ganó esta posición
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Desencolar un elemento; null si está vacía
+     */
+    public E poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long seq = sequences.get(index);
+            long diff = seq - (pos + 1);
+            if (diff == 0) {
+                // Celda con dato: intentar reservarla
+                if (head.compareAndSet(pos, pos + 1)) {
+                    E item = items.get(index);
+                    items.lazySet(index, null);
+                    sequences.set(index, pos + mask + 1); // liberar para la siguiente vuelta
+                    return item;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                // Aún no se publicó nada en esta posición: cola vacía
+                return null;
+            } else {
+                // Otro consumidor ganó esta posición
+                pos = head.get();
+            }
+        }
+    }
+
+    /**
+     * Desencolar un elemento esperando hasta timeout; null si no llegó ninguno
+     */
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E item = poll();
+        if (item != null) {
+            return item;
+        }
+        long nanos = unit.toNanos(timeout);
+        waitLock.lockInterruptibly();
+        try {
+            // Anotarse antes de volver a mirar: o vemos el elemento, o el productor nos ve
+            waiters.incrementAndGet();
+            try {
+                while ((item = poll()) == null) {
+                    if (nanos <= 0) {
+                        return null;
+                    }
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+                return item;
+            } finally {
+                waiters.decrementAndGet();
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    private void signalNotEmpty() {
+        waitLock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    /**
+     * Mover hasta maxItems elementos a la colección destino; devuelve cuántos movió
+     */
+    public int drainTo(Collection<? super E> target, int maxItems) {
+        int count = 0;
+        E item;
+        while (count < maxItems && (item = poll()) != null) {
+            target.add(item);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Cantidad aproximada de elementos (exacta si no hay operaciones en curso)
+     */
+    public int size() {
+        while (true) {
+            long currentHead = head.get();
+            long currentTail = tail.get();
+            if (currentHead == head.get()) {
+                return (int) Math.max(0, Math.min(currentTail - currentHead, capacity()));
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,177 @@
+package com.hurios.huriosbackend.util;
+
+import java.util.Arrays;
+
+/**
+ * PrefixSumSeries - Serie de buckets de tiempo (cantidad e importe) guardada como
+ * sumas acumuladas, para responder "total antes del bucket X" con una lectura.
+ *
+ * - cumulative[i] = total de todo lo registrado hasta el bucket origin + i inclusive
+ *   (incluye lo anterior al origen), así total(a, b) = before(b) - before(a).
+ * - Registrar en el último bucket solo toca la última posición; un valor atrasado
+ *   actualiza las posiciones siguientes (caso raro).
+ * - Con retención ({@code maxBuckets} > 0) los buckets más viejos se descartan en
+ *   bloque; lo descartado queda como base y la serie deja de cubrir esas fechas.
+ * - No es thread-safe: quien lo use debe sincronizar.
+ */
+public class PrefixSumSeries {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int maxBuckets;
+    private long origin;           // bucket absoluto de la posición 0
+    private int length;            // buckets en uso
+    private long[] cumulativeCount = new long[INITIAL_CAPACITY];
+    private double[] cumulativeAmount = new double[INITIAL_CAPACITY];
+    private long baseCount;        // total anterior al origen
+    private double baseAmount;
+    private boolean truncated;     // se descartaron buckets (o se fijó una base)
+
+    /**
+     * @param maxBuckets buckets a conservar (0 = sin límite)
+     */
+    public PrefixSumSeries(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Vaciar la serie (el origen lo fija el primer valor registrado)
+     */
+    public void clear() {
+        length = 0;
+        baseCount = 0;
+        baseAmount = 0.0;
+        truncated = false;
+    }
+
+    /**
+     * Vaciar la serie y fijar su origen con el total acumulado antes de él
+     */
+    public void reset(long originBucket, long countBefore, double amountBefore) {
+        origin = originBucket;
+        length = 0;
+        baseCount = countBefore;
+        baseAmount = amountBefore;
+        truncated = true;
+    }
+
+    /**
+     * Registrar cantidad e importe en un bucket
+     */
+    public void add(long bucket, long count, double amount) {
+        if (length == 0 && !truncated) {
+            origin = bucket;
+        }
+        if (bucket < origin) {
+            if (truncated) {
+                // Anterior a lo que se guarda: solo suma a la base (y a todo lo posterior)
+                baseCount += count;
+                baseAmount += amount;
+                for (int i = 0; i < length; i++) {
+                    cumulativeCount[i] += count;
+                    cumulativeAmount[i] += amount;
+                }
+                return;
+            }
+            prepend((int) (origin - bucket));
+        }
+
+        int index = (int) (bucket - origin);
+        if (index >= length) {
+            extendTo(index + 1);
+            index = (int) (bucket - origin); // el origen pudo moverse al descartar
+        }
+        for (int i = index; i < length; i++) {
+            cumulativeCount[i] += count;
+            cumulativeAmount[i] += amount;
+        }
+    }
+
+    /**
+     * True si la serie tiene el detalle para responder before(bucket)
+     */
+    public boolean covers(long bucket) {
+        return !truncated || bucket >= origin;
+    }
+
+    /**
+     * Cantidad acumulada de todos los buckets anteriores a {@code bucket}
+     */
+    public long countBefore(long bucket) {
+        int index = indexBefore(bucket);
+        return index < 0 ? baseCount : cumulativeCount[index];
+    }
+
+    /**
+     * Importe acumulado de todos los buckets anteriores a {@code bucket}
+     */
+    public double amountBefore(long bucket) {
+        int index = indexBefore(bucket);
+        return index < 0 ? baseAmount : cumulativeAmount[index];
+    }
+
+    public long totalCount() {
+        return length == 0 ? baseCount : cumulativeCount[length - 1];
+    }
+
+    public double totalAmount() {
+        return length == 0 ? baseAmount : cumulativeAmount[length - 1];
+    }
+
+    // Posición del último bucket < bucket (-1 = solo la base)
+    private int indexBefore(long bucket) {
+        long index = bucket - origin - 1;
+        if (index < 0 || length == 0) {
+            return -1;
+        }
+        return (int) Math.min(index, length - 1);
+    }
+
+    // Agregar buckets al final repitiendo el último acumulado
+    private void extendTo(int newLength) {
+        if (newLength > cumulativeCount.length) {
+            int capacity = Math.max(newLength, cumulativeCount.length * 2);
+            cumulativeCount = Arrays.copyOf(cumulativeCount, capacity);
+            cumulativeAmount = Arrays.copyOf(cumulativeAmount, capacity);
+        }
+        long lastCount = totalCount();
+        double lastAmount = totalAmount();
+        for (int i = length; i < newLength; i++) {
+            cumulativeCount[i] = lastCount;
+            cumulativeAmount[i] = lastAmount;
+        }
+        length = newLength;
+
+        // Con retención se descarta en bloque al llegar al doble, así el costo se amortiza
+        if (maxBuckets > 0 && length >= maxBuckets * 2) {
+            dropOldest(length - maxBuckets);
+        }
+    }
+
+    // Descartar los n buckets más viejos pasando su total a la base
+    private void dropOldest(int n) {
+        baseCount = cumulativeCount[n - 1];
+        baseAmount = cumulativeAmount[n - 1];
+        System.arraycopy(cumulativeCount, n, cumulativeCount, 0, length - n);
+        System.arraycopy(cumulativeAmount, n, cumulativeAmount, 0, length - n);
+        length -= n;
+        origin += n;
+        truncated = true;
+    }
+
+    // Mover el origen n buckets hacia atrás (solo sin retención)
+    private void prepend(int n) {
+        int newLength = length + n;
+        if (newLength > cumulativeCount.length) {
+            int capacity = Math.max(newLength, cumulativeCount.length * 2);
+            cumulativeCount = Arrays.copyOf(cumulativeCount, capacity);
+            cumulativeAmount = Arrays.copyOf(cumulativeAmount, capacity);
+        }
+        System.arraycopy(cumulativeCount, 0, cumulativeCount, n, length);
+        System.arraycopy(cumulativeAmount, 0, cumulativeAmount, n, length);
+        Arrays.fill(cumulativeCount, 0, n, baseCount);
+        Arrays.fill(cumulativeAmount, 0, n, baseAmount);
+        length = newLength;
+        origin -= n;
+    }
+}
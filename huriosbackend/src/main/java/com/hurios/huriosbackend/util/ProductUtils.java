@@ -34,14 +34,38 @@ public class ProductUtils {
         Multimap<String, Product> grouped = ArrayListMultimap.create();
         for (Product product : products) {
             if (product.getName() != null) {
-                // Intentar determinar categoría del nombre del producto
-                String category = detectCategory(product.getName());
-                grouped.put(category, product);
+                grouped.put(resolveCategory(product), product);
             }
         }
         return grouped;
     }
 
+    /**
+     * Categoría de un producto: la guardada si tiene una, si no la que se deduce del nombre
+     */
+    public static String resolveCategory(Product product) {
+        if (product.getCategory() != null && !product.getCategory().isBlank()) {
+            return product.getCategory().trim();
+        }
+        // Intentar determinar categoría del nombre del producto
+        return product.getName() != null ? detectCategory(product.getName()) : "Accesorios";
+    }
+
+    /**
+     * Nombre del rango de PRICE_RANGES que contiene el precio (null si no hay precio)
+     */
+    public static String resolvePriceRange(Double price) {
+        if (price == null) {
+            return null;
+        }
+        for (Map.Entry<String, Range<Double>> entry : PRICE_RANGES.entrySet()) {
+            if (entry.getValue().contains(price)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
     /**
      * Detectar categoría basada en palabras clave
      */
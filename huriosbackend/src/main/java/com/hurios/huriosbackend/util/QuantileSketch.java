@@ -0,0 +1,340 @@
+package com.hurios.huriosbackend.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * QuantileSketch - Resumen de una distribución para estimar percentiles (t-digest)
+ *
+ * Guarda centroides (media, peso) ordenados por media: muchos y pequeños cerca de los
+ * extremos y pocos y grandes en el centro, así p99 y p1 son precisos con memoria fija
+ * (del orden de compression centroides). Los valores nuevos se juntan en un buffer y
+ * se comprimen por tandas. Dos sketches se combinan con merge() sin volver a los datos
+ * originales, y se serializan en pocos bytes con toBytes()/fromBytes().
+ * No es thread-safe.
+ */
+public class QuantileSketch {
+
+    public static final int DEFAULT_COMPRESSION = 100;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int compression;
+
+    // Centroides comprimidos, ordenados por media
+    private double[] means;
+    private long[] weights;
+    private int centroids;
+
+    // Valores o centroides todavía sin comprimir
+    private final double[] bufferMeans;
+    private final long[] bufferWeights;
+    private int buffered;
+
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public QuantileSketch(int compression) {
+        if (compression < 10 || compression > 10_000) {
+            throw new IllegalArgumentException("La compresión debe estar entre 10 y 10000");
+        }
+        this.compression = compression;
+        this.means = new double[compression + 1];
+        this.weights = new long[compression + 1];
+        this.bufferMeans = new double[compression * 4];
+        this.bufferWeights = new long[compression * 4];
+    }
+
+    // ==================== CARGA ====================
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    private void add(double mean, long weight) {
+        if (Double.isNaN(mean) || weight <= 0) {
+            return;
+        }
+        if (buffered == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[buffered] = mean;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        count += weight;
+        min = Math.min(min, mean);
+        max = Math.max(max, mean);
+    }
+
+    /**
+     * Sumar los valores de otro sketch a este
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        other.compress();
+        double otherMin = other.min;
+        double otherMax = other.max;
+        for (int i = 0; i < other.centroids; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        // Los extremos reales pueden quedar fuera de las medias de los centroides
+        if (other.count > 0) {
+            min = Math.min(min, otherMin);
+            max = Math.max(max, otherMax);
+        }
+        return this;
+    }
+
+    /**
+     * Juntar el buffer con los centroides, fusionando vecinos mientras el centroide
+     * resultante no supere el tamaño permitido para su posición (función k1 de t-digest)
+     */
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int total = centroids + buffered;
+        double[] allMeans = new double[total];
+        long[] allWeights = new long[total];
+        System.arraycopy(means, 0, allMeans, 0, centroids);
+        System.arraycopy(weights, 0, allWeights, 0, centroids);
+        System.arraycopy(bufferMeans, 0, allMeans, centroids, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, centroids, buffered);
+        buffered = 0;
+        sortByMean(allMeans, allWeights, 0, total);
+
+        double totalWeight = count;
+        int out = 0;
+        double outMean = allMeans[0];
+        long outWeight = allWeights[0];
+        long weightBefore = 0;
+        double kLeft = scale(0);
+        for (int i = 1; i < total; i++) {
+            long proposed = outWeight + allWeights[i];
+            if (scale((weightBefore + proposed) / totalWeight) - kLeft <= 1) {
+                outMean += (allMeans[i] - outMean) * allWeights[i] / proposed;
+                outWeight = proposed;
+            } else {
+                out = emit(out, outMean, outWeight);
+                weightBefore += outWeight;
+                kLeft = scale(weightBefore / totalWeight);
+                outMean = allMeans[i];
+                outWeight = allWeights[i];
+            }
+        }
+        centroids = emit(out, outMean, outWeight);
+    }
+
+    private int emit(int index, double mean, long weight) {
+        if (index == means.length) {
+            means = Arrays.copyOf(means, index * 2);
+            weights = Arrays.copyOf(weights, index * 2);
+        }
+        means[index] = mean;
+        weights[index] = weight;
+        return index + 1;
+    }
+
+    // k1(q) = δ / 2π · asin(2q − 1): un centroide abarca como mucho una unidad de k
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+
+    // ==================== CONSULTA ====================
+
+    public long count() {
+        return count;
+    }
+
+    public double min() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double max() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Valor estimado del percentil q (0..1); NaN si no hay datos.
+     * Interpola entre los centros de los centroides; los centroides de un solo valor
+     * se devuelven tal cual, así con pocos datos el resultado es exacto.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 1");
+        }
+        compress();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1) {
+            return means[0];
+        }
+
+        double index = q * count;
+        if (index < 1) {
+            return min;
+        }
+        if (weights[0] > 1 && index < weights[0] / 2.0) {
+            return min + (index - 1) / (weights[0] / 2.0 - 1) * (means[0] - min);
+        }
+        if (index > count - 1) {
+            return max;
+        }
+        int last = centroids - 1;
+        if (weights[last] > 1 && count - index <= weights[last] / 2.0) {
+            return max - (count - index - 1) / (weights[last] / 2.0 - 1) * (max - means[last]);
+        }
+
+        double weightSoFar = weights[0] / 2.0;
+        for (int i = 0; i < last; i++) {
+            double delta = (weights[i] + weights[i + 1]) / 2.0;
+            if (weightSoFar + delta > index) {
+                double leftUnit = 0;
+                if (weights[i] == 1) {
+                    if (index - weightSoFar < 0.5) {
+                        return means[i];
+                    }
+                    leftUnit = 0.5;
+                }
+                double rightUnit = 0;
+                if (weights[i + 1] == 1) {
+                    if (weightSoFar + delta - index <= 0.5) {
+                        return means[i + 1];
+                    }
+                    rightUnit = 0.5;
+                }
+                double toLeft = index - weightSoFar - leftUnit;
+                double toRight = weightSoFar + delta - index - rightUnit;
+                return weightedAverage(means[i], toRight, means[i + 1], toLeft);
+            }
+            weightSoFar += delta;
+        }
+        return max;
+    }
+
+    private static double weightedAverage(double x1, double w1, double x2, double w2) {
+        if (w1 + w2 <= 0) {
+            return (x1 + x2) / 2;
+        }
+        double value = (x1 * w1 + x2 * w2) / (w1 + w2);
+        return Math.max(Math.min(x1, x2), Math.min(value, Math.max(x1, x2)));
+    }
+
+    // ==================== SERIALIZACIÓN ====================
+
+    /**
+     * Formato: versión, compresión, cantidad de centroides, mín, máx y luego cada
+     * centroide como media (double) y peso (varint)
+     */
+    public byte[] toBytes() {
+        compress();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + centroids * 10);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeShort(compression);
+            writeVarLong(out, centroids);
+            if (centroids > 0) {
+                out.writeDouble(min);
+                out.writeDouble(max);
+            }
+            for (int i = 0; i < centroids; i++) {
+                out.writeDouble(means[i]);
+                writeVarLong(out, weights[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static QuantileSketch fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Versión de sketch no soportada: " + version);
+            }
+            QuantileSketch sketch = new QuantileSketch(in.readUnsignedShort());
+            int size = (int) readVarLong(in);
+            if (size > 0) {
+                sketch.min = in.readDouble();
+                sketch.max = in.readDouble();
+            }
+            for (int i = 0; i < size; i++) {
+                double mean = in.readDouble();
+                long weight = readVarLong(in);
+                sketch.centroids = sketch.emit(i, mean, weight);
+                sketch.count += weight;
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Sketch dañado", e);
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint demasiado largo");
+    }
+
+    // Quicksort de ambos arreglos a la vez por media (inserción en tramos chicos)
+    private static void sortByMean(double[] means, long[] weights, int from, int to) {
+        while (to - from > 16) {
+            double pivot = means[(from + to) >>> 1];
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (means[i] < pivot) i++;
+                while (means[j] > pivot) j--;
+                if (i <= j) {
+                    swap(means, weights, i++, j--);
+                }
+            }
+            // Recursión en el tramo más chico para acotar la pila
+            if (j - from < to - i) {
+                sortByMean(means, weights, from, j + 1);
+                from = i;
+            } else {
+                sortByMean(means, weights, i, to);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && means[j - 1] > means[j]; j--) {
+                swap(means, weights, j, j - 1);
+            }
+        }
+    }
+
+    private static void swap(double[] means, long[] weights, int a, int b) {
+        double mean = means[a];
+        means[a] = means[b];
+        means[b] = mean;
+        long weight = weights[a];
+        weights[a] = weights[b];
+        weights[b] = weight;
+    }
+}
@@ -0,0 +1,213 @@
+package com.hurios.huriosbackend.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SpaceSavingSketch - Top-K aproximado con memoria acotada (algoritmo Space-Saving)
+ *
+ * Guarda como máximo {@code capacity} contadores. Si llega una clave nueva con
+ * todos ocupados, reemplaza al contador más bajo y hereda su valor como error:
+ * el conteo de cada clave es una sobreestimación de a lo sumo {@code error}.
+ * Toda clave con frecuencia real mayor que el mínimo está garantizada en el resumen.
+ *
+ * Los contadores viven en un min-heap indexado (arreglos primitivos), así una
+ * actualización cuesta O(log capacity), constante para la capacidad configurada.
+ * No es thread-safe: quien lo use debe sincronizar.
+ */
+public class SpaceSavingSketch {
+
+    private final int capacity;
+    private final long[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final String[] labels;
+    private final Map<Long, Integer> positions; // clave -> posición en el heap
+    private int size;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser al menos 1");
+        }
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.labels = new String[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Sumar {@code weight} ocurrencias de una clave
+     *
+     * @param label texto descriptivo (p. ej. nombre del producto); se guarda el último
+     */
+    public void add(long key, String label, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        Integer position = positions.get(key);
+        if (position != null) {
+            counts[position] += weight;
+            if (label != null) {
+                labels[position] = label;
+            }
+            siftDown(position);
+            return;
+        }
+
+        if (size < capacity) {
+            int slot = size++;
+            set(slot, key, label, weight, 0);
+            siftUp(slot);
+            return;
+        }
+
+        // Lleno: la clave nueva reemplaza al mínimo y hereda su conteo como error
+        long min = counts[0];
+        positions.remove(keys[0]);
+        set(0, key, label, min + weight, min);
+        siftDown(0);
+    }
+
+    /**
+     * Conteo mínimo del resumen (0 si todavía hay lugar). Una clave ausente
+     * ocurrió a lo sumo esta cantidad de veces.
+     */
+    public long minCount() {
+        return size < capacity ? 0 : counts[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        positions.clear();
+        for (int i = 0; i < size; i++) {
+            labels[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Copia de todos los contadores (sin orden)
+     */
+    public List<Entry> entries() {
+        List<Entry> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Entry(keys[i], labels[i], counts[i], errors[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Las k claves con mayor conteo
+     */
+    public List<Entry> top(int k) {
+        List<Entry> all = entries();
+        all.sort(Comparator.comparingLong(Entry::getCount).reversed().thenComparingLong(Entry::getKey));
+        return all.size() > k ? new ArrayList<>(all.subList(0, k)) : all;
+    }
+
+    /**
+     * Restaurar un contador guardado (p. ej. desde un snapshot)
+     */
+    public void restore(long key, String label, long count, long error) {
+        if (positions.containsKey(key) || count <= 0) {
+            return;
+        }
+        if (size < capacity) {
+            int slot = size++;
+            set(slot, key, label, count, error);
+            siftUp(slot);
+        } else if (count > counts[0]) {
+            positions.remove(keys[0]);
+            set(0, key, label, count, error);
+            siftDown(0);
+        }
+    }
+
+    // ==================== HEAP ====================
+
+    private void set(int slot, long key, String label, long count, long error) {
+        keys[slot] = key;
+        labels[slot] = label;
+        counts[slot] = count;
+        errors[slot] = error;
+        positions.put(key, slot);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (counts[parent] <= counts[slot]) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int left = 2 * slot + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int smallest = right < size && counts[right] < counts[left] ? right : left;
+            if (counts[slot] <= counts[smallest]) {
+                return;
+            }
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        String label = labels[a];
+        long count = counts[a];
+        long error = errors[a];
+        keys[a] = keys[b];
+        labels[a] = labels[b];
+        counts[a] = counts[b];
+        errors[a] = errors[b];
+        keys[b] = key;
+        labels[b] = label;
+        counts[b] = count;
+        errors[b] = error;
+        positions.put(keys[a], a);
+        positions.put(keys[b], b);
+    }
+
+    /**
+     * Contador de una clave
+     */
+    public static class Entry {
+        private final long key;
+        private final String label;
+        private final long count;
+        private final long error;
+
+        public Entry(long key, String label, long count, long error) {
+            this.key = key;
+            this.label = label;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long getKey() { return key; }
+        public String getLabel() { return label; }
+        public long getCount() { return count; }
+        public long getError() { return error; }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hurios.huriosbackend.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StringDictionary - Codificación de textos repetidos como enteros (0, 1, 2...)
+ *
+ * Pensado para columnas con pocos valores distintos (estado, método de pago,
+ * distrito): la columna guarda el código en un int[] y el texto se guarda una vez.
+ * Los códigos nunca cambian. Un solo hilo agrega valores (quien escribe la columna);
+ * la lectura de valores puede hacerse desde cualquier hilo.
+ */
+public class StringDictionary {
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[0];
+
+    /**
+     * Código del valor, agregándolo si es nuevo
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        String[] current = values;
+        String[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = value;
+        values = grown; // publicar el texto antes que el código
+        codes.put(value, current.length);
+        return current.length;
+    }
+
+    /**
+     * Código del valor, o -1 si nunca se agregó
+     */
+    public int codeOf(String value) {
+        Integer code = codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    public String valueOf(int code) {
+        return values[code];
+    }
+
+    public int size() {
+        return values.length;
+    }
+}
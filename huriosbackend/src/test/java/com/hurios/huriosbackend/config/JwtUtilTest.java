@@ -0,0 +1,103 @@
+package com.hurios.huriosbackend.config;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para JwtUtil
+ */
+@DisplayName("JwtUtil - Pruebas Unitarias")
+class JwtUtilTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(meterRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "qwertyuiopasdfghjklzxcvbnm1234567890abcd");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMinutes", 60L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", 100L);
+        jwtUtil.init();
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", result)
+                .functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("Debe validar un token generado y devolver su subject")
+    void testGenerateAndValidate() {
+        // ARRANGE
+        String token = jwtUtil.generateToken("user@test.com");
+
+        // ACT & ASSERT
+        assertEquals("user@test.com", jwtUtil.validateAndGetSubject(token));
+    }
+
+    @Test
+    @DisplayName("Las validaciones repetidas deben salir del caché")
+    void testValidate_UsesCache() {
+        // ARRANGE
+        String token = jwtUtil.generateToken("user@test.com");
+
+        // ACT
+        jwtUtil.validateAndGetSubject(token);
+        jwtUtil.validateAndGetSubject(token);
+        jwtUtil.validateAndGetSubject(token);
+
+        // ASSERT
+        assertEquals(1.0, cacheGets("miss"));
+        assertEquals(2.0, cacheGets("hit"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar tokens alterados aunque otro token esté en caché")
+    void testValidate_TamperedToken() {
+        // ARRANGE
+        String token = jwtUtil.generateToken("user@test.com");
+        jwtUtil.validateAndGetSubject(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // ACT & ASSERT
+        assertThrows(JwtException.class, () -> jwtUtil.validateAndGetSubject(tampered));
+    }
+
+    @Test
+    @DisplayName("Debe incluir id y rol del usuario como claims")
+    void testValidateAndGetUser_Claims() {
+        // ARRANGE
+        String token = jwtUtil.generateToken("admin@test.com", 7L, "ADMINISTRADOR");
+
+        // ACT
+        AuthenticatedUser user = jwtUtil.validateAndGetUser(token);
+
+        // ASSERT
+        assertEquals(7L, user.getId());
+        assertEquals("admin@test.com", user.getName());
+        assertEquals("ADMINISTRADOR", user.getRole());
+    }
+
+    @Test
+    @DisplayName("Tokens sin claims propios deben seguir siendo válidos")
+    void testValidateAndGetUser_LegacyToken() {
+        // ARRANGE
+        String token = jwtUtil.generateToken("user@test.com");
+
+        // ACT
+        AuthenticatedUser user = jwtUtil.validateAndGetUser(token);
+
+        // ASSERT
+        assertNull(user.getId());
+        assertNull(user.getRole());
+        assertEquals("user@test.com", user.getEmail());
+    }
+}
@@ -0,0 +1,48 @@
+package com.hurios.huriosbackend.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para EntityStreams
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EntityStreams - Pruebas Unitarias")
+class EntityStreamsTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Debe vaciar el contexto cada N elementos y cerrar el stream")
+    void testForEach_ClearsEveryBatchAndCloses() {
+        // ARRANGE
+        EntityStreams entityStreams = new EntityStreams(3);
+        ReflectionTestUtils.setField(entityStreams, "entityManager", entityManager);
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Integer> stream = IntStream.rangeClosed(1, 7).boxed().onClose(() -> closed.set(true));
+        List<Integer> seen = new ArrayList<>();
+
+        // ACT
+        entityStreams.forEach(stream, seen::add);
+
+        // ASSERT
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), seen);
+        verify(entityManager, times(2)).clear();
+        assertTrue(closed.get());
+    }
+}
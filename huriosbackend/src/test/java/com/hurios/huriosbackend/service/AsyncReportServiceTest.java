@@ -0,0 +1,81 @@
+package com.hurios.huriosbackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para AsyncReportService
+ */
+@DisplayName("AsyncReportService - Pruebas Unitarias")
+class AsyncReportServiceTest {
+
+    private AsyncReportService asyncReportService;
+
+    @BeforeEach
+    void setUp() {
+        asyncReportService = new AsyncReportService(2, 10, 300, 50, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncReportService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Pedidos con el mismo tipo y parámetros deben calcular el reporte una sola vez")
+    void testRun_SameKeyUsesCache() throws Exception {
+        // ARRANGE
+        AtomicInteger calls = new AtomicInteger();
+
+        // ACT
+        String first = asyncReportService.run("SALES", () -> "r" + calls.incrementAndGet(), "2025-01-01").get();
+        String second = asyncReportService.run("SALES", () -> "r" + calls.incrementAndGet(), "2025-01-01").get();
+        String other = asyncReportService.run("SALES", () -> "r" + calls.incrementAndGet(), "2025-02-01").get();
+
+        // ASSERT
+        assertEquals("r1", first);
+        assertEquals("r1", second);
+        assertEquals("r2", other);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Una venta confirmada debe vaciar la caché")
+    void testOnSaleConfirmed_InvalidatesCache() throws Exception {
+        // ARRANGE
+        AtomicInteger calls = new AtomicInteger();
+        asyncReportService.run("INVENTORY", calls::incrementAndGet).get();
+
+        // ACT
+        asyncReportService.onSaleConfirmed(null);
+        Integer result = asyncReportService.run("INVENTORY", calls::incrementAndGet).get();
+
+        // ASSERT
+        assertEquals(2, result);
+    }
+
+    @Test
+    @DisplayName("Un reporte que falla no debe quedar en caché")
+    void testRun_FailureIsNotCached() throws Exception {
+        // ARRANGE
+        CompletableFuture<Object> failed = asyncReportService.run("SALES", () -> {
+            throw new IllegalArgumentException("Las fechas no pueden ser nulas");
+        });
+
+        // ACT
+        ExecutionException error = assertThrows(ExecutionException.class, failed::get);
+        String retry = asyncReportService.run("SALES", () -> "ok").get();
+
+        // ASSERT
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertEquals("ok", retry);
+    }
+}
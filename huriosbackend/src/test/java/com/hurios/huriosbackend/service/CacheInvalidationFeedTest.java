@@ -0,0 +1,159 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.entity.CacheInvalidation;
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.entity.Sale;
+import com.hurios.huriosbackend.entity.SaleItem;
+import com.hurios.huriosbackend.repository.CacheInvalidationRepository;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import com.hurios.huriosbackend.repository.SaleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para CacheInvalidationFeed
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheInvalidationFeed - Pruebas Unitarias")
+class CacheInvalidationFeedTest {
+
+    @Mock
+    private CacheInvalidationRepository repository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CacheInvalidationFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new CacheInvalidationFeed(repository, productRepository, saleRepository, eventPublisher,
+                true, "nodo-a", 500, 30_000, 60);
+    }
+
+    @Test
+    @DisplayName("Un cambio local debe registrarse y uno remoto no")
+    void testOnProductChanged_WritesOnlyLocalChanges() {
+        // ACT
+        feed.onProductChanged(ProductChangedEvent.stockChanged(7L));
+        feed.onProductChanged(ProductChangedEvent.stockChanged(8L).asRemote());
+
+        // ASSERT
+        ArgumentCaptor<CacheInvalidation> captor = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(repository, times(1)).save(captor.capture());
+        assertEquals(CacheInvalidation.PRODUCT, captor.getValue().getEntityType());
+        assertEquals(7L, captor.getValue().getEntityId());
+        assertEquals("nodo-a", captor.getValue().getNodeId());
+    }
+
+    @Test
+    @DisplayName("Debe publicar como remotos los cambios de otras instancias y releer los ids saltados")
+    void testPoll_AppliesRemoteRowsAndRetriesGaps() {
+        // ARRANGE
+        when(repository.findMaxId()).thenReturn(10L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Limit.class))).thenReturn(List.of(
+                row(11L, CacheInvalidation.PRODUCT, 1L, null, "nodo-b"),
+                row(13L, CacheInvalidation.PRODUCT, 2L, null, "nodo-a"),
+                row(14L, CacheInvalidation.USER, 5L, "ana@example.com", "nodo-b")));
+        when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of());
+        when(repository.findByIdInOrderByIdAsc(Set.of(12L)))
+                .thenReturn(List.of(row(12L, CacheInvalidation.PRODUCT, 3L, null, "nodo-b")));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(14L), any(Limit.class))).thenReturn(List.of());
+        when(productRepository.findAllById(Set.of(3L))).thenReturn(List.of(product(3L)));
+
+        // ACT
+        feed.poll(); // fija la marca de agua en 10
+        feed.poll();
+        feed.poll();
+
+        // ASSERT
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(3)).publishEvent(captor.capture());
+        List<Object> events = captor.getAllValues();
+
+        ProductChangedEvent deleted = (ProductChangedEvent) events.get(0);
+        assertEquals(ProductChangedEvent.Type.DELETED, deleted.getType());
+        assertEquals(1L, deleted.getProductId());
+        assertTrue(deleted.isRemote());
+
+        UserChangedEvent user = (UserChangedEvent) events.get(1);
+        assertEquals("ana@example.com", user.getEmail());
+        assertTrue(user.isRemote());
+
+        ProductChangedEvent saved = (ProductChangedEvent) events.get(2);
+        assertEquals(ProductChangedEvent.Type.SAVED, saved.getType());
+        assertEquals(3L, saved.getProductId());
+    }
+
+    @Test
+    @DisplayName("Las ventas de otras instancias deben releerse y publicarse como remotas")
+    void testPoll_RepublishesRemoteSales() {
+        // ARRANGE
+        Sale sale = new Sale();
+        sale.setId(40L);
+        sale.setTotal(30.0);
+        sale.setCreatedAt(LocalDateTime.of(2025, 5, 10, 9, 0));
+        SaleItem item = new SaleItem();
+        item.setProduct(product(3L));
+        item.setQuantity(2);
+        item.setSubtotal(30.0);
+        sale.getItems().add(item);
+
+        when(repository.findMaxId()).thenReturn(10L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Limit.class))).thenReturn(List.of(
+                row(11L, CacheInvalidation.SALE, 40L, null, "nodo-b"),
+                row(12L, CacheInvalidation.SALE, 41L, null, "nodo-a")));
+        when(saleRepository.findWithItemsByIdIn(Set.of(40L))).thenReturn(List.of(sale));
+
+        // ACT
+        feed.poll();
+        feed.poll();
+        feed.onSaleConfirmed(SaleConfirmedEvent.of(sale).asRemote());
+
+        // ASSERT
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        SaleConfirmedEvent event = (SaleConfirmedEvent) captor.getValue();
+        assertTrue(event.isRemote());
+        assertEquals(40L, event.getSaleId());
+        assertEquals(2, event.getLines().get(0).getQuantity());
+        verify(repository, never()).save(any()); // una venta remota no se vuelve a registrar
+    }
+
+    // ==================== HELPERS ====================
+
+    private static CacheInvalidation row(Long id, String type, Long entityId, String key, String node) {
+        CacheInvalidation row = new CacheInvalidation(type, entityId, key, node);
+        row.setId(id);
+        return row;
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Producto " + id);
+        return product;
+    }
+}
@@ -0,0 +1,131 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.entity.User;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import com.hurios.huriosbackend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para CacheService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheService - Pruebas Unitarias")
+class CacheServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new CacheService(productRepository, userRepository, meterRegistry, 100, 10, 100, 15);
+    }
+
+    @Test
+    @DisplayName("Debe leer el producto una vez y volver a la BD tras un cambio confirmado")
+    void testFindProduct_InvalidatedByEvent() {
+        // ARRANGE
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L)));
+
+        // ACT
+        cacheService.findProduct(1L);
+        cacheService.findProduct(1L);
+        cacheService.onProductChanged(ProductChangedEvent.stockChanged(1L));
+        Optional<Product> reloaded = cacheService.findProduct(1L);
+
+        // ASSERT
+        assertTrue(reloaded.isPresent());
+        verify(productRepository, times(2)).findById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "products").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Un usuario inexistente no debe quedar en cache y un cambio debe borrar id y email")
+    void testFindUser_NotFoundAndInvalidation() {
+        // ARRANGE
+        User user = new User();
+        user.setId(5L);
+        user.setEmail("ana@example.com");
+        when(userRepository.findByEmail("nuevo@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+        when(userRepository.findByEmail("ana@example.com")).thenReturn(Optional.of(user));
+
+        // ACT
+        assertTrue(cacheService.findUserByEmail("nuevo@example.com").isEmpty());
+        assertTrue(cacheService.findUserByEmail("nuevo@example.com").isEmpty());
+        cacheService.findUserById(5L);
+        cacheService.findUserByEmail("ana@example.com");
+        cacheService.onUserChanged(UserChangedEvent.of(user));
+        cacheService.findUserById(5L);
+        cacheService.findUserByEmail("ana@example.com");
+
+        // ASSERT
+        verify(userRepository, times(2)).findByEmail("nuevo@example.com");
+        verify(userRepository, times(2)).findById(5L);
+        verify(userRepository, times(2)).findByEmail("ana@example.com");
+    }
+
+    @Test
+    @DisplayName("Varios productos: solo los que faltan en cache se leen, en una consulta")
+    void testFindProducts_LoadsOnlyMissing() {
+        // ARRANGE
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L)));
+        when(productRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of(product(2L)));
+        cacheService.findProduct(1L);
+
+        // ACT
+        List<Product> products = cacheService.findProducts(List.of(1L, 2L, 3L));
+
+        // ASSERT
+        assertEquals(2, products.size());
+        verify(productRepository).findAllById(Set.of(2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Un producto invalidado mientras se leía no debe quedar en cache")
+    void testFindProducts_DropsValueInvalidatedDuringLoad() {
+        // ARRANGE
+        when(productRepository.findAllById(Set.of(2L))).thenAnswer(invocation -> {
+            cacheService.invalidateProduct(2L); // el cambio se confirma durante la lectura
+            return List.of(product(2L));
+        });
+
+        // ACT
+        cacheService.findProducts(List.of(2L));
+        cacheService.findProducts(List.of(2L));
+
+        // ASSERT
+        verify(productRepository, times(2)).findAllById(Set.of(2L));
+    }
+
+    // ==================== HELPERS ====================
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Producto " + id);
+        product.setStock(5);
+        return product;
+    }
+}
@@ -0,0 +1,112 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.dto.ProductDtos.CatalogChanges;
+import com.hurios.huriosbackend.entity.CatalogChange;
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.repository.CatalogChangeRepository;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para CatalogChangeService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogChangeService - Pruebas Unitarias")
+class CatalogChangeServiceTest {
+
+    @Mock
+    private CatalogChangeRepository changeRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private CatalogChangeService changeService;
+
+    @BeforeEach
+    void setUp() {
+        changeService = new CatalogChangeService(changeRepository, productRepository, 5000, 30);
+    }
+
+    @Test
+    @DisplayName("Debe devolver productos cambiados, eliminados y no avanzar sobre un hueco reciente")
+    void testGetChangesSince_ChangedDeletedAndGap() {
+        // ARRANGE
+        LocalDateTime old = LocalDateTime.now().minusMinutes(5);
+        when(changeRepository.findMinSeq()).thenReturn(1L);
+        when(changeRepository.findMaxSeq()).thenReturn(15L);
+        when(changeRepository.findBySeqGreaterThanOrderBySeqAsc(eq(10L), any(Limit.class))).thenReturn(List.of(
+                change(11L, 1L, "SAVED", old),
+                change(12L, 2L, "DELETED", old),
+                change(13L, 1L, "STOCK_CHANGED", old),
+                change(15L, 3L, "SAVED", LocalDateTime.now())));
+        when(productRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(product(3L), product(1L)));
+
+        // ACT
+        CatalogChanges changes = changeService.getChangesSince(10L, 100);
+
+        // ASSERT
+        assertEquals(List.of(1L, 3L), changes.getChanged().stream().map(Product::getId).toList());
+        assertEquals(List.of(2L), changes.getDeleted());
+        assertEquals(13L, changes.getNextSince()); // la 14 puede estar sin confirmar
+        assertFalse(changes.isHasMore());
+        assertFalse(changes.isReset());
+    }
+
+    @Test
+    @DisplayName("Un cliente anterior al historial conservado debe recibir reset")
+    void testGetChangesSince_ResetWhenHistoryPurged() {
+        // ARRANGE
+        when(changeRepository.findMinSeq()).thenReturn(50L);
+        when(changeRepository.findMaxSeq()).thenReturn(80L);
+
+        // ACT
+        CatalogChanges changes = changeService.getChangesSince(10L, null);
+
+        // ASSERT
+        assertTrue(changes.isReset());
+        assertEquals(80L, changes.getNextSince());
+        verify(changeRepository, never()).findBySeqGreaterThanOrderBySeqAsc(any(), any());
+    }
+
+    @Test
+    @DisplayName("Los eventos remotos no deben registrarse otra vez")
+    void testOnProductChanged_SkipsRemote() {
+        // ACT
+        changeService.onProductChanged(ProductChangedEvent.deleted(4L));
+        changeService.onProductChanged(ProductChangedEvent.deleted(5L).asRemote());
+
+        // ASSERT
+        verify(changeRepository, times(1)).save(any(CatalogChange.class));
+    }
+
+    // ==================== HELPERS ====================
+
+    private static CatalogChange change(Long seq, Long productId, String type, LocalDateTime at) {
+        CatalogChange change = new CatalogChange(productId, type);
+        change.setSeq(seq);
+        change.setChangedAt(at);
+        return change;
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Producto " + id);
+        return product;
+    }
+}
@@ -0,0 +1,102 @@
+package com.hurios.huriosbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para CatalogResponseCache
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogResponseCache - Pruebas Unitarias")
+class CatalogResponseCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CacheService cacheService;
+
+    private CatalogResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        responseCache = new CatalogResponseCache(productRepository, cacheService, objectMapper, 100, 64);
+    }
+
+    @Test
+    @DisplayName("La lista debe serializarse una vez por versión del catálogo")
+    void testCatalog_RebuiltOnlyAfterChange() throws IOException {
+        // ARRANGE
+        when(productRepository.findAll())
+                .thenReturn(List.of(product(1L, 10.0), product(2L, 20.0)))
+                .thenReturn(List.of(product(1L, 15.0), product(2L, 20.0)));
+
+        // ACT
+        CatalogResponseCache.Entry first = responseCache.catalog();
+        CatalogResponseCache.Entry again = responseCache.catalog();
+        responseCache.onProductChanged(ProductChangedEvent.stockChanged(1L));
+        CatalogResponseCache.Entry rebuilt = responseCache.catalog();
+
+        // ASSERT
+        assertSame(first, again);
+        assertNotEquals(first.getEtag(), rebuilt.getEtag());
+        verify(productRepository, times(2)).findAll();
+        assertTrue(first.hasGzip());
+        assertArrayEquals(first.getJson(), gunzip(first.getGzip()));
+    }
+
+    @Test
+    @DisplayName("Debe reconocer el ETag propio en If-None-Match, también débil o en lista")
+    void testProduct_EtagMatching() {
+        // ARRANGE
+        when(cacheService.findProduct(1L)).thenReturn(Optional.of(product(1L, 10.0)));
+        when(cacheService.findProduct(9L)).thenReturn(Optional.empty());
+
+        // ACT
+        CatalogResponseCache.Entry entry = responseCache.product(1L).orElseThrow();
+        responseCache.product(1L);
+
+        // ASSERT
+        verify(cacheService, times(1)).findProduct(1L);
+        assertTrue(responseCache.product(9L).isEmpty());
+        assertTrue(entry.matches(entry.getEtag()));
+        assertTrue(entry.matches("\"otro\", W/" + entry.getEtag()));
+        assertTrue(entry.matches("*"));
+        assertFalse(entry.matches("\"otro\""));
+        assertFalse(entry.matches(null));
+    }
+
+    // ==================== HELPERS ====================
+
+    private static Product product(Long id, double price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Producto con un nombre largo para superar el mínimo de gzip " + id);
+        product.setPrice(price);
+        product.setStock(5);
+        return product;
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+}
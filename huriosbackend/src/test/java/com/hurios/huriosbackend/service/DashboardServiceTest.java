@@ -0,0 +1,126 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.dto.ReportDtos.DashboardSalesTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.StockTotals;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import com.hurios.huriosbackend.repository.SalesDailyRollupRepository;
+import com.hurios.huriosbackend.repository.UserRepository;
+import com.hurios.huriosbackend.service.ReportService.BusinessDashboard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para DashboardService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardService - Pruebas Unitarias")
+class DashboardServiceTest {
+
+    @Mock
+    private SalesDailyRollupRepository dailyRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        when(dailyRepository.sumForDashboard(any(), any())).thenReturn(salesTotals());
+        when(productRepository.summarizeStock()).thenReturn(stockTotals());
+        when(userRepository.count()).thenReturn(12L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe combinar ventas, inventario y usuarios en un solo dashboard")
+    void testGetDashboard_CombinesSources() {
+        // ARRANGE
+        dashboardService = new DashboardService(dailyRepository, productRepository, userRepository,
+                2, 60_000, 300_000, 5);
+
+        // ACT
+        BusinessDashboard dashboard = dashboardService.getDashboard();
+
+        // ASSERT
+        assertEquals(40, dashboard.getTotalSalesCount());
+        assertEquals(4000.0, dashboard.getTotalRevenue(), 0.001);
+        assertEquals(2, dashboard.getTodaySales());
+        assertEquals(10, dashboard.getMonthSales());
+        assertEquals(25, dashboard.getTotalProducts());
+        assertEquals(3, dashboard.getOutOfStockProducts());
+        assertEquals(12, dashboard.getTotalCustomers());
+    }
+
+    @Test
+    @DisplayName("Dentro del intervalo debe servir el valor en memoria sin consultar")
+    void testGetDashboard_CachedWhileFresh() {
+        // ARRANGE
+        dashboardService = new DashboardService(dailyRepository, productRepository, userRepository,
+                2, 60_000, 300_000, 5);
+
+        // ACT
+        BusinessDashboard first = dashboardService.getDashboard();
+        BusinessDashboard second = dashboardService.getDashboard();
+
+        // ASSERT
+        assertSame(first, second);
+        verify(userRepository, times(1)).count();
+    }
+
+    @Test
+    @DisplayName("Un valor viejo debe servirse al instante y recalcularse en segundo plano")
+    void testGetDashboard_StaleWhileRevalidate() {
+        // ARRANGE: refresco inmediato, pero se tolera un valor viejo
+        dashboardService = new DashboardService(dailyRepository, productRepository, userRepository,
+                2, 0, 300_000, 5);
+        BusinessDashboard first = dashboardService.getDashboard();
+
+        // ACT
+        BusinessDashboard second = dashboardService.getDashboard();
+
+        // ASSERT
+        assertSame(first, second);
+        verify(userRepository, timeout(2000).times(2)).count();
+    }
+
+    // ==================== HELPERS ====================
+
+    private static DashboardSalesTotals salesTotals() {
+        return new DashboardSalesTotals() {
+            public Long getTotalCount() { return 40L; }
+            public Double getTotalRevenue() { return 4000.0; }
+            public Long getTodayCount() { return 2L; }
+            public Double getTodayRevenue() { return 150.0; }
+            public Long getMonthCount() { return 10L; }
+            public Double getMonthRevenue() { return 900.0; }
+        };
+    }
+
+    private static StockTotals stockTotals() {
+        return new StockTotals() {
+            public Long getTotalProducts() { return 25L; }
+            public Long getTotalStock() { return 300L; }
+            public Double getInventoryValue() { return 12000.0; }
+            public Long getOutOfStock() { return 3L; }
+            public Long getLowStock() { return 5L; }
+            public Long getGoodStock() { return 17L; }
+        };
+    }
+}
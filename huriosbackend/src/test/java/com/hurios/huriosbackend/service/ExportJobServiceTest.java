@@ -0,0 +1,161 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.repository.ProductRepository;
+import com.hurios.huriosbackend.repository.SaleRepository;
+import com.hurios.huriosbackend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para ExportJobService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportJobService - Pruebas Unitarias")
+class ExportJobServiceTest {
+
+    private static final String OWNER = "admin@hurios.com";
+
+    @Mock
+    private ExcelExportService excelExportService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @TempDir
+    Path exportDir;
+
+    private ExportJobService exportJobService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        exportJobService = new ExportJobService(excelExportService, userRepository, productRepository,
+                saleRepository, exportDir.toString(), 1, 5, 30);
+        exportJobService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportJobService.shutdown();
+    }
+
+    private ExportJobService.ExportJob awaitFinished(ExportJobService.ExportJob job) throws InterruptedException {
+        for (int i = 0; i < 100 && job.getFinishedAt() == null; i++) {
+            Thread.sleep(50);
+        }
+        return job;
+    }
+
+    @Test
+    @DisplayName("Debe generar el archivo en disco y marcar el trabajo como terminado")
+    void testSubmit_GeneratesFile() throws Exception {
+        // ARRANGE
+        when(productRepository.count()).thenReturn(2L);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            LongConsumer progress = invocation.getArgument(1);
+            out.write(new byte[]{1, 2, 3});
+            progress.accept(2);
+            return null;
+        }).when(excelExportService).writeProducts(any(OutputStream.class), any(LongConsumer.class));
+
+        // ACT
+        ExportJobService.ExportJob job = awaitFinished(
+                exportJobService.submit(OWNER, ExportJobService.ExportType.PRODUCTS, null, null));
+
+        // ASSERT
+        assertEquals(ExportJobService.JobStatus.DONE, job.getStatus());
+        assertEquals(100, job.getProgress());
+        assertEquals(3, Files.size(job.getFile()));
+        assertTrue(job.getFilename().startsWith("Productos_"));
+    }
+
+    @Test
+    @DisplayName("Pedidos idénticos en curso deben compartir el mismo trabajo")
+    void testSubmit_DeduplicatesActiveJobs() throws Exception {
+        // ARRANGE: el primer trabajo queda bloqueado hasta liberar el latch
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(excelExportService).writeClients(any(OutputStream.class), any(LongConsumer.class));
+
+        // ACT
+        ExportJobService.ExportJob first = exportJobService.submit(OWNER, ExportJobService.ExportType.CLIENTS, null, null);
+        ExportJobService.ExportJob second = exportJobService.submit(OWNER, ExportJobService.ExportType.CLIENTS, null, null);
+        release.countDown();
+        awaitFinished(first);
+
+        // ASSERT
+        assertSame(first, second);
+        verify(excelExportService, times(1)).writeClients(any(OutputStream.class), any(LongConsumer.class));
+
+        // Una vez terminado, un nuevo pedido genera un trabajo nuevo
+        ExportJobService.ExportJob third = exportJobService.submit(OWNER, ExportJobService.ExportType.CLIENTS, null, null);
+        assertNotEquals(first.getId(), third.getId());
+    }
+
+    @Test
+    @DisplayName("Otro usuario no debe compartir ni ver el trabajo")
+    void testSubmit_JobsAreScopedByOwner() throws Exception {
+        // ARRANGE
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(excelExportService).writeClients(any(OutputStream.class), any(LongConsumer.class));
+
+        // ACT
+        ExportJobService.ExportJob mine = exportJobService.submit(OWNER, ExportJobService.ExportType.CLIENTS, null, null);
+        ExportJobService.ExportJob theirs = exportJobService.submit("otro@hurios.com", ExportJobService.ExportType.CLIENTS, null, null);
+        release.countDown();
+        awaitFinished(mine);
+        awaitFinished(theirs);
+
+        // ASSERT
+        assertNotEquals(mine.getId(), theirs.getId());
+        assertTrue(exportJobService.getJob(mine.getId(), OWNER).isPresent());
+        assertTrue(exportJobService.getJob(mine.getId(), "otro@hurios.com").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe marcar el trabajo como fallido y no dejar archivos parciales")
+    void testSubmit_Failure() throws Exception {
+        // ARRANGE
+        doThrow(new RuntimeException("BD no disponible"))
+            .when(excelExportService).writeProducts(any(OutputStream.class), any(LongConsumer.class));
+
+        // ACT
+        ExportJobService.ExportJob job = awaitFinished(
+                exportJobService.submit(OWNER, ExportJobService.ExportType.PRODUCTS, null, null));
+
+        // ASSERT
+        assertEquals(ExportJobService.JobStatus.FAILED, job.getStatus());
+        assertEquals("BD no disponible", job.getError());
+        try (var files = Files.list(exportDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
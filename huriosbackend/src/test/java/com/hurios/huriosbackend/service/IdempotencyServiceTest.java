@@ -0,0 +1,126 @@
+package com.hurios.huriosbackend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para IdempotencyService
+ */
+@DisplayName("IdempotencyService - Pruebas Unitarias")
+class IdempotencyServiceTest {
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(100, 60, 5);
+    }
+
+    @Test
+    @DisplayName("Debe devolver el resultado original para una clave repetida")
+    void testExecute_RepeatedKey() {
+        // ARRANGE
+        AtomicInteger calls = new AtomicInteger();
+
+        // ACT
+        Integer first = idempotencyService.execute("user@test.com", "key-1", calls::incrementAndGet);
+        Integer second = idempotencyService.execute("user@test.com", "key-1", calls::incrementAndGet);
+
+        // ASSERT
+        assertEquals(1, first);
+        assertEquals(1, second);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("La misma clave de otro usuario no debe compartir resultado")
+    void testExecute_ScopedByUser() {
+        // ARRANGE
+        AtomicInteger calls = new AtomicInteger();
+
+        // ACT
+        idempotencyService.execute("a@test.com", "key-1", calls::incrementAndGet);
+        idempotencyService.execute("b@test.com", "key-1", calls::incrementAndGet);
+
+        // ASSERT
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Debe liberar la clave si la operación falla")
+    void testExecute_FailureReleasesKey() {
+        // ACT & ASSERT
+        assertThrows(RuntimeException.class, () -> idempotencyService.execute("user@test.com", "key-1", () -> {
+            throw new RuntimeException("Stock insuficiente");
+        }));
+
+        String result = idempotencyService.execute("user@test.com", "key-1", () -> "ok");
+        assertEquals("ok", result);
+    }
+
+    @Test
+    @DisplayName("Un duplicado concurrente debe esperar el resultado en curso")
+    void testExecute_ConcurrentDuplicateWaits() throws Exception {
+        // ARRANGE
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> original = CompletableFuture.supplyAsync(() ->
+            idempotencyService.execute("user@test.com", "key-1", () -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return calls.incrementAndGet();
+            }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // ACT
+        CompletableFuture<Integer> duplicate = CompletableFuture.supplyAsync(() ->
+            idempotencyService.execute("user@test.com", "key-1", calls::incrementAndGet));
+        release.countDown();
+
+        // ASSERT
+        assertEquals(1, original.get(5, TimeUnit.SECONDS));
+        assertEquals(1, duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("La misma clave con otro cuerpo debe responder 422")
+    void testExecute_SameKeyDifferentBody() {
+        // ARRANGE
+        AtomicInteger calls = new AtomicInteger();
+        idempotencyService.execute("user@test.com", "key-1", "hash-a", calls::incrementAndGet);
+
+        // ACT
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+            () -> idempotencyService.execute("user@test.com", "key-1", "hash-b", calls::incrementAndGet));
+        Integer replay = idempotencyService.execute("user@test.com", "key-1", "hash-a", calls::incrementAndGet);
+
+        // ASSERT
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, error.getStatusCode());
+        assertEquals(1, replay);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar claves vacías")
+    void testExecute_InvalidKey() {
+        assertThrows(IllegalArgumentException.class,
+            () -> idempotencyService.execute("user@test.com", " ", () -> 1));
+    }
+}
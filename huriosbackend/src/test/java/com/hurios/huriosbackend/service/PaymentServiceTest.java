@@ -12,10 +12,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -47,9 +49,15 @@ class PaymentServiceTest {
     @Mock
     private UserRepository userRepository;
     
+    @Mock
+    private CacheService cacheService;
+
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     // @InjectMocks crea una instancia de PaymentService e inyecta los mocks
     @InjectMocks
     private PaymentService paymentService;
@@ -114,11 +122,14 @@ class PaymentServiceTest {
     @DisplayName("Debe procesar el pago exitosamente cuando hay stock disponible")
     void testProcessPayment_Success() throws JsonProcessingException {
         // ARRANGE (Preparar): Configurar el comportamiento de los mocks
-        when(userRepository.findByEmail("test@example.com"))
+        when(cacheService.findUserByEmail("test@example.com"))
             .thenReturn(Optional.of(testUser));
         
-        when(productRepository.findById(1L))
-            .thenReturn(Optional.of(testProduct));
+        when(productRepository.findAllById(Set.of(1L)))
+            .thenReturn(List.of(testProduct));
+        
+        when(productRepository.decrementStockIfAvailable(1L, 2))
+            .thenReturn(1);
         
         // Configurar el mock para que devuelva una venta con ID
         Sale savedSale = new Sale();
@@ -144,12 +155,45 @@ class PaymentServiceTest {
         assertEquals(1L, response.getOrderId());
         
         // Verificar que se llamaron los métodos esperados
-        verify(userRepository, times(1)).findByEmail("test@example.com");
-        verify(productRepository, times(2)).findById(1L); // Se llama 2 veces
-        verify(saleRepository, times(2)).save(any(Sale.class));
+        verify(cacheService, times(1)).findUserByEmail("test@example.com");
+        verify(productRepository, times(1)).findAllById(Set.of(1L)); // Una sola consulta
+        verify(productRepository, never()).findById(any());
+        verify(saleRepository, times(1)).save(any(Sale.class));
         
-        // Verificar que se descontó el stock
-        assertEquals(8, testProduct.getStock(), "El stock debe decrementarse de 10 a 8");
+        // Verificar que se descontó el stock con el UPDATE condicional
+        verify(productRepository, times(1)).decrementStockIfAvailable(1L, 2);
+        verify(productRepository, never()).save(any(Product.class));
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+        verify(eventPublisher).publishEvent(any(SaleConfirmedEvent.class));
+    }
+
+    /**
+     * PRUEBA 1b: Procesar pago con el id del usuario tomado del token
+     * Resultado esperado: no se consulta la tabla users, se usa una referencia por id
+     */
+    @Test
+    @DisplayName("Debe usar la referencia por id cuando el token trae el usuario")
+    void testProcessPayment_WithUserIdSkipsLookup() throws JsonProcessingException {
+        // ARRANGE
+        when(userRepository.getReferenceById(1L))
+            .thenReturn(testUser);
+        when(productRepository.findAllById(Set.of(1L)))
+            .thenReturn(List.of(testProduct));
+        when(productRepository.decrementStockIfAvailable(1L, 2))
+            .thenReturn(1);
+        when(saleRepository.save(any(Sale.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        when(objectMapper.writeValueAsString(any()))
+            .thenReturn("{}");
+
+        // ACT
+        PaymentDtos.ProcessPaymentResponse response =
+            paymentService.processPayment(testRequest, 1L, "test@example.com");
+
+        // ASSERT
+        assertTrue(response.isSuccess());
+        verify(cacheService, never()).findUserByEmail(anyString());
+        verify(saleRepository).save(argThat(sale -> sale.getUser() == testUser));
     }
 
     /**
@@ -163,11 +207,11 @@ class PaymentServiceTest {
         // ARRANGE: Configurar producto con poco stock
         testProduct.setStock(1); // Solo hay 1 unidad
         
-        when(userRepository.findByEmail("test@example.com"))
+        when(cacheService.findUserByEmail("test@example.com"))
             .thenReturn(Optional.of(testUser));
         
-        when(productRepository.findById(1L))
-            .thenReturn(Optional.of(testProduct));
+        when(productRepository.findAllById(Set.of(1L)))
+            .thenReturn(List.of(testProduct));
 
         // ACT & ASSERT: Verificar que se lanza la excepción esperada
         RuntimeException exception = assertThrows(
@@ -178,8 +222,70 @@ class PaymentServiceTest {
         
         assertTrue(exception.getMessage().contains("Stock insuficiente"));
         
-        // Verificar que NO se guardó ninguna venta
+        // Verificar que NO se guardó ninguna venta ni se tocó el stock
         verify(saleRepository, never()).save(any(Sale.class));
+        verify(productRepository, never()).decrementStockIfAvailable(anyLong(), anyInt());
+    }
+
+    /**
+     * PRUEBA 2b: Otra compra se llevó el stock entre la lectura y el descuento
+     * Resultado esperado: el UPDATE condicional no afecta filas y se aborta la venta
+     */
+    @Test
+    @DisplayName("Debe fallar cuando el stock se agota durante el checkout")
+    void testProcessPayment_StockTakenConcurrently() {
+        // ARRANGE: la lectura indica stock, pero el UPDATE condicional no afecta filas
+        when(cacheService.findUserByEmail("test@example.com"))
+            .thenReturn(Optional.of(testUser));
+        
+        when(productRepository.findAllById(Set.of(1L)))
+            .thenReturn(List.of(testProduct));
+        
+        when(productRepository.decrementStockIfAvailable(1L, 2))
+            .thenReturn(0);
+
+        // ACT & ASSERT
+        RuntimeException exception = assertThrows(
+            RuntimeException.class,
+            () -> paymentService.processPayment(testRequest, "test@example.com")
+        );
+        
+        assertTrue(exception.getMessage().contains("Stock insuficiente"));
+        verify(saleRepository, never()).save(any(Sale.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    /**
+     * PRUEBA 2c: El mismo producto aparece en varias líneas del carrito
+     * Resultado esperado: se descuenta la suma de cantidades en un solo UPDATE
+     */
+    @Test
+    @DisplayName("Debe agrupar líneas repetidas del mismo producto")
+    void testProcessPayment_MergesDuplicateItems() throws JsonProcessingException {
+        // ARRANGE
+        PaymentDtos.OrderItem repeated = new PaymentDtos.OrderItem();
+        repeated.setProductId(1L);
+        repeated.setQuantity(3);
+        repeated.setPrice(100.0);
+        testRequest.getItems().add(repeated);
+        
+        when(cacheService.findUserByEmail("test@example.com"))
+            .thenReturn(Optional.of(testUser));
+        when(productRepository.findAllById(Set.of(1L)))
+            .thenReturn(List.of(testProduct));
+        when(productRepository.decrementStockIfAvailable(1L, 5))
+            .thenReturn(1);
+        when(saleRepository.save(any(Sale.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        when(objectMapper.writeValueAsString(any()))
+            .thenReturn("{}");
+
+        // ACT
+        paymentService.processPayment(testRequest, "test@example.com");
+
+        // ASSERT
+        verify(productRepository, times(1)).decrementStockIfAvailable(1L, 5);
+        verify(saleRepository).save(argThat(sale -> sale.getItems().size() == 2));
     }
 
     /**
@@ -191,7 +297,7 @@ class PaymentServiceTest {
     @DisplayName("Debe fallar cuando el usuario no existe")
     void testProcessPayment_UserNotFound() {
         // ARRANGE: Simular que el usuario no existe
-        when(userRepository.findByEmail("noexiste@example.com"))
+        when(cacheService.findUserByEmail("noexiste@example.com"))
             .thenReturn(Optional.empty());
 
         // ACT & ASSERT
@@ -211,11 +317,11 @@ class PaymentServiceTest {
     @DisplayName("Debe fallar cuando el producto no existe")
     void testProcessPayment_ProductNotFound() {
         // ARRANGE
-        when(userRepository.findByEmail("test@example.com"))
+        when(cacheService.findUserByEmail("test@example.com"))
             .thenReturn(Optional.of(testUser));
         
-        when(productRepository.findById(1L))
-            .thenReturn(Optional.empty());
+        when(productRepository.findAllById(Set.of(1L)))
+            .thenReturn(List.of());
 
         // ACT & ASSERT
         RuntimeException exception = assertThrows(
@@ -241,7 +347,7 @@ class PaymentServiceTest {
         expectedSales.add(sale1);
         expectedSales.add(sale2);
         
-        when(userRepository.findByEmail("test@example.com"))
+        when(cacheService.findUserByEmail("test@example.com"))
             .thenReturn(Optional.of(testUser));
         
         when(saleRepository.findByUserId(1L))
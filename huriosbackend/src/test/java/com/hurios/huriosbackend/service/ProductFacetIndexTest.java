@@ -0,0 +1,107 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.dto.ProductDtos.BrowseResult;
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para ProductFacetIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductFacetIndex - Pruebas Unitarias")
+class ProductFacetIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CacheService cacheService;
+
+    private ProductFacetIndex facetIndex;
+
+    @BeforeEach
+    void setUp() {
+        facetIndex = new ProductFacetIndex(productRepository, cacheService);
+        when(productRepository.findAll()).thenReturn(List.of(
+                product(1L, "Pastilla de freno", null, 30.0, 4),
+                product(2L, "Disco de freno", null, 120.0, 0),
+                product(3L, "Aceite 10W40", null, 45.0, 10),
+                product(4L, "Kit de pistón", "Motor", 600.0, 2)));
+        facetIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Debe filtrar por varias facetas y contar cada valor con los filtros de las demás")
+    void testBrowse_FiltersAndCounts() {
+        // ARRANGE
+        when(cacheService.findProducts(anyCollection())).thenReturn(List.of(product(1L, "Pastilla de freno", null, 30.0, 4)));
+
+        // ACT
+        BrowseResult result = facetIndex.browse(List.of("Frenos"), null, true, null, null);
+
+        // ASSERT
+        assertEquals(1, result.getTotal());
+        assertEquals(1L, result.getItems().get(0).getId());
+        verify(cacheService).findProducts(List.of(1L));
+        Map<String, Map<String, Integer>> facets = result.getFacets();
+        // Categorías: solo con el filtro de stock
+        assertEquals(Map.of("Frenos", 1, "Lubricantes", 1, "Motor", 1), facets.get(ProductFacetIndex.CATEGORY));
+        // Stock: solo con el filtro de categoría
+        assertEquals(1, facets.get(ProductFacetIndex.IN_STOCK).get("true"));
+        assertEquals(1, facets.get(ProductFacetIndex.IN_STOCK).get("false"));
+        assertEquals(1, facets.get(ProductFacetIndex.PRICE_RANGE).get("Económico"));
+        assertEquals(0, facets.get(ProductFacetIndex.PRICE_RANGE).get("Lujo"));
+    }
+
+    @Test
+    @DisplayName("Un cambio de stock debe mover el producto entre facetas y una baja quitarlo")
+    void testOnProductChanged_StockAndDelete() {
+        // ARRANGE
+        when(cacheService.findProduct(2L)).thenReturn(Optional.of(product(2L, "Disco de freno", null, 120.0, 8)));
+
+        // ACT
+        facetIndex.onProductChanged(ProductChangedEvent.stockChanged(2L));
+        facetIndex.onProductChanged(ProductChangedEvent.deleted(4L));
+        BrowseResult result = facetIndex.browse(null, List.of("Medio"), true, 0, 10);
+
+        // ASSERT
+        assertEquals(3, facetIndex.size());
+        assertEquals(1, result.getTotal());
+        assertEquals(1, result.getFacets().get(ProductFacetIndex.IN_STOCK).get("true"));
+        assertEquals(0, result.getFacets().get(ProductFacetIndex.IN_STOCK).get("false"));
+        assertFalse(result.getFacets().get(ProductFacetIndex.CATEGORY).containsKey("Motor"));
+    }
+
+    @Test
+    @DisplayName("Un rango de precio desconocido debe rechazarse")
+    void testBrowse_InvalidPriceRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> facetIndex.browse(null, List.of("Gratis"), null, null, null));
+    }
+
+    // ==================== HELPERS ====================
+
+    private static Product product(Long id, String name, String category, double price, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setPrice(price);
+        product.setStock(stock);
+        return product;
+    }
+}
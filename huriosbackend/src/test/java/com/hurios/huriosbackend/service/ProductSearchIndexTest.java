@@ -0,0 +1,156 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para ProductSearchIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductSearchIndex - Pruebas Unitarias")
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(productRepository);
+    }
+
+    private Product product(long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+
+    @Test
+    @DisplayName("Debe construir el índice desde el repositorio")
+    void testRebuild() {
+        // ARRANGE
+        when(productRepository.findAll()).thenReturn(List.of(
+            product(1L, "Pastilla de freno delantera"),
+            product(2L, "Amortiguador trasero")
+        ));
+
+        // ACT
+        index.rebuild();
+
+        // ASSERT
+        assertEquals(2, index.size());
+        assertEquals(List.of(1L), index.search("freno"));
+        assertEquals(List.of(2L), index.search("amortiguador"));
+    }
+
+    @Test
+    @DisplayName("Debe ignorar mayúsculas y tildes")
+    void testSearch_CaseAndAccentInsensitive() {
+        // ARRANGE
+        index.index(product(1L, "Batería Eléctrica 12V"));
+
+        // ACT & ASSERT
+        assertEquals(List.of(1L), index.search("BATERIA"));
+        assertEquals(List.of(1L), index.search("eléctrica"));
+        assertEquals(List.of(1L), index.search("electr"));
+    }
+
+    @Test
+    @DisplayName("Debe buscar subcadenas y exigir todas las palabras")
+    void testSearch_SubstringAndAllTokens() {
+        // ARRANGE
+        index.index(product(1L, "Pastilla de freno delantera"));
+        index.index(product(2L, "Disco de freno trasero"));
+
+        // ACT & ASSERT
+        assertEquals(List.of(1L, 2L), index.search("reno"));
+        assertEquals(List.of(2L), index.search("freno trasero"));
+        assertTrue(index.search("freno motor").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Consultas cortas deben funcionar como prefijo de palabra")
+    void testSearch_ShortPrefix() {
+        // ARRANGE
+        index.index(product(1L, "Filtro de aceite"));
+        index.index(product(2L, "Faro LED"));
+
+        // ACT & ASSERT
+        assertEquals(List.of(1L, 2L), index.search("f"));
+        assertEquals(List.of(2L), index.search("fa"));
+        assertEquals(List.of(1L), index.search("ac"));
+    }
+
+    @Test
+    @DisplayName("Debe reindexar al renombrar y olvidar productos eliminados")
+    void testIndexUpdateAndRemove() {
+        // ARRANGE
+        index.index(product(1L, "Bujía estándar"));
+
+        // ACT
+        index.index(product(1L, "Bujía iridium"));
+
+        // ASSERT
+        assertTrue(index.search("estandar").isEmpty());
+        assertEquals(List.of(1L), index.search("iridium"));
+
+        // ACT
+        index.remove(1L);
+
+        // ASSERT
+        assertTrue(index.search("bujia").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("Debe atender eventos de cambio de producto")
+    void testOnProductChanged() {
+        // ACT
+        index.onProductChanged(ProductChangedEvent.saved(product(5L, "Cadena de transmisión")));
+
+        // ASSERT
+        assertEquals(List.of(5L), index.search("transmision"));
+
+        // ACT
+        index.onProductChanged(ProductChangedEvent.deleted(5L));
+
+        // ASSERT
+        assertTrue(index.search("cadena").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe seguir encontrando los productos vivos después de compactar los eliminados")
+    void testRemove_CompactsDeadOrdinals() {
+        // ARRANGE
+        int count = ProductSearchIndex.COMPACT_MIN_DEAD * 2;
+        for (long id = 1; id <= count; id++) {
+            index.index(product(id, "Repuesto " + id + (id % 2 == 0 ? " par" : " impar")));
+        }
+
+        // ACT: eliminar los impares supera el umbral y reconstruye con ordinales nuevos
+        for (long id = 1; id <= count; id += 2) {
+            index.remove(id);
+        }
+        index.index(product(count + 1L, "Repuesto nuevo par"));
+
+        // ASSERT
+        assertEquals(count / 2 + 1, index.size());
+        assertTrue(index.search("impar").isEmpty());
+        assertEquals(count / 2 + 1, index.search("par").size());
+        assertEquals(List.of(1000L), index.search("repuesto 1000 par"));
+        assertEquals(List.of((long) count + 1), index.search("nuevo"));
+    }
+}
@@ -1,5 +1,7 @@
 package com.hurios.huriosbackend.service;
 
+import com.hurios.huriosbackend.dto.ProductDtos.CatalogPage;
+import com.hurios.huriosbackend.dto.ProductDtos.ProductSummary;
 import com.hurios.huriosbackend.entity.Product;
 import com.hurios.huriosbackend.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,7 +10,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -31,6 +36,13 @@ class ProductServiceTest {
     @Mock
     private ValidationService validationService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    // Índice real (spy) para probar la búsqueda de extremo a extremo
+    @Spy
+    private ProductSearchIndex productSearchIndex = new ProductSearchIndex(null);
+
     @InjectMocks
     private ProductService productService;
 
@@ -105,8 +117,8 @@ class ProductServiceTest {
     @DisplayName("Debe buscar productos por nombre")
     void testSearchByName_Found() {
         // ARRANGE
-        List<Product> allProducts = List.of(testProduct);
-        when(productRepository.findAll()).thenReturn(allProducts);
+        productSearchIndex.index(testProduct);
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(testProduct));
 
         // ACT
         List<Product> result = productService.searchByName("Producto");
@@ -121,8 +133,8 @@ class ProductServiceTest {
     @DisplayName("Debe buscar productos case insensitive")
     void testSearchByName_CaseInsensitive() {
         // ARRANGE
-        List<Product> allProducts = List.of(testProduct);
-        when(productRepository.findAll()).thenReturn(allProducts);
+        productSearchIndex.index(testProduct);
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(testProduct));
 
         // ACT
         List<Product> result = productService.searchByName("PRODUCTO");
@@ -131,6 +143,21 @@ class ProductServiceTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    @DisplayName("No debe consultar la BD si la búsqueda no tiene resultados")
+    void testSearchByName_NoMatches() {
+        // ARRANGE
+        productSearchIndex.index(testProduct);
+
+        // ACT
+        List<Product> result = productService.searchByName("amortiguador");
+
+        // ASSERT
+        assertTrue(result.isEmpty());
+        verify(productRepository, never()).findAllById(any());
+        verify(productRepository, never()).findAll();
+    }
+
     @Test
     @DisplayName("Debe retornar todos los productos si query está vacío")
     void testSearchByName_EmptyQuery() {
@@ -145,6 +172,61 @@ class ProductServiceTest {
         assertEquals(1, result.size());
     }
 
+    // ==================== PRUEBAS DE CATÁLOGO PAGINADO ====================
+
+    private ProductSummary summary(long id, double price) {
+        ProductSummary summary = mock(ProductSummary.class);
+        lenient().when(summary.getId()).thenReturn(id);
+        lenient().when(summary.getPrice()).thenReturn(price);
+        return summary;
+    }
+
+    @Test
+    @DisplayName("Debe devolver la primera página con cursor a la siguiente")
+    void testGetCatalogPage_FirstPage() {
+        // ARRANGE
+        when(productRepository.findSummariesAfterId(eq(0L), any(Limit.class)))
+            .thenReturn(List.of(summary(1L, 10.0), summary(2L, 20.0), summary(3L, 30.0)));
+
+        // ACT
+        CatalogPage page = productService.getCatalogPage(null, 2, null);
+
+        // ASSERT
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+        verify(productRepository).findSummariesAfterId(0L, Limit.of(3));
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Debe continuar desde el cursor recibido")
+    void testGetCatalogPage_NextPage() {
+        // ARRANGE
+        when(productRepository.findSummariesByPrice(any(Limit.class)))
+            .thenReturn(List.of(summary(7L, 15.5), summary(3L, 20.0)));
+        when(productRepository.findSummariesByPriceAfter(eq(15.5), eq(7L), any(Limit.class)))
+            .thenReturn(List.of(summary(3L, 20.0)));
+
+        // ACT
+        CatalogPage first = productService.getCatalogPage(null, 1, "price");
+        CatalogPage second = productService.getCatalogPage(first.getNextCursor(), 1, "price");
+
+        // ASSERT
+        assertEquals(3L, second.getItems().get(0).getId());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar tamaño, orden o cursor inválidos")
+    void testGetCatalogPage_InvalidArguments() {
+        // ACT & ASSERT
+        assertThrows(IllegalArgumentException.class, () -> productService.getCatalogPage(null, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> productService.getCatalogPage(null, 10, "name"));
+        assertThrows(IllegalArgumentException.class, () -> productService.getCatalogPage("%%%", 10, null));
+    }
+
     // ==================== PRUEBAS DE CREACIÓN ====================
 
     @Test
@@ -239,15 +321,33 @@ class ProductServiceTest {
         // ARRANGE
         doNothing().when(validationService).validateId(1L);
         doNothing().when(validationService).validatePositiveQuantity(5, "Cantidad a agregar");
+        when(productRepository.incrementStock(1L, 5)).thenReturn(1);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // ACT
         Product result = productService.addStock(1L, 5);
 
         // ASSERT
         assertNotNull(result);
-        verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, times(1)).incrementStock(1L, 5); // suma atómica en la BD
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    @DisplayName("Debe fallar al agregar stock a un producto inexistente")
+    void testAddStock_NotFound() {
+        // ARRANGE
+        doNothing().when(validationService).validateId(999L);
+        doNothing().when(validationService).validatePositiveQuantity(5, "Cantidad a agregar");
+        when(productRepository.incrementStock(999L, 5)).thenReturn(0);
+
+        // ACT & ASSERT
+        RuntimeException exception = assertThrows(
+            RuntimeException.class,
+            () -> productService.addStock(999L, 5)
+        );
+
+        assertTrue(exception.getMessage().contains("no encontrado"));
     }
 
     @Test
@@ -256,15 +356,16 @@ class ProductServiceTest {
         // ARRANGE
         doNothing().when(validationService).validateId(1L);
         doNothing().when(validationService).validatePositiveQuantity(5, "Cantidad a reducir");
+        when(productRepository.decrementStockIfAvailable(1L, 5)).thenReturn(1);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // ACT
         Product result = productService.reduceStock(1L, 5);
 
         // ASSERT
         assertNotNull(result);
-        verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, times(1)).decrementStockIfAvailable(1L, 5);
+        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
@@ -274,6 +375,7 @@ class ProductServiceTest {
         testProduct.setStock(5);
         doNothing().when(validationService).validateId(1L);
         doNothing().when(validationService).validatePositiveQuantity(10, "Cantidad a reducir");
+        when(productRepository.decrementStockIfAvailable(1L, 10)).thenReturn(0);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
 
         // ACT & ASSERT
@@ -331,6 +433,7 @@ class ProductServiceTest {
 
         // ASSERT
         verify(productRepository, times(1)).deleteById(1L);
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
     }
 
     @Test
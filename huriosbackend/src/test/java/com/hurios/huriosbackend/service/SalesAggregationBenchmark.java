@@ -0,0 +1,173 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.entity.Product;
+import com.hurios.huriosbackend.entity.Sale;
+import com.hurios.huriosbackend.entity.SaleItem;
+import com.hurios.huriosbackend.entity.User;
+import com.hurios.huriosbackend.util.LongStatsMap;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * SalesAggregationBenchmark - Medición manual del ranking de productos y clientes
+ *
+ * Compara, sobre ventas sintéticas (1.000.000 por defecto, 2 líneas en promedio):
+ * - entities: streams secuenciales sobre entidades (como calculaban antes los reportes)
+ * - columnar-1: ParallelSalesAggregator en un solo bloque (sin paralelismo)
+ * - fork-join: ParallelSalesAggregator con bloques y el ForkJoinPool
+ *
+ * No forma parte de las pruebas (surefire no lo toma). Se ejecuta a mano:
+ *   java -Xmx2g -cp target/classes:target/test-classes:... \
+ *     com.hurios.huriosbackend.service.SalesAggregationBenchmark [ventas] [hilos]
+ */
+public class SalesAggregationBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 7;
+    private static final int TOP = 10;
+
+    public static void main(String[] args) {
+        int sales = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("Generando %,d ventas...%n", sales);
+        List<Sale> entities = generate(sales, 500, 50_000, new Random(42));
+        SalesColumnStore store = new SalesColumnStore(null, null);
+        for (Sale sale : entities) {
+            store.onSaleConfirmed(SaleConfirmedEvent.of(sale));
+        }
+
+        ParallelSalesAggregator single = new ParallelSalesAggregator(store, 1, Integer.MAX_VALUE);
+        ParallelSalesAggregator forkJoin = new ParallelSalesAggregator(store, threads, 32_768);
+        try {
+            // Las tres variantes deben dar el mismo ranking
+            long expected = checksum(entityTopProducts(entities));
+            if (expected != checksum(single.topProducts(TOP)) || expected != checksum(forkJoin.topProducts(TOP))) {
+                throw new IllegalStateException("Los rankings no coinciden");
+            }
+
+            System.out.printf("Hilos fork-join: %d%n", threads);
+            double entitiesMs = measure("entities", () -> {
+                entityTopProducts(entities);
+                return entityTopCustomers(entities);
+            });
+            double singleMs = measure("columnar-1", () -> {
+                single.topProducts(TOP);
+                return single.topCustomers(TOP);
+            });
+            double forkJoinMs = measure("fork-join", () -> {
+                forkJoin.topProducts(TOP);
+                return forkJoin.topCustomers(TOP);
+            });
+            System.out.printf("Mejora columnar-1 vs entities: %.1fx%n", entitiesMs / singleMs);
+            System.out.printf("Mejora fork-join vs entities:  %.1fx%n", entitiesMs / forkJoinMs);
+            System.out.printf("Mejora fork-join vs columnar-1: %.1fx%n", singleMs / forkJoinMs);
+        } finally {
+            single.shutdown();
+            forkJoin.shutdown();
+        }
+    }
+
+    // ==================== VARIANTE CON ENTIDADES ====================
+
+    private static List<Long> entityTopProducts(List<Sale> sales) {
+        Map<Long, Long> quantities = sales.stream()
+                .flatMap(sale -> sale.getItems().stream())
+                .collect(Collectors.groupingBy(item -> item.getProduct().getId(),
+                        Collectors.summingLong(SaleItem::getQuantity)));
+        return quantities.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> entityTopCustomers(List<Sale> sales) {
+        Map<Long, Double> spent = sales.stream()
+                .collect(Collectors.groupingBy(sale -> sale.getUser().getId(),
+                        Collectors.summingDouble(Sale::getTotal)));
+        return spent.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(TOP)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    // ==================== HELPERS ====================
+
+    private static double measure(String name, Supplier<?> run) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run.get();
+        }
+        double[] millis = new double[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            run.get();
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        double median = millis[MEASURED_ROUNDS / 2];
+        System.out.printf("%-12s mediana %8.1f ms (mín %.1f, máx %.1f)%n",
+                name, median, millis[0], millis[MEASURED_ROUNDS - 1]);
+        return median;
+    }
+
+    private static long checksum(List<?> ranking) {
+        long sum = 0;
+        for (Object value : ranking) {
+            long key = value instanceof LongStatsMap.Entry entry ? entry.getKey() : (Long) value;
+            sum = sum * 31 + key;
+        }
+        return sum;
+    }
+
+    private static List<Sale> generate(int count, int productCount, int userCount, Random random) {
+        Product[] products = new Product[productCount];
+        for (int i = 0; i < productCount; i++) {
+            products[i] = new Product();
+            products[i].setId((long) i + 1);
+            products[i].setName("Producto " + (i + 1));
+        }
+        User[] users = new User[userCount];
+        for (int i = 0; i < userCount; i++) {
+            users[i] = new User();
+            users[i].setId((long) i + 1);
+        }
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Sale> sales = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Sale sale = new Sale();
+            sale.setId((long) i + 1);
+            sale.setUser(users[random.nextInt(userCount)]);
+            sale.setCreatedAt(start.plusSeconds(i * 30L));
+            sale.setStatus("PENDIENTE");
+            List<SaleItem> items = new ArrayList<>(3);
+            double total = 0;
+            for (int line = 1 + random.nextInt(3); line > 0; line--) {
+                // Sesgo hacia los primeros productos para que el ranking sea estable
+                Product product = products[(int) (productCount * Math.pow(random.nextDouble(), 3))];
+                SaleItem item = new SaleItem();
+                item.setSale(sale);
+                item.setProduct(product);
+                item.setQuantity(1 + random.nextInt(4));
+                item.setSubtotal(item.getQuantity() * 25.0);
+                total += item.getSubtotal();
+                items.add(item);
+            }
+            sale.setItems(items);
+            sale.setTotal(total);
+            sales.add(sale);
+        }
+        return sales;
+    }
+}
@@ -0,0 +1,162 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.dto.ReportDtos.SaleColumnsRow;
+import com.hurios.huriosbackend.dto.ReportDtos.SaleItemColumnsRow;
+import com.hurios.huriosbackend.repository.SaleItemRepository;
+import com.hurios.huriosbackend.repository.SaleRepository;
+import com.hurios.huriosbackend.util.LongStatsMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para SalesColumnStore y ParallelSalesAggregator
+ * (bloques de 2 filas para que las consultas pasen por el ForkJoinPool)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SalesColumnStore - Pruebas Unitarias")
+class SalesColumnStoreTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 5, 10, 0, 0);
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private SaleItemRepository saleItemRepository;
+
+    @InjectMocks
+    private SalesColumnStore salesColumnStore;
+
+    @Test
+    @DisplayName("Debe cargar ventas y líneas y agrupar por distrito dentro del rango")
+    void testLoad_BreakdownByDistrict() {
+        // ARRANGE
+        when(saleRepository.streamColumnRows()).thenReturn(Stream.of(
+                sale(1L, DAY.plusHours(9), 100.0, "Miraflores"),
+                sale(2L, DAY.plusHours(10), 50.5, "Surco"),
+                sale(3L, DAY.plusHours(11), 20.0, "Miraflores"),
+                sale(4L, DAY.plusDays(1), 999.0, "Surco")));
+        when(saleItemRepository.streamColumnRows()).thenReturn(Stream.of(
+                item(1L, 7L, 2, 100.0), item(2L, 3L, 1, 50.5), item(3L, 7L, 1, 20.0)));
+
+        // ACT
+        salesColumnStore.load();
+        List<SalesColumnStore.Group> groups = aggregator().breakdown(
+                SalesColumnStore.Dimension.DISTRICT, DAY, DAY.plusDays(1));
+
+        // ASSERT
+        assertTrue(salesColumnStore.isReady());
+        assertEquals(2, groups.size());
+        assertEquals("Miraflores", groups.get(0).getValue());
+        assertEquals(2, groups.get(0).getSaleCount());
+        assertEquals(120.0, groups.get(0).getRevenue(), 0.001);
+        assertEquals(50.5, groups.get(1).getRevenue(), 0.001);
+        assertEquals(3, salesColumnStore.columns().itemCount);
+    }
+
+    @Test
+    @DisplayName("Una venta confirmada ya cargada desde la base no debe duplicarse")
+    void testOnSaleConfirmed_SkipsLoadedSale() {
+        // ARRANGE
+        when(saleRepository.streamColumnRows()).thenReturn(Stream.of(sale(1L, DAY, 10.0, "Lima")));
+        when(saleItemRepository.streamColumnRows()).thenReturn(Stream.empty());
+        salesColumnStore.load();
+
+        // ACT
+        salesColumnStore.onSaleConfirmed(new SaleConfirmedEvent(1L, 5L, "PENDIENTE", 10.0, DAY, List.of()));
+        salesColumnStore.onSaleConfirmed(new SaleConfirmedEvent(2L, 5L, "PENDIENTE", 30.0, DAY.plusHours(1),
+                "YAPE", "Lima", List.of(new SaleConfirmedEvent.Line(7L, "Casco", 3, 30.0))));
+
+        // ASSERT
+        SalesColumnStore.Columns columns = salesColumnStore.columns();
+        assertEquals(2, columns.saleCount);
+        assertEquals(3, columns.itemQuantities[columns.itemStart[1]]);
+        assertEquals(40.0, aggregator().breakdown(
+                SalesColumnStore.Dimension.DISTRICT, DAY, DAY.plusDays(1)).get(0).getRevenue(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Debe combinar los acumuladores por bloque en el ranking de productos y clientes")
+    void testTopProductsAndCustomers_MergesChunks() {
+        // ARRANGE
+        when(saleRepository.streamColumnRows()).thenReturn(Stream.of(
+                sale(1L, DAY, 100.0, "Lima"), sale(2L, DAY, 50.5, "Lima"),
+                sale(3L, DAY, 20.0, "Lima"), sale(4L, DAY, 30.0, "Lima"), sale(5L, DAY, 15.0, "Lima")));
+        when(saleItemRepository.streamColumnRows()).thenReturn(Stream.of(
+                item(1L, 7L, 2, 100.0), item(2L, 3L, 1, 50.5), item(3L, 7L, 1, 20.0),
+                item(4L, 3L, 4, 30.0), item(5L, 7L, 3, 15.0)));
+        salesColumnStore.load();
+
+        // ACT
+        List<LongStatsMap.Entry> products = aggregator().topProducts(1);
+        List<LongStatsMap.Entry> customers = aggregator().topCustomers(5);
+
+        // ASSERT
+        assertEquals(1, products.size());
+        assertEquals(7L, products.get(0).getKey());
+        assertEquals(6, products.get(0).getCount());
+        assertEquals(13500, products.get(0).getSum());
+        assertEquals(1, customers.size());
+        assertEquals(5, customers.get(0).getCount());
+        assertEquals(21550, customers.get(0).getSum());
+    }
+
+    @Test
+    @DisplayName("Las ventas sin total no deben sumar al gasto de clientes, como en la consulta SQL")
+    void testTopCustomers_SkipsNullTotals() {
+        // ARRANGE
+        when(saleRepository.streamColumnRows()).thenReturn(Stream.of(
+                sale(1L, DAY, 40.0, "Lima"), sale(2L, DAY, null, "Lima")));
+        when(saleItemRepository.streamColumnRows()).thenReturn(Stream.empty());
+        salesColumnStore.load();
+
+        // ACT
+        List<LongStatsMap.Entry> customers = aggregator().topCustomers(5);
+        List<SalesColumnStore.Group> districts = aggregator().breakdown(
+                SalesColumnStore.Dimension.DISTRICT, DAY, DAY.plusDays(1));
+
+        // ASSERT
+        assertEquals(1, customers.get(0).getCount());
+        assertEquals(4000, customers.get(0).getSum());
+        assertEquals(2, districts.get(0).getSaleCount());
+        assertEquals(40.0, districts.get(0).getRevenue(), 0.001);
+    }
+
+    // ==================== HELPERS ====================
+
+    private ParallelSalesAggregator aggregator() {
+        return new ParallelSalesAggregator(salesColumnStore, 2, 2);
+    }
+
+    private static SaleColumnsRow sale(Long id, LocalDateTime createdAt, Double total, String district) {
+        return new SaleColumnsRow() {
+            public Long getId() { return id; }
+            public LocalDateTime getCreatedAt() { return createdAt; }
+            public Long getUserId() { return 5L; }
+            public Double getTotal() { return total; }
+            public String getStatus() { return "PENDIENTE"; }
+            public String getPaymentMethod() { return "TARJETA"; }
+            public String getDeliveryDistrict() { return district; }
+        };
+    }
+
+    private static SaleItemColumnsRow item(Long saleId, Long productId, int quantity, double subtotal) {
+        return new SaleItemColumnsRow() {
+            public Long getSaleId() { return saleId; }
+            public Long getProductId() { return productId; }
+            public Integer getQuantity() { return quantity; }
+            public Double getSubtotal() { return subtotal; }
+        };
+    }
+}
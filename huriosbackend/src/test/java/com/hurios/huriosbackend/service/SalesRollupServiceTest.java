@@ -0,0 +1,203 @@
+package com.hurios.huriosbackend.service;
+
+import com.hurios.huriosbackend.dto.ReportDtos.ProductTotals;
+import com.hurios.huriosbackend.dto.ReportDtos.StatusTotals;
+import com.hurios.huriosbackend.entity.SalesDailySketch;
+import com.hurios.huriosbackend.entity.SalesSketchPending;
+import com.hurios.huriosbackend.repository.*;
+import com.hurios.huriosbackend.util.QuantileSketch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para SalesRollupService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SalesRollupService - Pruebas Unitarias")
+class SalesRollupServiceTest {
+
+    @Mock
+    private SalesDailyRollupRepository dailyRepository;
+
+    @Mock
+    private SalesHourlyRollupRepository hourlyRepository;
+
+    @Mock
+    private ProductDailyRollupRepository productDailyRepository;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private SaleItemRepository saleItemRepository;
+
+    @Mock
+    private SalesDailySketchRepository sketchRepository;
+
+    @Mock
+    private SalesSketchPendingRepository pendingRepository;
+
+    @InjectMocks
+    private SalesRollupService salesRollupService;
+
+    @Test
+    @DisplayName("Un rango de días completos debe leerse solo del agregado diario")
+    void testSummarize_FullDays() {
+        // ARRANGE
+        when(dailyRepository.sumByStatus(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3)))
+                .thenReturn(List.of(status("CONFIRMADO", 3, 300.0)));
+        when(productDailyRepository.sumByProduct(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3)))
+                .thenReturn(List.of(product(7L, "Casco", 4)));
+
+        // ACT
+        SalesRollupService.SalesTotals totals = salesRollupService.summarize(
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 1, 3, 0, 0));
+
+        // ASSERT
+        assertEquals(3, totals.getSaleCount());
+        assertEquals(300.0, totals.getRevenue(), 0.001);
+        assertEquals(3L, totals.getSalesByStatus().get("CONFIRMADO"));
+        assertEquals(4, totals.getProductQuantities().get("Casco"));
+        verifyNoInteractions(hourlyRepository, saleRepository, saleItemRepository);
+    }
+
+    @Test
+    @DisplayName("Los bordes del rango deben usar horas completas y ventas solo para los minutos sueltos")
+    void testSummarize_PartialEdges() {
+        // ARRANGE
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 10, 30);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 3, 0, 0);
+        when(dailyRepository.sumByStatus(LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 3)))
+                .thenReturn(List.of(status("CONFIRMADO", 2, 200.0)));
+        when(hourlyRepository.sumByStatus(LocalDateTime.of(2025, 1, 1, 11, 0), LocalDateTime.of(2025, 1, 2, 0, 0)))
+                .thenReturn(List.of(status("CONFIRMADO", 1, 50.0)));
+        when(saleRepository.sumByStatusBetween(from, LocalDateTime.of(2025, 1, 1, 11, 0)))
+                .thenReturn(List.of(status("CONFIRMADO", 1, 25.0)));
+
+        // ACT
+        SalesRollupService.SalesTotals totals = salesRollupService.summarize(from, to);
+
+        // ASSERT
+        assertEquals(4, totals.getSaleCount());
+        assertEquals(275.0, totals.getRevenue(), 0.001);
+        verify(saleItemRepository).sumByProductBetween(from, LocalDateTime.of(2025, 1, 2, 0, 0));
+        verify(saleRepository, times(1)).sumByStatusBetween(any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe sumar la venta a los agregados agrupando líneas del mismo producto")
+    void testOnSaleConfirmed_UpsertsRollups() {
+        // ARRANGE
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 10, 14, 25);
+        SaleConfirmedEvent event = new SaleConfirmedEvent(1L, 5L, "CONFIRMADO", 130.0, createdAt, List.of(
+                new SaleConfirmedEvent.Line(7L, "Casco", 1, 50.0),
+                new SaleConfirmedEvent.Line(7L, "Casco", 1, 50.0),
+                new SaleConfirmedEvent.Line(3L, "Guantes", 2, 30.0)));
+
+        // ACT
+        salesRollupService.onSaleConfirmed(event);
+
+        // ASSERT
+        verify(dailyRepository).upsert(LocalDate.of(2025, 3, 10), "CONFIRMADO", 1, 130.0);
+        verify(hourlyRepository).upsert(LocalDateTime.of(2025, 3, 10, 14, 0), "CONFIRMADO", 1, 130.0);
+        verify(productDailyRepository).upsert(LocalDate.of(2025, 3, 10), 7L, "Casco", 2, 100.0);
+        verify(productDailyRepository).upsert(LocalDate.of(2025, 3, 10), 3L, "Guantes", 2, 30.0);
+        verifyNoMoreInteractions(productDailyRepository);
+        verify(pendingRepository).save(any(SalesSketchPending.class));
+        verifyNoInteractions(sketchRepository); // el sketch del día no se toca en la compra
+    }
+
+    @Test
+    @DisplayName("La compactación debe combinar los pendientes en una escritura por día")
+    void testCompactSketches_MergesPendingPerDay() {
+        // ARRANGE
+        LocalDate day = LocalDate.of(2025, 3, 10);
+        when(pendingRepository.lockBatch(SalesRollupService.SKETCH_BATCH_SIZE)).thenReturn(List.of(
+                pending(1L, day, 10.0), pending(2L, day, 30.0), pending(3L, day.plusDays(1), 20.0)));
+        when(sketchRepository.findForUpdate(day)).thenReturn(Optional.of(sketch(day, 50.0)));
+        when(sketchRepository.findForUpdate(day.plusDays(1))).thenReturn(Optional.of(sketch(day.plusDays(1))));
+
+        // ACT
+        salesRollupService.compactSketches();
+
+        // ASSERT
+        ArgumentCaptor<SalesDailySketch> captor = ArgumentCaptor.forClass(SalesDailySketch.class);
+        verify(sketchRepository, times(2)).save(captor.capture());
+        SalesDailySketch first = captor.getAllValues().get(0);
+        assertEquals(day, first.getSaleDate());
+        assertEquals(3, first.getSaleCount());
+        assertEquals(3, QuantileSketch.fromBytes(first.getSketch()).count());
+        assertEquals(1, captor.getAllValues().get(1).getSaleCount());
+        verify(pendingRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Los percentiles de un rango deben combinar los sketches de cada día")
+    void testSummarize_MergesDailySketches() {
+        // ARRANGE
+        when(sketchRepository.findBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3)))
+                .thenReturn(List.of(sketch(LocalDate.of(2025, 1, 1), 10, 20, 30, 40, 50),
+                                    sketch(LocalDate.of(2025, 1, 2), 60, 70, 80, 90)));
+        when(pendingRepository.findTotalsBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3)))
+                .thenReturn(List.of(100.0)); // aún sin compactar
+
+        // ACT
+        QuantileSketch orderValues = salesRollupService.summarize(
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 1, 3, 0, 0)).getOrderValues();
+
+        // ASSERT
+        assertEquals(10, orderValues.count());
+        assertEquals(10.0, orderValues.quantile(0), 0.001);
+        assertEquals(100.0, orderValues.quantile(1), 0.001);
+        double median = orderValues.quantile(0.5);
+        assertTrue(median >= 50 && median <= 60);
+        verifyNoInteractions(saleRepository);
+    }
+
+    // ==================== HELPERS ====================
+
+    private static SalesSketchPending pending(Long id, LocalDate day, double total) {
+        SalesSketchPending pending = new SalesSketchPending(day, total);
+        pending.setId(id);
+        return pending;
+    }
+
+    private static SalesDailySketch sketch(LocalDate day, double... totals) {
+        QuantileSketch sketch = new QuantileSketch();
+        for (double total : totals) {
+            sketch.add(total);
+        }
+        return new SalesDailySketch(day, sketch.count(), sketch.toBytes());
+    }
+
+    private static StatusTotals status(String status, long count, double revenue) {
+        return new StatusTotals() {
+            public String getStatus() { return status; }
+            public Long getSaleCount() { return count; }
+            public Double getRevenue() { return revenue; }
+        };
+    }
+
+    private static ProductTotals product(Long id, String name, long quantity) {
+        return new ProductTotals() {
+            public Long getProductId() { return id; }
+            public String getProductName() { return name; }
+            public Long getQuantity() { return quantity; }
+            public Double getRevenue() { return 0.0; }
+        };
+    }
+}
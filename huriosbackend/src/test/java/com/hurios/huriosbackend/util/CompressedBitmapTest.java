@@ -0,0 +1,88 @@
+package com.hurios.huriosbackend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para CompressedBitmap
+ */
+@DisplayName("CompressedBitmap - Pruebas Unitarias")
+class CompressedBitmapTest {
+
+    @Test
+    @DisplayName("and, or y andCardinality deben coincidir con BitSet en bloques dispersos y densos")
+    void testOperations_MatchBitSet() {
+        // ARRANGE
+        Random random = new Random(7);
+        CompressedBitmap dense = new CompressedBitmap();
+        CompressedBitmap sparse = new CompressedBitmap();
+        BitSet denseSet = new BitSet();
+        BitSet sparseSet = new BitSet();
+        for (int i = 0; i < 200_000; i++) {
+            if (random.nextInt(3) != 0) {
+                dense.add(i);
+                denseSet.set(i);
+            }
+            if (random.nextInt(40) == 0) {
+                sparse.add(i);
+                sparseSet.set(i);
+            }
+        }
+
+        // ACT
+        CompressedBitmap and = dense.and(sparse);
+        CompressedBitmap or = dense.or(sparse);
+
+        // ASSERT
+        BitSet expectedAnd = (BitSet) denseSet.clone();
+        expectedAnd.and(sparseSet);
+        BitSet expectedOr = (BitSet) denseSet.clone();
+        expectedOr.or(sparseSet);
+        assertArrayEquals(expectedAnd.stream().toArray(), and.toArray());
+        assertEquals(expectedAnd.cardinality(), dense.andCardinality(sparse));
+        assertArrayEquals(expectedOr.stream().toArray(), or.toArray());
+    }
+
+    @Test
+    @DisplayName("Debe pasar de arreglo a mapa de bits y volver al agregar y quitar valores")
+    void testAddRemove_ContainerConversion() {
+        // ARRANGE
+        CompressedBitmap bitmap = new CompressedBitmap();
+
+        // ACT
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.add(i * 2);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            bitmap.remove(i * 2);
+        }
+
+        // ASSERT
+        assertEquals(5_000, bitmap.cardinality());
+        assertTrue(bitmap.contains(2));
+        assertFalse(bitmap.contains(4));
+        assertFalse(bitmap.contains(3));
+        assertArrayEquals(new int[]{6, 10, 14}, bitmap.page(1, 3));
+    }
+
+    @Test
+    @DisplayName("Una copia no debe compartir cambios con la original")
+    void testCopy_Independent() {
+        // ARRANGE
+        CompressedBitmap original = CompressedBitmap.of(1, 70_000, 5);
+
+        // ACT
+        CompressedBitmap copy = original.copy();
+        copy.add(9);
+        copy.remove(70_000);
+
+        // ASSERT
+        assertArrayEquals(new int[]{1, 5, 70_000}, original.toArray());
+        assertArrayEquals(new int[]{1, 5, 9}, copy.toArray());
+    }
+}
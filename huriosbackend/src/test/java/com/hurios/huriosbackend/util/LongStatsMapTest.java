@@ -0,0 +1,56 @@
+package com.hurios.huriosbackend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para LongStatsMap
+ */
+@DisplayName("LongStatsMap - Pruebas Unitarias")
+class LongStatsMapTest {
+
+    @Test
+    @DisplayName("Debe acumular por clave y conservar los valores al crecer")
+    void testAdd_Rehash() {
+        // ARRANGE
+        LongStatsMap map = new LongStatsMap(2);
+
+        // ACT
+        for (long id = 1; id <= 1000; id++) {
+            map.add(id, 1, id * 10);
+            map.add(id, 2, 5);
+        }
+
+        // ASSERT
+        assertEquals(1000, map.size());
+        assertEquals(3, map.count(500));
+        assertEquals(5005, map.sum(500));
+        assertEquals(0, map.count(1001));
+    }
+
+    @Test
+    @DisplayName("Merge de dos bloques debe dar el mismo ranking que un solo mapa")
+    void testMerge_Top() {
+        // ARRANGE
+        LongStatsMap left = new LongStatsMap();
+        LongStatsMap right = new LongStatsMap();
+        left.add(1, 5, 100);
+        left.add(2, 3, 900);
+        right.add(2, 3, 100);
+        right.add(3, 6, 50);
+
+        // ACT
+        LongStatsMap merged = left.merge(right);
+        List<LongStatsMap.Entry> byCount = merged.top(2, false);
+        List<LongStatsMap.Entry> bySum = merged.top(1, true);
+
+        // ASSERT
+        assertEquals(2L, byCount.get(0).getKey()); // 6 unidades, más suma que el 3
+        assertEquals(3L, byCount.get(1).getKey());
+        assertEquals(1000, bySum.get(0).getSum());
+    }
+}
@@ -0,0 +1,146 @@
+package com.hurios.huriosbackend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para MpmcRingBuffer
+ */
+@DisplayName("MpmcRingBuffer - Pruebas Unitarias")
+class MpmcRingBufferTest {
+
+    @Test
+    @DisplayName("Debe redondear la capacidad a potencia de 2 y rechazar al llenarse")
+    void testOffer_FullBuffer() {
+        // ARRANGE
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(3);
+
+        // ACT
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        // ASSERT
+        assertEquals(4, buffer.capacity());
+        assertEquals(4, buffer.size());
+        assertFalse(buffer.offer(99));
+    }
+
+    @Test
+    @DisplayName("Debe devolver los elementos en orden FIFO y null al vaciarse")
+    void testPoll_FifoOrder() {
+        // ARRANGE
+        MpmcRingBuffer<String> buffer = new MpmcRingBuffer<>(8);
+        buffer.offer("a");
+        buffer.offer("b");
+
+        // ACT & ASSERT
+        assertEquals("a", buffer.poll());
+        assertEquals("b", buffer.poll());
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    @DisplayName("poll con timeout debe esperar al productor y devolver null al vencer")
+    void testPollWithTimeout() throws Exception {
+        // ARRANGE
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(4);
+        ExecutorService producer = Executors.newSingleThreadExecutor();
+
+        // ACT
+        assertNull(buffer.poll(20, TimeUnit.MILLISECONDS));
+        producer.submit(() -> {
+            Thread.sleep(50);
+            return buffer.offer(7);
+        });
+        Integer item = buffer.poll(5, TimeUnit.SECONDS);
+        producer.shutdown();
+
+        // ASSERT
+        assertEquals(7, item);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    @DisplayName("drainTo debe mover como máximo la cantidad pedida")
+    void testDrainTo_RespectsMax() {
+        // ARRANGE
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(16);
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> target = new ArrayList<>();
+
+        // ACT
+        int moved = buffer.drainTo(target, 6);
+
+        // ASSERT
+        assertEquals(6, moved);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), target);
+        assertEquals(4, buffer.size());
+    }
+
+    @Test
+    @DisplayName("Con varios productores y consumidores no debe perder ni duplicar elementos")
+    void testConcurrentProducersAndConsumers() throws Exception {
+        // ARRANGE
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 5_000;
+        int total = producers * perProducer;
+        Set<Integer> received = ConcurrentHashMap.newKeySet();
+        AtomicInteger consumed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(producers + 2);
+        CountDownLatch done = new CountDownLatch(producers + 2);
+
+        // ACT
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        for (int c = 0; c < 2; c++) {
+            pool.execute(() -> {
+                while (consumed.get() < total) {
+                    Integer item = buffer.poll();
+                    if (item != null) {
+                        assertTrue(received.add(item));
+                        consumed.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        // ASSERT
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        pool.shutdownNow();
+        assertEquals(total, received.size());
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < total; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, received);
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package com.hurios.huriosbackend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para PrefixSumSeries
+ */
+@DisplayName("PrefixSumSeries - Pruebas Unitarias")
+class PrefixSumSeriesTest {
+
+    @Test
+    @DisplayName("El total de un rango debe ser la resta de dos acumulados")
+    void testRangeTotals() {
+        // ARRANGE
+        PrefixSumSeries series = new PrefixSumSeries(0);
+        series.add(10, 1, 100.0);
+        series.add(12, 2, 50.0);
+        series.add(15, 1, 25.0);
+        series.add(11, 1, 10.0); // atrasado
+
+        // ACT & ASSERT
+        assertEquals(0, series.countBefore(10));
+        assertEquals(2, series.countBefore(12));
+        assertEquals(3, series.countBefore(13) - series.countBefore(11));
+        assertEquals(60.0, series.amountBefore(13) - series.amountBefore(11), 0.001);
+        assertEquals(5, series.countBefore(100));
+        assertEquals(185.0, series.totalAmount(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Un valor anterior al origen debe mover el origen si no hay retención")
+    void testPrependBeforeOrigin() {
+        // ARRANGE
+        PrefixSumSeries series = new PrefixSumSeries(0);
+        series.add(20, 1, 10.0);
+
+        // ACT
+        series.add(5, 2, 4.0);
+
+        // ASSERT
+        assertTrue(series.covers(0));
+        assertEquals(0, series.countBefore(5));
+        assertEquals(2, series.countBefore(6));
+        assertEquals(3, series.countBefore(21));
+    }
+
+    @Test
+    @DisplayName("Con retención los buckets viejos deben pasar a la base sin cambiar los acumulados")
+    void testRetentionKeepsBase() {
+        // ARRANGE
+        PrefixSumSeries series = new PrefixSumSeries(10);
+        series.reset(100, 7, 70.0);
+
+        // ACT
+        for (long bucket = 100; bucket < 130; bucket++) {
+            series.add(bucket, 1, 1.0);
+        }
+
+        // ASSERT
+        assertFalse(series.covers(100));
+        assertTrue(series.covers(125));
+        assertEquals(7 + 25, series.countBefore(125));
+        assertEquals(7 + 30, series.totalCount());
+        assertEquals(2, series.countBefore(130) - series.countBefore(128));
+    }
+}
@@ -0,0 +1,65 @@
+package com.hurios.huriosbackend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para QuantileSketch
+ */
+@DisplayName("QuantileSketch - Pruebas Unitarias")
+class QuantileSketchTest {
+
+    @Test
+    @DisplayName("Los percentiles de sketches combinados deben aproximar los exactos")
+    void testMerge_ApproximatesExactQuantiles() {
+        // ARRANGE
+        Random random = new Random(7);
+        double[] all = new double[20_000];
+        QuantileSketch merged = new QuantileSketch();
+        for (int day = 0; day < 10; day++) {
+            QuantileSketch daily = new QuantileSketch();
+            for (int i = 0; i < 2_000; i++) {
+                double total = Math.exp(4 + random.nextGaussian()); // sesgada como los tickets
+                daily.add(total);
+                all[day * 2_000 + i] = total;
+            }
+            // ACT: cada día pasa por su forma serializada, como en la base
+            merged.merge(QuantileSketch.fromBytes(daily.toBytes()));
+        }
+        Arrays.sort(all);
+
+        // ASSERT
+        assertEquals(20_000, merged.count());
+        assertEquals(all[0], merged.min(), 0.0001);
+        assertEquals(all[all.length - 1], merged.max(), 0.0001);
+        for (double q : new double[] {0.5, 0.9, 0.99}) {
+            double exact = all[(int) (q * all.length)];
+            assertEquals(exact, merged.quantile(q), exact * 0.03, "p" + (int) (q * 100));
+        }
+    }
+
+    @Test
+    @DisplayName("La forma serializada debe ser compacta y un sketch vacío no debe dar valores")
+    void testSerialization_CompactAndEmpty() {
+        // ARRANGE
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 1; i <= 50_000; i++) {
+            sketch.add(i);
+        }
+
+        // ACT
+        byte[] bytes = sketch.toBytes();
+        QuantileSketch empty = QuantileSketch.fromBytes(new QuantileSketch().toBytes());
+
+        // ASSERT
+        assertTrue(bytes.length < 2_000, "tamaño: " + bytes.length);
+        assertEquals(50_000, QuantileSketch.fromBytes(bytes).count());
+        assertEquals(0, empty.count());
+        assertTrue(Double.isNaN(empty.quantile(0.5)));
+    }
+}
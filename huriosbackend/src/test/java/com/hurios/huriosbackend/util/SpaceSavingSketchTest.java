@@ -0,0 +1,76 @@
+package com.hurios.huriosbackend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para SpaceSavingSketch
+ */
+@DisplayName("SpaceSavingSketch - Pruebas Unitarias")
+class SpaceSavingSketchTest {
+
+    @Test
+    @DisplayName("Con lugar disponible los conteos deben ser exactos")
+    void testAdd_ExactUnderCapacity() {
+        // ARRANGE
+        SpaceSavingSketch sketch = new SpaceSavingSketch(10);
+
+        // ACT
+        sketch.add(1, "Casco", 5);
+        sketch.add(2, "Guantes", 3);
+        sketch.add(1, "Casco", 2);
+
+        // ASSERT
+        List<SpaceSavingSketch.Entry> top = sketch.top(2);
+        assertEquals(1, top.get(0).getKey());
+        assertEquals(7, top.get(0).getCount());
+        assertEquals(0, top.get(0).getError());
+        assertEquals(0, sketch.minCount());
+    }
+
+    @Test
+    @DisplayName("Lleno, una clave nueva debe reemplazar al mínimo y heredar su conteo como error")
+    void testAdd_ReplacesMinimum() {
+        // ARRANGE
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.add(1, "Casco", 5);
+        sketch.add(2, "Guantes", 3);
+
+        // ACT
+        sketch.add(3, "Lentes", 1);
+
+        // ASSERT
+        assertEquals(2, sketch.size());
+        SpaceSavingSketch.Entry replaced = sketch.top(2).get(1);
+        assertEquals(3, replaced.getKey());
+        assertEquals(4, replaced.getCount());
+        assertEquals(3, replaced.getError());
+    }
+
+    @Test
+    @DisplayName("Los productos frecuentes deben sobrevivir a muchas claves poco frecuentes")
+    void testAdd_HeavyHittersSurvive() {
+        // ARRANGE
+        SpaceSavingSketch sketch = new SpaceSavingSketch(20);
+
+        // ACT: 3 productos muy vendidos entre 5000 ventas sueltas de productos distintos
+        for (int i = 0; i < 5000; i++) {
+            sketch.add(1000 + i, null, 1);
+            if (i % 10 == 0) {
+                sketch.add(1, "A", 5);
+                sketch.add(2, "B", 4);
+                sketch.add(3, "C", 3);
+            }
+        }
+
+        // ASSERT
+        List<SpaceSavingSketch.Entry> top = sketch.top(3);
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(SpaceSavingSketch.Entry::getKey).toList());
+        assertTrue(top.get(0).getCount() - top.get(0).getError() <= 2500);
+        assertTrue(top.get(0).getCount() >= 2500);
+    }
+}
@@ -93,7 +93,11 @@ export function AdminProfile() {
             const endpoint = `${API_BASE}/export/${type}`;
             
             // Realizar petición fetch para obtener el archivo
-            const response = await fetch(endpoint);
+            const response = await fetch(endpoint, {
+                headers: {
+                    "Authorization": `Bearer ${getToken()}`,
+                },
+            });
             
             if (!response.ok) {
                 throw new Error('Error al exportar el archivo');